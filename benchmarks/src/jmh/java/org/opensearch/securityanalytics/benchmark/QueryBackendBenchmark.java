@@ -0,0 +1,72 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
+import org.opensearch.securityanalytics.rules.backend.OSQueryBuilderBackend;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of convertRule, one rule of the category per operation, of the query_string backend
+ * ({@link OSQueryBackend}) and of the query builder backend ({@link OSQueryBuilderBackend}). A parsed rule memoizes
+ * its parsed conditions, so every operation parses the rule from yaml first; compare with
+ * {@link SigmaRuleBenchmark#fromYaml()} for the share of that.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBackendBenchmark {
+
+    @Param(RuleCorpus.DEFAULT_CATEGORY)
+    public String category;
+
+    @Param({"query_string", "query_builder"})
+    public String backendType;
+
+    private OSQueryBackend backend;
+
+    private List<String> rules;
+
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        backend = "query_builder".equals(backendType)? new OSQueryBuilderBackend(category, true, true): new OSQueryBackend(category, true, true);
+        rules = new ArrayList<>();
+        for (String yaml: RuleCorpus.loadParseable(category)) {
+            try {
+                backend.convertRule(SigmaRule.fromYaml(yaml, false));
+                rules.add(yaml);
+            } catch (SigmaError | RuntimeException ignored) {
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Object> convertRule() throws SigmaError {
+        String yaml = rules.get(next);
+        next = (next + 1) % rules.size();
+        return backend.convertRule(SigmaRule.fromYaml(yaml, false));
+    }
+}
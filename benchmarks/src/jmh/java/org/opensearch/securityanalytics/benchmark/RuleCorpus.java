@@ -0,0 +1,120 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.benchmark;
+
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetection;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetectionItem;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The bundled Sigma rules, read from src/main/resources/rules. The build passes the directory in the
+ * security_analytics.rules.dir system property.
+ */
+public final class RuleCorpus {
+
+    public static final String RULES_DIR = "security_analytics.rules.dir";
+
+    /**
+     * The category the per-category benchmarks run with by default. The build runs them with every category of
+     * {@link #categories()} instead.
+     */
+    public static final String DEFAULT_CATEGORY = "windows";
+
+    private RuleCorpus() {
+    }
+
+    /**
+     * All rule categories, i.e. the sub-directories of the rules directory, in name order.
+     */
+    public static List<String> categories() throws IOException {
+        try (Stream<Path> dirs = Files.list(rulesDir())) {
+            return dirs.filter(Files::isDirectory).map(dir -> dir.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static Path rulesDir() {
+        return Path.of(System.getProperty(RULES_DIR, "src/main/resources/rules"));
+    }
+
+    /**
+     * Returns the yaml of every rule of the category, in file name order.
+     */
+    public static List<String> load(String category) throws IOException {
+        Path dir = rulesDir().resolve(category);
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).sorted().map(file -> {
+                try {
+                    return Files.readString(file, StandardCharsets.UTF_8);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns the yaml of every rule of the category which parses, so benchmarks only measure successful work.
+     */
+    public static List<String> loadParseable(String category) throws IOException {
+        List<String> parseable = new ArrayList<>();
+        for (String yaml: load(category)) {
+            try {
+                SigmaRule.fromYaml(yaml, false);
+                parseable.add(yaml);
+            } catch (SigmaError | RuntimeException ignored) {
+            }
+        }
+        return parseable;
+    }
+
+    public static List<SigmaRule> parse(List<String> yamls) throws SigmaError {
+        List<SigmaRule> rules = new ArrayList<>(yamls.size());
+        for (String yaml: yamls) {
+            rules.add(SigmaRule.fromYaml(yaml, false));
+        }
+        return rules;
+    }
+
+    /**
+     * Returns the original text of every string value in the detections of the rules, before modifiers are applied.
+     */
+    public static List<String> stringValues(List<SigmaRule> rules) {
+        List<String> values = new ArrayList<>();
+        for (SigmaRule rule: rules) {
+            for (SigmaDetection detection: rule.getDetection().getDetections().values()) {
+                collectStringValues(detection, values);
+            }
+        }
+        return values;
+    }
+
+    private static void collectStringValues(SigmaDetection detection, List<String> values) {
+        for (Either<SigmaDetectionItem, SigmaDetection> item: detection.getDetectionItems()) {
+            if (item.isLeft()) {
+                for (SigmaType value: item.getLeft().getValue()) {
+                    if (value instanceof SigmaString) {
+                        values.add(((SigmaString) value).getOriginal());
+                    }
+                }
+            } else {
+                collectStringValues(item.get(), values);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.benchmark;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaConditionError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetections;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of SigmaCondition.parsed, one condition of the category per operation. A SigmaCondition memoizes its
+ * parse result, so every operation constructs a fresh one from the condition string and the detections. Parse trees
+ * are cached by condition string, so after warmup this measures building the condition items from the tree.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigmaConditionBenchmark {
+
+    @Param(RuleCorpus.DEFAULT_CATEGORY)
+    public String category;
+
+    private final List<String> conditions = new ArrayList<>();
+
+    private final List<SigmaDetections> detections = new ArrayList<>();
+
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        for (SigmaRule rule: RuleCorpus.parse(RuleCorpus.loadParseable(category))) {
+            for (String condition: rule.getDetection().getCondition()) {
+                try {
+                    new SigmaCondition(condition, rule.getDetection()).parsed();
+                    conditions.add(condition);
+                    detections.add(rule.getDetection());
+                } catch (SigmaConditionError | RuntimeException ignored) {
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public Pair<ConditionItem, AggregationItem> parsed() throws SigmaConditionError {
+        int i = next;
+        next = (next + 1) % conditions.size();
+        return new SigmaCondition(conditions.get(i), detections.get(i)).parsed();
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.modifiers.SigmaModifier;
+import org.opensearch.securityanalytics.rules.modifiers.SigmaModifierFacade;
+import org.opensearch.securityanalytics.rules.objects.SigmaDetectionItem;
+import org.opensearch.securityanalytics.rules.types.SigmaNumber;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.types.SigmaType;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput of each Sigma modifier, one value per operation. String modifiers run over the string values of the
+ * whole rule corpus. Modifiers change their input in place, so every operation builds a fresh value; compare with
+ * {@link SigmaStringBenchmark#construct()} for the share of that.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigmaModifierBenchmark {
+
+    @Param({"contains", "startswith", "endswith", "base64", "base64offset", "wide", "windash", "re", "cidr", "all",
+            "lt", "lte", "gt", "gte"})
+    public String modifier;
+
+    @FunctionalInterface
+    private interface ValueFactory {
+        Either<SigmaType, List<SigmaType>> create(String value) throws SigmaError;
+    }
+
+    private SigmaModifier sigmaModifier;
+
+    private ValueFactory factory;
+
+    private List<String> values;
+
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        SigmaDetectionItem detectionItem = new SigmaDetectionItem(null, Collections.emptyList(),
+                List.of(new SigmaString("foobar")), null, null, false);
+        sigmaModifier = SigmaModifierFacade.sigmaModifier(SigmaModifierFacade.getModifier(modifier), detectionItem, Collections.emptyList());
+
+        List<String> corpus = new ArrayList<>();
+        for (String category: RuleCorpus.categories()) {
+            corpus.addAll(RuleCorpus.stringValues(RuleCorpus.parse(RuleCorpus.loadParseable(category))));
+        }
+
+        List<String> candidates;
+        switch (modifier) {
+            case "base64":
+            case "base64offset":
+            case "wide":
+                // these modifiers reject wildcards
+                candidates = new ArrayList<>();
+                for (String value: corpus) {
+                    if (value.indexOf('*') < 0 && value.indexOf('?') < 0) {
+                        candidates.add(value);
+                    }
+                }
+                factory = value -> Either.left(new SigmaString(value));
+                break;
+            case "re":
+                candidates = new ArrayList<>();
+                for (String value: corpus) {
+                    candidates.add(Pattern.quote(value));
+                }
+                factory = value -> Either.left(new SigmaString(value));
+                break;
+            case "cidr":
+                candidates = List.of("10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16", "127.0.0.0/8", "169.254.0.0/16");
+                factory = value -> Either.left(new SigmaString(value));
+                break;
+            case "lt":
+            case "lte":
+            case "gt":
+            case "gte":
+                candidates = List.of("0", "1", "4624", "65535", "2147483647");
+                factory = value -> Either.left(new SigmaNumber(Integer.parseInt(value)));
+                break;
+            case "all":
+                candidates = corpus;
+                // the modifier type checks for an ArrayList
+                factory = value -> Either.right(new ArrayList<>(List.of(new SigmaString(value), new SigmaString(value + "*"))));
+                break;
+            default:
+                candidates = corpus;
+                factory = value -> Either.left(new SigmaString(value));
+        }
+
+        values = new ArrayList<>();
+        for (String value: candidates) {
+            try {
+                sigmaModifier.apply(factory.create(value));
+                values.add(value);
+            } catch (SigmaError | RuntimeException ignored) {
+            }
+        }
+    }
+
+    @Benchmark
+    public List<SigmaType> apply() throws SigmaError {
+        String value = values.get(next);
+        next = (next + 1) % values.size();
+        return sigmaModifier.apply(factory.create(value));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of SigmaString construction and conversion, one string value of the detections of the category per
+ * operation. Conversion uses the escaping of OSQueryBackend.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigmaStringBenchmark {
+
+    @Param(RuleCorpus.DEFAULT_CATEGORY)
+    public String category;
+
+    private List<String> values;
+
+    private List<SigmaString> strings;
+
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        values = new ArrayList<>();
+        strings = new ArrayList<>();
+        for (String value: RuleCorpus.stringValues(RuleCorpus.parse(RuleCorpus.loadParseable(category)))) {
+            SigmaString string = new SigmaString(value);
+            try {
+                convert(string);
+                values.add(value);
+                strings.add(string);
+            } catch (SigmaValueError ignored) {
+            }
+        }
+    }
+
+    @Benchmark
+    public SigmaString construct() {
+        String value = values.get(next);
+        next = (next + 1) % values.size();
+        return new SigmaString(value);
+    }
+
+    @Benchmark
+    public String convert() throws SigmaValueError {
+        SigmaString string = strings.get(next);
+        next = (next + 1) % strings.size();
+        return convert(string);
+    }
+
+    private static String convert(SigmaString string) throws SigmaValueError {
+        return string.convert("\\", "*", "?", "/:\\+-=><!(){}[]^\"~*?", "&& ||", "");
+    }
+}
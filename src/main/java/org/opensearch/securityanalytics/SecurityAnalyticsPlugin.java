@@ -4,6 +4,7 @@
  */
 package org.opensearch.securityanalytics;
 
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Supplier;
@@ -19,6 +20,7 @@ import org.opensearch.common.settings.IndexScopedSettings;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.settings.SettingsFilter;
+import org.opensearch.common.util.concurrent.OpenSearchExecutors;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.env.Environment;
 import org.opensearch.env.NodeEnvironment;
@@ -31,30 +33,42 @@ import org.opensearch.script.ScriptService;
 import org.opensearch.securityanalytics.action.AckAlertsAction;
 import org.opensearch.securityanalytics.action.CreateIndexMappingsAction;
 import org.opensearch.securityanalytics.action.DeleteDetectorAction;
+import org.opensearch.securityanalytics.action.EvaluateRulesAction;
 import org.opensearch.securityanalytics.action.GetAlertsAction;
 import org.opensearch.securityanalytics.action.GetDetectorAction;
 import org.opensearch.securityanalytics.action.GetFindingsAction;
+import org.opensearch.securityanalytics.action.GetFindingsStatsAction;
 import org.opensearch.securityanalytics.action.GetIndexMappingsAction;
 import org.opensearch.securityanalytics.action.GetMappingsViewAction;
 import org.opensearch.securityanalytics.action.IndexDetectorAction;
+import org.opensearch.securityanalytics.action.DetectorCacheAction;
+import org.opensearch.securityanalytics.action.RuleCacheAction;
+import org.opensearch.securityanalytics.action.RuleUpdateTask;
 import org.opensearch.securityanalytics.action.SearchDetectorAction;
 import org.opensearch.securityanalytics.action.UpdateIndexMappingsAction;
 import org.opensearch.securityanalytics.mapper.MapperService;
 import org.opensearch.securityanalytics.resthandler.RestAcknowledgeAlertsAction;
 import org.opensearch.securityanalytics.resthandler.RestGetFindingsAction;
+import org.opensearch.securityanalytics.resthandler.RestGetFindingsStatsAction;
 import org.opensearch.securityanalytics.transport.TransportAcknowledgeAlertsAction;
 import org.opensearch.securityanalytics.transport.TransportCreateIndexMappingsAction;
 import org.opensearch.securityanalytics.transport.TransportGetFindingsAction;
+import org.opensearch.securityanalytics.transport.TransportGetFindingsStatsAction;
 import org.opensearch.securityanalytics.action.DeleteRuleAction;
 import org.opensearch.securityanalytics.action.IndexRuleAction;
 import org.opensearch.securityanalytics.action.SearchRuleAction;
 import org.opensearch.securityanalytics.model.Rule;
 import org.opensearch.securityanalytics.resthandler.RestDeleteDetectorAction;
 import org.opensearch.securityanalytics.resthandler.RestDeleteRuleAction;
+import org.opensearch.securityanalytics.resthandler.RestEvaluateRulesAction;
 import org.opensearch.securityanalytics.resthandler.RestIndexRuleAction;
+import org.opensearch.securityanalytics.resthandler.RestRuleCacheAction;
 import org.opensearch.securityanalytics.resthandler.RestSearchRuleAction;
 import org.opensearch.securityanalytics.transport.TransportDeleteRuleAction;
+import org.opensearch.securityanalytics.transport.TransportEvaluateRulesAction;
 import org.opensearch.securityanalytics.transport.TransportIndexRuleAction;
+import org.opensearch.securityanalytics.transport.TransportDetectorCacheAction;
+import org.opensearch.securityanalytics.transport.TransportRuleCacheAction;
 import org.opensearch.securityanalytics.transport.TransportSearchRuleAction;
 import org.opensearch.securityanalytics.transport.TransportUpdateIndexMappingsAction;
 import org.opensearch.securityanalytics.transport.TransportGetIndexMappingsAction;
@@ -75,9 +89,17 @@ import org.opensearch.securityanalytics.transport.TransportGetDetectorAction;
 import org.opensearch.securityanalytics.transport.TransportGetMappingsViewAction;
 import org.opensearch.securityanalytics.transport.TransportIndexDetectorAction;
 import org.opensearch.securityanalytics.transport.TransportSearchDetectorAction;
+import org.opensearch.securityanalytics.util.AggregationStateIndices;
+import org.opensearch.securityanalytics.util.CompiledRulesCache;
 import org.opensearch.securityanalytics.util.DetectorIndices;
+import org.opensearch.securityanalytics.util.DetectorCache;
+import org.opensearch.securityanalytics.util.RuleEvaluatorCache;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.RuleIndices;
 import org.opensearch.securityanalytics.util.RuleTopicIndices;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ExecutorBuilder;
+import org.opensearch.threadpool.FixedExecutorBuilder;
 import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.watcher.ResourceWatcherService;
 
@@ -91,6 +113,10 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
     public static final String DETECTOR_BASE_URI = PLUGINS_BASE_URI + "/detectors";
     public static final String RULE_BASE_URI = PLUGINS_BASE_URI + "/rules";
 
+    public static final String RULE_IMPORT_THREAD_POOL = "security_analytics_rule_import";
+
+    private static final String COMPILED_RULES_DIR = "security-analytics";
+
     private DetectorIndices detectorIndices;
 
     private RuleTopicIndices ruleTopicIndices;
@@ -99,6 +125,14 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
 
     private RuleIndices ruleIndices;
 
+    private RuleCache ruleCache;
+
+    private DetectorCache detectorCache;
+
+    private RuleEvaluatorCache ruleEvaluatorCache;
+
+    private AggregationStateIndices aggregationStateIndices;
+
     @Override
     public Collection<Object> createComponents(Client client,
                                                ClusterService clusterService,
@@ -114,8 +148,23 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
         detectorIndices = new DetectorIndices(client.admin(), clusterService, threadPool);
         ruleTopicIndices = new RuleTopicIndices(client, clusterService);
         mapperService = new MapperService(client.admin().indices());
-        ruleIndices = new RuleIndices(client, clusterService, threadPool);
-        return List.of(detectorIndices, ruleTopicIndices, ruleIndices, mapperService);
+        ruleIndices = new RuleIndices(client, clusterService, threadPool, new CompiledRulesCache(compiledRulesDir(nodeEnvironment)));
+        ruleCache = new RuleCache(client, clusterService, xContentRegistry, environment.settings());
+        aggregationStateIndices = new AggregationStateIndices(client, clusterService, xContentRegistry);
+        detectorCache = new DetectorCache(client, environment.settings());
+        ruleEvaluatorCache = new RuleEvaluatorCache(environment.settings());
+        return List.of(detectorIndices, ruleTopicIndices, ruleIndices, ruleCache, mapperService, aggregationStateIndices, detectorCache, ruleEvaluatorCache);
+    }
+
+    private static Path compiledRulesDir(NodeEnvironment nodeEnvironment) {
+        return nodeEnvironment.hasNodeFile()? nodeEnvironment.nodeDataPaths()[0].resolve(COMPILED_RULES_DIR): null;
+    }
+
+    @Override
+    public List<ExecutorBuilder<?>> getExecutorBuilders(Settings settings) {
+        return List.of(
+                new FixedExecutorBuilder(settings, RULE_IMPORT_THREAD_POOL, OpenSearchExecutors.allocatedProcessors(settings), 1000, "plugins.security_analytics.rule_import")
+        );
     }
 
     @Override
@@ -136,11 +185,14 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
                 new RestSearchDetectorAction(),
                 new RestDeleteDetectorAction(),
                 new RestGetFindingsAction(),
+                new RestGetFindingsStatsAction(),
                 new RestGetMappingsViewAction(),
                 new RestGetAlertsAction(),
                 new RestIndexRuleAction(),
                 new RestSearchRuleAction(),
-                new RestDeleteRuleAction()
+                new RestDeleteRuleAction(),
+                new RestEvaluateRulesAction(),
+                new RestRuleCacheAction()
         );
     }
 
@@ -153,10 +205,27 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
         );
     }
 
+    @Override
+    public List<NamedWriteableRegistry.Entry> getNamedWriteables() {
+        return List.of(
+                new NamedWriteableRegistry.Entry(Task.Status.class, RuleUpdateTask.Status.NAME, RuleUpdateTask.Status::new)
+        );
+    }
+
     @Override
     public List<Setting<?>> getSettings() {
         return List.of(
-                SecurityAnalyticsSettings.INDEX_TIMEOUT
+                SecurityAnalyticsSettings.INDEX_TIMEOUT,
+                SecurityAnalyticsSettings.RULE_BULK_MAX_DOCS,
+                SecurityAnalyticsSettings.RULE_BULK_MAX_BYTES,
+                SecurityAnalyticsSettings.RULE_BULK_MAX_IN_FLIGHT,
+                SecurityAnalyticsSettings.RULE_BULK_MAX_RETRIES,
+                SecurityAnalyticsSettings.DETECTOR_MAX_QUERIES_PER_MONITOR,
+                SecurityAnalyticsSettings.RULE_CACHE_MAX_ENTRIES,
+                SecurityAnalyticsSettings.DETECTOR_CACHE_MAX_ENTRIES,
+                SecurityAnalyticsSettings.DETECTOR_CACHE_EXPIRE_AFTER,
+                SecurityAnalyticsSettings.DETECTOR_UPDATE_MAX_CONCURRENCY,
+                SecurityAnalyticsSettings.DETECTOR_SHARED_MONITORS
         );
     }
 
@@ -173,10 +242,14 @@ public class SecurityAnalyticsPlugin extends Plugin implements ActionPlugin {
                 new ActionPlugin.ActionHandler<>(GetDetectorAction.INSTANCE, TransportGetDetectorAction.class),
                 new ActionPlugin.ActionHandler<>(SearchDetectorAction.INSTANCE, TransportSearchDetectorAction.class),
                 new ActionPlugin.ActionHandler<>(GetFindingsAction.INSTANCE, TransportGetFindingsAction.class),
+                new ActionPlugin.ActionHandler<>(GetFindingsStatsAction.INSTANCE, TransportGetFindingsStatsAction.class),
                 new ActionPlugin.ActionHandler<>(GetAlertsAction.INSTANCE, TransportGetAlertsAction.class),
                 new ActionPlugin.ActionHandler<>(IndexRuleAction.INSTANCE, TransportIndexRuleAction.class),
                 new ActionPlugin.ActionHandler<>(SearchRuleAction.INSTANCE, TransportSearchRuleAction.class),
-                new ActionPlugin.ActionHandler<>(DeleteRuleAction.INSTANCE, TransportDeleteRuleAction.class)
+                new ActionPlugin.ActionHandler<>(DeleteRuleAction.INSTANCE, TransportDeleteRuleAction.class),
+                new ActionPlugin.ActionHandler<>(EvaluateRulesAction.INSTANCE, TransportEvaluateRulesAction.class),
+                new ActionPlugin.ActionHandler<>(RuleCacheAction.INSTANCE, TransportRuleCacheAction.class),
+                new ActionPlugin.ActionHandler<>(DetectorCacheAction.INSTANCE, TransportDetectorCacheAction.class)
         );
     }
 }
\ No newline at end of file
@@ -9,8 +9,11 @@ import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.action.support.WriteRequest;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskId;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class DeleteRuleRequest extends ActionRequest {
     /**
@@ -47,6 +50,11 @@ public class DeleteRuleRequest extends ActionRequest {
         return null;
     }
 
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new RuleUpdateTask(id, type, action, getDescription(), parentTaskId, headers);
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeString(ruleId);
@@ -0,0 +1,17 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionType;
+
+public class DetectorCacheAction extends ActionType<DetectorCacheResponse> {
+
+    public static final DetectorCacheAction INSTANCE = new DetectorCacheAction();
+    public static final String NAME = "cluster:admin/opendistro/securityanalytics/detector/cache";
+
+    public DetectorCacheAction() {
+        super(NAME, DetectorCacheResponse::new);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.support.nodes.BaseNodesRequest;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.util.List;
+
+public class DetectorCacheRequest extends BaseNodesRequest<DetectorCacheRequest> {
+
+    /**
+     * the ids of the detectors to remove from the caches before reporting their stats.
+     */
+    private List<String> invalidateDetectorIds;
+
+    /**
+     * whether to clear the caches before reporting their stats.
+     */
+    private boolean invalidateAll;
+
+    public DetectorCacheRequest(List<String> invalidateDetectorIds, boolean invalidateAll) {
+        super((String[]) null);
+        this.invalidateDetectorIds = invalidateDetectorIds;
+        this.invalidateAll = invalidateAll;
+    }
+
+    public DetectorCacheRequest(StreamInput sin) throws IOException {
+        super(sin);
+        this.invalidateDetectorIds = sin.readStringList();
+        this.invalidateAll = sin.readBoolean();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeStringCollection(invalidateDetectorIds);
+        out.writeBoolean(invalidateAll);
+    }
+
+    public List<String> getInvalidateDetectorIds() {
+        return invalidateDetectorIds;
+    }
+
+    public boolean isInvalidateAll() {
+        return invalidateAll;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+public class DetectorCacheResponse extends BaseNodesResponse<DetectorCacheNodeResponse> implements ToXContentObject {
+
+    private static final String NODES_FIELD = "nodes";
+
+    public DetectorCacheResponse(ClusterName clusterName, List<DetectorCacheNodeResponse> nodes, List<FailedNodeException> failures) {
+        super(clusterName, nodes, failures);
+    }
+
+    public DetectorCacheResponse(StreamInput sin) throws IOException {
+        super(sin);
+    }
+
+    @Override
+    protected List<DetectorCacheNodeResponse> readNodesFrom(StreamInput in) throws IOException {
+        return in.readList(DetectorCacheNodeResponse::new);
+    }
+
+    @Override
+    protected void writeNodesTo(StreamOutput out, List<DetectorCacheNodeResponse> nodes) throws IOException {
+        out.writeList(nodes);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject().startObject(NODES_FIELD);
+        for (DetectorCacheNodeResponse node: getNodes()) {
+            node.toXContent(builder, params);
+        }
+        return builder.endObject().endObject();
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionType;
+
+public class EvaluateRulesAction extends ActionType<EvaluateRulesResponse> {
+
+    public static final EvaluateRulesAction INSTANCE = new EvaluateRulesAction();
+    public static final String NAME = "cluster:admin/opendistro/securityanalytics/detector/rules/evaluate";
+
+    public EvaluateRulesAction() {
+        super(NAME, EvaluateRulesResponse::new);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+public class EvaluateRulesRequest extends ActionRequest {
+
+    public static final String DETECTOR_ID = "detector_id";
+    public static final String DOCUMENTS_FIELD = "documents";
+
+    private String detectorId;
+
+    private List<Map<String, Object>> documents;
+
+    public EvaluateRulesRequest(String detectorId, List<Map<String, Object>> documents) {
+        super();
+        this.detectorId = detectorId;
+        this.documents = documents;
+    }
+
+    public EvaluateRulesRequest(StreamInput sin) throws IOException {
+        this(sin.readString(),
+             sin.readList(StreamInput::readMap));
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if (detectorId == null || detectorId.length() == 0) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s is missing", DETECTOR_ID), validationException);
+        }
+        if (documents == null || documents.isEmpty()) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "%s list cannot be empty", DOCUMENTS_FIELD), validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(detectorId);
+        out.writeCollection(documents, StreamOutput::writeMap);
+    }
+
+    public String getDetectorId() {
+        return detectorId;
+    }
+
+    public List<Map<String, Object>> getDocuments() {
+        return documents;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionResponse;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.securityanalytics.rules.engine.AggregationFinding;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.opensearch.securityanalytics.util.RestHandlerUtils._ID;
+
+public class EvaluateRulesResponse extends ActionResponse implements ToXContentObject {
+
+    private static final String RULES_EVALUATED_FIELD = "rules_evaluated";
+    private static final String SKIPPED_RULES_FIELD = "skipped_rules";
+    private static final String RESULTS_FIELD = "results";
+    private static final String DOCUMENT_INDEX_FIELD = "document";
+    private static final String MATCHED_RULES_FIELD = "matched_rules";
+    private static final String TRIGGERS_FIELD = "triggers";
+    private static final String AGGREGATION_FINDINGS_FIELD = "aggregation_findings";
+
+    private String detectorId;
+
+    private Integer rulesEvaluated;
+
+    private List<String> skippedRules;
+
+    private List<List<String>> matchedRules;
+
+    private List<List<String>> firedTriggers;
+
+    private List<AggregationFinding> aggregationFindings;
+
+    public EvaluateRulesResponse(String detectorId, Integer rulesEvaluated, List<String> skippedRules, List<List<String>> matchedRules,
+                                 List<List<String>> firedTriggers, List<AggregationFinding> aggregationFindings) {
+        super();
+        this.detectorId = detectorId;
+        this.rulesEvaluated = rulesEvaluated;
+        this.skippedRules = skippedRules;
+        this.matchedRules = matchedRules;
+        this.firedTriggers = firedTriggers;
+        this.aggregationFindings = aggregationFindings;
+    }
+
+    public EvaluateRulesResponse(StreamInput sin) throws IOException {
+        this(sin.readString(),
+             sin.readInt(),
+             sin.readStringList(),
+             sin.readList(StreamInput::readStringList),
+             sin.readList(StreamInput::readStringList),
+             sin.readList(AggregationFinding::new));
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(detectorId);
+        out.writeInt(rulesEvaluated);
+        out.writeStringCollection(skippedRules);
+        out.writeCollection(matchedRules, StreamOutput::writeStringCollection);
+        out.writeCollection(firedTriggers, StreamOutput::writeStringCollection);
+        out.writeList(aggregationFindings);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject()
+                .field(_ID, detectorId)
+                .field(RULES_EVALUATED_FIELD, rulesEvaluated)
+                .field(SKIPPED_RULES_FIELD, skippedRules)
+                .startArray(RESULTS_FIELD);
+        for (int i = 0; i < matchedRules.size(); ++i) {
+            builder.startObject()
+                    .field(DOCUMENT_INDEX_FIELD, i)
+                    .field(MATCHED_RULES_FIELD, matchedRules.get(i))
+                    .field(TRIGGERS_FIELD, firedTriggers.get(i))
+                    .endObject();
+        }
+        builder.endArray()
+                .field(AGGREGATION_FINDINGS_FIELD, aggregationFindings);
+        return builder.endObject();
+    }
+
+    public String getDetectorId() {
+        return detectorId;
+    }
+
+    public Integer getRulesEvaluated() {
+        return rulesEvaluated;
+    }
+
+    public List<String> getSkippedRules() {
+        return skippedRules;
+    }
+
+    public List<List<String>> getMatchedRules() {
+        return matchedRules;
+    }
+
+    public List<List<String>> getFiredTriggers() {
+        return firedTriggers;
+    }
+
+    public List<AggregationFinding> getAggregationFindings() {
+        return aggregationFindings;
+    }
+}
@@ -89,4 +89,31 @@ public class FindingDto implements ToXContentObject, Writeable {
         out.writeList(documents);
     }
 
+    public String getDetectorId() {
+        return detectorId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<String> getRelatedDocIds() {
+        return relatedDocIds;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public List<DocLevelQuery> getDocLevelQueries() {
+        return docLevelQueries;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public List<FindingDocument> getDocuments() {
+        return documents;
+    }
 }
@@ -5,6 +5,7 @@
 package org.opensearch.securityanalytics.action;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Locale;
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
@@ -23,6 +24,12 @@ public class GetAlertsRequest extends ActionRequest {
     private Table table;
     private String severityLevel;
     private String alertState;
+    private String cursor;
+    /**
+     * the time range of the start time of the alerts, either bound may be null.
+     */
+    private Instant startTime;
+    private Instant endTime;
 
     public static final String DETECTOR_ID = "detector_id";
 
@@ -32,6 +39,19 @@ public class GetAlertsRequest extends ActionRequest {
             Table table,
             String severityLevel,
             String alertState
+    ) {
+        this(detectorId, detectorType, table, severityLevel, alertState, null, null, null);
+    }
+
+    public GetAlertsRequest(
+            String detectorId,
+            Detector.DetectorType detectorType,
+            Table table,
+            String severityLevel,
+            String alertState,
+            String cursor,
+            Instant startTime,
+            Instant endTime
     ) {
         super();
         this.detectorId = detectorId;
@@ -39,6 +59,9 @@ public class GetAlertsRequest extends ActionRequest {
         this.table = table;
         this.severityLevel = severityLevel;
         this.alertState = alertState;
+        this.cursor = cursor;
+        this.startTime = startTime;
+        this.endTime = endTime;
     }
     public GetAlertsRequest(StreamInput sin) throws IOException {
         this(
@@ -46,7 +69,10 @@ public class GetAlertsRequest extends ActionRequest {
                 sin.readBoolean() ? sin.readEnum(Detector.DetectorType.class) : null,
                 Table.readFrom(sin),
                 sin.readString(),
-                sin.readString()
+                sin.readString(),
+                sin.readOptionalString(),
+                sin.readOptionalInstant(),
+                sin.readOptionalInstant()
         );
     }
 
@@ -58,6 +84,9 @@ public class GetAlertsRequest extends ActionRequest {
                             "At least one of detector type or detector id needs to be passed", DETECTOR_ID),
                     validationException);
         }
+        if (startTime != null && endTime != null && startTime.isAfter(endTime)) {
+            validationException = addValidationError("start_time must not be after end_time", validationException);
+        }
         return validationException;
     }
 
@@ -71,6 +100,9 @@ public class GetAlertsRequest extends ActionRequest {
         table.writeTo(out);
         out.writeString(severityLevel);
         out.writeString(alertState);
+        out.writeOptionalString(cursor);
+        out.writeOptionalInstant(startTime);
+        out.writeOptionalInstant(endTime);
     }
 
     public String getDetectorId() {
@@ -92,4 +124,16 @@ public class GetAlertsRequest extends ActionRequest {
     public Detector.DetectorType getDetectorType() {
         return detectorType;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
 }
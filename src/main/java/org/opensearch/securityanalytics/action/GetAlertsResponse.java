@@ -22,20 +22,28 @@ public class GetAlertsResponse extends ActionResponse implements ToXContentObjec
 
     private static final String ALERTS_FIELD = "alerts";
     private static final String TOTAL_ALERTS_FIELD = "total_alerts";
+    private static final String NEXT_CURSOR_FIELD = "next_cursor";
 
     private List<AlertDto> alerts;
     private Integer totalAlerts;
+    private String nextCursor;
 
     public GetAlertsResponse(List<AlertDto> alerts, Integer totalAlerts) {
+        this(alerts, totalAlerts, null);
+    }
+
+    public GetAlertsResponse(List<AlertDto> alerts, Integer totalAlerts, String nextCursor) {
         super();
         this.alerts = alerts;
         this.totalAlerts = totalAlerts;
+        this.nextCursor = nextCursor;
     }
 
     public GetAlertsResponse(StreamInput sin) throws IOException {
         this(
             Collections.unmodifiableList(sin.readList(AlertDto::new)),
-            sin.readInt()
+            sin.readInt(),
+            sin.readOptionalString()
         );
     }
 
@@ -43,6 +51,7 @@ public class GetAlertsResponse extends ActionResponse implements ToXContentObjec
     public void writeTo(StreamOutput out) throws IOException {
         out.writeCollection(this.alerts);
         out.writeInt(this.totalAlerts);
+        out.writeOptionalString(this.nextCursor);
     }
 
     @Override
@@ -50,6 +59,9 @@ public class GetAlertsResponse extends ActionResponse implements ToXContentObjec
         builder.startObject()
                 .field(ALERTS_FIELD, alerts)
                 .field(TOTAL_ALERTS_FIELD, totalAlerts);
+        if (nextCursor != null) {
+            builder.field(NEXT_CURSOR_FIELD, nextCursor);
+        }
         return builder.endObject();
     }
 
@@ -60,4 +72,8 @@ public class GetAlertsResponse extends ActionResponse implements ToXContentObjec
     public Integer getTotalAlerts() {
         return this.totalAlerts;
     }
+
+    public String getNextCursor() {
+        return this.nextCursor;
+    }
 }
\ No newline at end of file
@@ -5,7 +5,8 @@
 package org.opensearch.securityanalytics.action;
 
 import java.io.IOException;
-import java.util.Locale;
+import java.time.Instant;
+import java.util.List;
 import org.opensearch.action.ActionRequest;
 import org.opensearch.action.ActionRequestValidationException;
 import org.opensearch.common.io.stream.StreamInput;
@@ -21,6 +22,20 @@ public class GetFindingsRequest extends ActionRequest {
     private Detector.DetectorType detectorType;
     private String detectorId;
     private Table table;
+    private String cursor;
+    /**
+     * whether to return the documents matched by the findings.
+     */
+    private boolean includeDocuments;
+    /**
+     * the source fields of the documents to return, or null for the whole source.
+     */
+    private List<String> documentFields;
+    /**
+     * the time range of the findings, either bound may be null.
+     */
+    private Instant startTime;
+    private Instant endTime;
 
     public static final String DETECTOR_ID = "detector_id";
 
@@ -32,23 +47,49 @@ public class GetFindingsRequest extends ActionRequest {
         this(
             sin.readOptionalString(),
             sin.readBoolean() ? sin.readEnum(Detector.DetectorType.class) : null,
-            Table.readFrom(sin)
+            Table.readFrom(sin),
+            sin.readOptionalString(),
+            sin.readBoolean(),
+            sin.readOptionalStringList(),
+            sin.readOptionalInstant(),
+            sin.readOptionalInstant()
         );
     }
 
     public GetFindingsRequest(String detectorId, Detector.DetectorType detectorType, Table table) {
+        this(detectorId, detectorType, table, null);
+    }
+
+    public GetFindingsRequest(String detectorId, Detector.DetectorType detectorType, Table table, String cursor) {
+        this(detectorId, detectorType, table, cursor, true, null, null, null);
+    }
+
+    public GetFindingsRequest(
+            String detectorId,
+            Detector.DetectorType detectorType,
+            Table table,
+            String cursor,
+            boolean includeDocuments,
+            List<String> documentFields,
+            Instant startTime,
+            Instant endTime
+    ) {
         this.detectorId = detectorId;
         this.detectorType = detectorType;
         this.table = table;
+        this.cursor = cursor;
+        this.includeDocuments = includeDocuments;
+        this.documentFields = documentFields;
+        this.startTime = startTime;
+        this.endTime = endTime;
     }
 
     @Override
     public ActionRequestValidationException validate() {
+        // without a detector id or type the findings of every detector type are searched
         ActionRequestValidationException validationException = null;
-        if ((detectorId == null || detectorId.length() == 0) && detectorType == null) {
-            validationException = addValidationError(String.format(Locale.getDefault(),
-                            "At least one of detector type or detector id needs to be passed", DETECTOR_ID),
-                    validationException);
+        if (startTime != null && endTime != null && startTime.isAfter(endTime)) {
+            validationException = addValidationError("start_time must not be after end_time", validationException);
         }
         return validationException;
     }
@@ -63,6 +104,11 @@ public class GetFindingsRequest extends ActionRequest {
             out.writeBoolean(false);
         }
         table.writeTo(out);
+        out.writeOptionalString(cursor);
+        out.writeBoolean(includeDocuments);
+        out.writeOptionalStringCollection(documentFields);
+        out.writeOptionalInstant(startTime);
+        out.writeOptionalInstant(endTime);
     }
 
     public String getDetectorId() {
@@ -76,4 +122,24 @@ public class GetFindingsRequest extends ActionRequest {
     public Table getTable() {
         return table;
     }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public boolean isIncludeDocuments() {
+        return includeDocuments;
+    }
+
+    public List<String> getDocumentFields() {
+        return documentFields;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
 }
\ No newline at end of file
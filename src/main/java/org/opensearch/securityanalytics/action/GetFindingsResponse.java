@@ -8,6 +8,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import org.opensearch.action.ActionResponse;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
@@ -25,25 +26,51 @@ public class GetFindingsResponse extends ActionResponse implements ToXContentObj
 
     private static final String TOTAL_FINDINGS_FIELD = "total_findings";
     private static final String FINDINGS_FIELD = "findings";
+    private static final String NEXT_CURSOR_FIELD = "next_cursor";
+    private static final String TOOK_BY_DETECTOR_TYPE_FIELD = "took_by_detector_type";
 
     private Integer totalFindings;
     private List<FindingDto> findings;
+    private String nextCursor;
+    /**
+     * the time in millis the search of each detector type took, when the findings of several types are searched.
+     */
+    private Map<String, Long> tookByDetectorType;
 
     public GetFindingsResponse(Integer totalFindings, List<FindingDto> findings) {
+        this(totalFindings, findings, null);
+    }
+
+    public GetFindingsResponse(Integer totalFindings, List<FindingDto> findings, String nextCursor) {
+        this(totalFindings, findings, nextCursor, null);
+    }
+
+    public GetFindingsResponse(Integer totalFindings, List<FindingDto> findings, String nextCursor, Map<String, Long> tookByDetectorType) {
         super();
         this.totalFindings = totalFindings;
         this.findings = findings;
+        this.nextCursor = nextCursor;
+        this.tookByDetectorType = tookByDetectorType;
     }
 
     public GetFindingsResponse(StreamInput sin) throws IOException {
         this.totalFindings = sin.readOptionalInt();
-        Collections.unmodifiableList(sin.readList(FindingDto::new));
+        this.findings = Collections.unmodifiableList(sin.readList(FindingDto::new));
+        this.nextCursor = sin.readOptionalString();
+        this.tookByDetectorType = sin.readBoolean() ? sin.readMap(StreamInput::readString, StreamInput::readVLong) : null;
     }
 
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeOptionalInt(totalFindings);
         out.writeCollection(findings);
+        out.writeOptionalString(nextCursor);
+        if (tookByDetectorType != null) {
+            out.writeBoolean(true);
+            out.writeMap(tookByDetectorType, StreamOutput::writeString, StreamOutput::writeVLong);
+        } else {
+            out.writeBoolean(false);
+        }
     }
 
     @Override
@@ -51,6 +78,12 @@ public class GetFindingsResponse extends ActionResponse implements ToXContentObj
         builder.startObject()
                 .field(TOTAL_FINDINGS_FIELD, totalFindings)
                 .field(FINDINGS_FIELD, findings);
+        if (nextCursor != null) {
+            builder.field(NEXT_CURSOR_FIELD, nextCursor);
+        }
+        if (tookByDetectorType != null) {
+            builder.field(TOOK_BY_DETECTOR_TYPE_FIELD, tookByDetectorType);
+        }
         return builder.endObject();
     }
 
@@ -61,4 +94,12 @@ public class GetFindingsResponse extends ActionResponse implements ToXContentObj
     public List<FindingDto> getFindings() {
         return findings;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public Map<String, Long> getTookByDetectorType() {
+        return tookByDetectorType;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionType;
+
+public class GetFindingsStatsAction extends ActionType<GetFindingsStatsResponse> {
+
+    public static final GetFindingsStatsAction INSTANCE = new GetFindingsStatsAction();
+    public static final String NAME = "cluster:admin/opendistro/securityanalytics/findings/stats";
+
+    public GetFindingsStatsAction() {
+        super(NAME, GetFindingsStatsResponse::new);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Locale;
+import org.opensearch.action.ActionRequest;
+import org.opensearch.action.ActionRequestValidationException;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.securityanalytics.model.Detector;
+
+
+import static org.opensearch.action.ValidateActions.addValidationError;
+
+public class GetFindingsStatsRequest extends ActionRequest {
+
+    public static final String DEFAULT_INTERVAL = "1h";
+    public static final int DEFAULT_SIZE = 10;
+
+    private String detectorId;
+    private Detector.DetectorType detectorType;
+    private Instant startTime;
+    private Instant endTime;
+    /**
+     * the fixed interval of the timeline buckets.
+     */
+    private String interval;
+    /**
+     * the maximum number of rule and tag buckets.
+     */
+    private int size;
+
+    public GetFindingsStatsRequest(
+            String detectorId,
+            Detector.DetectorType detectorType,
+            Instant startTime,
+            Instant endTime,
+            String interval,
+            int size
+    ) {
+        super();
+        this.detectorId = detectorId;
+        this.detectorType = detectorType;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.interval = interval;
+        this.size = size;
+    }
+
+    public GetFindingsStatsRequest(StreamInput sin) throws IOException {
+        this(
+                sin.readOptionalString(),
+                sin.readBoolean() ? sin.readEnum(Detector.DetectorType.class) : null,
+                sin.readOptionalInstant(),
+                sin.readOptionalInstant(),
+                sin.readString(),
+                sin.readVInt()
+        );
+    }
+
+    @Override
+    public ActionRequestValidationException validate() {
+        ActionRequestValidationException validationException = null;
+        if ((detectorId == null || detectorId.length() == 0) && detectorType == null) {
+            validationException = addValidationError("At least one of detector type or detector id needs to be passed", validationException);
+        }
+        if (startTime != null && endTime != null && startTime.isAfter(endTime)) {
+            validationException = addValidationError("start_time must not be after end_time", validationException);
+        }
+        try {
+            TimeValue.parseTimeValue(interval, "interval");
+        } catch (RuntimeException e) {
+            validationException = addValidationError(String.format(Locale.getDefault(), "Invalid interval [%s]", interval), validationException);
+        }
+        if (size < 1) {
+            validationException = addValidationError("size must be positive", validationException);
+        }
+        return validationException;
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeOptionalString(detectorId);
+        if (detectorType != null) {
+            out.writeBoolean(true);
+            out.writeEnum(detectorType);
+        } else {
+            out.writeBoolean(false);
+        }
+        out.writeOptionalInstant(startTime);
+        out.writeOptionalInstant(endTime);
+        out.writeString(interval);
+        out.writeVInt(size);
+    }
+
+    public String getDetectorId() {
+        return detectorId;
+    }
+
+    public Detector.DetectorType getDetectorType() {
+        return detectorType;
+    }
+
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    public Instant getEndTime() {
+        return endTime;
+    }
+
+    public String getInterval() {
+        return interval;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
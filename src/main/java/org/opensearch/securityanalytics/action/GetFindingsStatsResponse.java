@@ -0,0 +1,142 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import java.io.IOException;
+import java.util.List;
+import org.opensearch.action.ActionResponse;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+public class GetFindingsStatsResponse extends ActionResponse implements ToXContentObject {
+
+    private static final String TOTAL_FINDINGS_FIELD = "total_findings";
+    private static final String AFFECTED_DOCUMENTS_FIELD = "affected_documents";
+    private static final String RULES_FIELD = "rules";
+    private static final String SEVERITIES_FIELD = "severities";
+    private static final String TAGS_FIELD = "tags";
+    private static final String TIMELINE_FIELD = "timeline";
+
+    private long totalFindings;
+    /**
+     * approximate number of distinct documents the findings relate to.
+     */
+    private long affectedDocuments;
+    private List<StatsBucket> rules;
+    private List<StatsBucket> severities;
+    private List<StatsBucket> tags;
+    private List<StatsBucket> timeline;
+
+    public GetFindingsStatsResponse(long totalFindings, long affectedDocuments, List<StatsBucket> rules, List<StatsBucket> severities, List<StatsBucket> tags, List<StatsBucket> timeline) {
+        super();
+        this.totalFindings = totalFindings;
+        this.affectedDocuments = affectedDocuments;
+        this.rules = rules;
+        this.severities = severities;
+        this.tags = tags;
+        this.timeline = timeline;
+    }
+
+    public GetFindingsStatsResponse(StreamInput sin) throws IOException {
+        this(
+                sin.readVLong(),
+                sin.readVLong(),
+                sin.readList(StatsBucket::new),
+                sin.readList(StatsBucket::new),
+                sin.readList(StatsBucket::new),
+                sin.readList(StatsBucket::new)
+        );
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeVLong(totalFindings);
+        out.writeVLong(affectedDocuments);
+        out.writeList(rules);
+        out.writeList(severities);
+        out.writeList(tags);
+        out.writeList(timeline);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        return builder.startObject()
+                .field(TOTAL_FINDINGS_FIELD, totalFindings)
+                .field(AFFECTED_DOCUMENTS_FIELD, affectedDocuments)
+                .field(RULES_FIELD, rules)
+                .field(SEVERITIES_FIELD, severities)
+                .field(TAGS_FIELD, tags)
+                .field(TIMELINE_FIELD, timeline)
+                .endObject();
+    }
+
+    public long getTotalFindings() {
+        return totalFindings;
+    }
+
+    public long getAffectedDocuments() {
+        return affectedDocuments;
+    }
+
+    public List<StatsBucket> getRules() {
+        return rules;
+    }
+
+    public List<StatsBucket> getSeverities() {
+        return severities;
+    }
+
+    public List<StatsBucket> getTags() {
+        return tags;
+    }
+
+    public List<StatsBucket> getTimeline() {
+        return timeline;
+    }
+
+    public static class StatsBucket implements Writeable, ToXContentObject {
+
+        private static final String KEY_FIELD = "key";
+        private static final String COUNT_FIELD = "count";
+
+        private final String key;
+
+        private final long count;
+
+        public StatsBucket(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+
+        public StatsBucket(StreamInput sin) throws IOException {
+            this(sin.readString(), sin.readVLong());
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(key);
+            out.writeVLong(count);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            return builder.startObject()
+                    .field(KEY_FIELD, key)
+                    .field(COUNT_FIELD, count)
+                    .endObject();
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+}
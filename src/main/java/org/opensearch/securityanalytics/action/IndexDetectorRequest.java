@@ -13,6 +13,7 @@ import org.opensearch.rest.RestRequest;
 import org.opensearch.securityanalytics.model.Detector;
 
 import java.io.IOException;
+import java.util.List;
 
 public class IndexDetectorRequest extends ActionRequest {
 
@@ -24,23 +25,40 @@ public class IndexDetectorRequest extends ActionRequest {
 
     private Detector detector;
 
+    /**
+     * ids of the rules of the detector which were updated, so their queries are converted again even though the
+     * detector still uses the same rules.
+     */
+    private List<String> updatedRuleIds;
+
     public IndexDetectorRequest(
             String detectorId,
             WriteRequest.RefreshPolicy refreshPolicy,
             RestRequest.Method method,
             Detector detector) {
+        this(detectorId, refreshPolicy, method, detector, List.of());
+    }
+
+    public IndexDetectorRequest(
+            String detectorId,
+            WriteRequest.RefreshPolicy refreshPolicy,
+            RestRequest.Method method,
+            Detector detector,
+            List<String> updatedRuleIds) {
         super();
         this.detectorId = detectorId;
         this.refreshPolicy = refreshPolicy;
         this.method = method;
         this.detector = detector;
+        this.updatedRuleIds = updatedRuleIds;
     }
 
     public IndexDetectorRequest(StreamInput sin) throws IOException {
         this(sin.readString(),
              WriteRequest.RefreshPolicy.readFrom(sin),
              sin.readEnum(RestRequest.Method.class),
-             Detector.readFrom(sin));
+             Detector.readFrom(sin),
+             sin.readStringList());
     }
 
     @Override
@@ -54,6 +72,7 @@ public class IndexDetectorRequest extends ActionRequest {
         refreshPolicy.writeTo(out);
         out.writeEnum(method);
         detector.writeTo(out);
+        out.writeStringCollection(updatedRuleIds);
     }
 
     public String getDetectorId() {
@@ -71,4 +90,8 @@ public class IndexDetectorRequest extends ActionRequest {
     public WriteRequest.RefreshPolicy getRefreshPolicy() {
         return refreshPolicy;
     }
+
+    public List<String> getUpdatedRuleIds() {
+        return updatedRuleIds;
+    }
 }
\ No newline at end of file
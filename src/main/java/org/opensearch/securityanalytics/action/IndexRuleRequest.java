@@ -10,8 +10,11 @@ import org.opensearch.action.support.WriteRequest;
 import org.opensearch.common.io.stream.StreamInput;
 import org.opensearch.common.io.stream.StreamOutput;
 import org.opensearch.rest.RestRequest;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskId;
 
 import java.io.IOException;
+import java.util.Map;
 
 public class IndexRuleRequest extends ActionRequest {
 
@@ -77,6 +80,11 @@ public class IndexRuleRequest extends ActionRequest {
         return null;
     }
 
+    @Override
+    public Task createTask(long id, String type, String action, TaskId parentTaskId, Map<String, String> headers) {
+        return new RuleUpdateTask(id, type, action, getDescription(), parentTaskId, headers);
+    }
+
     @Override
     public void writeTo(StreamOutput out) throws IOException {
         out.writeString(ruleId);
@@ -0,0 +1,17 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.ActionType;
+
+public class RuleCacheAction extends ActionType<RuleCacheResponse> {
+
+    public static final RuleCacheAction INSTANCE = new RuleCacheAction();
+    public static final String NAME = "cluster:admin/opendistro/securityanalytics/rule/cache";
+
+    public RuleCacheAction() {
+        super(NAME, RuleCacheResponse::new);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.support.nodes.BaseNodeResponse;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentFragment;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+
+public class RuleCacheNodeResponse extends BaseNodeResponse implements ToXContentFragment {
+
+    private static final String COUNT_FIELD = "count";
+    private static final String HITS_FIELD = "hits";
+    private static final String MISSES_FIELD = "misses";
+    private static final String EVICTIONS_FIELD = "evictions";
+
+    private final long count;
+
+    private final long hits;
+
+    private final long misses;
+
+    private final long evictions;
+
+    public RuleCacheNodeResponse(DiscoveryNode node, long count, long hits, long misses, long evictions) {
+        super(node);
+        this.count = count;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public RuleCacheNodeResponse(StreamInput sin) throws IOException {
+        super(sin);
+        this.count = sin.readVLong();
+        this.hits = sin.readVLong();
+        this.misses = sin.readVLong();
+        this.evictions = sin.readVLong();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeVLong(count);
+        out.writeVLong(hits);
+        out.writeVLong(misses);
+        out.writeVLong(evictions);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        return builder.startObject(getNode().getId())
+                .field(COUNT_FIELD, count)
+                .field(HITS_FIELD, hits)
+                .field(MISSES_FIELD, misses)
+                .field(EVICTIONS_FIELD, evictions)
+                .endObject();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+}
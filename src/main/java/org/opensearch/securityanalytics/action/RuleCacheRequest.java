@@ -0,0 +1,52 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.support.nodes.BaseNodesRequest;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.util.List;
+
+public class RuleCacheRequest extends BaseNodesRequest<RuleCacheRequest> {
+
+    /**
+     * the ids of the rules to remove from the caches before reporting their stats.
+     */
+    private List<String> invalidateRuleIds;
+
+    /**
+     * whether to clear the caches before reporting their stats.
+     */
+    private boolean invalidateAll;
+
+    public RuleCacheRequest(List<String> invalidateRuleIds, boolean invalidateAll) {
+        super((String[]) null);
+        this.invalidateRuleIds = invalidateRuleIds;
+        this.invalidateAll = invalidateAll;
+    }
+
+    public RuleCacheRequest(StreamInput sin) throws IOException {
+        super(sin);
+        this.invalidateRuleIds = sin.readStringList();
+        this.invalidateAll = sin.readBoolean();
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        super.writeTo(out);
+        out.writeStringCollection(invalidateRuleIds);
+        out.writeBoolean(invalidateAll);
+    }
+
+    public List<String> getInvalidateRuleIds() {
+        return invalidateRuleIds;
+    }
+
+    public boolean isInvalidateAll() {
+        return invalidateAll;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.nodes.BaseNodesResponse;
+import org.opensearch.cluster.ClusterName;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.List;
+
+public class RuleCacheResponse extends BaseNodesResponse<RuleCacheNodeResponse> implements ToXContentObject {
+
+    private static final String NODES_FIELD = "nodes";
+
+    public RuleCacheResponse(ClusterName clusterName, List<RuleCacheNodeResponse> nodes, List<FailedNodeException> failures) {
+        super(clusterName, nodes, failures);
+    }
+
+    public RuleCacheResponse(StreamInput sin) throws IOException {
+        super(sin);
+    }
+
+    @Override
+    protected List<RuleCacheNodeResponse> readNodesFrom(StreamInput in) throws IOException {
+        return in.readList(RuleCacheNodeResponse::new);
+    }
+
+    @Override
+    protected void writeNodesTo(StreamOutput out, List<RuleCacheNodeResponse> nodes) throws IOException {
+        out.writeList(nodes);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject().startObject(NODES_FIELD);
+        for (RuleCacheNodeResponse node: getNodes()) {
+            node.toXContent(builder, params);
+        }
+        return builder.endObject().endObject();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.tasks.CancellableTask;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskId;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The task of a rule update or delete. Tracks the progress of updating the detectors using the rule, which the
+ * tasks api reports as the task status. Cancelling the task stops starting new detector updates; the updates in
+ * flight run to completion.
+ */
+public class RuleUpdateTask extends CancellableTask {
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final AtomicInteger updated = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public RuleUpdateTask(long id, String type, String action, String description, TaskId parentTaskId, Map<String, String> headers) {
+        super(id, type, action, description, parentTaskId, headers);
+    }
+
+    @Override
+    public boolean shouldCancelChildrenOnCancellation() {
+        // a detector update is not cancellable, it would leave the detector with only some of its monitors updated
+        return false;
+    }
+
+    public void addDetectors(int count) {
+        total.addAndGet(count);
+    }
+
+    public void onDetectorUpdated() {
+        updated.incrementAndGet();
+    }
+
+    public void onDetectorFailed() {
+        failed.incrementAndGet();
+    }
+
+    @Override
+    public Status getStatus() {
+        return new Status(total.get(), updated.get(), failed.get());
+    }
+
+    public static class Status implements Task.Status {
+
+        public static final String NAME = "security_analytics_rule_update";
+
+        private static final String TOTAL_FIELD = "detectors";
+        private static final String UPDATED_FIELD = "updated";
+        private static final String FAILED_FIELD = "failed";
+
+        private final int total;
+
+        private final int updated;
+
+        private final int failed;
+
+        public Status(int total, int updated, int failed) {
+            this.total = total;
+            this.updated = updated;
+            this.failed = failed;
+        }
+
+        public Status(StreamInput sin) throws IOException {
+            this(sin.readVInt(), sin.readVInt(), sin.readVInt());
+        }
+
+        @Override
+        public String getWriteableName() {
+            return NAME;
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVInt(total);
+            out.writeVInt(updated);
+            out.writeVInt(failed);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            return builder.startObject()
+                    .field(TOTAL_FIELD, total)
+                    .field(UPDATED_FIELD, updated)
+                    .field(FAILED_FIELD, failed)
+                    .endObject();
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getUpdated() {
+            return updated;
+        }
+
+        public int getFailed() {
+            return failed;
+        }
+    }
+}
@@ -7,31 +7,52 @@ package org.opensearch.securityanalytics.alerts;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.GroupedActionListener;
+import org.opensearch.action.support.IndicesOptions;
 import org.opensearch.action.support.WriteRequest;
 import org.opensearch.client.Client;
 import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.commons.alerting.AlertingPluginInterface;
 import org.opensearch.commons.alerting.action.AcknowledgeAlertRequest;
 import org.opensearch.commons.alerting.action.AcknowledgeAlertResponse;
 import org.opensearch.commons.alerting.action.GetAlertsRequest;
 import org.opensearch.commons.alerting.model.Alert;
 import org.opensearch.commons.alerting.model.Table;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.Operator;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.securityanalytics.action.AckAlertsResponse;
 import org.opensearch.securityanalytics.action.AlertDto;
 import org.opensearch.securityanalytics.action.GetAlertsResponse;
-import org.opensearch.securityanalytics.action.GetDetectorAction;
-import org.opensearch.securityanalytics.action.GetDetectorRequest;
-import org.opensearch.securityanalytics.action.GetDetectorResponse;
 import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.DetectorCache;
+import org.opensearch.securityanalytics.util.DetectorMetadata;
+import org.opensearch.securityanalytics.util.SearchCursor;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
+import org.opensearch.securityanalytics.util.SharedMonitorIds;
+import org.opensearch.securityanalytics.util.SharedMonitors;
+import org.opensearch.securityanalytics.util.TimeRangeIndices;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -39,17 +60,34 @@ import java.util.stream.Collectors;
  */
 public class AlertsService {
 
+    private static final String ALL = "ALL";
+    private static final String ID_FIELD = "id";
+    private static final String MONITOR_ID_FIELD = "monitor_id";
+    private static final String MONITOR_NAME_FIELD = "monitor_name";
+    private static final String TRIGGER_ID_FIELD = "trigger_id";
+    private static final String TRIGGER_NAME_FIELD = "trigger_name";
+    private static final String SEVERITY_FIELD = "severity";
+    private static final String STATE_FIELD = "state";
+    private static final String START_TIME_FIELD = "start_time";
+
     public AlertsService() {
     }
 
     private Client client;
 
+    private DetectorCache detectorCache;
+
     private static final Logger log = LogManager.getLogger(AlertsService.class);
 
     public AlertsService(Client client) {
         this.client = client;
     }
 
+    public AlertsService(Client client, DetectorCache detectorCache) {
+        this.client = client;
+        this.detectorCache = detectorCache;
+    }
+
     /**
      * Searches alerts generated by specific Detector
      *
@@ -64,13 +102,44 @@ public class AlertsService {
             String alertState,
             ActionListener<GetAlertsResponse> listener
     ) {
-        this.client.execute(GetDetectorAction.INSTANCE, new GetDetectorRequest(detectorId, -3L), new ActionListener<>() {
+        getAlertsByDetectorId(detectorId, null, table, null, null, severityLevel, alertState, listener);
+    }
+
+    /**
+     * Searches alerts generated by specific Detector, resuming a previous search
+     *
+     * @param detectorId id of Detector
+     * @param cursor     cursor of the previous page, or null to start at the start index of the table
+     * @param table      group of search related parameters
+     * @param startTime  start of the time range of the start time of the alerts, or null
+     * @param endTime    end of the time range of the start time of the alerts, or null
+     * @param listener   ActionListener to get notified on response or error
+     */
+    public void getAlertsByDetectorId(
+            String detectorId,
+            String cursor,
+            Table table,
+            Instant startTime,
+            Instant endTime,
+            String severityLevel,
+            String alertState,
+            ActionListener<GetAlertsResponse> listener
+    ) {
+        getDetector(detectorId, new ActionListener<>() {
 
             @Override
-            public void onResponse(GetDetectorResponse getDetectorResponse) {
+            public void onResponse(DetectorMetadata detector) {
                 // Get all monitor ids from detector
-                Detector detector = getDetectorResponse.getDetector();
                 List<String> monitorIds = detector.getMonitorIds();
+
+                SearchCursor resumed;
+                try {
+                    resumed = SearchCursor.resume(cursor, SearchCursor.fingerprint(monitorIds, table, startTime, endTime, severityLevel, alertState));
+                } catch (IllegalArgumentException e) {
+                    listener.onFailure(new SecurityAnalyticsException(e.getMessage(), RestStatus.BAD_REQUEST, e));
+                    return;
+                }
+
                 // monitor --> detectorId mapping
                 Map<String, String> monitorToDetectorMapping = new HashMap<>();
                 detector.getMonitorIds().forEach(
@@ -79,9 +148,14 @@ public class AlertsService {
                 // Get alerts for all monitor ids
                 AlertsService.this.getAlertsByMonitorIds(
                         monitorToDetectorMapping,
+                        Set.of(detector.getId()),
                         monitorIds,
-                        DetectorMonitorConfig.getAlertsIndex(detector.getDetectorType()),
+                        detector.getAlertsIndex(),
+                        DetectorMonitorConfig.getAlertsHistoryIndex(detector.getDetectorType()),
                         table,
+                        resumed,
+                        startTime,
+                        endTime,
                         severityLevel,
                         alertState,
                         new ActionListener<>() {
@@ -107,6 +181,17 @@ public class AlertsService {
         });
     }
 
+    /**
+     * Resolves the monitors of a detector, from the detector cache if the service has one.
+     */
+    public void getDetector(String detectorId, ActionListener<DetectorMetadata> listener) {
+        if (detectorCache != null) {
+            detectorCache.getDetector(detectorId, listener);
+        } else {
+            DetectorCache.load(client, detectorId, listener);
+        }
+    }
+
     /**
      * Searches alerts generated by specific Monitor
      *
@@ -140,13 +225,35 @@ public class AlertsService {
                     public void onResponse(
                             org.opensearch.commons.alerting.action.GetAlertsResponse getAlertsResponse
                     ) {
+                        if (sharedMonitorAlerts(getAlertsResponse)) {
+                            // the alerting plugin counts and pages the alerts of all detectors sharing the monitors
+                            Set<String> detectorIds = new HashSet<>(monitorToDetectorMapping.values());
+                            SharedMonitorIds.resolve(client, monitorIds, new ActionListener<>() {
+                                @Override
+                                public void onResponse(Set<String> sharedMonitorIds) {
+                                    SearchSourceBuilder source = SearchCursor.page(
+                                            alertsSearchSource(monitorIds, sharedMonitorIds, detectorIds, table, severityLevel, alertState, null, null), table, null, ID_FIELD
+                                    );
+                                    searchAlerts(monitorToDetectorMapping, detectorIds, List.of(alertIndex), source,
+                                            SearchCursor.fingerprint(monitorIds, table, null, null, severityLevel, alertState), table, listener);
+                                }
+
+                                @Override
+                                public void onFailure(Exception e) {
+                                    listener.onFailure(e);
+                                }
+                            });
+                            return;
+                        }
                         // Convert response to SA's GetAlertsResponse
-                        listener.onResponse(new GetAlertsResponse(
-                                getAlertsResponse.getAlerts()
-                                        .stream().map(e ->
-                                                mapAlertToAlertDto(e, monitorToDetectorMapping.get(e.getMonitorId()))
-                                        ).collect(Collectors.toList()),
-                                getAlertsResponse.getTotalAlerts()
+                        listener.onResponse(toGetAlertsResponse(
+                                getAlertsResponse.getAlerts(),
+                                getAlertsResponse.getTotalAlerts(),
+                                monitorToDetectorMapping,
+                                new HashSet<>(monitorToDetectorMapping.values()),
+                                SearchCursor.fingerprint(monitorIds, table, null, null, severityLevel, alertState),
+                                table,
+                                null
                         ));
                     }
 
@@ -159,6 +266,208 @@ public class AlertsService {
 
     }
 
+    /**
+     * Whether the alerts returned by the alerting plugin may include alerts of other detectors sharing the monitors.
+     * The page does not tell if it is empty but alerts were counted, so those are searched again too.
+     */
+    private static boolean sharedMonitorAlerts(org.opensearch.commons.alerting.action.GetAlertsResponse response) {
+        if (response.getAlerts().isEmpty()) {
+            Integer totalAlerts = response.getTotalAlerts();
+            return totalAlerts != null && totalAlerts > 0;
+        }
+        return response.getAlerts().stream().anyMatch(alert -> SharedMonitors.isSharedMonitor(alert.getMonitorName()));
+    }
+
+    /**
+     * Searches alerts generated by specific Monitors, in a time range or resuming a previous page with search_after.
+     * With a time range the completed alerts of the range are searched too, in the alerts history indices which were
+     * written to since the start of the range only. Alerts of shared monitors are searched for the triggers of the
+     * detectors only.
+     *
+     * @param detectorIds       ids of the detectors whose alerts to search, a shared monitor maps to one of them only
+     * @param alertIndex        index of the active alerts
+     * @param alertHistoryIndex alias of the alerts history indices
+     * @param table             group of search related parameters
+     * @param cursor            cursor of the previous page, or null
+     * @param startTime         start of the time range of the start time of the alerts, or null
+     * @param endTime           end of the time range of the start time of the alerts, or null
+     * @param listener          ActionListener to get notified on response or error
+     */
+    public void getAlertsByMonitorIds(
+            Map<String, String> monitorToDetectorMapping,
+            Set<String> detectorIds,
+            List<String> monitorIds,
+            String alertIndex,
+            String alertHistoryIndex,
+            Table table,
+            SearchCursor cursor,
+            Instant startTime,
+            Instant endTime,
+            String severityLevel,
+            String alertState,
+            ActionListener<GetAlertsResponse> listener
+    ) {
+        Table page = SearchCursor.page(cursor, table);
+        boolean timeRange = startTime != null || endTime != null;
+        // the mapping names every detector unless several of them share a monitor
+        boolean mappedDetectors = monitorToDetectorMapping.values().containsAll(detectorIds);
+        if (!timeRange && (cursor == null || !cursor.isSearchAfter()) && mappedDetectors) {
+            getAlertsByMonitorIds(monitorToDetectorMapping, monitorIds, alertIndex, page, severityLevel, alertState, listener);
+            return;
+        }
+
+        String fingerprint = SearchCursor.fingerprint(monitorIds, table, startTime, endTime, severityLevel, alertState);
+        SharedMonitorIds.resolve(client, monitorIds, new ActionListener<>() {
+            @Override
+            public void onResponse(Set<String> sharedMonitorIds) {
+                SearchSourceBuilder source = SearchCursor.page(
+                        alertsSearchSource(monitorIds, sharedMonitorIds, detectorIds, table, severityLevel, alertState, startTime, endTime), page, cursor, ID_FIELD
+                );
+                if (!timeRange) {
+                    searchAlerts(monitorToDetectorMapping, detectorIds, List.of(alertIndex), source, fingerprint, page, listener);
+                    return;
+                }
+                // an alert is moved to the history when it completes, which may be long after it started, so only the
+                // history indices rolled over before the start of the range are skipped
+                TimeRangeIndices.resolve(client, alertHistoryIndex, startTime, null, new ActionListener<>() {
+                    @Override
+                    public void onResponse(List<String> historyIndices) {
+                        List<String> indices = new ArrayList<>(historyIndices.size() + 1);
+                        indices.add(alertIndex);
+                        indices.addAll(historyIndices);
+                        searchAlerts(monitorToDetectorMapping, detectorIds, indices, source, fingerprint, page, listener);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        listener.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private void searchAlerts(
+            Map<String, String> monitorToDetectorMapping,
+            Set<String> detectorIds,
+            List<String> indices,
+            SearchSourceBuilder source,
+            String fingerprint,
+            Table page,
+            ActionListener<GetAlertsResponse> listener
+    ) {
+        SearchRequest searchRequest = new SearchRequest(indices.toArray(new String[0]))
+                .source(source)
+                .indicesOptions(IndicesOptions.lenientExpandOpen());
+        client.search(searchRequest, new ActionListener<>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                List<Alert> alerts;
+                try {
+                    alerts = parseAlerts(response.getHits());
+                } catch (IOException | RuntimeException e) {
+                    listener.onFailure(e);
+                    return;
+                }
+                int totalAlerts = response.getHits().getTotalHits() != null? (int) response.getHits().getTotalHits().value: alerts.size();
+                SearchHit[] hits = response.getHits().getHits();
+                Object[] lastSortValues = hits.length > 0? hits[hits.length - 1].getSortValues(): null;
+                listener.onResponse(toGetAlertsResponse(alerts, totalAlerts, monitorToDetectorMapping, detectorIds, fingerprint, page, lastSortValues));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Builds the search of the alerts of the monitors started in a time range, with the semantics of the alerting get
+     * alerts API, limited to the alerts of shared monitors of triggers of the detectors. The search is sorted and paged
+     * by the caller.
+     */
+    static SearchSourceBuilder alertsSearchSource(
+            List<String> monitorIds,
+            Set<String> sharedMonitorIds,
+            Collection<String> detectorIds,
+            Table table,
+            String severityLevel,
+            String alertState,
+            Instant startTime,
+            Instant endTime
+    ) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+                .filter(QueryBuilders.termsQuery(MONITOR_ID_FIELD, monitorIds));
+        if (!sharedMonitorIds.isEmpty()) {
+            query.filter(SharedMonitors.scopedResults(MONITOR_ID_FIELD, monitorIds, sharedMonitorIds, SharedMonitors.ownedBy(TRIGGER_ID_FIELD, detectorIds)));
+        }
+        if (severityLevel != null && !ALL.equals(severityLevel)) {
+            query.filter(QueryBuilders.termQuery(SEVERITY_FIELD, severityLevel));
+        }
+        if (alertState != null && !ALL.equals(alertState)) {
+            query.filter(QueryBuilders.termQuery(STATE_FIELD, alertState));
+        }
+        if (startTime != null || endTime != null) {
+            query.filter(QueryBuilders.rangeQuery(START_TIME_FIELD)
+                    .gte(startTime != null? startTime.toEpochMilli(): null)
+                    .lte(endTime != null? endTime.toEpochMilli(): null)
+                    .format("epoch_millis"));
+        }
+        if (table.getSearchString() != null && !table.getSearchString().isBlank()) {
+            query.must(QueryBuilders.queryStringQuery(table.getSearchString())
+                    .defaultOperator(Operator.AND)
+                    .field(MONITOR_NAME_FIELD)
+                    .field(TRIGGER_NAME_FIELD));
+        }
+        return new SearchSourceBuilder()
+                .query(query)
+                .version(true)
+                .trackTotalHits(true);
+    }
+
+    private static List<Alert> parseAlerts(SearchHits hits) throws IOException {
+        List<Alert> alerts = new ArrayList<>(hits.getHits().length);
+        for (SearchHit hit: hits) {
+            XContentParser xcp = XContentType.JSON.xContent().createParser(
+                    NamedXContentRegistry.EMPTY,
+                    LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+            );
+            xcp.nextToken();
+            alerts.add(Alert.parse(xcp, hit.getId(), hit.getVersion()));
+        }
+        return alerts;
+    }
+
+    /**
+     * Alerts of shared monitors raised by the triggers of other detectors are left out.
+     */
+    private GetAlertsResponse toGetAlertsResponse(
+            List<Alert> alerts,
+            int totalAlerts,
+            Map<String, String> monitorToDetectorMapping,
+            Set<String> detectorIds,
+            String fingerprint,
+            Table page,
+            Object[] lastSortValues
+    ) {
+        return new GetAlertsResponse(
+                alerts.stream().filter(e ->
+                        !SharedMonitors.isSharedMonitor(e.getMonitorName()) || detectorIds.contains(SharedMonitors.detectorId(e.getTriggerId()))
+                ).map(e ->
+                        mapAlertToAlertDto(e, monitorToDetectorMapping.get(e.getMonitorId()))
+                ).collect(Collectors.toList()),
+                totalAlerts,
+                // the cursor counts stored alerts, the alerts of other detectors sharing the monitors are not searched
+                SearchCursor.next(fingerprint, page, alerts.size(), totalAlerts, lastSortValues)
+        );
+    }
+
     void setIndicesAdminClient(Client client) {
         this.client = client;
     }
@@ -170,6 +479,20 @@ public class AlertsService {
             String severityLevel,
             String alertState,
             ActionListener<GetAlertsResponse> listener
+    ) {
+        getAlerts(detectors, detectorType, null, table, null, null, severityLevel, alertState, listener);
+    }
+
+    public void getAlerts(
+            List<Detector> detectors,
+            Detector.DetectorType detectorType,
+            String cursor,
+            Table table,
+            Instant startTime,
+            Instant endTime,
+            String severityLevel,
+            String alertState,
+            ActionListener<GetAlertsResponse> listener
     ) {
         if (detectors.size() == 0) {
             throw SecurityAnalyticsException.wrap(new IllegalArgumentException("detector list is empty!"));
@@ -178,21 +501,35 @@ public class AlertsService {
         List<String> allMonitorIds = new ArrayList<>();
         // Used to convert monitorId back to detectorId to store in result FindingDto
         Map<String, String> monitorToDetectorMapping = new HashMap<>();
+        Set<String> detectorIds = detectors.stream().map(Detector::getId).collect(Collectors.toSet());
         detectors.forEach(detector -> {
-            // monitor --> detector map
+            // monitor --> detector map, alerts of shared monitors carry their detector ids
             detector.getMonitorIds().forEach(
                     monitorId -> monitorToDetectorMapping.put(monitorId, detector.getId())
             );
-            // all monitorIds
-            allMonitorIds.addAll(detector.getMonitorIds());
+            // all monitorIds, a shared monitor is listed once
+            detector.getMonitorIds().stream().filter(monitorId -> !allMonitorIds.contains(monitorId)).forEach(allMonitorIds::add);
         });
 
+        SearchCursor resumed;
+        try {
+            resumed = SearchCursor.resume(cursor, SearchCursor.fingerprint(allMonitorIds, table, startTime, endTime, severityLevel, alertState));
+        } catch (IllegalArgumentException e) {
+            listener.onFailure(new SecurityAnalyticsException(e.getMessage(), RestStatus.BAD_REQUEST, e));
+            return;
+        }
+
         // Execute GetFindingsAction for each monitor
         AlertsService.this.getAlertsByMonitorIds(
             monitorToDetectorMapping,
+            detectorIds,
             allMonitorIds,
             DetectorMonitorConfig.getAlertsIndex(detectorType.getDetectorType()),
+            DetectorMonitorConfig.getAlertsHistoryIndex(detectorType.getDetectorType()),
             table,
+            resumed,
+            startTime,
+            endTime,
             severityLevel,
             alertState,
             new ActionListener<>() {
@@ -211,13 +548,22 @@ public class AlertsService {
         );
     }
 
+    /**
+     * The trigger ids of a shared monitor are prefixed by the id of the detector owning the trigger, which takes
+     * precedence over the detector the monitor was mapped to.
+     */
     private AlertDto mapAlertToAlertDto(Alert alert, String detectorId) {
+        String triggerId = alert.getTriggerId();
+        if (SharedMonitors.isSharedMonitor(alert.getMonitorName()) && SharedMonitors.detectorId(triggerId) != null) {
+            detectorId = SharedMonitors.detectorId(triggerId);
+            triggerId = SharedMonitors.unscope(triggerId);
+        }
         return new AlertDto(
                 detectorId,
                 alert.getId(),
                 alert.getVersion(),
                 alert.getSchemaVersion(),
-                alert.getTriggerId(),
+                triggerId,
                 alert.getTriggerName(),
                 alert.getFindingIds(),
                 alert.getRelatedDocIds(),
@@ -235,7 +581,7 @@ public class AlertsService {
     }
 
     public void getAlerts(List<String> alertIds,
-                          Detector detector,
+                          DetectorMetadata detector,
                           Table table,
                           ActionListener<org.opensearch.commons.alerting.action.GetAlertsResponse> actionListener) {
         GetAlertsRequest request = new GetAlertsRequest(
@@ -243,7 +589,7 @@ public class AlertsService {
                 "ALL",
                 "ALL",
                 null,
-                DetectorMonitorConfig.getAlertsIndex(detector.getDetectorType()),
+                detector.getAlertsIndex(),
                 null,
                 alertIds);
         AlertingPluginInterface.INSTANCE.getAlerts(
@@ -254,11 +600,11 @@ public class AlertsService {
 
     /**
      * @param getAlertsResponse
-     * @param getDetectorResponse
+     * @param detector
      * @param actionListener
      */
     public void ackknowledgeAlerts(org.opensearch.commons.alerting.action.GetAlertsResponse getAlertsResponse,
-                                   GetDetectorResponse getDetectorResponse,
+                                   DetectorMetadata detector,
                                    ActionListener<AckAlertsResponse> actionListener) {
         Map<String, List<String>> alertsByMonitor = new HashMap<>();
         for (Alert alert : getAlertsResponse.getAlerts()) {
@@ -274,9 +620,9 @@ public class AlertsService {
                 final ArrayList<String> misses = new ArrayList<>();
                 for (AcknowledgeAlertResponse acknowledgeAlertResponse : responses) {
                     acks.addAll(acknowledgeAlertResponse.getAcknowledged().stream()
-                            .map(a -> mapAlertToAlertDto(a, getDetectorResponse.getId())).collect(Collectors.toList()));
+                            .map(a -> mapAlertToAlertDto(a, detector.getId())).collect(Collectors.toList()));
                     fails.addAll(acknowledgeAlertResponse.getFailed().stream()
-                            .map(a -> mapAlertToAlertDto(a, getDetectorResponse.getId())).collect(Collectors.toList()));
+                            .map(a -> mapAlertToAlertDto(a, detector.getId())).collect(Collectors.toList()));
                     misses.addAll(acknowledgeAlertResponse.getMissing());
                 }
                 actionListener.onResponse(new AckAlertsResponse(acks, fails, misses));
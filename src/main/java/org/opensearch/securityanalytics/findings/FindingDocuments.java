@@ -0,0 +1,142 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.findings;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.client.Client;
+import org.opensearch.common.Strings;
+import org.opensearch.commons.alerting.model.Finding;
+import org.opensearch.commons.alerting.model.FindingDocument;
+import org.opensearch.commons.alerting.model.FindingWithDocs;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches the documents of a page of findings with a single multi-get. A document related to several findings of the
+ * page is fetched once, and only the requested source fields are fetched if there are any.
+ */
+public class FindingDocuments {
+
+    private final Client client;
+
+    public FindingDocuments(Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Attaches their documents to the findings, in the order of the findings.
+     *
+     * @param fields the source fields of the documents to fetch, or null for the whole source
+     */
+    public void fetch(List<Finding> findings, List<String> fields, ActionListener<List<FindingWithDocs>> listener) {
+        MultiGetRequest request = multiGetRequest(findings, fields);
+        if (request.getItems().isEmpty()) {
+            listener.onResponse(withDocuments(findings, Map.of()));
+            return;
+        }
+
+        client.multiGet(request, new ActionListener<>() {
+            @Override
+            public void onResponse(MultiGetResponse response) {
+                // the responses are in the order of the items
+                Map<DocumentKey, FindingDocument> documents = new HashMap<>();
+                MultiGetItemResponse[] items = response.getResponses();
+                for (int i = 0; i < items.length; ++i) {
+                    MultiGetRequest.Item requested = request.getItems().get(i);
+                    boolean found = !items[i].isFailed() && items[i].getResponse().isExists();
+                    documents.put(
+                            new DocumentKey(requested.index(), requested.id()),
+                            new FindingDocument(requested.index(), requested.id(), found, found? items[i].getResponse().getSourceAsString(): "")
+                    );
+                }
+                listener.onResponse(withDocuments(findings, documents));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the findings without their documents.
+     */
+    public static List<FindingWithDocs> withoutDocuments(List<Finding> findings) {
+        List<FindingWithDocs> findingsWithDocs = new ArrayList<>(findings.size());
+        for (Finding finding: findings) {
+            findingsWithDocs.add(new FindingWithDocs(finding, List.of()));
+        }
+        return findingsWithDocs;
+    }
+
+    static MultiGetRequest multiGetRequest(List<Finding> findings, List<String> fields) {
+        FetchSourceContext fetchSource = fields == null?
+                FetchSourceContext.FETCH_SOURCE:
+                new FetchSourceContext(true, fields.toArray(new String[0]), Strings.EMPTY_ARRAY);
+
+        Map<DocumentKey, MultiGetRequest.Item> items = new LinkedHashMap<>();
+        for (Finding finding: findings) {
+            for (String docId: finding.getRelatedDocIds()) {
+                items.computeIfAbsent(new DocumentKey(finding.getIndex(), docId),
+                        key -> new MultiGetRequest.Item(key.index, key.id).fetchSourceContext(fetchSource));
+            }
+        }
+
+        MultiGetRequest request = new MultiGetRequest();
+        items.values().forEach(request::add);
+        return request;
+    }
+
+    private static List<FindingWithDocs> withDocuments(List<Finding> findings, Map<DocumentKey, FindingDocument> documents) {
+        List<FindingWithDocs> findingsWithDocs = new ArrayList<>(findings.size());
+        for (Finding finding: findings) {
+            List<FindingDocument> findingDocuments = new ArrayList<>(finding.getRelatedDocIds().size());
+            for (String docId: finding.getRelatedDocIds()) {
+                FindingDocument document = documents.get(new DocumentKey(finding.getIndex(), docId));
+                findingDocuments.add(document != null? document: new FindingDocument(finding.getIndex(), docId, false, ""));
+            }
+            findingsWithDocs.add(new FindingWithDocs(finding, findingDocuments));
+        }
+        return findingsWithDocs;
+    }
+
+    private static class DocumentKey {
+
+        private final String index;
+
+        private final String id;
+
+        private DocumentKey(String index, String id) {
+            this.index = index;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            DocumentKey key = (DocumentKey) o;
+            return index.equals(key.index) && id.equals(key.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * index.hashCode() + id.hashCode();
+        }
+    }
+}
@@ -4,38 +4,77 @@
  */
 package org.opensearch.securityanalytics.findings;
 
+import java.io.IOException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.lucene.search.join.ScoreMode;
 import org.opensearch.action.ActionListener;
-import org.opensearch.action.support.GroupedActionListener;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.IndicesOptions;
 import org.opensearch.client.Client;
 import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.commons.alerting.AlertingPluginInterface;
+import org.opensearch.commons.alerting.model.Finding;
 import org.opensearch.commons.alerting.model.FindingWithDocs;
 import org.opensearch.commons.alerting.model.Table;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.Operator;
+import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.SortOrder;
 import org.opensearch.securityanalytics.action.FindingDto;
-import org.opensearch.securityanalytics.action.GetDetectorAction;
-import org.opensearch.securityanalytics.action.GetDetectorRequest;
-import org.opensearch.securityanalytics.action.GetDetectorResponse;
 import org.opensearch.securityanalytics.action.GetFindingsResponse;
 import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.BoundedFanOut;
+import org.opensearch.securityanalytics.util.CompiledTriggers;
+import org.opensearch.securityanalytics.util.DetectorCache;
+import org.opensearch.securityanalytics.util.DetectorMetadata;
+import org.opensearch.securityanalytics.util.SearchCursor;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
+import org.opensearch.securityanalytics.util.SharedMonitorIds;
+import org.opensearch.securityanalytics.util.SharedMonitors;
+import org.opensearch.securityanalytics.util.TimeRangeIndices;
 
 /**
  * Implements searching/fetching of findings
  */
 public class FindingsService {
 
+    private static final String MONITOR_ID_FIELD = "monitor_id";
+    private static final String QUERIES_FIELD = "queries";
+    private static final String QUERY_ID_FIELD = "queries.id";
+    private static final String QUERY_NAME_FIELD = "queries.name";
+    private static final String QUERY_TAGS_FIELD = "queries.tags";
+    private static final String TIMESTAMP_FIELD = "timestamp";
+    private static final String ID_FIELD = "id";
+
     private Client client;
 
+    private DetectorCache detectorCache;
+
     private static final Logger log = LogManager.getLogger(FindingsService.class);
 
 
@@ -45,6 +84,11 @@ public class FindingsService {
         this.client = client;
     }
 
+    public FindingsService(Client client, DetectorCache detectorCache) {
+        this.client = client;
+        this.detectorCache = detectorCache;
+    }
+
     /**
      * Searches findings generated by specific Detector
      * @param detectorId id of Detector
@@ -52,51 +96,74 @@ public class FindingsService {
      * @param listener ActionListener to get notified on response or error
      */
     public void getFindingsByDetectorId(String detectorId, Table table, ActionListener<GetFindingsResponse> listener) {
-        this.client.execute(GetDetectorAction.INSTANCE, new GetDetectorRequest(detectorId, -3L), new ActionListener<>() {
+        getFindingsByDetectorId(detectorId, null, table, null, null, true, null, listener);
+    }
+
+    /**
+     * Searches findings generated by specific Detector, resuming a previous search
+     * @param detectorId id of Detector
+     * @param cursor cursor of the previous page, or null to start at the start index of the table
+     * @param table group of search related parameters
+     * @param startTime start of the time range of the findings, or null
+     * @param endTime end of the time range of the findings, or null
+     * @param includeDocuments whether to return the documents of the findings
+     * @param documentFields source fields of the documents to return, or null for the whole source
+     * @param listener ActionListener to get notified on response or error
+     */
+    public void getFindingsByDetectorId(
+            String detectorId,
+            String cursor,
+            Table table,
+            Instant startTime,
+            Instant endTime,
+            boolean includeDocuments,
+            List<String> documentFields,
+            ActionListener<GetFindingsResponse> listener
+    ) {
+        getDetector(detectorId, new ActionListener<>() {
 
             @Override
-            public void onResponse(GetDetectorResponse getDetectorResponse) {
+            public void onResponse(DetectorMetadata detector) {
                 // Get all monitor ids from detector
-                Detector detector = getDetectorResponse.getDetector();
                 List<String> monitorIds = detector.getMonitorIds();
-                // Using GroupedActionListener here as we're going to issue one GetFindingsActions for each monitorId
-                ActionListener<GetFindingsResponse> multiGetFindingsListener = new GroupedActionListener<>(new ActionListener<>() {
-                    @Override
-                    public void onResponse(Collection<GetFindingsResponse> responses) {
-                        Integer totalFindings = 0;
-                        List<FindingDto> findings = new ArrayList<>();
-                        // Merge all findings into one response
-                        for(GetFindingsResponse resp : responses) {
-                            totalFindings += resp.getTotalFindings();
-                            findings.addAll(resp.getFindings());
-                        }
-                        GetFindingsResponse masterResponse = new GetFindingsResponse(
-                                totalFindings,
-                                findings
-                        );
-                        // Send master response back
-                        listener.onResponse(masterResponse);
-                    }
 
-                    @Override
-                    public void onFailure(Exception e) {
-                        log.error("Failed to fetch findings for detector " + detectorId, e);
-                        listener.onFailure(SecurityAnalyticsException.wrap(e));
-                    }
-                }, monitorIds.size());
+                SearchCursor resumed;
+                try {
+                    resumed = SearchCursor.resume(cursor, SearchCursor.fingerprint(monitorIds, table, startTime, endTime));
+                } catch (IllegalArgumentException e) {
+                    listener.onFailure(new SecurityAnalyticsException(e.getMessage(), RestStatus.BAD_REQUEST, e));
+                    return;
+                }
 
                 // monitor --> detectorId mapping
                 Map<String, String> monitorToDetectorMapping = new HashMap<>();
                 detector.getMonitorIds().forEach(
                         monitorId -> monitorToDetectorMapping.put(monitorId, detector.getId())
                 );
-                // Get findings for all monitor ids
+                // Get findings for all monitor ids in one search, sorted across the monitors
                 FindingsService.this.getFindingsByMonitorIds(
                         monitorToDetectorMapping,
+                        Set.of(detector.getId()),
                         monitorIds,
-                        DetectorMonitorConfig.getFindingsIndex(detector.getDetectorType()),
+                        detector.getFindingsIndex(),
                         table,
-                        multiGetFindingsListener
+                        resumed,
+                        startTime,
+                        endTime,
+                        includeDocuments,
+                        documentFields,
+                        new ActionListener<>() {
+                            @Override
+                            public void onResponse(GetFindingsResponse getFindingsResponse) {
+                                listener.onResponse(getFindingsResponse);
+                            }
+
+                            @Override
+                            public void onFailure(Exception e) {
+                                log.error("Failed to fetch findings for detector " + detectorId, e);
+                                listener.onFailure(SecurityAnalyticsException.wrap(e));
+                            }
+                        }
                 );
             }
 
@@ -107,6 +174,14 @@ public class FindingsService {
         });
     }
 
+    private void getDetector(String detectorId, ActionListener<DetectorMetadata> listener) {
+        if (detectorCache != null) {
+            detectorCache.getDetector(detectorId, listener);
+        } else {
+            DetectorCache.load(client, detectorId, listener);
+        }
+    }
+
     /**
      * Searches findings generated by specific Monitor
      * @param monitorToDetectorMapping monitorId --&gt; detectorId mapper
@@ -136,14 +211,33 @@ public class FindingsService {
                     public void onResponse(
                             org.opensearch.commons.alerting.action.GetFindingsResponse getFindingsResponse
                     ) {
+                        if (sharedMonitorFindings(getFindingsResponse)) {
+                            // the alerting plugin counts and pages the findings of all detectors sharing the monitors
+                            Set<String> detectorIds = new HashSet<>(monitorToDetectorMapping.values());
+                            SharedMonitorIds.resolve(client, monitorIds, new ActionListener<>() {
+                                @Override
+                                public void onResponse(Set<String> sharedMonitorIds) {
+                                    SearchSourceBuilder source = SearchCursor.page(findingsSearchSource(monitorIds, sharedMonitorIds, detectorIds, table, null, null), table, null, ID_FIELD);
+                                    searchFindings(monitorToDetectorMapping, detectorIds, List.of(findingIndexName), source, SearchCursor.fingerprint(monitorIds, table),
+                                            table, true, null, listener);
+                                }
+
+                                @Override
+                                public void onFailure(Exception e) {
+                                    listener.onFailure(e);
+                                }
+                            });
+                            return;
+                        }
                         // Convert response to SA's GetFindingsResponse
-                        listener.onResponse(new GetFindingsResponse(
+                        listener.onResponse(toGetFindingsResponse(
+                                getFindingsResponse.getFindings(),
                                 getFindingsResponse.getTotalFindings(),
-                                getFindingsResponse.getFindings()
-                                        .stream().map(e -> mapFindingWithDocsToFindingDto(
-                                                e,
-                                                monitorToDetectorMapping.get(e.getFinding().getMonitorId())
-                                        )).collect(Collectors.toList())
+                                monitorToDetectorMapping,
+                                new HashSet<>(monitorToDetectorMapping.values()),
+                                SearchCursor.fingerprint(monitorIds, table),
+                                table,
+                                null
                         ));
                     }
 
@@ -156,6 +250,214 @@ public class FindingsService {
 
      }
 
+    /**
+     * Whether the findings returned by the alerting plugin may include findings of other detectors sharing the monitors.
+     * The page does not tell if it is empty but findings were counted, so those are searched again too.
+     */
+    private static boolean sharedMonitorFindings(org.opensearch.commons.alerting.action.GetFindingsResponse response) {
+        if (response.getFindings().isEmpty()) {
+            Integer totalFindings = response.getTotalFindings();
+            return totalFindings != null && totalFindings > 0;
+        }
+        return response.getFindings().stream().anyMatch(finding -> SharedMonitors.isSharedMonitor(finding.getFinding().getMonitorName()));
+    }
+
+    /**
+     * Searches findings generated by specific Monitors, in a time range or with no or partial documents. The alerting
+     * plugin searches every findings index and always returns the findings with their whole documents, so unless
+     * those are all requested the findings are searched directly: only in the findings indices overlapping the time
+     * range, resuming the previous page with search_after, and with their documents fetched with one multi-get if at
+     * all. Findings of shared monitors are searched for the queries of the detectors only.
+     * @param monitorToDetectorMapping monitorId --&gt; detectorId mapper
+     * @param detectorIds ids of the detectors whose findings to search, a shared monitor maps to one of them only
+     * @param monitorIds id of Monitor
+     * @param table group of search related parameters
+     * @param cursor cursor of the previous page, or null
+     * @param startTime start of the time range of the findings, or null
+     * @param endTime end of the time range of the findings, or null
+     * @param includeDocuments whether to return the documents of the findings
+     * @param documentFields source fields of the documents to return, or null for the whole source
+     * @param listener ActionListener to get notified on response or error
+     */
+    public void getFindingsByMonitorIds(
+            Map<String, String> monitorToDetectorMapping,
+            Set<String> detectorIds,
+            List<String> monitorIds,
+            String findingIndexName,
+            Table table,
+            SearchCursor cursor,
+            Instant startTime,
+            Instant endTime,
+            boolean includeDocuments,
+            List<String> documentFields,
+            ActionListener<GetFindingsResponse> listener
+    ) {
+        Table page = SearchCursor.page(cursor, table);
+        boolean timeRange = startTime != null || endTime != null;
+        // the mapping names every detector unless several of them share a monitor
+        boolean mappedDetectors = monitorToDetectorMapping.values().containsAll(detectorIds);
+        if (!timeRange && (cursor == null || !cursor.isSearchAfter()) && includeDocuments && documentFields == null && mappedDetectors) {
+            getFindingsByMonitorIds(monitorToDetectorMapping, monitorIds, findingIndexName, page, listener);
+            return;
+        }
+
+        String fingerprint = SearchCursor.fingerprint(monitorIds, table, startTime, endTime);
+        SharedMonitorIds.resolve(client, monitorIds, new ActionListener<>() {
+            @Override
+            public void onResponse(Set<String> sharedMonitorIds) {
+                SearchSourceBuilder source = SearchCursor.page(findingsSearchSource(monitorIds, sharedMonitorIds, detectorIds, table, startTime, endTime), page, cursor, ID_FIELD);
+                if (!timeRange) {
+                    searchFindings(monitorToDetectorMapping, detectorIds, List.of(findingIndexName), source, fingerprint, page, includeDocuments, documentFields, listener);
+                    return;
+                }
+                TimeRangeIndices.resolve(client, findingIndexName, startTime, endTime, new ActionListener<>() {
+                    @Override
+                    public void onResponse(List<String> indices) {
+                        if (indices.isEmpty()) {
+                            listener.onResponse(new GetFindingsResponse(0, List.of(), null));
+                        } else {
+                            searchFindings(monitorToDetectorMapping, detectorIds, indices, source, fingerprint, page, includeDocuments, documentFields, listener);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        listener.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private void searchFindings(
+            Map<String, String> monitorToDetectorMapping,
+            Set<String> detectorIds,
+            List<String> indices,
+            SearchSourceBuilder source,
+            String fingerprint,
+            Table page,
+            boolean includeDocuments,
+            List<String> documentFields,
+            ActionListener<GetFindingsResponse> listener
+    ) {
+        SearchRequest searchRequest = new SearchRequest(indices.toArray(new String[0]))
+                .source(source);
+        client.search(searchRequest, new ActionListener<>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                List<Finding> findings;
+                try {
+                    findings = parseFindings(response.getHits());
+                } catch (IOException | RuntimeException e) {
+                    listener.onFailure(e);
+                    return;
+                }
+                int totalFindings = response.getHits().getTotalHits() != null? (int) response.getHits().getTotalHits().value: findings.size();
+                SearchHit[] hits = response.getHits().getHits();
+                Object[] lastSortValues = hits.length > 0? hits[hits.length - 1].getSortValues(): null;
+
+                ActionListener<List<FindingWithDocs>> documentsListener = new ActionListener<>() {
+                    @Override
+                    public void onResponse(List<FindingWithDocs> findingsWithDocs) {
+                        listener.onResponse(toGetFindingsResponse(findingsWithDocs, totalFindings, monitorToDetectorMapping, detectorIds, fingerprint, page, lastSortValues));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        listener.onFailure(e);
+                    }
+                };
+                if (includeDocuments) {
+                    new FindingDocuments(client).fetch(findings, documentFields, documentsListener);
+                } else {
+                    documentsListener.onResponse(FindingDocuments.withoutDocuments(findings));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Builds the search of the findings of the monitors in a time range, with the semantics of the alerting get
+     * findings API, limited to the findings of shared monitors with queries of the detectors. The search is sorted and
+     * paged by the caller.
+     */
+    static SearchSourceBuilder findingsSearchSource(
+            List<String> monitorIds,
+            Set<String> sharedMonitorIds,
+            Collection<String> detectorIds,
+            Table table,
+            Instant startTime,
+            Instant endTime
+    ) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+                .filter(QueryBuilders.termsQuery(MONITOR_ID_FIELD, monitorIds));
+        if (!sharedMonitorIds.isEmpty()) {
+            query.filter(SharedMonitors.scopedResults(MONITOR_ID_FIELD, monitorIds, sharedMonitorIds,
+                    QueryBuilders.nestedQuery(QUERIES_FIELD, SharedMonitors.ownedBy(QUERY_ID_FIELD, detectorIds), ScoreMode.None)));
+        }
+        if (startTime != null || endTime != null) {
+            query.filter(QueryBuilders.rangeQuery(TIMESTAMP_FIELD)
+                    .gte(startTime != null? startTime.toEpochMilli(): null)
+                    .lte(endTime != null? endTime.toEpochMilli(): null)
+                    .format("epoch_millis"));
+        }
+        if (table.getSearchString() != null && !table.getSearchString().isBlank()) {
+            query.must(QueryBuilders.nestedQuery(
+                    QUERIES_FIELD,
+                    QueryBuilders.queryStringQuery(table.getSearchString())
+                            .defaultOperator(Operator.AND)
+                            .field(QUERY_TAGS_FIELD)
+                            .field(QUERY_NAME_FIELD),
+                    ScoreMode.None
+            ));
+        }
+        return new SearchSourceBuilder()
+                .query(query)
+                .trackTotalHits(true);
+    }
+
+    private static List<Finding> parseFindings(SearchHits hits) throws IOException {
+        List<Finding> findings = new ArrayList<>(hits.getHits().length);
+        for (SearchHit hit: hits) {
+            XContentParser xcp = XContentType.JSON.xContent().createParser(
+                    NamedXContentRegistry.EMPTY,
+                    LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+            );
+            xcp.nextToken();
+            findings.add(Finding.parse(xcp));
+        }
+        return findings;
+    }
+
+    private GetFindingsResponse toGetFindingsResponse(
+            List<FindingWithDocs> findings,
+            int totalFindings,
+            Map<String, String> monitorToDetectorMapping,
+            Set<String> detectorIds,
+            String fingerprint,
+            Table page,
+            Object[] lastSortValues
+    ) {
+        return new GetFindingsResponse(
+                totalFindings,
+                findings.stream()
+                        .flatMap(e -> mapFindingWithDocsToFindingDtos(e, monitorToDetectorMapping, detectorIds).stream())
+                        .collect(Collectors.toList()),
+                // the cursor counts stored findings, a shared monitor finding may map to several
+                SearchCursor.next(fingerprint, page, findings.size(), totalFindings, lastSortValues)
+        );
+    }
+
     void setIndicesAdminClient(Client client) {
         this.client = client;
     }
@@ -165,6 +467,20 @@ public class FindingsService {
             Detector.DetectorType detectorType,
             Table table,
             ActionListener<GetFindingsResponse> listener
+    ) {
+        getFindings(detectors, detectorType, null, table, null, null, true, null, listener);
+    }
+
+    public void getFindings(
+            List<Detector> detectors,
+            Detector.DetectorType detectorType,
+            String cursor,
+            Table table,
+            Instant startTime,
+            Instant endTime,
+            boolean includeDocuments,
+            List<String> documentFields,
+            ActionListener<GetFindingsResponse> listener
     ) {
         if (detectors.size() == 0) {
             throw SecurityAnalyticsException.wrap(new IllegalArgumentException("detector list is empty!"));
@@ -173,21 +489,36 @@ public class FindingsService {
         List<String> allMonitorIds = new ArrayList<>();
         // Used to convert monitorId back to detectorId to store in result FindingDto
         Map<String, String> monitorToDetectorMapping = new HashMap<>();
+        Set<String> detectorIds = detectors.stream().map(Detector::getId).collect(Collectors.toSet());
         detectors.forEach(detector -> {
-            // monitor --> detector map
+            // monitor --> detector map, findings of shared monitors carry their detector ids
             detector.getMonitorIds().forEach(
                 monitorId -> monitorToDetectorMapping.put(monitorId, detector.getId())
             );
-            // all monitorIds
-            allMonitorIds.addAll(detector.getMonitorIds());
+            // all monitorIds, a shared monitor is listed once
+            detector.getMonitorIds().stream().filter(monitorId -> !allMonitorIds.contains(monitorId)).forEach(allMonitorIds::add);
         });
 
+        SearchCursor resumed;
+        try {
+            resumed = SearchCursor.resume(cursor, SearchCursor.fingerprint(allMonitorIds, table, startTime, endTime));
+        } catch (IllegalArgumentException e) {
+            listener.onFailure(new SecurityAnalyticsException(e.getMessage(), RestStatus.BAD_REQUEST, e));
+            return;
+        }
+
          // Execute GetFindingsAction
         FindingsService.this.getFindingsByMonitorIds(
             monitorToDetectorMapping,
+            detectorIds,
             allMonitorIds,
             DetectorMonitorConfig.getFindingsIndex(detectorType.getDetectorType()),
             table,
+            resumed,
+            startTime,
+            endTime,
+            includeDocuments,
+            documentFields,
             new ActionListener<>() {
                 @Override
                 public void onResponse(GetFindingsResponse getFindingsResponse) {
@@ -204,13 +535,233 @@ public class FindingsService {
         );
     }
 
+    /**
+     * Searches the findings of detectors of several types at once, for a view of the findings of every log source.
+     * Each type has its own findings indices, which are searched concurrently for the first findings by timestamp,
+     * and the first findings overall are kept by merging the results in a heap bounded by the page, so no more than
+     * a page of findings per type is ever held. The documents of the page are fetched once merged.
+     * @param detectorTypes detector id --> detector type of the detectors whose findings to search, of any type
+     * @param detectorMonitorIds detector id --> ids of the monitors of the detector
+     * @param cursor cursor of the previous page, or null to start at the start index of the table
+     * @param table group of search related parameters, the findings are sorted by timestamp in its sort order
+     * @param startTime start of the time range of the findings, or null
+     * @param endTime end of the time range of the findings, or null
+     * @param includeDocuments whether to return the documents of the findings
+     * @param documentFields source fields of the documents to return, or null for the whole source
+     * @param listener ActionListener to get notified on response or error
+     */
+    public void getFindingsOfAllTypes(
+            Map<String, String> detectorTypes,
+            Map<String, List<String>> detectorMonitorIds,
+            String cursor,
+            Table table,
+            Instant startTime,
+            Instant endTime,
+            boolean includeDocuments,
+            List<String> documentFields,
+            ActionListener<GetFindingsResponse> listener
+    ) {
+        // detector type --> monitorIds, a shared monitor is listed once
+        Map<String, List<String>> monitorIdsByType = new LinkedHashMap<>();
+        Map<String, String> monitorToDetectorMapping = new HashMap<>();
+        Set<String> detectorIds = detectorTypes.keySet();
+        detectorTypes.forEach((detectorId, detectorType) -> {
+            List<String> monitorIds = monitorIdsByType.computeIfAbsent(detectorType, type -> new ArrayList<>());
+            detectorMonitorIds.getOrDefault(detectorId, List.of()).forEach(monitorId -> {
+                monitorToDetectorMapping.put(monitorId, detectorId);
+                if (!monitorIds.contains(monitorId)) {
+                    monitorIds.add(monitorId);
+                }
+            });
+        });
+        List<String> allMonitorIds = monitorIdsByType.values().stream().flatMap(List::stream).collect(Collectors.toList());
+
+        Table merged = new Table(table.getSortOrder(), TIMESTAMP_FIELD, table.getMissing(), table.getSize(), table.getStartIndex(), table.getSearchString());
+        String fingerprint = SearchCursor.fingerprint(allMonitorIds, merged, startTime, endTime);
+        SearchCursor resumed;
+        try {
+            resumed = SearchCursor.resume(cursor, fingerprint);
+        } catch (IllegalArgumentException e) {
+            listener.onFailure(new SecurityAnalyticsException(e.getMessage(), RestStatus.BAD_REQUEST, e));
+            return;
+        }
+        SearchCursor searchAfter = resumed != null && resumed.isSearchAfter()? resumed: null;
+        Table page = SearchCursor.page(searchAfter, merged);
+
+        // each type returns the first findings of the page, those before the page too unless resuming after them
+        int from = searchAfter != null? 0: page.getStartIndex();
+        Table typePage = new Table(table.getSortOrder(), TIMESTAMP_FIELD, table.getMissing(), from + page.getSize(), 0, table.getSearchString());
+
+        Map<String, List<Finding>> findingsByType = new ConcurrentHashMap<>();
+        Map<String, Long> tookByType = new ConcurrentHashMap<>();
+        AtomicLong totalFindings = new AtomicLong();
+        List<String> types = new ArrayList<>(monitorIdsByType.keySet());
+        BoundedFanOut.execute(types, types.size(), () -> false, (type, typeListener) -> {
+            long start = System.nanoTime();
+            searchFindingsOfType(type, monitorIdsByType.get(type), detectorIds, typePage, searchAfter, startTime, endTime, new ActionListener<>() {
+                @Override
+                public void onResponse(SearchHits hits) {
+                    try {
+                        findingsByType.put(type, parseFindings(hits));
+                    } catch (IOException | RuntimeException e) {
+                        typeListener.onFailure(e);
+                        return;
+                    }
+                    totalFindings.addAndGet(hits.getTotalHits() != null? hits.getTotalHits().value: hits.getHits().length);
+                    tookByType.put(type, TimeValue.nsecToMSec(System.nanoTime() - start));
+                    typeListener.onResponse(null);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    typeListener.onFailure(e);
+                }
+            });
+        }, new ActionListener<>() {
+            @Override
+            public void onResponse(BoundedFanOut.Result<String> result) {
+                if (!result.getFailures().isEmpty()) {
+                    onFailure(result.getFailures().get(0).getValue());
+                    return;
+                }
+
+                TopFindings topFindings = new TopFindings(SortOrder.fromString(table.getSortOrder()), typePage.getSize());
+                findingsByType.values().forEach(topFindings::addAll);
+                List<Finding> findings = topFindings.page(from);
+                Finding last = findings.isEmpty()? null: findings.get(findings.size() - 1);
+                Object[] lastSortValues = last != null? new Object[]{last.getTimestamp().toEpochMilli(), last.getId()}: null;
+                int total = (int) totalFindings.get();
+
+                ActionListener<List<FindingWithDocs>> documentsListener = new ActionListener<>() {
+                    @Override
+                    public void onResponse(List<FindingWithDocs> findingsWithDocs) {
+                        GetFindingsResponse response = toGetFindingsResponse(findingsWithDocs, total, monitorToDetectorMapping, detectorIds, fingerprint, page, lastSortValues);
+                        listener.onResponse(new GetFindingsResponse(response.getTotalFindings(), response.getFindings(), response.getNextCursor(), new TreeMap<>(tookByType)));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        listener.onFailure(SecurityAnalyticsException.wrap(e));
+                    }
+                };
+                if (includeDocuments) {
+                    new FindingDocuments(client).fetch(findings, documentFields, documentsListener);
+                } else {
+                    documentsListener.onResponse(FindingDocuments.withoutDocuments(findings));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.error("Failed to fetch the findings of detector types " + types, e);
+                listener.onFailure(SecurityAnalyticsException.wrap(e));
+            }
+        });
+    }
+
+    /**
+     * Searches the first findings of the monitors of a detector type, in the findings indices of the time range.
+     */
+    private void searchFindingsOfType(
+            String detectorType,
+            List<String> monitorIds,
+            Set<String> detectorIds,
+            Table table,
+            SearchCursor cursor,
+            Instant startTime,
+            Instant endTime,
+            ActionListener<SearchHits> listener
+    ) {
+        SharedMonitorIds.resolve(client, monitorIds, new ActionListener<>() {
+            @Override
+            public void onResponse(Set<String> sharedMonitorIds) {
+                SearchSourceBuilder source = SearchCursor.page(findingsSearchSource(monitorIds, sharedMonitorIds, detectorIds, table, startTime, endTime), table, cursor, ID_FIELD);
+                ActionListener<List<String>> indicesListener = new ActionListener<>() {
+                    @Override
+                    public void onResponse(List<String> indices) {
+                        if (indices.isEmpty()) {
+                            listener.onResponse(SearchHits.empty());
+                            return;
+                        }
+                        // a type with no findings yet has no findings index
+                        SearchRequest searchRequest = new SearchRequest(indices.toArray(new String[0]))
+                                .source(source)
+                                .indicesOptions(IndicesOptions.lenientExpandOpen());
+                        client.search(searchRequest, new ActionListener<>() {
+                            @Override
+                            public void onResponse(SearchResponse response) {
+                                listener.onResponse(response.getHits());
+                            }
+
+                            @Override
+                            public void onFailure(Exception e) {
+                                listener.onFailure(e);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        listener.onFailure(e);
+                    }
+                };
+
+                String findingsIndex = DetectorMonitorConfig.getFindingsIndex(detectorType);
+                if (startTime == null && endTime == null) {
+                    indicesListener.onResponse(List.of(findingsIndex));
+                } else {
+                    TimeRangeIndices.resolve(client, findingsIndex, startTime, endTime, indicesListener);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Maps a finding to the findings of the requested detectors. A finding of a monitor shared by several detectors
+     * is split into one finding per detector whose queries matched, each with the queries of its detector only.
+     */
+    public List<FindingDto> mapFindingWithDocsToFindingDtos(FindingWithDocs findingWithDocs, Map<String, String> monitorToDetectorMapping) {
+        return mapFindingWithDocsToFindingDtos(findingWithDocs, monitorToDetectorMapping, new HashSet<>(monitorToDetectorMapping.values()));
+    }
+
+    /**
+     * Maps a finding to the findings of the detectors, which may share monitors with each other.
+     */
+    public List<FindingDto> mapFindingWithDocsToFindingDtos(FindingWithDocs findingWithDocs, Map<String, String> monitorToDetectorMapping, Set<String> detectorIds) {
+        Finding finding = findingWithDocs.getFinding();
+        if (!SharedMonitors.isSharedMonitor(finding.getMonitorName())) {
+            return List.of(mapFindingWithDocsToFindingDto(findingWithDocs, monitorToDetectorMapping.get(finding.getMonitorId())));
+        }
+
+        List<FindingDto> findings = new ArrayList<>();
+        for (String detectorId: SharedMonitors.detectorIds(finding.getDocLevelQueries())) {
+            if (detectorIds.contains(detectorId)) {
+                findings.add(new FindingDto(
+                        detectorId,
+                        finding.getId(),
+                        finding.getRelatedDocIds(),
+                        finding.getIndex(),
+                        SharedMonitors.queriesOf(detectorId, finding.getDocLevelQueries()),
+                        finding.getTimestamp(),
+                        findingWithDocs.getDocuments()
+                ));
+            }
+        }
+        return findings;
+    }
+
     public FindingDto mapFindingWithDocsToFindingDto(FindingWithDocs findingWithDocs, String detectorId) {
         return new FindingDto(
                 detectorId,
                 findingWithDocs.getFinding().getId(),
                 findingWithDocs.getFinding().getRelatedDocIds(),
                 findingWithDocs.getFinding().getIndex(),
-                findingWithDocs.getFinding().getDocLevelQueries(),
+                CompiledTriggers.stripTriggerTags(findingWithDocs.getFinding().getDocLevelQueries()),
                 findingWithDocs.getFinding().getTimestamp(),
                 findingWithDocs.getDocuments()
         );
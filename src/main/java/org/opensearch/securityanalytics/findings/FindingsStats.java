@@ -0,0 +1,187 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.findings;
+
+import org.apache.lucene.search.join.ScoreMode;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.RangeQueryBuilder;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.Aggregations;
+import org.opensearch.search.aggregations.bucket.filter.Filter;
+import org.opensearch.search.aggregations.bucket.histogram.DateHistogramInterval;
+import org.opensearch.search.aggregations.bucket.histogram.Histogram;
+import org.opensearch.search.aggregations.bucket.nested.Nested;
+import org.opensearch.search.aggregations.bucket.nested.ReverseNested;
+import org.opensearch.search.aggregations.bucket.terms.IncludeExclude;
+import org.opensearch.search.aggregations.bucket.terms.Terms;
+import org.opensearch.search.aggregations.metrics.Cardinality;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.action.GetFindingsStatsRequest;
+import org.opensearch.securityanalytics.action.GetFindingsStatsResponse;
+import org.opensearch.securityanalytics.action.GetFindingsStatsResponse.StatsBucket;
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.util.DetectorMetadata;
+import org.opensearch.securityanalytics.util.SharedMonitors;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the aggregations summarizing the findings of a detector type or of a detector, and reads them back into a
+ * {@link GetFindingsStatsResponse}. Findings are counted in the findings indices directly, so the summary costs one
+ * search with no findings or documents fetched.
+ */
+public class FindingsStats {
+
+    public static final List<String> SEVERITY_LEVELS = List.of("informational", "low", "medium", "high", "critical");
+
+    private static final String QUERIES_PATH = "queries";
+    private static final String QUERY_ID_FIELD = "queries.id";
+    private static final String QUERY_TAGS_FIELD = "queries.tags.keyword";
+    private static final String MONITOR_ID_FIELD = "monitor_id";
+    private static final String RELATED_DOC_IDS_FIELD = "related_doc_ids";
+    private static final String TIMESTAMP_FIELD = "timestamp";
+
+    private static final String AFFECTED_DOCUMENTS_AGG = "affected_documents";
+    private static final String TIMELINE_AGG = "timeline";
+    private static final String QUERIES_AGG = "queries";
+    private static final String DETECTOR_QUERIES_AGG = "detector_queries";
+    private static final String RULES_AGG = "rules";
+    private static final String SEVERITIES_AGG = "severities";
+    private static final String TAGS_AGG = "tags";
+    private static final String FINDINGS_AGG = "findings";
+
+    /**
+     * Queries of shared monitors are scoped by their detector, so a severity may come with one bucket per detector.
+     */
+    private static final int SEVERITY_BUCKETS = 100;
+
+    // '#' is the empty language in Lucene regular expressions and has to be escaped
+    private static final String SEVERITY_TAGS = "(.*\\#)?(" + String.join("|", SEVERITY_LEVELS) + ")";
+    private static final String EXCLUDED_TAGS = "(.*\\#)?trigger\\#.*|.*\\#";
+
+    /**
+     * Returns the findings indices of a detector type, the write index and all the indices it rolled over to.
+     */
+    public static String findingsIndices(String detectorType) {
+        return DetectorMonitorConfig.getFindingsIndex(detectorType) + "*";
+    }
+
+    /**
+     * Builds the search of the stats, limited to the findings of the detector if there is one.
+     */
+    public static SearchSourceBuilder searchSource(GetFindingsStatsRequest request, DetectorMetadata detector) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery();
+        if (request.getStartTime() != null || request.getEndTime() != null) {
+            RangeQueryBuilder range = QueryBuilders.rangeQuery(TIMESTAMP_FIELD);
+            if (request.getStartTime() != null) {
+                range.gte(request.getStartTime().toEpochMilli());
+            }
+            if (request.getEndTime() != null) {
+                range.lte(request.getEndTime().toEpochMilli());
+            }
+            query.filter(range);
+        }
+
+        QueryBuilder detectorQueries = QueryBuilders.matchAllQuery();
+        if (detector != null) {
+            query.filter(QueryBuilders.termsQuery(MONITOR_ID_FIELD, detector.getMonitorIds()));
+            // the queries of a shared monitor belong to the detector their id is scoped by
+            detectorQueries = SharedMonitors.scopedBy(QUERY_ID_FIELD, List.of(detector.getId()));
+            query.filter(QueryBuilders.nestedQuery(QUERIES_PATH, detectorQueries, ScoreMode.None));
+        }
+
+        return new SearchSourceBuilder()
+                .query(query)
+                .size(0)
+                .trackTotalHits(true)
+                .aggregation(AggregationBuilders.cardinality(AFFECTED_DOCUMENTS_AGG).field(RELATED_DOC_IDS_FIELD))
+                .aggregation(AggregationBuilders.dateHistogram(TIMELINE_AGG)
+                        .field(TIMESTAMP_FIELD)
+                        .fixedInterval(new DateHistogramInterval(request.getInterval()))
+                        .minDocCount(1))
+                .aggregation(AggregationBuilders.nested(QUERIES_AGG, QUERIES_PATH)
+                        .subAggregation(AggregationBuilders.filter(DETECTOR_QUERIES_AGG, detectorQueries)
+                                .subAggregation(findingsPerTerm(AggregationBuilders.terms(RULES_AGG)
+                                        .field(QUERY_ID_FIELD)
+                                        .size(request.getSize())))
+                                .subAggregation(findingsPerTerm(AggregationBuilders.terms(SEVERITIES_AGG)
+                                        .field(QUERY_TAGS_FIELD)
+                                        .includeExclude(new IncludeExclude(SEVERITY_TAGS, null))
+                                        .size(SEVERITY_BUCKETS)))
+                                .subAggregation(findingsPerTerm(AggregationBuilders.terms(TAGS_AGG)
+                                        .field(QUERY_TAGS_FIELD)
+                                        .includeExclude(new IncludeExclude(null, EXCLUDED_TAGS))
+                                        .size(request.getSize())))));
+    }
+
+    /**
+     * The terms are terms of the matched queries, a finding is counted once per term however many of its queries
+     * have the term.
+     */
+    private static AggregationBuilder findingsPerTerm(AggregationBuilder terms) {
+        return terms.subAggregation(AggregationBuilders.reverseNested(FINDINGS_AGG));
+    }
+
+    public static GetFindingsStatsResponse toResponse(SearchResponse response, int size) {
+        Aggregations aggregations = response.getAggregations();
+        if (aggregations == null) {
+            // no findings index yet
+            return new GetFindingsStatsResponse(0L, 0L, List.of(), List.of(), List.of(), List.of());
+        }
+
+        Cardinality affectedDocuments = aggregations.get(AFFECTED_DOCUMENTS_AGG);
+        Histogram timeline = aggregations.get(TIMELINE_AGG);
+        Nested queries = aggregations.get(QUERIES_AGG);
+        Aggregations detectorQueries = ((Filter) queries.getAggregations().get(DETECTOR_QUERIES_AGG)).getAggregations();
+
+        List<StatsBucket> timelineBuckets = timeline.getBuckets().stream()
+                .map(bucket -> new StatsBucket(((ZonedDateTime) bucket.getKey()).toInstant().toString(), bucket.getDocCount()))
+                .collect(Collectors.toList());
+
+        return new GetFindingsStatsResponse(
+                response.getHits().getTotalHits() != null? response.getHits().getTotalHits().value: 0L,
+                affectedDocuments.getValue(),
+                mergeBuckets(buckets((Terms) detectorQueries.get(RULES_AGG)), size),
+                mergeBuckets(buckets((Terms) detectorQueries.get(SEVERITIES_AGG)), SEVERITY_LEVELS.size()),
+                mergeBuckets(buckets((Terms) detectorQueries.get(TAGS_AGG)), size),
+                timelineBuckets
+        );
+    }
+
+    private static List<StatsBucket> buckets(Terms terms) {
+        List<StatsBucket> buckets = new ArrayList<>(terms.getBuckets().size());
+        for (Terms.Bucket bucket: terms.getBuckets()) {
+            ReverseNested findings = bucket.getAggregations().get(FINDINGS_AGG);
+            buckets.add(new StatsBucket(bucket.getKeyAsString(), findings.getDocCount()));
+        }
+        return buckets;
+    }
+
+    /**
+     * Merges the buckets of the same rule or tag scoped by different detectors in shared monitors, and returns the
+     * largest buckets.
+     */
+    static List<StatsBucket> mergeBuckets(List<StatsBucket> buckets, int size) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (StatsBucket bucket: buckets) {
+            String key = SharedMonitors.detectorId(bucket.getKey()) != null? SharedMonitors.unscope(bucket.getKey()): bucket.getKey();
+            counts.merge(key, bucket.getCount(), Long::sum);
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(size)
+                .map(entry -> new StatsBucket(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.findings;
+
+import org.opensearch.commons.alerting.model.Finding;
+import org.opensearch.search.sort.SortOrder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the first findings, by timestamp and then id, of several sorted result lists. The findings are kept in a heap
+ * of at most the requested number of findings whose head is the last one kept, so merging n findings costs
+ * O(n log k) and never holds more than k of them.
+ */
+public class TopFindings {
+
+    private final Comparator<Finding> order;
+
+    private final PriorityQueue<Finding> heap;
+
+    private final int capacity;
+
+    public TopFindings(SortOrder sortOrder, int capacity) {
+        this.order = order(sortOrder);
+        this.capacity = capacity;
+        // the head of the heap is the last finding kept, the first one to evict
+        this.heap = new PriorityQueue<>(Math.max(1, capacity), this.order.reversed());
+    }
+
+    /**
+     * The order of the findings by timestamp, with the finding id as tie breaker like the searches being merged.
+     */
+    public static Comparator<Finding> order(SortOrder sortOrder) {
+        Comparator<Finding> byTimestamp = Comparator.comparing(Finding::getTimestamp);
+        if (sortOrder == SortOrder.DESC) {
+            byTimestamp = byTimestamp.reversed();
+        }
+        return byTimestamp.thenComparing(Finding::getId);
+    }
+
+    /**
+     * Adds the findings of one search, sorted in the order of the merge.
+     */
+    public void addAll(List<Finding> findings) {
+        for (Finding finding: findings) {
+            if (heap.size() < capacity) {
+                heap.add(finding);
+            } else if (capacity > 0 && order.compare(finding, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(finding);
+            } else {
+                // the remaining findings of a sorted list come after this one
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the findings kept, in order, skipping the first ones.
+     */
+    public List<Finding> page(int from) {
+        List<Finding> findings = new ArrayList<>(heap);
+        findings.sort(order);
+        return from >= findings.size()? Collections.emptyList(): findings.subList(from, findings.size());
+    }
+}
@@ -25,9 +25,13 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 
 import java.util.stream.Collectors;
 
@@ -50,6 +54,7 @@ public class Detector implements Writeable, ToXContentObject {
     public static final String ENABLED_TIME_FIELD = "enabled_time";
     public static final String ALERTING_MONITOR_ID = "monitor_id";
     private static final String RULE_TOPIC_INDEX = "rule_topic_index";
+    private static final String BUCKET_MONITOR_IDS = "bucket_monitor_ids";
 
     private static final String ALERTS_INDEX = "alert_index";
     private static final String ALERTS_HISTORY_INDEX = "alert_history_index";
@@ -92,6 +97,12 @@ public class Detector implements Writeable, ToXContentObject {
 
     private String ruleIndex;
 
+    /**
+     * The bucket level monitors among the monitors of the detector, keyed by the group by field and window of their
+     * aggregation rules.
+     */
+    private Map<String, String> bucketMonitorIds = new TreeMap<>();
+
     private String alertsIndex;
 
     private String alertsHistoryIndex;
@@ -150,11 +161,12 @@ public class Detector implements Writeable, ToXContentObject {
                 sin.readList(DetectorTrigger::readFrom),
                 sin.readStringList(),
                 sin.readString(),
-                sin.readString(),
-                sin.readString(),
-                sin.readString(),
-                sin.readString(),
-                sin.readString());
+                sin.readOptionalString(),
+                sin.readOptionalString(),
+                sin.readOptionalString(),
+                sin.readOptionalString(),
+                sin.readOptionalString());
+        this.bucketMonitorIds = new TreeMap<>(sin.readMap(StreamInput::readString, StreamInput::readString));
     }
 
     @Override
@@ -186,6 +198,12 @@ public class Detector implements Writeable, ToXContentObject {
         }
         out.writeStringCollection(monitorIds);
         out.writeString(ruleIndex);
+        out.writeOptionalString(alertsIndex);
+        out.writeOptionalString(alertsHistoryIndex);
+        out.writeOptionalString(alertsHistoryIndexPattern);
+        out.writeOptionalString(findingsIndex);
+        out.writeOptionalString(findingsIndexPattern);
+        out.writeMap(bucketMonitorIds, StreamOutput::writeString, StreamOutput::writeString);
     }
 
     public XContentBuilder toXContentWithUser(XContentBuilder builder, Params params) throws IOException {
@@ -269,6 +287,7 @@ public class Detector implements Writeable, ToXContentObject {
 
         builder.field(ALERTING_MONITOR_ID, monitorIds);
         builder.field(RULE_TOPIC_INDEX, ruleIndex);
+        builder.field(BUCKET_MONITOR_IDS, bucketMonitorIds);
         builder.field(ALERTS_INDEX, alertsIndex);
         builder.field(ALERTS_HISTORY_INDEX, alertsHistoryIndex);
         builder.field(ALERTS_HISTORY_INDEX_PATTERN, alertsHistoryIndexPattern);
@@ -313,6 +332,7 @@ public class Detector implements Writeable, ToXContentObject {
         List<DetectorTrigger> triggers = new ArrayList<>();
         List<String> monitorIds = new ArrayList<>();
         String ruleIndex = null;
+        Map<String, String> bucketMonitorIds = new TreeMap<>();
         String alertsIndex = null;
         String alertsHistoryIndex = null;
         String alertsHistoryIndexPattern = null;
@@ -393,6 +413,14 @@ public class Detector implements Writeable, ToXContentObject {
                 case RULE_TOPIC_INDEX:
                     ruleIndex = xcp.text();
                     break;
+                case BUCKET_MONITOR_IDS:
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+                        String groupKey = xcp.currentName();
+                        xcp.nextToken();
+                        bucketMonitorIds.put(groupKey, xcp.text());
+                    }
+                    break;
                 case ALERTS_INDEX:
                     alertsIndex = xcp.text();
                     break;
@@ -419,7 +447,7 @@ public class Detector implements Writeable, ToXContentObject {
             enabledTime = null;
         }
 
-        return new Detector(
+        Detector detector = new Detector(
                 id,
                 version,
                 Objects.requireNonNull(name, "Detector name is null"),
@@ -438,6 +466,8 @@ public class Detector implements Writeable, ToXContentObject {
                 alertsHistoryIndexPattern,
                 findingsIndex,
                 findingsIndexPattern);
+        detector.setBucketMonitorIds(bucketMonitorIds);
+        return detector;
     }
 
     public static Detector readFrom(StreamInput sin) throws IOException {
@@ -516,6 +546,18 @@ public class Detector implements Writeable, ToXContentObject {
         return monitorIds;
     }
 
+    public Map<String, String> getBucketMonitorIds() {
+        return bucketMonitorIds;
+    }
+
+    /**
+     * Returns the ids of the doc level monitors of the detector, in order.
+     */
+    public List<String> getDocLevelMonitorIds() {
+        Set<String> bucketMonitors = new HashSet<>(bucketMonitorIds.values());
+        return monitorIds.stream().filter(monitorId -> !bucketMonitors.contains(monitorId)).collect(Collectors.toList());
+    }
+
     public void setId(String id) {
         this.id = id;
     }
@@ -564,6 +606,10 @@ public class Detector implements Writeable, ToXContentObject {
         this.monitorIds = monitorIds;
     }
 
+    public void setBucketMonitorIds(Map<String, String> bucketMonitorIds) {
+        this.bucketMonitorIds = new TreeMap<>(bucketMonitorIds);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
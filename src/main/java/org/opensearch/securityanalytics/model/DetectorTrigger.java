@@ -17,12 +17,10 @@ import org.opensearch.common.xcontent.XContentBuilder;
 import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.common.xcontent.XContentParserUtils;
 import org.opensearch.commons.alerting.model.action.Action;
-import org.opensearch.script.Script;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
@@ -220,78 +218,6 @@ public class DetectorTrigger implements Writeable, ToXContentObject {
         return Objects.hash(id, name, severity, ruleTypes, ruleIds, ruleSeverityLevels, tags, actions);
     }
 
-    public Script convertToCondition() {
-        StringBuilder condition = new StringBuilder();
-        boolean triggerFlag = false;
-
-        StringBuilder ruleTypeBuilder = new StringBuilder();
-        int size = ruleTypes.size();
-        for (int idx = 0; idx < size; ++idx) {
-            ruleTypeBuilder.append(String.format(Locale.getDefault(), "query[tag=%s]", ruleTypes.get(idx)));
-            if (idx < size - 1) {
-                ruleTypeBuilder.append(" || ");
-            }
-        }
-        if (size > 0) {
-            condition.append("(").append(ruleTypeBuilder).append(")");
-            triggerFlag = true;
-        }
-
-        StringBuilder ruleNameBuilder = new StringBuilder();
-        size = ruleIds.size();
-        for (int idx = 0; idx < size; ++idx) {
-            ruleNameBuilder.append(String.format(Locale.getDefault(), "query[name=%s]", ruleIds.get(idx)));
-            if (idx < size - 1) {
-                ruleNameBuilder.append(" || ");
-            }
-        }
-        if (size > 0) {
-            if (triggerFlag) {
-                condition.append(" && ").append("(").append(ruleNameBuilder).append(")");
-            } else {
-                condition.append("(").append(ruleNameBuilder).append(")");
-                triggerFlag = true;
-            }
-        }
-
-        StringBuilder ruleSevLevelBuilder = new StringBuilder();
-        size = ruleSeverityLevels.size();
-        for (int idx = 0; idx < size; ++idx) {
-            ruleSevLevelBuilder.append(String.format(Locale.getDefault(), "query[tag=%s]", ruleSeverityLevels.get(idx)));
-            if (idx < size - 1) {
-                ruleSevLevelBuilder.append(" || ");
-            }
-        }
-
-        if (size > 0) {
-            if (triggerFlag) {
-                condition.append(" && ").append("(").append(ruleSevLevelBuilder).append(")");
-            } else {
-                condition.append("(").append(ruleSevLevelBuilder).append(")");
-                triggerFlag = true;
-            }
-        }
-
-        StringBuilder tagBuilder = new StringBuilder();
-        size = tags.size();
-        for (int idx = 0; idx < size; ++idx) {
-            tagBuilder.append(String.format(Locale.getDefault(), "query[tag=%s]", tags.get(idx)));
-            if (idx < size - 1) {
-                ruleSevLevelBuilder.append(" || ");
-            }
-        }
-
-        if (size > 0) {
-            if (triggerFlag) {
-                condition.append(" && ").append("(").append(tagBuilder).append(")");
-            } else {
-                condition.append("(").append(tagBuilder).append(")");
-            }
-        }
-
-        return new Script(condition.toString());
-    }
-
     public String getId() {
         return id;
     }
@@ -304,6 +230,22 @@ public class DetectorTrigger implements Writeable, ToXContentObject {
         return severity;
     }
 
+    public List<String> getRuleTypes() {
+        return ruleTypes;
+    }
+
+    public List<String> getRuleIds() {
+        return ruleIds;
+    }
+
+    public List<String> getRuleSeverityLevels() {
+        return ruleSeverityLevels;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
     public List<Action> getActions() {
         return actions;
     }
@@ -51,6 +51,7 @@ public class Rule implements Writeable, ToXContentObject {
 
     private static final String QUERIES = "queries";
     public static final String RULE = "rule";
+    public static final String RULE_HASH = "rule_hash";
 
     public static final String PRE_PACKAGED_RULES_INDEX = ".opensearch-pre-packaged-rules-config";
     public static final String CUSTOM_RULES_INDEX = ".opensearch-custom-rules-config";
@@ -221,6 +222,9 @@ public class Rule implements Writeable, ToXContentObject {
         queryArray = queries.toArray(queryArray);
         builder.field(QUERIES, queryArray);
 
+        if (params.param(RULE_HASH) != null) {
+            builder.field(RULE_HASH, params.param(RULE_HASH));
+        }
         builder.field(RULE, rule);
         if (params.paramAsBoolean("with_type", false)) {
             builder.endObject();
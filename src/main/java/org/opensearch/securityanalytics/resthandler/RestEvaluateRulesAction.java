@@ -0,0 +1,66 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.resthandler;
+
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
+import org.opensearch.securityanalytics.action.EvaluateRulesAction;
+import org.opensearch.securityanalytics.action.EvaluateRulesRequest;
+import org.opensearch.securityanalytics.model.Detector;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.opensearch.rest.RestRequest.Method.POST;
+
+public class RestEvaluateRulesAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "evaluate_rules_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(new Route(POST, String.format(Locale.getDefault(), "%s/{%s}/_evaluate", SecurityAnalyticsPlugin.DETECTOR_BASE_URI, EvaluateRulesRequest.DETECTOR_ID)));
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        String detectorId = request.param(EvaluateRulesRequest.DETECTOR_ID, Detector.NO_ID);
+
+        List<Map<String, Object>> documents = new ArrayList<>();
+        XContentParser xcp = request.contentParser();
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            if (EvaluateRulesRequest.DOCUMENTS_FIELD.equals(fieldName)) {
+                XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                    documents.add(xcp.map());
+                }
+            } else {
+                xcp.skipChildren();
+            }
+        }
+
+        EvaluateRulesRequest req = new EvaluateRulesRequest(detectorId, documents);
+        return channel -> client.execute(
+                EvaluateRulesAction.INSTANCE,
+                req,
+                new RestToXContentListener<>(channel)
+        );
+    }
+}
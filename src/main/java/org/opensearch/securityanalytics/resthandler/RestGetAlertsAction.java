@@ -5,6 +5,7 @@ SPDX-License-Identifier: Apache-2.0
 package org.opensearch.securityanalytics.resthandler;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import org.opensearch.client.node.NodeClient;
@@ -18,6 +19,7 @@ import org.opensearch.securityanalytics.action.GetAlertsRequest;
 import org.opensearch.securityanalytics.action.GetFindingsAction;
 import org.opensearch.securityanalytics.action.GetFindingsRequest;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.RestHandlerUtils;
 
 
 import static java.util.Collections.singletonList;
@@ -44,6 +46,11 @@ public class RestGetAlertsAction extends BaseRestHandler {
         int size = request.paramAsInt("size", 20);
         int startIndex = request.paramAsInt("startIndex", 0);
         String searchString = request.param("searchString", "");
+        // cursor of the previous page, takes precedence over startIndex
+        String cursor = request.param("cursor");
+        // the time range of the start time of the alerts, the completed alerts of the range are searched too
+        Instant startTime = RestHandlerUtils.paramAsInstant(request, RestHandlerUtils.START_TIME);
+        Instant endTime = RestHandlerUtils.paramAsInstant(request, RestHandlerUtils.END_TIME);
 
         Table table = new Table(
                 sortOrder,
@@ -59,7 +66,10 @@ public class RestGetAlertsAction extends BaseRestHandler {
                 detectorType != null ? Detector.DetectorType.valueOf(detectorType.toUpperCase(Locale.ROOT)) : null,
                 table,
                 severityLevel,
-                alertState
+                alertState,
+                cursor,
+                startTime,
+                endTime
         );
 
         return channel -> client.execute(
@@ -5,6 +5,7 @@ SPDX-License-Identifier: Apache-2.0
 package org.opensearch.securityanalytics.resthandler;
 
 import java.io.IOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
 import org.opensearch.client.node.NodeClient;
@@ -16,6 +17,7 @@ import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
 import org.opensearch.securityanalytics.action.GetFindingsAction;
 import org.opensearch.securityanalytics.action.GetFindingsRequest;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.RestHandlerUtils;
 
 
 import static java.util.Collections.singletonList;
@@ -40,6 +42,14 @@ public class RestGetFindingsAction extends BaseRestHandler {
         int size = request.paramAsInt("size", 20);
         int startIndex = request.paramAsInt("startIndex", 0);
         String searchString = request.param("searchString", "");
+        // cursor of the previous page, takes precedence over startIndex
+        String cursor = request.param("cursor");
+        // list views can skip the documents of the findings, or only return some of their fields
+        boolean includeDocuments = request.paramAsBoolean("include_documents", true);
+        String[] documentFields = request.paramAsStringArray("document_fields", null);
+        // only the findings indices overlapping the time range are searched
+        Instant startTime = RestHandlerUtils.paramAsInstant(request, RestHandlerUtils.START_TIME);
+        Instant endTime = RestHandlerUtils.paramAsInstant(request, RestHandlerUtils.END_TIME);
 
         Table table = new Table(
                 sortOrder,
@@ -53,7 +63,12 @@ public class RestGetFindingsAction extends BaseRestHandler {
         GetFindingsRequest req = new GetFindingsRequest(
                 detectorId,
                 detectorType != null ? Detector.DetectorType.valueOf(detectorType.toUpperCase(Locale.ROOT)) : null,
-                table
+                table,
+                cursor,
+                includeDocuments,
+                documentFields != null ? List.of(documentFields) : null,
+                startTime,
+                endTime
         );
 
         return channel -> client.execute(
@@ -0,0 +1,62 @@
+/*
+Copyright OpenSearch Contributors
+SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.resthandler;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
+import org.opensearch.securityanalytics.action.GetFindingsStatsAction;
+import org.opensearch.securityanalytics.action.GetFindingsStatsRequest;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.RestHandlerUtils;
+
+
+import static java.util.Collections.singletonList;
+import static org.opensearch.rest.RestRequest.Method.GET;
+
+public class RestGetFindingsStatsAction extends BaseRestHandler {
+
+    @Override
+    public String getName() {
+        return "get_findings_stats_action_sa";
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+
+        String detectorId = request.param("detector_id", null);
+        String detectorType = request.param("detectorType", null);
+        Instant startTime = RestHandlerUtils.paramAsInstant(request, RestHandlerUtils.START_TIME);
+        Instant endTime = RestHandlerUtils.paramAsInstant(request, RestHandlerUtils.END_TIME);
+        String interval = request.param("interval", GetFindingsStatsRequest.DEFAULT_INTERVAL);
+        int size = request.paramAsInt("size", GetFindingsStatsRequest.DEFAULT_SIZE);
+
+        GetFindingsStatsRequest req = new GetFindingsStatsRequest(
+                detectorId,
+                detectorType != null ? Detector.DetectorType.valueOf(detectorType.toUpperCase(Locale.ROOT)) : null,
+                startTime,
+                endTime,
+                interval,
+                size
+        );
+
+        return channel -> client.execute(
+                GetFindingsStatsAction.INSTANCE,
+                req,
+                new RestToXContentListener<>(channel)
+        );
+    }
+
+    @Override
+    public List<Route> routes() {
+        return singletonList(new Route(GET, SecurityAnalyticsPlugin.FINDINGS_BASE_URI + "/_stats"));
+    }
+}
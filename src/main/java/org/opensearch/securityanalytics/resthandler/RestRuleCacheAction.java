@@ -0,0 +1,45 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.resthandler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.rest.BaseRestHandler;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.action.RestToXContentListener;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
+import org.opensearch.securityanalytics.action.RuleCacheAction;
+import org.opensearch.securityanalytics.action.RuleCacheRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+public class RestRuleCacheAction extends BaseRestHandler {
+
+    private static final Logger log = LogManager.getLogger(RestRuleCacheAction.class);
+
+    @Override
+    public String getName() {
+        return "rule_cache_action";
+    }
+
+    @Override
+    public List<Route> routes() {
+        return List.of(
+                new Route(RestRequest.Method.GET, SecurityAnalyticsPlugin.RULE_BASE_URI + "/_cache/stats"),
+                new Route(RestRequest.Method.POST, SecurityAnalyticsPlugin.RULE_BASE_URI + "/_cache/_clear")
+        );
+    }
+
+    @Override
+    protected RestChannelConsumer prepareRequest(RestRequest request, NodeClient client) throws IOException {
+        log.debug(String.format(Locale.getDefault(), "%s %s", request.method(), request.path()));
+
+        RuleCacheRequest ruleCacheRequest = new RuleCacheRequest(List.of(), request.method() == RestRequest.Method.POST);
+        return channel -> client.execute(RuleCacheAction.INSTANCE, ruleCacheRequest, new RestToXContentListener<>(channel));
+    }
+}
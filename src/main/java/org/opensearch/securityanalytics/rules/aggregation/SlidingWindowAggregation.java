@@ -0,0 +1,614 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.aggregation;
+
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import org.opensearch.common.hash.MurmurHash3;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Incrementally evaluates the aggregation of a Sigma rule, like {@code count() by SourceIp > 10}, over a sliding time
+ * window. The window is split in a fixed number of time buckets and every group keeps its counters, or for
+ * {@code count(field)} the hashes of the distinct values it saw, per bucket. Documents only touch the buckets of their
+ * group, and buckets fall out of the window as time advances, so the cost of a document does not depend on the size
+ * of the window. The window advances by whole buckets, so it may cover up to one bucket less than its length.
+ * <p>
+ * A group fires when its aggregated value starts to satisfy the condition, and fires again only after it stopped
+ * satisfying it. Groups are keyed by a 64 bit hash of the group value in a primitive hash map; groups whose hashes
+ * collide are chained. Instances are not thread safe.
+ */
+public class SlidingWindowAggregation implements ToXContentObject {
+
+    public static final int DEFAULT_BUCKETS = 60;
+
+    private static final String SIGNATURE_FIELD = "signature";
+    private static final String WATERMARK_FIELD = "watermark";
+    private static final String GROUPS_FIELD = "groups";
+    private static final String GROUP_FIELD = "group";
+    private static final String FIRING_FIELD = "firing";
+    private static final String BUCKETS_FIELD = "buckets";
+    private static final String BUCKET_ID_FIELD = "id";
+    private static final String COUNT_FIELD = "count";
+    private static final String SUM_FIELD = "sum";
+    private static final String MIN_FIELD = "min";
+    private static final String MAX_FIELD = "max";
+    private static final String VALUES_FIELD = "values";
+
+    private static final long NO_BUCKET = Long.MIN_VALUE;
+
+    private final AggregationItem aggregation;
+
+    private final int buckets;
+
+    private final long bucketMillis;
+
+    private final boolean distinct;
+
+    private final boolean numeric;
+
+    private final LongObjectHashMap<GroupState> groups = new LongObjectHashMap<>();
+
+    private long watermark = Long.MIN_VALUE;
+
+    public SlidingWindowAggregation(AggregationItem aggregation, long windowMillis, int buckets) {
+        if (windowMillis <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("The window and its number of buckets must be positive");
+        }
+        this.aggregation = aggregation;
+        this.buckets = (int) Math.min(buckets, windowMillis);
+        this.bucketMillis = windowMillis / this.buckets;
+        // count(field) counts the distinct values of the field, like the cardinality aggregation of the bucket monitors
+        boolean hasField = aggregation.getAggField() != null && !"*".equals(aggregation.getAggField());
+        this.distinct = hasField && "count".equals(aggregation.getAggFunction());
+        this.numeric = hasField && !distinct;
+    }
+
+    /**
+     * Records a document of the group and returns the aggregated value of the group if the document made it fire, or
+     * null. Documents older than the window are dropped. The value is the distinct value for {@code count(field)},
+     * and must be numeric for the other functions with a field.
+     */
+    public Double add(String group, long timestamp, Object value) {
+        long bucketId = Math.floorDiv(timestamp, bucketMillis);
+        if (watermark != Long.MIN_VALUE && bucketId < oldestBucket()) {
+            return null;
+        }
+        watermark = Math.max(watermark, timestamp);
+
+        GroupState state = getOrCreate(group);
+        state.expire(oldestBucket());
+
+        int slot = (int) Math.floorMod(bucketId, (long) buckets);
+        if (state.bucketIds[slot] != bucketId) {
+            state.clear(slot);
+            state.bucketIds[slot] = bucketId;
+        }
+        state.record(slot, value);
+
+        double current = state.value();
+        if (matches(current)) {
+            if (!state.firing) {
+                state.firing = true;
+                return current;
+            }
+        } else {
+            state.firing = false;
+        }
+        return null;
+    }
+
+    /**
+     * Moves the window to end at the timestamp, drops the groups left without documents and returns the groups which
+     * started to fire, keyed by group value. Conditions like {@code count() < 5} can start to hold when documents
+     * leave the window; groups without documents left in the window are dropped instead of firing.
+     */
+    public List<GroupValue> advance(long timestamp) {
+        watermark = Math.max(watermark, timestamp);
+        long oldestBucket = oldestBucket();
+
+        List<GroupValue> fired = new ArrayList<>();
+        List<GroupState> empty = new ArrayList<>();
+        for (ObjectCursor<GroupState> cursor: groups.values()) {
+            for (GroupState state = cursor.value; state != null; state = state.next) {
+                state.expire(oldestBucket);
+                if (state.isEmpty()) {
+                    empty.add(state);
+                    continue;
+                }
+                double current = state.value();
+                if (matches(current)) {
+                    if (!state.firing) {
+                        state.firing = true;
+                        fired.add(new GroupValue(state.group, current));
+                    }
+                } else {
+                    state.firing = false;
+                }
+            }
+        }
+        for (GroupState state: empty) {
+            remove(state);
+        }
+        return fired;
+    }
+
+    /**
+     * Returns the aggregated value of the group over the window, or null if the group has no documents in it.
+     */
+    public Double value(String group) {
+        GroupState state = get(group);
+        if (state == null) {
+            return null;
+        }
+        state.expire(oldestBucket());
+        return state.isEmpty()? null: state.value();
+    }
+
+    public int size() {
+        int size = 0;
+        for (ObjectCursor<GroupState> cursor: groups.values()) {
+            for (GroupState state = cursor.value; state != null; state = state.next) {
+                ++size;
+            }
+        }
+        return size;
+    }
+
+    public long getWatermark() {
+        return watermark;
+    }
+
+    public long getWindowMillis() {
+        return bucketMillis * buckets;
+    }
+
+    /**
+     * Identifies the aggregation and the bucketing of the state, so a snapshot is only restored into an aggregation
+     * which computes the same thing over the same buckets.
+     */
+    public String signature() {
+        return String.format(Locale.ROOT, "%s(%s) by %s %s %s|%d|%d", aggregation.getAggFunction(), aggregation.getAggField(),
+                aggregation.getGroupByField(), aggregation.getCompOperator(), aggregation.getThreshold(), bucketMillis, buckets);
+    }
+
+    private long oldestBucket() {
+        return Math.floorDiv(watermark, bucketMillis) - buckets + 1;
+    }
+
+    private boolean matches(double value) {
+        double threshold = aggregation.getThreshold();
+        switch (aggregation.getCompOperator()) {
+            case ">":
+                return value > threshold;
+            case ">=":
+                return value >= threshold;
+            case "<":
+                return value < threshold;
+            case "<=":
+                return value <= threshold;
+            default:
+                return value == threshold;
+        }
+    }
+
+    private GroupState get(String group) {
+        for (GroupState state = groups.get(hash(group)); state != null; state = state.next) {
+            if (state.group.equals(group)) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    private GroupState getOrCreate(String group) {
+        long key = hash(group);
+        GroupState head = groups.get(key);
+        for (GroupState state = head; state != null; state = state.next) {
+            if (state.group.equals(group)) {
+                return state;
+            }
+        }
+        GroupState state = new GroupState(group);
+        state.next = head;
+        groups.put(key, state);
+        return state;
+    }
+
+    private void remove(GroupState removed) {
+        long key = hash(removed.group);
+        GroupState head = groups.get(key);
+        if (head == removed) {
+            if (removed.next == null) {
+                groups.remove(key);
+            } else {
+                groups.put(key, removed.next);
+            }
+            return;
+        }
+        for (GroupState state = head; state != null; state = state.next) {
+            if (state.next == removed) {
+                state.next = removed.next;
+                return;
+            }
+        }
+    }
+
+    private static long hash(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return MurmurHash3.hash128(bytes, 0, bytes.length, 0, new MurmurHash3.Hash128()).h1;
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject()
+                .field(SIGNATURE_FIELD, signature())
+                .field(WATERMARK_FIELD, watermark)
+                .startArray(GROUPS_FIELD);
+        for (ObjectCursor<GroupState> cursor: groups.values()) {
+            for (GroupState state = cursor.value; state != null; state = state.next) {
+                state.toXContent(builder);
+            }
+        }
+        builder.endArray();
+        return builder.endObject();
+    }
+
+    /**
+     * Replaces the state with the snapshot written by {@link #toXContent}. Returns false, leaving the state empty, if
+     * the snapshot was taken from an aggregation with another {@link #signature()}.
+     */
+    public boolean restore(XContentParser xcp) throws IOException {
+        groups.clear();
+        watermark = Long.MIN_VALUE;
+
+        String snapshotSignature = null;
+        long snapshotWatermark = Long.MIN_VALUE;
+        List<GroupState> snapshotGroups = new ArrayList<>();
+
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            switch (fieldName) {
+                case SIGNATURE_FIELD:
+                    snapshotSignature = xcp.text();
+                    break;
+                case WATERMARK_FIELD:
+                    snapshotWatermark = xcp.longValue();
+                    break;
+                case GROUPS_FIELD:
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                        snapshotGroups.add(parseGroup(xcp));
+                    }
+                    break;
+                default:
+                    xcp.skipChildren();
+            }
+        }
+
+        if (!signature().equals(snapshotSignature)) {
+            return false;
+        }
+        watermark = snapshotWatermark;
+        for (GroupState state: snapshotGroups) {
+            GroupState restored = getOrCreate(state.group);
+            System.arraycopy(state.bucketIds, 0, restored.bucketIds, 0, buckets);
+            System.arraycopy(state.counts, 0, restored.counts, 0, buckets);
+            System.arraycopy(state.sums, 0, restored.sums, 0, buckets);
+            System.arraycopy(state.mins, 0, restored.mins, 0, buckets);
+            System.arraycopy(state.maxs, 0, restored.maxs, 0, buckets);
+            restored.firing = state.firing;
+            if (distinct) {
+                for (int slot = 0; slot < buckets; ++slot) {
+                    for (LongCursor valueHash: state.values[slot]) {
+                        restored.recordHash(slot, valueHash.value);
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private GroupState parseGroup(XContentParser xcp) throws IOException {
+        GroupState state = null;
+        boolean firing = false;
+        List<Object[]> snapshotBuckets = new ArrayList<>();
+
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            switch (fieldName) {
+                case GROUP_FIELD:
+                    state = new GroupState(xcp.text());
+                    break;
+                case FIRING_FIELD:
+                    firing = xcp.booleanValue();
+                    break;
+                case BUCKETS_FIELD:
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                        snapshotBuckets.add(parseBucket(xcp));
+                    }
+                    break;
+                default:
+                    xcp.skipChildren();
+            }
+        }
+        if (state == null) {
+            throw new IllegalArgumentException("Aggregation state group is missing its group value");
+        }
+
+        state.firing = firing;
+        for (Object[] bucket: snapshotBuckets) {
+            long bucketId = (long) bucket[0];
+            int slot = (int) Math.floorMod(bucketId, (long) buckets);
+            state.bucketIds[slot] = bucketId;
+            state.counts[slot] = (long) bucket[1];
+            state.sums[slot] = (double) bucket[2];
+            state.mins[slot] = (double) bucket[3];
+            state.maxs[slot] = (double) bucket[4];
+            state.values[slot] = (LongHashSet) bucket[5];
+        }
+        return state;
+    }
+
+    private static Object[] parseBucket(XContentParser xcp) throws IOException {
+        long bucketId = NO_BUCKET;
+        long count = 0;
+        double sum = 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        LongHashSet values = new LongHashSet();
+
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            switch (fieldName) {
+                case BUCKET_ID_FIELD:
+                    bucketId = xcp.longValue();
+                    break;
+                case COUNT_FIELD:
+                    count = xcp.longValue();
+                    break;
+                case SUM_FIELD:
+                    sum = xcp.doubleValue();
+                    break;
+                case MIN_FIELD:
+                    min = xcp.doubleValue();
+                    break;
+                case MAX_FIELD:
+                    max = xcp.doubleValue();
+                    break;
+                case VALUES_FIELD:
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_ARRAY, xcp.currentToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_ARRAY) {
+                        values.add(xcp.longValue());
+                    }
+                    break;
+                default:
+                    xcp.skipChildren();
+            }
+        }
+        return new Object[]{bucketId, count, sum, min, max, values};
+    }
+
+    /**
+     * A group value and the aggregated value of the group when it fired.
+     */
+    public static class GroupValue {
+
+        private final String group;
+
+        private final double value;
+
+        public GroupValue(String group, double value) {
+            this.group = group;
+            this.value = value;
+        }
+
+        public String getGroup() {
+            return group;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+
+    private class GroupState {
+
+        private final String group;
+
+        private GroupState next;
+
+        private final long[] bucketIds = new long[buckets];
+
+        private final long[] counts = new long[buckets];
+
+        private final double[] sums = new double[buckets];
+
+        private final double[] mins = new double[buckets];
+
+        private final double[] maxs = new double[buckets];
+
+        private final LongHashSet[] values;
+
+        /**
+         * Number of live buckets holding each distinct value hash, so the distinct count of the window is the size of
+         * the map and never needs a union over the buckets.
+         */
+        private final LongIntHashMap valueRefs;
+
+        private boolean firing;
+
+        GroupState(String group) {
+            this.group = group;
+            this.values = new LongHashSet[buckets];
+            this.valueRefs = distinct? new LongIntHashMap(): null;
+            for (int slot = 0; slot < buckets; ++slot) {
+                bucketIds[slot] = NO_BUCKET;
+                mins[slot] = Double.POSITIVE_INFINITY;
+                maxs[slot] = Double.NEGATIVE_INFINITY;
+                values[slot] = distinct? new LongHashSet(): null;
+            }
+        }
+
+        void expire(long oldestBucket) {
+            for (int slot = 0; slot < buckets; ++slot) {
+                if (bucketIds[slot] != NO_BUCKET && bucketIds[slot] < oldestBucket) {
+                    clear(slot);
+                }
+            }
+        }
+
+        void clear(int slot) {
+            bucketIds[slot] = NO_BUCKET;
+            counts[slot] = 0;
+            sums[slot] = 0.0;
+            mins[slot] = Double.POSITIVE_INFINITY;
+            maxs[slot] = Double.NEGATIVE_INFINITY;
+            if (distinct) {
+                for (LongCursor valueHash: values[slot]) {
+                    if (valueRefs.addTo(valueHash.value, -1) == 0) {
+                        valueRefs.remove(valueHash.value);
+                    }
+                }
+                values[slot].clear();
+            }
+        }
+
+        void record(int slot, Object value) {
+            if (distinct) {
+                if (value != null) {
+                    recordHash(slot, hash(value.toString()));
+                }
+                counts[slot]++;
+                return;
+            }
+            if (!numeric) {
+                counts[slot]++;
+                return;
+            }
+
+            Double number = toDouble(value);
+            if (number != null) {
+                counts[slot]++;
+                sums[slot] += number;
+                mins[slot] = Math.min(mins[slot], number);
+                maxs[slot] = Math.max(maxs[slot], number);
+            }
+        }
+
+        void recordHash(int slot, long valueHash) {
+            if (values[slot].add(valueHash)) {
+                valueRefs.addTo(valueHash, 1);
+            }
+        }
+
+        boolean isEmpty() {
+            for (int slot = 0; slot < buckets; ++slot) {
+                if (bucketIds[slot] != NO_BUCKET) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double value() {
+            if (distinct) {
+                return valueRefs.size();
+            }
+
+            long count = 0;
+            double sum = 0.0;
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int slot = 0; slot < buckets; ++slot) {
+                if (bucketIds[slot] != NO_BUCKET) {
+                    count += counts[slot];
+                    sum += sums[slot];
+                    min = Math.min(min, mins[slot]);
+                    max = Math.max(max, maxs[slot]);
+                }
+            }
+
+            switch (aggregation.getAggFunction()) {
+                case "sum":
+                    return sum;
+                case "avg":
+                    return count == 0? Double.NaN: sum / count;
+                case "min":
+                    return count == 0? Double.NaN: min;
+                case "max":
+                    return count == 0? Double.NaN: max;
+                default:
+                    return count;
+            }
+        }
+
+        void toXContent(XContentBuilder builder) throws IOException {
+            builder.startObject()
+                    .field(GROUP_FIELD, group)
+                    .field(FIRING_FIELD, firing)
+                    .startArray(BUCKETS_FIELD);
+            for (int slot = 0; slot < buckets; ++slot) {
+                if (bucketIds[slot] == NO_BUCKET) {
+                    continue;
+                }
+                builder.startObject()
+                        .field(BUCKET_ID_FIELD, bucketIds[slot])
+                        .field(COUNT_FIELD, counts[slot]);
+                if (numeric && counts[slot] > 0) {
+                    builder.field(SUM_FIELD, sums[slot])
+                            .field(MIN_FIELD, mins[slot])
+                            .field(MAX_FIELD, maxs[slot]);
+                }
+                if (distinct) {
+                    builder.startArray(VALUES_FIELD);
+                    for (LongCursor valueHash: values[slot]) {
+                        builder.value(valueHash.value);
+                    }
+                    builder.endArray();
+                }
+                builder.endObject();
+            }
+            builder.endArray();
+            builder.endObject();
+        }
+    }
+
+    private static Double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mutable state of a single rule conversion, kept apart from the shared, immutable backend configuration, and the
+ * result of the conversion. A context is created by every {@link QueryBackend#convert(SigmaRule)} call and passed
+ * through the conversion of the rule.
+ */
+public class ConversionContext {
+
+    /**
+     * Prefix of the fields of the unbound values of the rule. The fields are namespaced by the rule id, so the unbound
+     * values of different rules never share a field, whichever backend converted them.
+     */
+    private final String valueFieldPrefix;
+
+    private final List<Object> queries;
+
+    private final Map<String, Object> ruleQueryFields;
+
+    private final List<Pair<SigmaRule, SigmaError>> errors;
+
+    private int valExpCount;
+
+    /**
+     * @param ruleId id of the rule converted, or null if the rule has none
+     */
+    public ConversionContext(String ruleId) {
+        this.valueFieldPrefix = ruleId != null? "_" + ruleId.replace("-", "") + "_": "_";
+        this.queries = new ArrayList<>();
+        this.ruleQueryFields = new HashMap<>();
+        this.errors = new ArrayList<>();
+        this.valExpCount = 0;
+    }
+
+    /**
+     * Returns the field of the next unbound value of the rule.
+     */
+    public String nextValueField() {
+        return valueFieldPrefix + valExpCount++;
+    }
+
+    public void addQuery(Object query) {
+        queries.add(query);
+    }
+
+    public List<Object> getQueries() {
+        return queries;
+    }
+
+    public void addQueryField(String field, Object mapping) {
+        ruleQueryFields.put(field, mapping);
+    }
+
+    public Map<String, Object> getRuleQueryFields() {
+        return ruleQueryFields;
+    }
+
+    public void addError(SigmaRule rule, SigmaError error) {
+        errors.add(Pair.of(rule, error));
+    }
+
+    public List<Pair<SigmaRule, SigmaError>> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-wide registry of the parsed OSMapping/&lt;category&gt;/fieldmappings.yml files. Each category is read and
+ * parsed once, on first use, and the resulting immutable mappings are shared by every query backend.
+ */
+public final class FieldMappingsRegistry {
+
+    private static final Map<String, Map<String, String>> fieldMappings = new ConcurrentHashMap<>();
+
+    private FieldMappingsRegistry() {}
+
+    public static Map<String, String> get(String ruleCategory) throws IOException {
+        try {
+            return fieldMappings.computeIfAbsent(ruleCategory, FieldMappingsRegistry::load);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> load(String ruleCategory) {
+        String resource = String.format(Locale.getDefault(), "OSMapping/%s/fieldmappings.yml", ruleCategory);
+        try (InputStream is = FieldMappingsRegistry.class.getClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IOException(String.format(Locale.getDefault(), "Field mappings %s not found", resource));
+            }
+            String content = new String(is.readAllBytes(), Charset.defaultCharset());
+
+            Yaml yaml = new Yaml();
+            Map<String, Object> fieldMappingsObj = yaml.load(content);
+            Map<String, String> mappings = (Map<String, String>) fieldMappingsObj.get("fieldmappings");
+            return mappings != null? Collections.unmodifiableMap(new HashMap<>(mappings)): Collections.emptyMap();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
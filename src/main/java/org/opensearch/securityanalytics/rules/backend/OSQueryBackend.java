@@ -78,8 +78,6 @@ public class OSQueryBackend extends QueryBackend {
 
     private String compareOpExpression;
 
-    private int valExpCount;
-
     private String aggQuery;
 
     private String aggCountQuery;
@@ -97,7 +95,11 @@ public class OSQueryBackend extends QueryBackend {
     private static final List<Class<?>> precedence = Arrays.asList(ConditionNOT.class, ConditionAND.class, ConditionOR.class);
 
     public OSQueryBackend(String ruleCategory, boolean collectErrors, boolean enableFieldMappings) throws IOException {
-        super(ruleCategory, true, enableFieldMappings, true, collectErrors);
+        this(enableFieldMappings? FieldMappingsRegistry.get(ruleCategory): Collections.emptyMap(), collectErrors, enableFieldMappings);
+    }
+
+    public OSQueryBackend(Map<String, String> fieldMappings, boolean collectErrors, boolean enableFieldMappings) {
+        super(fieldMappings, true, enableFieldMappings, true, collectErrors);
         this.tokenSeparator = " ";
         this.orToken = "OR";
         this.andToken = "AND";
@@ -120,22 +122,21 @@ public class OSQueryBackend extends QueryBackend {
         this.unboundWildcardExpression = "%s: %s";
         this.unboundReExpression = "%s: /%s/";
         this.compareOpExpression = "\"%s\" \"%s\" %s";
-        this.valExpCount = 0;
         this.aggQuery = "\"aggs\":{\"%s\":{\"terms\":{\"field\":\"%s\"},\"aggs\":{\"%s\":{\"%s\":{\"field\":\"%s\"}}}}}";
         this.aggCountQuery = "\"aggs\":{\"%s\":{\"terms\":{\"field\":\"%s\"}}}";
         this.bucketTriggerQuery = "{\"buckets_path\":{\"%s\":\"%s\"},\"parent_bucket_path\":\"%s\",\"script\":{\"source\":\"params.%s %s %s\",\"lang\":\"painless\"}}";
     }
 
     @Override
-    public Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition) {
+    public Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition, ConversionContext context) {
         if (condition.isLeft()) {
-            return this.convertConditionAnd(condition.getLeft());
+            return this.convertConditionAnd(condition.getLeft(), context);
         }
-        return this.convertConditionOr(condition.get());
+        return this.convertConditionOr(condition.get(), context);
     }
 
     @Override
-    public Object convertConditionAnd(ConditionAND condition) {
+    public Object convertConditionAnd(ConditionAND condition, ConversionContext context) {
         try {
             StringBuilder queryBuilder = new StringBuilder();
             StringBuilder joiner = new StringBuilder();
@@ -153,11 +154,11 @@ public class OSQueryBackend extends QueryBackend {
                         ConditionType argType = arg.getLeft().getLeft().getClass().equals(ConditionAND.class)? new ConditionType(Either.left(AnyOneOf.leftVal((ConditionAND) arg.getLeft().getLeft()))):
                                 (arg.getLeft().getLeft().getClass().equals(ConditionOR.class)? new ConditionType(Either.left(AnyOneOf.middleVal((ConditionOR) arg.getLeft().getLeft()))):
                                         new ConditionType(Either.left(AnyOneOf.rightVal((ConditionNOT) arg.getLeft().getLeft()))));
-                        converted = this.convertConditionGroup(argType);
+                        converted = this.convertConditionGroup(argType, context);
                     } else if (arg.getLeft().isMiddle()) {
-                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.left(arg.getLeft().getMiddle()))));
+                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.left(arg.getLeft().getMiddle()))), context);
                     } else if (arg.getLeft().isRight()) {
-                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.right(arg.getLeft().get()))));
+                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.right(arg.getLeft().get()))), context);
                     }
 
                     if (converted != null) {
@@ -178,7 +179,7 @@ public class OSQueryBackend extends QueryBackend {
     }
 
     @Override
-    public Object convertConditionOr(ConditionOR condition) {
+    public Object convertConditionOr(ConditionOR condition, ConversionContext context) {
         try {
             StringBuilder queryBuilder = new StringBuilder();
             StringBuilder joiner = new StringBuilder();
@@ -196,11 +197,11 @@ public class OSQueryBackend extends QueryBackend {
                         ConditionType argType = arg.getLeft().getLeft().getClass().equals(ConditionAND.class)? new ConditionType(Either.left(AnyOneOf.leftVal((ConditionAND) arg.getLeft().getLeft()))):
                                 (arg.getLeft().getLeft().getClass().equals(ConditionOR.class)? new ConditionType(Either.left(AnyOneOf.middleVal((ConditionOR) arg.getLeft().getLeft()))):
                                         new ConditionType(Either.left(AnyOneOf.rightVal((ConditionNOT) arg.getLeft().getLeft()))));
-                        converted = this.convertConditionGroup(argType);
+                        converted = this.convertConditionGroup(argType, context);
                     } else if (arg.getLeft().isMiddle()) {
-                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.left(arg.getLeft().getMiddle()))));
+                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.left(arg.getLeft().getMiddle()))), context);
                     } else if (arg.getLeft().isRight()) {
-                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.right(arg.getLeft().get()))));
+                        converted = this.convertConditionGroup(new ConditionType(Either.right(Either.right(arg.getLeft().get()))), context);
                     }
 
                     if (converted != null) {
@@ -221,7 +222,7 @@ public class OSQueryBackend extends QueryBackend {
     }
 
     @Override
-    public Object convertConditionNot(ConditionNOT condition) {
+    public Object convertConditionNot(ConditionNOT condition, ConversionContext context) {
         Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg = condition.getArgs().get(0);
         try {
             if (arg.isLeft()) {
@@ -229,13 +230,13 @@ public class OSQueryBackend extends QueryBackend {
                     ConditionType argType = arg.getLeft().getLeft().getClass().equals(ConditionAND.class) ? new ConditionType(Either.left(AnyOneOf.leftVal((ConditionAND) arg.getLeft().getLeft()))) :
                             (arg.getLeft().getLeft().getClass().equals(ConditionOR.class) ? new ConditionType(Either.left(AnyOneOf.middleVal((ConditionOR) arg.getLeft().getLeft()))) :
                                     new ConditionType(Either.left(AnyOneOf.rightVal((ConditionNOT) arg.getLeft().getLeft()))));
-                    return String.format(Locale.getDefault(), groupExpression, this.notToken + this.tokenSeparator + this.convertConditionGroup(argType));
+                    return String.format(Locale.getDefault(), groupExpression, this.notToken + this.tokenSeparator + this.convertConditionGroup(argType, context));
                 } else if (arg.getLeft().isMiddle()) {
                     ConditionType argType = new ConditionType(Either.right(Either.left(arg.getLeft().getMiddle())));
-                    return String.format(Locale.getDefault(), groupExpression, this.notToken + this.tokenSeparator + this.convertCondition(argType).toString());
+                    return String.format(Locale.getDefault(), groupExpression, this.notToken + this.tokenSeparator + this.convertCondition(argType, context).toString());
                 } else {
                     ConditionType argType = new ConditionType(Either.right(Either.right(arg.getLeft().get())));
-                    return String.format(Locale.getDefault(), groupExpression, this.notToken + this.tokenSeparator + this.convertCondition(argType).toString());
+                    return String.format(Locale.getDefault(), groupExpression, this.notToken + this.tokenSeparator + this.convertCondition(argType, context).toString());
                 }
             }
         } catch (Exception ex) {
@@ -245,56 +246,56 @@ public class OSQueryBackend extends QueryBackend {
     }
 
     @Override
-    public Object convertConditionFieldEqValStr(ConditionFieldEqualsValueExpression condition) throws SigmaValueError {
+    public Object convertConditionFieldEqValStr(ConditionFieldEqualsValueExpression condition, ConversionContext context) throws SigmaValueError {
         SigmaString value = (SigmaString) condition.getValue();
         boolean containsWildcard = value.containsWildcard();
         String expr = "%s" + this.eqToken + " " + (containsWildcard? this.reQuote: this.strQuote) + "%s" + (containsWildcard? this.reQuote: this.strQuote);
 
         String field = getFinalField(condition.getField());
-        ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
         return String.format(Locale.getDefault(), expr, field, this.convertValueStr(value));
     }
 
     @Override
-    public Object convertConditionFieldEqValNum(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValNum(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
         String field = getFinalField(condition.getField());
 
         SigmaNumber number = (SigmaNumber) condition.getValue();
-        ruleQueryFields.put(field, number.getNumOpt().isLeft()? Collections.singletonMap("type", "integer"): Collections.singletonMap("type", "float"));
+        context.addQueryField(field, number.getNumOpt().isLeft()? Collections.singletonMap("type", "integer"): Collections.singletonMap("type", "float"));
 
         return field + this.eqToken + " " + condition.getValue();
     }
 
     @Override
-    public Object convertConditionFieldEqValBool(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValBool(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
         String field = getFinalField(condition.getField());
-        ruleQueryFields.put(field, Collections.singletonMap("type", "boolean"));
+        context.addQueryField(field, Collections.singletonMap("type", "boolean"));
 
         return field + this.eqToken + " " + ((SigmaBool) condition.getValue()).isaBoolean();
     }
 
-    public Object convertConditionFieldEqValNull(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValNull(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
         String field = getFinalField(condition.getField());
-        ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
         return String.format(Locale.getDefault(), this.fieldNullExpression, field);
     }
 
     @Override
-    public Object convertConditionFieldEqValRe(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValRe(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
         String field = getFinalField(condition.getField());
-        ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
         return String.format(Locale.getDefault(), this.reExpression, field, convertValueRe((SigmaRegularExpression) condition.getValue()));
     }
 
     @Override
-    public Object convertConditionFieldEqValCidr(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValCidr(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
         String field = getFinalField(condition.getField());
-        ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
         return String.format(Locale.getDefault(), this.cidrExpression, field, convertValueCidr((SigmaCIDRExpression) condition.getValue()));
     }
 
     @Override
-    public Object convertConditionFieldEqValOpVal(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValOpVal(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
         return String.format(Locale.getDefault(), this.compareOpExpression, this.getMappedField(condition.getField()),
                 compareOperators.get(((SigmaCompareExpression) condition.getValue()).getOp()), ((SigmaCompareExpression) condition.getValue()).getNumber().toString());
     }
@@ -312,29 +313,29 @@ public class OSQueryBackend extends QueryBackend {
     }*/
 
     @Override
-    public Object convertConditionValStr(ConditionValueExpression condition) throws SigmaValueError {
+    public Object convertConditionValStr(ConditionValueExpression condition, ConversionContext context) throws SigmaValueError {
         SigmaString value = (SigmaString) condition.getValue();
 
-        String field = getFinalValueField();
-        ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        String field = getFinalValueField(context);
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
         boolean containsWildcard = value.containsWildcard();
         return String.format(Locale.getDefault(), (containsWildcard? this.unboundWildcardExpression: this.unboundValueStrExpression), field, this.convertValueStr((SigmaString) condition.getValue()));
     }
 
     @Override
-    public Object convertConditionValNum(ConditionValueExpression condition) {
-        String field = getFinalValueField();
+    public Object convertConditionValNum(ConditionValueExpression condition, ConversionContext context) {
+        String field = getFinalValueField(context);
 
         SigmaNumber number = (SigmaNumber) condition.getValue();
-        ruleQueryFields.put(field, number.getNumOpt().isLeft()? Collections.singletonMap("type", "integer"): Collections.singletonMap("type", "float"));
+        context.addQueryField(field, number.getNumOpt().isLeft()? Collections.singletonMap("type", "integer"): Collections.singletonMap("type", "float"));
 
         return String.format(Locale.getDefault(), this.unboundValueNumExpression, field, condition.getValue().toString());
     }
 
     @Override
-    public Object convertConditionValRe(ConditionValueExpression condition) {
-        String field = getFinalValueField();
-        ruleQueryFields.put(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+    public Object convertConditionValRe(ConditionValueExpression condition, ConversionContext context) {
+        String field = getFinalValueField(context);
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
         return String.format(Locale.getDefault(), this.unboundReExpression, field, convertValueRe((SigmaRegularExpression) condition.getValue()));
     }
 
@@ -346,7 +347,7 @@ public class OSQueryBackend extends QueryBackend {
     }*/
 
     @Override
-    public Object convertAggregation(AggregationItem aggregation) {
+    public Object convertAggregation(AggregationItem aggregation, ConversionContext context) {
         String fmtAggQuery;
         String fmtBucketTriggerQuery;
         if (aggregation.getAggFunction().equals("count")) {
@@ -379,8 +380,8 @@ public class OSQueryBackend extends QueryBackend {
         return idxInner <= precedence.indexOf(outerClass);
     }
 
-    private Object convertConditionGroup(ConditionType condition) throws SigmaValueError {
-        return String.format(Locale.getDefault(), groupExpression, this.convertCondition(condition));
+    private Object convertConditionGroup(ConditionType condition, ConversionContext context) throws SigmaValueError {
+        return String.format(Locale.getDefault(), groupExpression, this.convertCondition(condition, context));
     }
 
     private Object convertValueStr(SigmaString s) throws SigmaValueError {
@@ -395,14 +396,14 @@ public class OSQueryBackend extends QueryBackend {
         return ip.convert();
     }
 
-    private String getMappedField(String field) {
+    protected String getMappedField(String field) {
         if (this.enableFieldMappings && this.fieldMappings.containsKey(field)) {
             return this.fieldMappings.get(field);
         }
         return field;
     }
 
-    private String getFinalField(String field) {
+    protected String getFinalField(String field) {
         field = this.getMappedField(field);
         if (field.contains(".")) {
             field = field.replace(".", "_");
@@ -410,10 +411,8 @@ public class OSQueryBackend extends QueryBackend {
         return field;
     }
 
-    private String getFinalValueField() {
-        String field = "_" + valExpCount;
-        valExpCount++;
-        return field;
+    protected String getFinalValueField(ConversionContext context) {
+        return context.nextValueField();
     }
 
     public static class AggregationQueries implements Serializable {
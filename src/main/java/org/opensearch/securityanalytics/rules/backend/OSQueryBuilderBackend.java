@@ -0,0 +1,293 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.opensearch.common.Strings;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.query.RangeQueryBuilder;
+import org.opensearch.securityanalytics.rules.condition.ConditionAND;
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionNOT;
+import org.opensearch.securityanalytics.rules.condition.ConditionOR;
+import org.opensearch.securityanalytics.rules.condition.ConditionType;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.Placeholder;
+import org.opensearch.securityanalytics.rules.types.SigmaBool;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaCompareExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaNumber;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Variant of {@link OSQueryBackend} which converts rule conditions into typed {@link QueryBuilder} trees instead of
+ * query_string text. Values without wildcards become term queries, a trailing-only wildcard becomes a prefix query,
+ * other wildcards become wildcard queries, and or-ed equality runs on a single field collapse into a terms query.
+ * Field names, query field mappings and aggregations are the same as in {@link OSQueryBackend}.
+ */
+public class OSQueryBuilderBackend extends OSQueryBackend {
+
+    public OSQueryBuilderBackend(String ruleCategory, boolean collectErrors, boolean enableFieldMappings) throws IOException {
+        super(ruleCategory, collectErrors, enableFieldMappings);
+    }
+
+    public OSQueryBuilderBackend(Map<String, String> fieldMappings, boolean collectErrors, boolean enableFieldMappings) {
+        super(fieldMappings, collectErrors, enableFieldMappings);
+    }
+
+    /**
+     * Serializes a converted query so it can be stored as the query of a DocLevelQuery.
+     */
+    public static String toQueryString(QueryBuilder query) {
+        return Strings.toString(query);
+    }
+
+    @Override
+    public Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition, ConversionContext context) {
+        if (condition.isLeft()) {
+            return this.convertConditionAnd(condition.getLeft(), context);
+        }
+
+        List<Object> values = new ArrayList<>();
+        String field = null;
+        boolean strings = false;
+        boolean floats = false;
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: condition.get().getArgs()) {
+            ConditionFieldEqualsValueExpression equalsValueExpression = arg.getLeft().getMiddle();
+            if (equalsValueExpression.getValue() instanceof SigmaString) {
+                SigmaString value = (SigmaString) equalsValueExpression.getValue();
+                if (value.containsWildcard()) {
+                    return this.convertConditionOr(condition.get(), context);
+                }
+                values.add(plainValue(value));
+                strings = true;
+            } else {
+                SigmaNumber number = (SigmaNumber) equalsValueExpression.getValue();
+                values.add(numberValue(number));
+                floats |= !number.getNumOpt().isLeft();
+            }
+            field = equalsValueExpression.getField();
+        }
+
+        String finalField = getFinalField(field);
+        // the field is mapped like the equality queries the terms query replaces, numbers only for a list of numbers
+        if (strings) {
+            context.addQueryField(finalField, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        } else {
+            context.addQueryField(finalField, floats? Collections.singletonMap("type", "float"): Collections.singletonMap("type", "integer"));
+        }
+        return QueryBuilders.termsQuery(finalField, values);
+    }
+
+    @Override
+    public Object convertConditionAnd(ConditionAND condition, ConversionContext context) {
+        try {
+            BoolQueryBuilder query = QueryBuilders.boolQuery();
+            for (QueryBuilder arg: convertArgs(condition.getArgs(), context)) {
+                query.filter(arg);
+            }
+            return query;
+        } catch (Exception ex) {
+            throw new NotImplementedException("Operator 'and' not supported by the backend");
+        }
+    }
+
+    @Override
+    public Object convertConditionOr(ConditionOR condition, ConversionContext context) {
+        try {
+            BoolQueryBuilder query = QueryBuilders.boolQuery().minimumShouldMatch(1);
+            for (QueryBuilder arg: convertArgs(condition.getArgs(), context)) {
+                query.should(arg);
+            }
+            return query;
+        } catch (Exception ex) {
+            throw new NotImplementedException("Operator 'or' not supported by the backend");
+        }
+    }
+
+    @Override
+    public Object convertConditionNot(ConditionNOT condition, ConversionContext context) {
+        try {
+            List<QueryBuilder> args = convertArgs(Collections.singletonList(condition.getArgs().get(0)), context);
+            return args.isEmpty()? null: QueryBuilders.boolQuery().mustNot(args.get(0));
+        } catch (Exception ex) {
+            throw new NotImplementedException("Operator 'not' not supported by the backend");
+        }
+    }
+
+    @Override
+    public Object convertConditionFieldEqValStr(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        String field = getFinalField(condition.getField());
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        return stringQuery(field, (SigmaString) condition.getValue());
+    }
+
+    @Override
+    public Object convertConditionFieldEqValNum(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        String field = getFinalField(condition.getField());
+
+        SigmaNumber number = (SigmaNumber) condition.getValue();
+        context.addQueryField(field, number.getNumOpt().isLeft()? Collections.singletonMap("type", "integer"): Collections.singletonMap("type", "float"));
+        return QueryBuilders.termQuery(field, numberValue(number));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValBool(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        String field = getFinalField(condition.getField());
+        context.addQueryField(field, Collections.singletonMap("type", "boolean"));
+        return QueryBuilders.termQuery(field, ((SigmaBool) condition.getValue()).isaBoolean());
+    }
+
+    @Override
+    public Object convertConditionFieldEqValNull(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        String field = getFinalField(condition.getField());
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        return QueryBuilders.boolQuery().mustNot(QueryBuilders.existsQuery(field));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValRe(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        String field = getFinalField(condition.getField());
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        return QueryBuilders.regexpQuery(field, ((SigmaRegularExpression) condition.getValue()).getRegexp());
+    }
+
+    @Override
+    public Object convertConditionFieldEqValCidr(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        String field = getFinalField(condition.getField());
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        return QueryBuilders.termQuery(field, ((SigmaCIDRExpression) condition.getValue()).convert());
+    }
+
+    @Override
+    public Object convertConditionFieldEqValOpVal(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        SigmaCompareExpression compareExpression = (SigmaCompareExpression) condition.getValue();
+        RangeQueryBuilder query = QueryBuilders.rangeQuery(getMappedField(condition.getField()));
+        Object number = numberValue(compareExpression.getNumber());
+
+        switch (compareExpression.getOp()) {
+            case SigmaCompareExpression.CompareOperators.GT:
+                return query.gt(number);
+            case SigmaCompareExpression.CompareOperators.GTE:
+                return query.gte(number);
+            case SigmaCompareExpression.CompareOperators.LT:
+                return query.lt(number);
+            default:
+                return query.lte(number);
+        }
+    }
+
+    @Override
+    public Object convertConditionValStr(ConditionValueExpression condition, ConversionContext context) {
+        String field = getFinalValueField(context);
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        return stringQuery(field, (SigmaString) condition.getValue());
+    }
+
+    @Override
+    public Object convertConditionValNum(ConditionValueExpression condition, ConversionContext context) {
+        String field = getFinalValueField(context);
+
+        SigmaNumber number = (SigmaNumber) condition.getValue();
+        context.addQueryField(field, number.getNumOpt().isLeft()? Collections.singletonMap("type", "integer"): Collections.singletonMap("type", "float"));
+        return QueryBuilders.termQuery(field, numberValue(number));
+    }
+
+    @Override
+    public Object convertConditionValRe(ConditionValueExpression condition, ConversionContext context) {
+        String field = getFinalValueField(context);
+        context.addQueryField(field, Map.of("type", "text", "analyzer", "rule_analyzer"));
+        return QueryBuilders.regexpQuery(field, ((SigmaRegularExpression) condition.getValue()).getRegexp());
+    }
+
+    private List<QueryBuilder> convertArgs(List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args, ConversionContext context) throws SigmaValueError {
+        List<QueryBuilder> queries = new ArrayList<>();
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: args) {
+            if (!arg.isLeft()) {
+                continue;
+            }
+
+            ConditionType argType;
+            if (arg.getLeft().isLeft()) {
+                ConditionItem item = arg.getLeft().getLeft();
+                argType = item.getClass().equals(ConditionAND.class)? new ConditionType(Either.left(AnyOneOf.leftVal((ConditionAND) item))):
+                        (item.getClass().equals(ConditionOR.class)? new ConditionType(Either.left(AnyOneOf.middleVal((ConditionOR) item))):
+                                new ConditionType(Either.left(AnyOneOf.rightVal((ConditionNOT) item))));
+            } else if (arg.getLeft().isMiddle()) {
+                argType = new ConditionType(Either.right(Either.left(arg.getLeft().getMiddle())));
+            } else {
+                argType = new ConditionType(Either.right(Either.right(arg.getLeft().get())));
+            }
+
+            Object converted = this.convertCondition(argType, context);
+            if (converted != null) {
+                queries.add((QueryBuilder) converted);
+            }
+        }
+        return queries;
+    }
+
+    private QueryBuilder stringQuery(String field, SigmaString value) {
+        if (!value.containsWildcard()) {
+            return QueryBuilders.termQuery(field, plainValue(value));
+        }
+
+        List<AnyOneOf<String, Character, Placeholder>> parts = value.getsOpt();
+        AnyOneOf<String, Character, Placeholder> last = parts.get(parts.size() - 1);
+        boolean prefixOnly = last.isMiddle() && last.getMiddle() == SigmaString.SpecialChars.WILDCARD_MULTI;
+        for (int idx = 0; prefixOnly && idx < parts.size() - 1; ++idx) {
+            prefixOnly = !parts.get(idx).isMiddle();
+        }
+
+        if (prefixOnly) {
+            return QueryBuilders.prefixQuery(field, plainValue(value));
+        }
+        return QueryBuilders.wildcardQuery(field, wildcardValue(value));
+    }
+
+    private static String plainValue(SigmaString value) {
+        StringBuilder s = new StringBuilder();
+        for (AnyOneOf<String, Character, Placeholder> part: value.getsOpt()) {
+            if (part.isLeft()) {
+                s.append(part.getLeft());
+            }
+        }
+        return s.toString();
+    }
+
+    private static String wildcardValue(SigmaString value) {
+        StringBuilder s = new StringBuilder();
+        for (AnyOneOf<String, Character, Placeholder> part: value.getsOpt()) {
+            if (part.isLeft()) {
+                for (char c: part.getLeft().toCharArray()) {
+                    if (c == SigmaString.SpecialChars.WILDCARD_MULTI || c == SigmaString.SpecialChars.WILDCARD_SINGLE || c == SigmaString.SpecialChars.ESCAPE_CHAR) {
+                        s.append(SigmaString.SpecialChars.ESCAPE_CHAR);
+                    }
+                    s.append(c);
+                }
+            } else if (part.isMiddle()) {
+                s.append(part.getMiddle());
+            }
+        }
+        return s.toString();
+    }
+
+    private static Object numberValue(SigmaNumber number) {
+        return number.getNumOpt().isLeft()? number.getNumOpt().getLeft(): number.getNumOpt().get();
+    }
+}
@@ -28,58 +28,48 @@ import org.opensearch.securityanalytics.rules.types.SigmaType;
 import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
 import org.opensearch.securityanalytics.rules.utils.Either;
 import org.apache.commons.lang3.tuple.Pair;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Converts Sigma rules into queries. A backend only holds its configuration, the state of a conversion is kept by the
+ * {@link ConversionContext} of the conversion, so a backend can convert rules on several threads at once.
+ */
 public abstract class QueryBackend {
 
     private boolean convertOrAsIn;
     private boolean convertAndAsIn;
     private boolean collectErrors;
     protected boolean enableFieldMappings;
-    private List<Pair<SigmaRule, SigmaError>> errors;
     protected Map<String, String> fieldMappings;
 
-    private Map<String, Object> queryFields;
-    protected Map<String, Object> ruleQueryFields;
-
-    @SuppressWarnings("unchecked")
     public QueryBackend(String ruleCategory, boolean convertAndAsIn, boolean enableFieldMappings, boolean convertOrAsIn, boolean collectErrors) throws IOException {
+        this(enableFieldMappings? FieldMappingsRegistry.get(ruleCategory): Collections.emptyMap(), convertAndAsIn, enableFieldMappings, convertOrAsIn, collectErrors);
+    }
+
+    public QueryBackend(Map<String, String> fieldMappings, boolean convertAndAsIn, boolean enableFieldMappings, boolean convertOrAsIn, boolean collectErrors) {
         this.convertAndAsIn = convertAndAsIn;
         this.convertOrAsIn = convertOrAsIn;
         this.collectErrors = collectErrors;
         this.enableFieldMappings = enableFieldMappings;
-        this.errors = new ArrayList<>();
-        this.queryFields = new HashMap<>();
-
-        if (this.enableFieldMappings) {
-            InputStream is = this.getClass().getClassLoader().getResourceAsStream(String.format(Locale.getDefault(), "OSMapping/%s/fieldmappings.yml", ruleCategory));
-            assert is != null;
-            String content = new String(is.readAllBytes(), Charset.defaultCharset());
-
-            Yaml yaml = new Yaml();
-            Map<String, Object> fieldMappingsObj = yaml.load(content);
-            this.fieldMappings = (Map<String, String>) fieldMappingsObj.get("fieldmappings");
-
-            is.close();
-        } else {
-            this.fieldMappings = new HashMap<>();
-        }
+        this.fieldMappings = fieldMappings;
     }
 
     public List<Object> convertRule(SigmaRule rule) throws SigmaError {
-        this.ruleQueryFields = new HashMap<>();
-        List<Object> queries = new ArrayList<>();
+        return convert(rule).getQueries();
+    }
+
+    /**
+     * Converts a rule, returning the context of the conversion with its queries, query fields and errors.
+     */
+    public ConversionContext convert(SigmaRule rule) throws SigmaError {
+        ConversionContext context = new ConversionContext(rule.getId() != null? rule.getId().toString(): null);
         try {
             for (SigmaCondition condition: rule.getDetection().getParsedCondition()) {
                 Pair<ConditionItem, AggregationItem> parsedItems = condition.parsed();
@@ -88,52 +78,50 @@ public abstract class QueryBackend {
 
                 Object query;
                 if (conditionItem instanceof ConditionAND) {
-                    query = this.convertCondition(new ConditionType(Either.left(AnyOneOf.leftVal((ConditionAND) conditionItem))));
+                    query = this.convertCondition(new ConditionType(Either.left(AnyOneOf.leftVal((ConditionAND) conditionItem))), context);
                 } else if (conditionItem instanceof ConditionOR) {
-                    query = this.convertCondition(new ConditionType(Either.left(AnyOneOf.middleVal((ConditionOR) conditionItem))));
+                    query = this.convertCondition(new ConditionType(Either.left(AnyOneOf.middleVal((ConditionOR) conditionItem))), context);
                 } else if (conditionItem instanceof ConditionNOT) {
-                    query = this.convertCondition(new ConditionType(Either.left(AnyOneOf.rightVal((ConditionNOT) conditionItem))));
+                    query = this.convertCondition(new ConditionType(Either.left(AnyOneOf.rightVal((ConditionNOT) conditionItem))), context);
                 } else if (conditionItem instanceof ConditionFieldEqualsValueExpression) {
-                    query = this.convertCondition(new ConditionType(Either.right(Either.left((ConditionFieldEqualsValueExpression) conditionItem))));
+                    query = this.convertCondition(new ConditionType(Either.right(Either.left((ConditionFieldEqualsValueExpression) conditionItem))), context);
                 } else {
-                    query = this.convertCondition(new ConditionType(Either.right(Either.right((ConditionValueExpression) conditionItem))));
+                    query = this.convertCondition(new ConditionType(Either.right(Either.right((ConditionValueExpression) conditionItem))), context);
                 }
-                queries.add(query);
+                context.addQuery(query);
                 if (aggItem != null) {
-                    queries.add(convertAggregation(aggItem));
+                    context.addQuery(convertAggregation(aggItem, context));
                 }
             }
-
-            this.queryFields.putAll(this.ruleQueryFields);
         } catch (SigmaError ex) {
             if (this.collectErrors) {
-                this.errors.add(Pair.of(rule, ex));
+                context.addError(rule, ex);
             } else {
                 throw ex;
             }
         }
-        return queries;
+        return context;
     }
 
-    public Object convertCondition(ConditionType conditionType) throws SigmaValueError {
+    public Object convertCondition(ConditionType conditionType, ConversionContext context) throws SigmaValueError {
         if (conditionType.isConditionOR()) {
             if (this.decideConvertConditionAsInExpression(Either.right(conditionType.getConditionOR()))) {
-                return this.convertConditionAsInExpression(Either.right(conditionType.getConditionOR()));
+                return this.convertConditionAsInExpression(Either.right(conditionType.getConditionOR()), context);
             } else {
-                return this.convertConditionOr(conditionType.getConditionOR());
+                return this.convertConditionOr(conditionType.getConditionOR(), context);
             }
         } else if (conditionType.isConditionAND()) {
             if (this.decideConvertConditionAsInExpression(Either.left(conditionType.getConditionAND()))) {
-                return this.convertConditionAsInExpression(Either.left(conditionType.getConditionAND()));
+                return this.convertConditionAsInExpression(Either.left(conditionType.getConditionAND()), context);
             } else {
-                return this.convertConditionAnd(conditionType.getConditionAND());
+                return this.convertConditionAnd(conditionType.getConditionAND(), context);
             }
         } else if (conditionType.isConditionNOT()) {
-            return this.convertConditionNot(conditionType.getConditionNOT());
+            return this.convertConditionNot(conditionType.getConditionNOT(), context);
         } else if (conditionType.isEqualsValueExpression()) {
-            return this.convertConditionFieldEqVal(conditionType.getEqualsValueExpression());
+            return this.convertConditionFieldEqVal(conditionType.getEqualsValueExpression(), context);
         } else if (conditionType.isValueExpression()) {
-            return this.convertConditionVal(conditionType.getValueExpression());
+            return this.convertConditionVal(conditionType.getValueExpression(), context);
         } else {
             throw new IllegalArgumentException("Unexpected data type in condition parse tree");
         }
@@ -172,78 +160,74 @@ public abstract class QueryBackend {
         return true;
     }
 
-    public Map<String, Object> getQueryFields() {
-        return queryFields;
-    }
-
-    public abstract Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition);
+    public abstract Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition, ConversionContext context);
 
-    public abstract Object convertConditionAnd(ConditionAND condition);
+    public abstract Object convertConditionAnd(ConditionAND condition, ConversionContext context);
 
-    public abstract Object convertConditionOr(ConditionOR condition);
+    public abstract Object convertConditionOr(ConditionOR condition, ConversionContext context);
 
-    public abstract Object convertConditionNot(ConditionNOT condition);
+    public abstract Object convertConditionNot(ConditionNOT condition, ConversionContext context);
 
-    public Object convertConditionFieldEqVal(ConditionFieldEqualsValueExpression condition) throws SigmaValueError {
+    public Object convertConditionFieldEqVal(ConditionFieldEqualsValueExpression condition, ConversionContext context) throws SigmaValueError {
         if (condition.getValue() instanceof SigmaString) {
-            return this.convertConditionFieldEqValStr(condition);
+            return this.convertConditionFieldEqValStr(condition, context);
         } else if (condition.getValue() instanceof SigmaNumber) {
-            return this.convertConditionFieldEqValNum(condition);
+            return this.convertConditionFieldEqValNum(condition, context);
         } else if (condition.getValue() instanceof SigmaBool) {
-            return this.convertConditionFieldEqValBool(condition);
+            return this.convertConditionFieldEqValBool(condition, context);
         } else if (condition.getValue() instanceof SigmaRegularExpression) {
-            return this.convertConditionFieldEqValRe(condition);
+            return this.convertConditionFieldEqValRe(condition, context);
         } else if (condition.getValue() instanceof SigmaCIDRExpression) {
-            return this.convertConditionFieldEqValCidr(condition);
+            return this.convertConditionFieldEqValCidr(condition, context);
         } else if (condition.getValue() instanceof SigmaCompareExpression) {
-            return this.convertConditionFieldEqValOpVal(condition);
+            return this.convertConditionFieldEqValOpVal(condition, context);
         } else if (condition.getValue() instanceof SigmaNull) {
-            return this.convertConditionFieldEqValNull(condition);
+            return this.convertConditionFieldEqValNull(condition, context);
         }/* TODO: below methods will be supported when Sigma Expand Modifier is supported.
         else if (condition.getValue() instanceof SigmaQueryExpression) {
             return this.convertConditionFieldEqValQueryExpr(condition);
         }*/ else if (condition.getValue() instanceof SigmaExpansion) {
-            return this.convertConditionFieldEqValQueryExpansion(condition);
+            return this.convertConditionFieldEqValQueryExpansion(condition, context);
         } else {
             throw new IllegalArgumentException("Unexpected value type class in condition parse tree: " + condition.getValue().getClass().getName());
         }
     }
 
-    public abstract Object convertConditionFieldEqValStr(ConditionFieldEqualsValueExpression condition) throws SigmaValueError;
+    public abstract Object convertConditionFieldEqValStr(ConditionFieldEqualsValueExpression condition, ConversionContext context) throws SigmaValueError;
 
-    public abstract Object convertConditionFieldEqValNum(ConditionFieldEqualsValueExpression condition);
+    public abstract Object convertConditionFieldEqValNum(ConditionFieldEqualsValueExpression condition, ConversionContext context);
 
-    public abstract Object convertConditionFieldEqValBool(ConditionFieldEqualsValueExpression condition);
+    public abstract Object convertConditionFieldEqValBool(ConditionFieldEqualsValueExpression condition, ConversionContext context);
 
-    public abstract Object convertConditionFieldEqValRe(ConditionFieldEqualsValueExpression condition);
+    public abstract Object convertConditionFieldEqValRe(ConditionFieldEqualsValueExpression condition, ConversionContext context);
 
-    public abstract Object convertConditionFieldEqValCidr(ConditionFieldEqualsValueExpression condition);
+    public abstract Object convertConditionFieldEqValCidr(ConditionFieldEqualsValueExpression condition, ConversionContext context);
 
-   public abstract Object convertConditionFieldEqValOpVal(ConditionFieldEqualsValueExpression condition);
+   public abstract Object convertConditionFieldEqValOpVal(ConditionFieldEqualsValueExpression condition, ConversionContext context);
 
-    public abstract Object convertConditionFieldEqValNull(ConditionFieldEqualsValueExpression condition);
+    public abstract Object convertConditionFieldEqValNull(ConditionFieldEqualsValueExpression condition, ConversionContext context);
 
 /*    public abstract Object convertConditionFieldEqValQueryExpr(ConditionFieldEqualsValueExpression condition);*/
 
-    public Object convertConditionFieldEqValQueryExpansion(ConditionFieldEqualsValueExpression condition) {
+    public Object convertConditionFieldEqValQueryExpansion(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
         List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args = new ArrayList<>();
         for (SigmaType sigmaType: ((SigmaExpansion) condition.getValue()).getValues()) {
             args.add(Either.left(AnyOneOf.middleVal(new ConditionFieldEqualsValueExpression(condition.getField(), sigmaType))));
         }
 
         ConditionOR conditionOR = new ConditionOR(false, args);
-        return this.convertConditionOr(conditionOR);
+        return this.convertConditionOr(conditionOR, context);
     }
 
-    public Object convertConditionVal(ConditionValueExpression condition) throws SigmaValueError {
+    public Object convertConditionVal(ConditionValueExpression condition, ConversionContext context) throws SigmaValueError {
         if (condition.getValue() instanceof SigmaString) {
-            return this.convertConditionValStr(condition);
+            return this.convertConditionValStr(condition, context);
         } else if (condition.getValue() instanceof SigmaNumber) {
-            return this.convertConditionValNum(condition);
+            return this.convertConditionValNum(condition, context);
         } else if (condition.getValue() instanceof SigmaBool) {
             throw new SigmaValueError("Boolean values can't appear as standalone value without a field name.");
         } else if (condition.getValue() instanceof SigmaRegularExpression) {
-            return this.convertConditionValRe(condition);
+            return this.convertConditionValRe(condition, context);
         }/* else if (condition.getValue() instanceof SigmaCIDRExpression) {
             throw new SigmaValueError("CIDR values can't appear as standalone value without a field name.");
         } else if (condition.getValue() instanceof SigmaQueryExpression) {
@@ -253,13 +237,13 @@ public abstract class QueryBackend {
         }
     }
 
-    public abstract Object convertConditionValStr(ConditionValueExpression condition) throws SigmaValueError;
+    public abstract Object convertConditionValStr(ConditionValueExpression condition, ConversionContext context) throws SigmaValueError;
 
-    public abstract Object convertConditionValNum(ConditionValueExpression condition);
+    public abstract Object convertConditionValNum(ConditionValueExpression condition, ConversionContext context);
 
-    public abstract Object convertConditionValRe(ConditionValueExpression condition);
+    public abstract Object convertConditionValRe(ConditionValueExpression condition, ConversionContext context);
 
 /*   public abstract Object convertConditionValQueryExpr(ConditionValueExpression condition);*/
 
-    public abstract Object convertAggregation(AggregationItem aggregation);
+    public abstract Object convertAggregation(AggregationItem aggregation, ConversionContext context);
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.opensearch.common.time.DateFormatter;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.aggregation.SlidingWindowAggregation;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates aggregation rules, like {@code selection | count() by SourceIp > 10}, on a stream of log documents. Every
+ * document matching the detection of a rule is added to the {@link SlidingWindowAggregation} of the rule at its
+ * {@code @timestamp}, and a finding is emitted when the aggregation of a group starts to satisfy the condition. The
+ * state of the windows can be written with {@link #toXContent} and restored after a restart with {@link #restore}.
+ * Instances are not thread safe.
+ */
+public class AggregationEvaluator implements ToXContentObject {
+
+    public static final String TIMESTAMP_FIELD = "@timestamp";
+
+    private static final String RULES_FIELD = "rules";
+
+    private static final DateFormatter TIMESTAMP_FORMATTER = DateFormatter.forPattern("strict_date_optional_time||epoch_millis");
+
+    private static final FieldPath TIMESTAMP_PATH = new FieldPath(TIMESTAMP_FIELD);
+
+    private final Map<String, WindowedRule> rules;
+
+    public AggregationEvaluator(List<WindowedRule> rules) {
+        this.rules = new LinkedHashMap<>();
+        for (WindowedRule rule: rules) {
+            this.rules.put(rule.rule.getId(), rule);
+        }
+    }
+
+    /**
+     * Adds the documents to the windows of the rules they match, moves the windows to the latest timestamp seen and
+     * returns the findings, in the order they fired. Documents without a parseable timestamp are ignored.
+     */
+    public List<AggregationFinding> evaluate(List<Map<String, Object>> documents) {
+        List<AggregationFinding> findings = new ArrayList<>();
+        long latest = Long.MIN_VALUE;
+        for (Map<String, Object> document: documents) {
+            Long timestamp = timestamp(document);
+            if (timestamp == null) {
+                continue;
+            }
+            latest = Math.max(latest, timestamp);
+
+            for (WindowedRule rule: rules.values()) {
+                AggregationFinding finding = rule.add(document, timestamp);
+                if (finding != null) {
+                    findings.add(finding);
+                }
+            }
+        }
+
+        if (latest != Long.MIN_VALUE) {
+            for (WindowedRule rule: rules.values()) {
+                for (SlidingWindowAggregation.GroupValue fired: rule.window.advance(latest)) {
+                    findings.add(new AggregationFinding(rule.rule.getId(), fired.getGroup(), fired.getValue(), Instant.ofEpochMilli(latest)));
+                }
+            }
+        }
+        return findings;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        builder.startObject().startObject(RULES_FIELD);
+        for (Map.Entry<String, WindowedRule> rule: rules.entrySet()) {
+            builder.field(rule.getKey(), rule.getValue().window);
+        }
+        return builder.endObject().endObject();
+    }
+
+    /**
+     * Restores the windows of the rules from a snapshot written by {@link #toXContent}. The windows of rules which
+     * were removed are dropped, and the windows of rules whose aggregation changed start empty.
+     */
+    public void restore(XContentParser xcp) throws IOException {
+        XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+        while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+            String fieldName = xcp.currentName();
+            xcp.nextToken();
+
+            if (!RULES_FIELD.equals(fieldName)) {
+                xcp.skipChildren();
+                continue;
+            }
+            XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.currentToken(), xcp);
+            while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+                String ruleId = xcp.currentName();
+                xcp.nextToken();
+
+                WindowedRule rule = rules.get(ruleId);
+                if (rule == null) {
+                    xcp.skipChildren();
+                } else {
+                    rule.window.restore(xcp);
+                }
+            }
+        }
+    }
+
+    private static Long timestamp(Map<String, Object> document) {
+        Object value = TIMESTAMP_PATH.firstValue(document);
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            try {
+                return TIMESTAMP_FORMATTER.parseMillis((String) value);
+            } catch (RuntimeException ex) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * An aggregation rule with its window. The rule is compiled from its detection only, and the group by and
+     * aggregated fields are mapped with the field mappings of the log type like the fields of the detection.
+     */
+    public static class WindowedRule {
+
+        private final CompiledSigmaRule rule;
+
+        private final FieldPath groupByField;
+
+        private final FieldPath aggField;
+
+        private final SlidingWindowAggregation window;
+
+        public WindowedRule(CompiledSigmaRule rule, AggregationItem aggregation, long windowMillis, Map<String, String> fieldMappings) {
+            this.rule = rule;
+            this.groupByField = fieldPath(aggregation.getGroupByField(), fieldMappings);
+            this.aggField = "*".equals(aggregation.getAggField())? null: fieldPath(aggregation.getAggField(), fieldMappings);
+            this.window = new SlidingWindowAggregation(aggregation, windowMillis, SlidingWindowAggregation.DEFAULT_BUCKETS);
+        }
+
+        private AggregationFinding add(Map<String, Object> document, long timestamp) {
+            if (!rule.matches(document)) {
+                return null;
+            }
+
+            String group = "";
+            if (groupByField != null) {
+                Object groupValue = groupByField.firstValue(document);
+                // like the composite aggregation of the bucket monitors, documents missing the group are not counted
+                if (groupValue == null) {
+                    return null;
+                }
+                group = groupValue.toString();
+            }
+
+            Double value = window.add(group, timestamp, aggField != null? aggField.firstValue(document): null);
+            return value != null? new AggregationFinding(rule.getId(), group, value, Instant.ofEpochMilli(timestamp)): null;
+        }
+
+        private static FieldPath fieldPath(String field, Map<String, String> fieldMappings) {
+            if (field == null) {
+                return null;
+            }
+            return new FieldPath(fieldMappings.getOrDefault(field, field));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContentObject;
+import org.opensearch.common.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * A group of documents whose aggregation started to satisfy the condition of an aggregation rule.
+ */
+public class AggregationFinding implements Writeable, ToXContentObject {
+
+    private static final String RULE_ID_FIELD = "rule_id";
+    private static final String GROUP_FIELD = "group";
+    private static final String VALUE_FIELD = "value";
+    private static final String TIMESTAMP_FIELD = "timestamp";
+
+    private final String ruleId;
+
+    private final String group;
+
+    private final double value;
+
+    private final Instant timestamp;
+
+    public AggregationFinding(String ruleId, String group, double value, Instant timestamp) {
+        this.ruleId = ruleId;
+        this.group = group;
+        this.value = value;
+        this.timestamp = timestamp;
+    }
+
+    public AggregationFinding(StreamInput sin) throws IOException {
+        this(sin.readString(),
+             sin.readString(),
+             sin.readDouble(),
+             sin.readInstant());
+    }
+
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeString(ruleId);
+        out.writeString(group);
+        out.writeDouble(value);
+        out.writeInstant(timestamp);
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        return builder.startObject()
+                .field(RULE_ID_FIELD, ruleId)
+                .field(GROUP_FIELD, group)
+                .field(VALUE_FIELD, value)
+                .timeField(TIMESTAMP_FIELD, timestamp)
+                .endObject();
+    }
+
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+}
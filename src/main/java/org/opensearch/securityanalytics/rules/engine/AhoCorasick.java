@@ -0,0 +1,192 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A case-insensitive Aho-Corasick automaton over a set of lower-cased literals, each anchored as an exact, prefix,
+ * suffix or contains match. A single pass over a value reports every literal it satisfies, however many literals there
+ * are. Transitions are stored as sorted char arrays per state, so the automaton is compact and scanning does not
+ * allocate.
+ */
+public final class AhoCorasick {
+
+    private final char[][] keys;
+
+    private final int[][] targets;
+
+    private final int[] fail;
+
+    private final int[][] outputs;
+
+    private final int[] lengths;
+
+    private final int[] kinds;
+
+    private final int[] ids;
+
+    private AhoCorasick(char[][] keys, int[][] targets, int[] fail, int[][] outputs, int[] lengths, int[] kinds, int[] ids) {
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.outputs = outputs;
+        this.lengths = lengths;
+        this.kinds = kinds;
+        this.ids = ids;
+    }
+
+    /**
+     * Sets the bit of the id of every pattern the value satisfies.
+     */
+    public void scan(String value, BitSet hits) {
+        int state = 0;
+        int last = value.length() - 1;
+        for (int i = 0; i <= last; ++i) {
+            char c = Character.toLowerCase(value.charAt(i));
+
+            int next;
+            while ((next = next(state, c)) < 0 && state != 0) {
+                state = fail[state];
+            }
+            state = next < 0? 0: next;
+
+            for (int pattern: outputs[state]) {
+                int start = i - lengths[pattern] + 1;
+                switch (kinds[pattern]) {
+                    case ValueMatchers.StringMatcher.EXACT:
+                        if (start == 0 && i == last) {
+                            hits.set(ids[pattern]);
+                        }
+                        break;
+                    case ValueMatchers.StringMatcher.PREFIX:
+                        if (start == 0) {
+                            hits.set(ids[pattern]);
+                        }
+                        break;
+                    case ValueMatchers.StringMatcher.SUFFIX:
+                        if (i == last) {
+                            hits.set(ids[pattern]);
+                        }
+                        break;
+                    default:
+                        hits.set(ids[pattern]);
+                }
+            }
+        }
+    }
+
+    private int next(int state, char c) {
+        int idx = Arrays.binarySearch(keys[state], c);
+        return idx < 0? -1: targets[state][idx];
+    }
+
+    public static class Builder {
+
+        private final List<Map<Character, Integer>> trie = new ArrayList<>();
+
+        private final List<List<Integer>> terminals = new ArrayList<>();
+
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private final List<Integer> kinds = new ArrayList<>();
+
+        private final List<Integer> ids = new ArrayList<>();
+
+        public Builder() {
+            newState();
+        }
+
+        /**
+         * Adds a non-empty lower-cased literal, matched as one of the {@link ValueMatchers.StringMatcher} kinds, which
+         * reports hits under the given id.
+         */
+        public Builder add(String literal, int kind, int id) {
+            int state = 0;
+            for (int i = 0; i < literal.length(); ++i) {
+                Integer next = trie.get(state).get(literal.charAt(i));
+                if (next == null) {
+                    next = newState();
+                    trie.get(state).put(literal.charAt(i), next);
+                }
+                state = next;
+            }
+
+            int pattern = lengths.size();
+            lengths.add(literal.length());
+            kinds.add(kind);
+            ids.add(id);
+            terminals.get(state).add(pattern);
+            return this;
+        }
+
+        public AhoCorasick build() {
+            int size = trie.size();
+            char[][] keys = new char[size][];
+            int[][] targets = new int[size][];
+            for (int state = 0; state < size; ++state) {
+                Map<Character, Integer> transitions = trie.get(state);
+                keys[state] = new char[transitions.size()];
+                targets[state] = new int[transitions.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> transition: transitions.entrySet()) {
+                    keys[state][i] = transition.getKey();
+                    targets[state][i] = transition.getValue();
+                    ++i;
+                }
+            }
+
+            int[] fail = new int[size];
+            int[][] outputs = new int[size][];
+            outputs[0] = toArray(terminals.get(0));
+
+            Deque<Integer> queue = new ArrayDeque<>();
+            for (int child: targets[0]) {
+                outputs[child] = toArray(terminals.get(child));
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                for (int i = 0; i < keys[state].length; ++i) {
+                    char c = keys[state][i];
+                    int child = targets[state][i];
+
+                    int f = fail[state];
+                    int idx;
+                    while ((idx = Arrays.binarySearch(keys[f], c)) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    fail[child] = idx < 0? 0: targets[f][idx];
+
+                    List<Integer> childOutputs = new ArrayList<>(terminals.get(child));
+                    for (int pattern: outputs[fail[child]]) {
+                        childOutputs.add(pattern);
+                    }
+                    outputs[child] = toArray(childOutputs);
+                    queue.add(child);
+                }
+            }
+
+            return new AhoCorasick(keys, targets, fail, outputs, toArray(lengths), toArray(kinds), toArray(ids));
+        }
+
+        private int newState() {
+            trie.add(new TreeMap<>());
+            terminals.add(new ArrayList<>());
+            return trie.size() - 1;
+        }
+
+        private static int[] toArray(List<Integer> values) {
+            return values.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Sigma rule compiled to predicates. A document matches the rule if it matches any of the rule's conditions.
+ * Conditions with an aggregation are matched on their detection part only.
+ */
+public class CompiledSigmaRule {
+
+    private final String id;
+
+    private final DocumentPredicate[] conditions;
+
+    private final boolean aggregation;
+
+    public CompiledSigmaRule(String id, List<DocumentPredicate> conditions, boolean aggregation) {
+        this.id = id;
+        this.conditions = conditions.toArray(new DocumentPredicate[0]);
+        this.aggregation = aggregation;
+    }
+
+    public static CompiledSigmaRule compile(String id, SigmaRule rule, Map<String, String> fieldMappings) throws SigmaError {
+        PredicateBackend backend = new PredicateBackend(fieldMappings, true);
+
+        List<DocumentPredicate> conditions = new ArrayList<>();
+        boolean aggregation = false;
+        for (Object query: backend.convertRule(rule)) {
+            if (query instanceof DocumentPredicate) {
+                conditions.add((DocumentPredicate) query);
+            } else {
+                aggregation = true;
+            }
+        }
+        return new CompiledSigmaRule(id, conditions, aggregation);
+    }
+
+    public boolean matches(Map<String, Object> document) {
+        for (DocumentPredicate condition: conditions) {
+            if (condition.test(document)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean matches(Map<String, Object> document, BitSet literalHits) {
+        for (DocumentPredicate condition: conditions) {
+            if (condition.test(document, literalHits)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of the rule whose literal string matches are read from the hits of the index being built.
+     */
+    public CompiledSigmaRule indexLiterals(LiteralIndex.Builder literalIndex) {
+        List<DocumentPredicate> indexed = new ArrayList<>(conditions.length);
+        for (DocumentPredicate condition: conditions) {
+            indexed.add(literalIndex.rewrite(id, condition));
+        }
+        return new CompiledSigmaRule(id, indexed, aggregation);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public DocumentPredicate[] getConditions() {
+        return conditions;
+    }
+
+    public boolean hasAggregation() {
+        return aggregation;
+    }
+}
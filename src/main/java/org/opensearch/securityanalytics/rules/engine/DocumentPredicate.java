@@ -0,0 +1,25 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * A compiled Sigma detection condition which can be evaluated against a parsed log document.
+ */
+@FunctionalInterface
+public interface DocumentPredicate {
+
+    boolean test(Map<String, Object> document);
+
+    /**
+     * Evaluates the predicate with the literal hits a {@link LiteralIndex} collected for the document, so literal
+     * string matches are looked up instead of being re-scanned.
+     */
+    default boolean test(Map<String, Object> document, BitSet literalHits) {
+        return test(document);
+    }
+}
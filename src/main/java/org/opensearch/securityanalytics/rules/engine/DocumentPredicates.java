@@ -0,0 +1,203 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The predicate node types a Sigma condition tree compiles to. Children are held in arrays so evaluation does not
+ * allocate iterators.
+ */
+public final class DocumentPredicates {
+
+    private DocumentPredicates() {
+    }
+
+    public static final class And implements DocumentPredicate {
+
+        private final DocumentPredicate[] children;
+
+        public And(List<DocumentPredicate> children) {
+            this.children = children.toArray(new DocumentPredicate[0]);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document) {
+            for (DocumentPredicate child: children) {
+                if (!child.test(document)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document, BitSet literalHits) {
+            for (DocumentPredicate child: children) {
+                if (!child.test(document, literalHits)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public DocumentPredicate[] getChildren() {
+            return children;
+        }
+    }
+
+    public static final class Or implements DocumentPredicate {
+
+        private final DocumentPredicate[] children;
+
+        public Or(List<DocumentPredicate> children) {
+            this.children = children.toArray(new DocumentPredicate[0]);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document) {
+            for (DocumentPredicate child: children) {
+                if (child.test(document)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document, BitSet literalHits) {
+            for (DocumentPredicate child: children) {
+                if (child.test(document, literalHits)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public DocumentPredicate[] getChildren() {
+            return children;
+        }
+    }
+
+    public static final class Not implements DocumentPredicate {
+
+        private final DocumentPredicate child;
+
+        public Not(DocumentPredicate child) {
+            this.child = child;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document) {
+            return !child.test(document);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document, BitSet literalHits) {
+            return !child.test(document, literalHits);
+        }
+
+        public DocumentPredicate getChild() {
+            return child;
+        }
+    }
+
+    public static final class FieldMatch implements DocumentPredicate {
+
+        private final FieldPath field;
+
+        private final ValueMatcher matcher;
+
+        public FieldMatch(FieldPath field, ValueMatcher matcher) {
+            this.field = field;
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document) {
+            return field.anyMatch(document, matcher);
+        }
+
+        public FieldPath getField() {
+            return field;
+        }
+
+        public ValueMatcher getMatcher() {
+            return matcher;
+        }
+    }
+
+    public static final class FieldNull implements DocumentPredicate {
+
+        private final FieldPath field;
+
+        public FieldNull(FieldPath field) {
+            this.field = field;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document) {
+            return !field.exists(document);
+        }
+
+        public FieldPath getField() {
+            return field;
+        }
+    }
+
+    public static final class Keyword implements DocumentPredicate {
+
+        private final ValueMatcher matcher;
+
+        public Keyword(ValueMatcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document) {
+            return FieldPath.anyValueMatch(document, matcher);
+        }
+
+        public ValueMatcher getMatcher() {
+            return matcher;
+        }
+    }
+
+    /**
+     * A literal string match whose result is looked up in the hits of a {@link LiteralIndex}. Without hits it falls
+     * back to evaluating the original field match.
+     */
+    public static final class LiteralHit implements DocumentPredicate {
+
+        private final int slot;
+
+        private final FieldMatch fieldMatch;
+
+        public LiteralHit(int slot, FieldMatch fieldMatch) {
+            this.slot = slot;
+            this.fieldMatch = fieldMatch;
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document) {
+            return fieldMatch.test(document);
+        }
+
+        @Override
+        public boolean test(Map<String, Object> document, BitSet literalHits) {
+            return literalHits.get(slot);
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public FieldMatch getFieldMatch() {
+            return fieldMatch;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves a dotted field name against a parsed document. At every level the remaining path is first looked up as a
+ * single flattened key (e.g. "winlog.event_id") and only then as a nested object path, so documents which mix both
+ * styles resolve without being normalized first. Arrays are traversed and match if any of their elements match.
+ */
+public final class FieldPath {
+
+    private final String[] segments;
+
+    private final String[] suffixes;
+
+    public FieldPath(String field) {
+        this.segments = field.split("\\.");
+        this.suffixes = new String[segments.length];
+
+        String suffix = segments[segments.length - 1];
+        suffixes[segments.length - 1] = suffix;
+        for (int i = segments.length - 2; i >= 0; --i) {
+            suffix = segments[i] + "." + suffix;
+            suffixes[i] = suffix;
+        }
+    }
+
+    public String getField() {
+        return suffixes[0];
+    }
+
+    public boolean anyMatch(Map<String, Object> document, ValueMatcher matcher) {
+        return anyMatch(document, 0, matcher);
+    }
+
+    public boolean exists(Map<String, Object> document) {
+        return anyMatch(document, 0, value -> true);
+    }
+
+    /**
+     * Returns the first scalar value of the field in the document, or null if the document has none.
+     */
+    public Object firstValue(Map<String, Object> document) {
+        Object[] first = new Object[1];
+        anyMatch(document, 0, value -> {
+            first[0] = value;
+            return true;
+        });
+        return first[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean anyMatch(Object node, int depth, ValueMatcher matcher) {
+        if (node == null) {
+            return false;
+        }
+        if (node instanceof List) {
+            for (Object element: (List<Object>) node) {
+                if (anyMatch(element, depth, matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (depth == segments.length) {
+            return !(node instanceof Map) && matcher.matches(node);
+        }
+        if (!(node instanceof Map)) {
+            return false;
+        }
+
+        Map<String, Object> map = (Map<String, Object>) node;
+        Object value = map.get(suffixes[depth]);
+        if (value != null && anyMatch(value, segments.length, matcher)) {
+            return true;
+        }
+        return depth + 1 < segments.length && anyMatch(map.get(segments[depth]), depth + 1, matcher);
+    }
+
+    /**
+     * Matches any scalar value anywhere in the document, which is how Sigma keyword (unbound value) detections are
+     * evaluated.
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean anyValueMatch(Object node, ValueMatcher matcher) {
+        if (node == null) {
+            return false;
+        }
+        if (node instanceof Map) {
+            for (Object value: ((Map<String, Object>) node).values()) {
+                if (anyValueMatch(value, matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (node instanceof List) {
+            for (Object element: (List<Object>) node) {
+                if (anyValueMatch(element, matcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return matcher.matches(node);
+    }
+}
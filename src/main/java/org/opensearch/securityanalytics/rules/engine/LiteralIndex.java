@@ -0,0 +1,127 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-field multi-pattern index over the literal string matches (exact, startswith, endswith, contains) of a set of
+ * compiled rules. Every distinct (field, kind, literal) gets a slot, and each field gets one {@link AhoCorasick}
+ * automaton over all of its literals, so a document costs one pass per indexed field value however many rules match on
+ * that field. Rule predicates are rewritten to read their literal matches from the resulting hits.
+ */
+public class LiteralIndex {
+
+    private final FieldPath[] fields;
+
+    private final AhoCorasick[] automata;
+
+    private final List<Set<String>> slotRules;
+
+    private LiteralIndex(FieldPath[] fields, AhoCorasick[] automata, List<Set<String>> slotRules) {
+        this.fields = fields;
+        this.automata = automata;
+        this.slotRules = slotRules;
+    }
+
+    /**
+     * Scans the indexed fields of the document and returns the slots of every literal match it satisfies.
+     */
+    public BitSet scan(Map<String, Object> document) {
+        BitSet hits = new BitSet(slotRules.size());
+        for (int i = 0; i < fields.length; ++i) {
+            AhoCorasick automaton = automata[i];
+            fields[i].anyMatch(document, value -> {
+                automaton.scan(ValueMatchers.toString(value), hits);
+                return false;
+            });
+        }
+        return hits;
+    }
+
+    public int size() {
+        return slotRules.size();
+    }
+
+    /**
+     * Returns the ids of the rules whose detections contain the literal match of the slot.
+     */
+    public Set<String> getRuleIds(int slot) {
+        return slotRules.get(slot);
+    }
+
+    public static class Builder {
+
+        private final Map<String, AhoCorasick.Builder> automata = new LinkedHashMap<>();
+
+        private final Map<String, Integer> slots = new HashMap<>();
+
+        private final List<Set<String>> slotRules = new ArrayList<>();
+
+        /**
+         * Indexes the literal string matches of the predicate and returns a copy of it which reads them from the
+         * index's hits.
+         */
+        public DocumentPredicate rewrite(String ruleId, DocumentPredicate predicate) {
+            if (predicate instanceof DocumentPredicates.And) {
+                return new DocumentPredicates.And(rewrite(ruleId, ((DocumentPredicates.And) predicate).getChildren()));
+            } else if (predicate instanceof DocumentPredicates.Or) {
+                return new DocumentPredicates.Or(rewrite(ruleId, ((DocumentPredicates.Or) predicate).getChildren()));
+            } else if (predicate instanceof DocumentPredicates.Not) {
+                return new DocumentPredicates.Not(rewrite(ruleId, ((DocumentPredicates.Not) predicate).getChild()));
+            } else if (predicate instanceof DocumentPredicates.FieldMatch) {
+                DocumentPredicates.FieldMatch fieldMatch = (DocumentPredicates.FieldMatch) predicate;
+                if (fieldMatch.getMatcher() instanceof ValueMatchers.StringMatcher) {
+                    ValueMatchers.StringMatcher matcher = (ValueMatchers.StringMatcher) fieldMatch.getMatcher();
+                    if (matcher.getKind() != ValueMatchers.StringMatcher.ANY && !matcher.getLiteral().isEmpty()) {
+                        return new DocumentPredicates.LiteralHit(slot(ruleId, fieldMatch.getField().getField(), matcher), fieldMatch);
+                    }
+                }
+            }
+            return predicate;
+        }
+
+        public LiteralIndex build() {
+            FieldPath[] fields = new FieldPath[automata.size()];
+            AhoCorasick[] built = new AhoCorasick[automata.size()];
+            int i = 0;
+            for (Map.Entry<String, AhoCorasick.Builder> automaton: automata.entrySet()) {
+                fields[i] = new FieldPath(automaton.getKey());
+                built[i] = automaton.getValue().build();
+                ++i;
+            }
+            return new LiteralIndex(fields, built, slotRules);
+        }
+
+        private List<DocumentPredicate> rewrite(String ruleId, DocumentPredicate[] predicates) {
+            List<DocumentPredicate> rewritten = new ArrayList<>(predicates.length);
+            for (DocumentPredicate predicate: predicates) {
+                rewritten.add(rewrite(ruleId, predicate));
+            }
+            return rewritten;
+        }
+
+        private int slot(String ruleId, String field, ValueMatchers.StringMatcher matcher) {
+            String key = String.format(Locale.ROOT, "%s\u0000%d\u0000%s", field, matcher.getKind(), matcher.getLiteral());
+            Integer slot = slots.get(key);
+            if (slot == null) {
+                slot = slotRules.size();
+                slots.put(key, slot);
+                slotRules.add(new LinkedHashSet<>());
+                automata.computeIfAbsent(field, f -> new AhoCorasick.Builder()).add(matcher.getLiteral(), matcher.getKind(), slot);
+            }
+            slotRules.get(slot).add(ruleId);
+            return slot;
+        }
+    }
+}
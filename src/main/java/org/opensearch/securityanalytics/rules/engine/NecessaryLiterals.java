@@ -0,0 +1,66 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import java.util.BitSet;
+
+/**
+ * Extracts the necessary literals of a rule: a set of literal index slots of which at least one must be hit by any
+ * document the rule matches. Conjunctions contribute the smallest set of any of their children, disjunctions the union
+ * of the sets of all their children. Negations and non-literal matches give no guarantee, so a rule with such a
+ * disjunct has no necessary literals and has to be evaluated against every document.
+ */
+public final class NecessaryLiterals {
+
+    private NecessaryLiterals() {
+    }
+
+    /**
+     * Returns the sorted necessary literal slots of the rule, or null if it has none.
+     */
+    public static int[] of(CompiledSigmaRule rule) {
+        BitSet slots = new BitSet();
+        for (DocumentPredicate condition: rule.getConditions()) {
+            BitSet conditionSlots = of(condition);
+            if (conditionSlots == null) {
+                return null;
+            }
+            slots.or(conditionSlots);
+        }
+        return slots.isEmpty()? null: slots.stream().toArray();
+    }
+
+    private static BitSet of(DocumentPredicate predicate) {
+        if (predicate instanceof DocumentPredicates.LiteralHit) {
+            BitSet slots = new BitSet();
+            slots.set(((DocumentPredicates.LiteralHit) predicate).getSlot());
+            return slots;
+        } else if (predicate instanceof DocumentPredicates.And) {
+            BitSet smallest = null;
+            for (DocumentPredicate child: ((DocumentPredicates.And) predicate).getChildren()) {
+                BitSet childSlots = of(child);
+                if (childSlots != null && (smallest == null || childSlots.cardinality() < smallest.cardinality())) {
+                    smallest = childSlots;
+                }
+            }
+            return smallest;
+        } else if (predicate instanceof DocumentPredicates.Or) {
+            DocumentPredicate[] children = ((DocumentPredicates.Or) predicate).getChildren();
+            if (children.length == 0) {
+                return null;
+            }
+            BitSet union = new BitSet();
+            for (DocumentPredicate child: children) {
+                BitSet childSlots = of(child);
+                if (childSlots == null) {
+                    return null;
+                }
+                union.or(childSlots);
+            }
+            return union;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.apache.commons.lang3.NotImplementedException;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.backend.ConversionContext;
+import org.opensearch.securityanalytics.rules.backend.QueryBackend;
+import org.opensearch.securityanalytics.rules.condition.ConditionAND;
+import org.opensearch.securityanalytics.rules.condition.ConditionFieldEqualsValueExpression;
+import org.opensearch.securityanalytics.rules.condition.ConditionItem;
+import org.opensearch.securityanalytics.rules.condition.ConditionNOT;
+import org.opensearch.securityanalytics.rules.condition.ConditionOR;
+import org.opensearch.securityanalytics.rules.condition.ConditionType;
+import org.opensearch.securityanalytics.rules.condition.ConditionValueExpression;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.SigmaBool;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaCompareExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaNumber;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+import org.opensearch.securityanalytics.rules.utils.Either;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts Sigma rules into {@link DocumentPredicate}s instead of query strings, so rules can be evaluated in-process
+ * against parsed log documents. Fields are resolved through the same field mappings as {@link
+ * org.opensearch.securityanalytics.rules.backend.OSQueryBackend}, but keep their dotted paths since they are looked up
+ * in the raw document rather than in the flattened percolator document. Aggregations are not converted.
+ */
+public class PredicateBackend extends QueryBackend {
+
+    public PredicateBackend(Map<String, String> fieldMappings, boolean enableFieldMappings) {
+        super(fieldMappings, false, enableFieldMappings, false, false);
+    }
+
+    @Override
+    public Object convertConditionAsInExpression(Either<ConditionAND, ConditionOR> condition, ConversionContext context) {
+        return condition.isLeft()? this.convertConditionAnd(condition.getLeft(), context): this.convertConditionOr(condition.get(), context);
+    }
+
+    @Override
+    public Object convertConditionAnd(ConditionAND condition, ConversionContext context) {
+        try {
+            return new DocumentPredicates.And(convertArgs(condition.getArgs(), context));
+        } catch (Exception ex) {
+            throw new NotImplementedException("Operator 'and' not supported by the backend", ex);
+        }
+    }
+
+    @Override
+    public Object convertConditionOr(ConditionOR condition, ConversionContext context) {
+        try {
+            return new DocumentPredicates.Or(convertArgs(condition.getArgs(), context));
+        } catch (Exception ex) {
+            throw new NotImplementedException("Operator 'or' not supported by the backend", ex);
+        }
+    }
+
+    @Override
+    public Object convertConditionNot(ConditionNOT condition, ConversionContext context) {
+        try {
+            List<DocumentPredicate> args = convertArgs(Collections.singletonList(condition.getArgs().get(0)), context);
+            return args.isEmpty()? null: new DocumentPredicates.Not(args.get(0));
+        } catch (Exception ex) {
+            throw new NotImplementedException("Operator 'not' not supported by the backend", ex);
+        }
+    }
+
+    @Override
+    public Object convertConditionFieldEqValStr(ConditionFieldEqualsValueExpression condition, ConversionContext context) throws SigmaValueError {
+        return new DocumentPredicates.FieldMatch(getFieldPath(condition.getField()), ValueMatchers.string((SigmaString) condition.getValue()));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValNum(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.FieldMatch(getFieldPath(condition.getField()), ValueMatchers.number((SigmaNumber) condition.getValue()));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValBool(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.FieldMatch(getFieldPath(condition.getField()), ValueMatchers.bool(((SigmaBool) condition.getValue()).isaBoolean()));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValRe(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.FieldMatch(getFieldPath(condition.getField()), ValueMatchers.regex((SigmaRegularExpression) condition.getValue()));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValCidr(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.FieldMatch(getFieldPath(condition.getField()), ValueMatchers.cidr((SigmaCIDRExpression) condition.getValue()));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValOpVal(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.FieldMatch(getFieldPath(condition.getField()), ValueMatchers.compare((SigmaCompareExpression) condition.getValue()));
+    }
+
+    @Override
+    public Object convertConditionFieldEqValNull(ConditionFieldEqualsValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.FieldNull(getFieldPath(condition.getField()));
+    }
+
+    @Override
+    public Object convertConditionValStr(ConditionValueExpression condition, ConversionContext context) throws SigmaValueError {
+        return new DocumentPredicates.Keyword(ValueMatchers.string((SigmaString) condition.getValue()));
+    }
+
+    @Override
+    public Object convertConditionValNum(ConditionValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.Keyword(ValueMatchers.number((SigmaNumber) condition.getValue()));
+    }
+
+    @Override
+    public Object convertConditionValRe(ConditionValueExpression condition, ConversionContext context) {
+        return new DocumentPredicates.Keyword(ValueMatchers.regex((SigmaRegularExpression) condition.getValue()));
+    }
+
+    @Override
+    public Object convertAggregation(AggregationItem aggregation, ConversionContext context) {
+        return null;
+    }
+
+    private FieldPath getFieldPath(String field) {
+        if (this.enableFieldMappings && this.fieldMappings.containsKey(field)) {
+            return new FieldPath(this.fieldMappings.get(field));
+        }
+        return new FieldPath(field);
+    }
+
+    private List<DocumentPredicate> convertArgs(List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> args, ConversionContext context) throws SigmaValueError {
+        List<DocumentPredicate> predicates = new ArrayList<>();
+        for (Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String> arg: args) {
+            if (!arg.isLeft()) {
+                continue;
+            }
+
+            ConditionType argType;
+            if (arg.getLeft().isLeft()) {
+                ConditionItem item = arg.getLeft().getLeft();
+                argType = item.getClass().equals(ConditionAND.class)? new ConditionType(Either.left(AnyOneOf.leftVal((ConditionAND) item))):
+                        (item.getClass().equals(ConditionOR.class)? new ConditionType(Either.left(AnyOneOf.middleVal((ConditionOR) item))):
+                                new ConditionType(Either.left(AnyOneOf.rightVal((ConditionNOT) item))));
+            } else if (arg.getLeft().isMiddle()) {
+                argType = new ConditionType(Either.right(Either.left(arg.getLeft().getMiddle())));
+            } else {
+                argType = new ConditionType(Either.right(Either.right(arg.getLeft().get())));
+            }
+
+            Object converted = this.convertCondition(argType, context);
+            if (converted != null) {
+                predicates.add((DocumentPredicate) converted);
+            }
+        }
+        return predicates;
+    }
+}
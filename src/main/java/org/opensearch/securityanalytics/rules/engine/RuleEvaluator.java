@@ -0,0 +1,99 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Evaluates a fixed set of compiled rules against log documents. The literal string matches of all rules are indexed
+ * in a {@link LiteralIndex}, so each document is scanned once per indexed field before the rule predicates run. The
+ * scan also drives a pre-filter: a rule is only evaluated if the document hits one of its {@link NecessaryLiterals},
+ * or if it has none. Instances are immutable and can be shared between threads.
+ */
+public class RuleEvaluator {
+
+    private final CompiledSigmaRule[] rules;
+
+    private final LiteralIndex literalIndex;
+
+    /**
+     * Positions of the rules which have the slot as one of their necessary literals.
+     */
+    private final int[][] slotCandidates;
+
+    /**
+     * Positions of the rules without necessary literals.
+     */
+    private final BitSet unfiltered;
+
+    public RuleEvaluator(List<CompiledSigmaRule> rules) {
+        LiteralIndex.Builder literalIndexBuilder = new LiteralIndex.Builder();
+        this.rules = new CompiledSigmaRule[rules.size()];
+        for (int i = 0; i < rules.size(); ++i) {
+            this.rules[i] = rules.get(i).indexLiterals(literalIndexBuilder);
+        }
+        this.literalIndex = literalIndexBuilder.build();
+
+        List<List<Integer>> candidates = new ArrayList<>();
+        for (int slot = 0; slot < literalIndex.size(); ++slot) {
+            candidates.add(new ArrayList<>());
+        }
+        this.unfiltered = new BitSet(this.rules.length);
+        for (int i = 0; i < this.rules.length; ++i) {
+            int[] slots = NecessaryLiterals.of(this.rules[i]);
+            if (slots == null) {
+                unfiltered.set(i);
+            } else {
+                for (int slot: slots) {
+                    candidates.get(slot).add(i);
+                }
+            }
+        }
+        this.slotCandidates = new int[candidates.size()][];
+        for (int slot = 0; slot < candidates.size(); ++slot) {
+            slotCandidates[slot] = candidates.get(slot).stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Returns the ids of the rules the document matches, in the order the rules were given.
+     */
+    public List<String> evaluate(Map<String, Object> document) {
+        BitSet literalHits = literalIndex.scan(document);
+
+        BitSet candidates = (BitSet) unfiltered.clone();
+        for (int slot = literalHits.nextSetBit(0); slot >= 0; slot = literalHits.nextSetBit(slot + 1)) {
+            for (int rule: slotCandidates[slot]) {
+                candidates.set(rule);
+            }
+        }
+
+        List<String> matched = new ArrayList<>();
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (rules[i].matches(document, literalHits)) {
+                matched.add(rules[i].getId());
+            }
+        }
+        return matched;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * Returns the number of rules which are evaluated against every document because they have no necessary literals.
+     */
+    public int getUnfilteredSize() {
+        return unfiltered.cardinality();
+    }
+
+    public LiteralIndex getLiteralIndex() {
+        return literalIndex;
+    }
+}
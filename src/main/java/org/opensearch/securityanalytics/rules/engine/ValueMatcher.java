@@ -0,0 +1,14 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+/**
+ * Matches a single, non-null scalar value read from a log document.
+ */
+@FunctionalInterface
+public interface ValueMatcher {
+
+    boolean matches(Object value);
+}
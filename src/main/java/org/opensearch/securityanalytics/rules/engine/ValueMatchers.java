@@ -0,0 +1,272 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.Placeholder;
+import org.opensearch.securityanalytics.rules.types.SigmaCIDRExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaCompareExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaNumber;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.securityanalytics.rules.utils.AnyOneOf;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Factories for the value matchers Sigma field values compile to. Matchers hold only pre-computed state and do not
+ * allocate while matching, except for number parsing of string document values.
+ */
+public final class ValueMatchers {
+
+    private ValueMatchers() {
+    }
+
+    /**
+     * Sigma strings match case-insensitively. Strings without wildcards, or with a single literal that is only
+     * prefixed and/or suffixed by '*', are matched with plain region comparisons; anything else falls back to a
+     * backtracking glob match.
+     */
+    public static ValueMatcher string(SigmaString value) throws SigmaValueError {
+        List<AnyOneOf<String, Character, Placeholder>> parts = value.getsOpt();
+        int size = parts.size();
+
+        StringBuilder literal = new StringBuilder();
+        boolean leadingMulti = size > 0 && isWildcard(parts.get(0), SigmaString.SpecialChars.WILDCARD_MULTI);
+        boolean trailingMulti = size > 1 && isWildcard(parts.get(size - 1), SigmaString.SpecialChars.WILDCARD_MULTI);
+        boolean simple = true;
+        for (int i = 0; i < size; ++i) {
+            AnyOneOf<String, Character, Placeholder> part = parts.get(i);
+            if (part.isRight()) {
+                throw new SigmaValueError("Placeholders are not supported by the rule evaluation engine");
+            }
+            if (part.isLeft()) {
+                literal.append(part.getLeft());
+            } else if (!((i == 0 && leadingMulti) || (i == size - 1 && trailingMulti))) {
+                simple = false;
+            }
+        }
+
+        String lowerLiteral = literal.toString().toLowerCase(Locale.ROOT);
+        if (!simple) {
+            return new GlobMatcher(parts);
+        } else if (leadingMulti && trailingMulti) {
+            return new StringMatcher(StringMatcher.CONTAINS, lowerLiteral);
+        } else if (leadingMulti) {
+            return new StringMatcher(lowerLiteral.isEmpty()? StringMatcher.ANY: StringMatcher.SUFFIX, lowerLiteral);
+        } else if (trailingMulti) {
+            return new StringMatcher(StringMatcher.PREFIX, lowerLiteral);
+        }
+        return new StringMatcher(StringMatcher.EXACT, lowerLiteral);
+    }
+
+    public static ValueMatcher number(SigmaNumber number) {
+        double expected = toDouble(number);
+        return value -> {
+            double actual = toDouble(value);
+            return !Double.isNaN(actual) && actual == expected;
+        };
+    }
+
+    public static ValueMatcher bool(boolean expected) {
+        String expectedString = String.valueOf(expected);
+        return value -> value instanceof Boolean? (Boolean) value == expected:
+                value instanceof String && expectedString.equalsIgnoreCase((String) value);
+    }
+
+    public static ValueMatcher regex(SigmaRegularExpression regex) {
+        Pattern pattern = Pattern.compile(regex.getRegexp());
+        return value -> pattern.matcher(toString(value)).find();
+    }
+
+    public static ValueMatcher cidr(SigmaCIDRExpression cidr) {
+        String[] parts = cidr.getCidr().split("/");
+        int prefix = parts.length > 1? Integer.parseInt(parts[1]): 32;
+        long mask = prefix == 0? 0L: (0xFFFFFFFFL << (32 - prefix)) & 0xFFFFFFFFL;
+        long network = parseIPv4(parts[0]) & mask;
+        return value -> {
+            long address = parseIPv4(toString(value));
+            return address >= 0 && (address & mask) == network;
+        };
+    }
+
+    public static ValueMatcher compare(SigmaCompareExpression compare) {
+        SigmaNumber number = compare.getNumber();
+        double threshold = toDouble(number);
+        switch (compare.getOp()) {
+            case SigmaCompareExpression.CompareOperators.LT:
+                return value -> toDouble(value) < threshold;
+            case SigmaCompareExpression.CompareOperators.LTE:
+                return value -> toDouble(value) <= threshold;
+            case SigmaCompareExpression.CompareOperators.GT:
+                return value -> toDouble(value) > threshold;
+            case SigmaCompareExpression.CompareOperators.GTE:
+                return value -> toDouble(value) >= threshold;
+            default:
+                throw new IllegalArgumentException("Unexpected compare operator: " + compare.getOp());
+        }
+    }
+
+    private static double toDouble(SigmaNumber number) {
+        return number.getNumOpt().isLeft()? (double) number.getNumOpt().getLeft(): (double) number.getNumOpt().get();
+    }
+
+    static String toString(Object value) {
+        return value instanceof String? (String) value: String.valueOf(value);
+    }
+
+    /**
+     * Returns NaN for values which are not numeric, so every comparison against them is false.
+     */
+    static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble(((String) value).trim());
+            } catch (NumberFormatException ex) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Returns the address as an unsigned 32-bit value, or -1 if the value is not a dotted IPv4 address.
+     */
+    static long parseIPv4(String value) {
+        long address = 0L;
+        int octet = -1;
+        int dots = 0;
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                octet = (octet < 0? 0: octet * 10) + (c - '0');
+                if (octet > 255) {
+                    return -1L;
+                }
+            } else if (c == '.' && octet >= 0 && dots < 3) {
+                address = (address << 8) | octet;
+                octet = -1;
+                ++dots;
+            } else {
+                return -1L;
+            }
+        }
+        if (dots != 3 || octet < 0) {
+            return -1L;
+        }
+        return (address << 8) | octet;
+    }
+
+    private static boolean isWildcard(AnyOneOf<String, Character, Placeholder> part, char wildcard) {
+        return part.isMiddle() && part.getMiddle() == wildcard;
+    }
+
+    static final class StringMatcher implements ValueMatcher {
+
+        static final int EXACT = 0;
+        static final int PREFIX = 1;
+        static final int SUFFIX = 2;
+        static final int CONTAINS = 3;
+        static final int ANY = 4;
+
+        private final int kind;
+
+        private final String literal;
+
+        StringMatcher(int kind, String literal) {
+            this.kind = kind;
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean matches(Object value) {
+            String s = ValueMatchers.toString(value);
+            int length = literal.length();
+            switch (kind) {
+                case EXACT:
+                    return s.length() == length && s.regionMatches(true, 0, literal, 0, length);
+                case PREFIX:
+                    return s.regionMatches(true, 0, literal, 0, length);
+                case SUFFIX:
+                    return s.regionMatches(true, s.length() - length, literal, 0, length);
+                case CONTAINS:
+                    for (int i = 0, last = s.length() - length; i <= last; ++i) {
+                        if (s.regionMatches(true, i, literal, 0, length)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return true;
+            }
+        }
+
+        int getKind() {
+            return kind;
+        }
+
+        String getLiteral() {
+            return literal;
+        }
+    }
+
+    static final class GlobMatcher implements ValueMatcher {
+
+        private static final char LITERAL = 0;
+
+        private final char[] pattern;
+
+        private final char[] wildcards;
+
+        GlobMatcher(List<AnyOneOf<String, Character, Placeholder>> parts) {
+            StringBuilder chars = new StringBuilder();
+            StringBuilder kinds = new StringBuilder();
+            for (AnyOneOf<String, Character, Placeholder> part: parts) {
+                if (part.isLeft()) {
+                    String literal = part.getLeft().toLowerCase(Locale.ROOT);
+                    chars.append(literal);
+                    for (int i = 0; i < literal.length(); ++i) {
+                        kinds.append(LITERAL);
+                    }
+                } else {
+                    chars.append(part.getMiddle());
+                    kinds.append(part.getMiddle());
+                }
+            }
+            this.pattern = chars.toString().toCharArray();
+            this.wildcards = kinds.toString().toCharArray();
+        }
+
+        @Override
+        public boolean matches(Object value) {
+            String s = ValueMatchers.toString(value);
+            int p = 0, t = 0, starP = -1, starT = 0;
+            while (t < s.length()) {
+                if (p < pattern.length && wildcards[p] != SigmaString.SpecialChars.WILDCARD_MULTI &&
+                        (wildcards[p] == SigmaString.SpecialChars.WILDCARD_SINGLE || Character.toLowerCase(s.charAt(t)) == pattern[p])) {
+                    ++p;
+                    ++t;
+                } else if (p < pattern.length && wildcards[p] == SigmaString.SpecialChars.WILDCARD_MULTI) {
+                    starP = p++;
+                    starT = t;
+                } else if (starP >= 0) {
+                    p = starP + 1;
+                    t = ++starT;
+                } else {
+                    return false;
+                }
+            }
+            while (p < pattern.length && wildcards[p] == SigmaString.SpecialChars.WILDCARD_MULTI) {
+                ++p;
+            }
+            return p == pattern.length;
+        }
+    }
+}
@@ -27,10 +27,24 @@ import org.opensearch.securityanalytics.rules.utils.Either;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * A condition of a Sigma rule, with an optional aggregation after a pipe. Conditions are parsed lazily and only once.
+ * The ANTLR parse trees only depend on the condition string, so they are cached and shared by all conditions with
+ * the same string; the generated lexers and parsers also share their DFA across instances, so the prediction cache
+ * warms up over all rules. Parse trees are read-only once built and safe to share between threads.
+ */
 public class SigmaCondition {
 
+    private static final int MAX_CACHED_PARSE_TREES = 4096;
+
+    private static final Map<String, ConditionParser.StartContext> conditionParseTrees = new ConcurrentHashMap<>();
+
+    private static final Map<String, AggregationParser.Comparison_exprContext> aggregationParseTrees = new ConcurrentHashMap<>();
+
     private final String identifier = "[a-zA-Z0-9-_]+";
 
     private final List<String> quantifier = List.of("1", "any", "all");
@@ -47,13 +61,7 @@ public class SigmaCondition {
 
     private SigmaDetections detections;
 
-    private ConditionParser parser;
-
-    private AggregationParser aggParser;
-
-    private ConditionTraverseVisitor conditionVisitor;
-
-    private AggregationTraverseVisitor aggVisitor;
+    private Pair<ConditionItem, AggregationItem> parsed;
 
     public SigmaCondition(String condition, SigmaDetections detections) {
         if (condition.contains(" | ")) {
@@ -65,33 +73,54 @@ public class SigmaCondition {
         }
 
         this.detections = detections;
-
-        ConditionLexer lexer = new ConditionLexer(CharStreams.fromString(this.condition));
-        this.parser = new ConditionParser(new CommonTokenStream(lexer));
-        this.conditionVisitor = new ConditionTraverseVisitor(this);
-
-        AggregationLexer aggLexer = new AggregationLexer(CharStreams.fromString(this.aggregation));
-        this.aggParser = new AggregationParser(new CommonTokenStream(aggLexer));
-        this.aggVisitor = new AggregationTraverseVisitor();
     }
 
-    public Pair<ConditionItem, AggregationItem> parsed() throws SigmaConditionError {
+    public synchronized Pair<ConditionItem, AggregationItem> parsed() throws SigmaConditionError {
+        if (parsed != null) {
+            return parsed;
+        }
+
         ConditionItem parsedConditionItem;
-        Either<ConditionItem, String> itemOrCondition = conditionVisitor.visit(parser.start());
+        Either<ConditionItem, String> itemOrCondition = new ConditionTraverseVisitor(this).visit(conditionParseTree(condition));
         if (itemOrCondition.isLeft()) {
             parsedConditionItem = itemOrCondition.getLeft();
         } else {
-            parsedConditionItem = Objects.requireNonNull(parsed(condition)).isLeft()? Objects.requireNonNull(parsed(condition)).getLeft():
-                    ((Objects.requireNonNull(parsed(condition))).isMiddle()? Objects.requireNonNull(parsed(condition)).getMiddle():
-                            Objects.requireNonNull(parsed(condition)).get());
+            AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression> item = Objects.requireNonNull(parsed(condition));
+            parsedConditionItem = item.isLeft()? item.getLeft(): (item.isMiddle()? item.getMiddle(): item.get());
         }
 
         AggregationItem parsedAggItem = null;
         if (!this.aggregation.isEmpty()) {
-            aggVisitor.visit(aggParser.comparison_expr());
+            AggregationTraverseVisitor aggVisitor = new AggregationTraverseVisitor();
+            aggVisitor.visit(aggregationParseTree(aggregation));
             parsedAggItem = aggVisitor.getAggregationItem();
         }
-        return Pair.of(parsedConditionItem, parsedAggItem);
+        parsed = Pair.of(parsedConditionItem, parsedAggItem);
+        return parsed;
+    }
+
+    private static ConditionParser.StartContext conditionParseTree(String condition) {
+        ConditionParser.StartContext tree = conditionParseTrees.get(condition);
+        if (tree == null) {
+            ConditionLexer lexer = new ConditionLexer(CharStreams.fromString(condition));
+            tree = new ConditionParser(new CommonTokenStream(lexer)).start();
+            if (conditionParseTrees.size() < MAX_CACHED_PARSE_TREES) {
+                conditionParseTrees.putIfAbsent(condition, tree);
+            }
+        }
+        return tree;
+    }
+
+    private static AggregationParser.Comparison_exprContext aggregationParseTree(String aggregation) {
+        AggregationParser.Comparison_exprContext tree = aggregationParseTrees.get(aggregation);
+        if (tree == null) {
+            AggregationLexer lexer = new AggregationLexer(CharStreams.fromString(aggregation));
+            tree = new AggregationParser(new CommonTokenStream(lexer)).comparison_expr();
+            if (aggregationParseTrees.size() < MAX_CACHED_PARSE_TREES) {
+                aggregationParseTrees.putIfAbsent(aggregation, tree);
+            }
+        }
+        return tree;
     }
 
     public List<Either<AnyOneOf<ConditionItem, ConditionFieldEqualsValueExpression, ConditionValueExpression>, String>> convertArgs(
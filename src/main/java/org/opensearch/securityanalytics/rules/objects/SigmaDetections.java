@@ -23,9 +23,16 @@ public class SigmaDetections {
 
     private List<SigmaCondition> parsedCondition;
 
+    private String timeframe;
+
     public SigmaDetections(Map<String, SigmaDetection> detections, List<String> condition) throws SigmaDetectionError {
+        this(detections, condition, null);
+    }
+
+    public SigmaDetections(Map<String, SigmaDetection> detections, List<String> condition, String timeframe) throws SigmaDetectionError {
         this.detections = detections;
         this.condition = condition;
+        this.timeframe = timeframe;
 
         if (this.detections.isEmpty()) {
             throw new SigmaDetectionError("No detections defined in Sigma rule");
@@ -48,14 +55,16 @@ public class SigmaDetections {
             throw new SigmaConditionError("Sigma rule must contain at least one condition");
         }
 
+        String timeframe = detectionMap.containsKey("timeframe")? detectionMap.get("timeframe").toString(): null;
+
         Map<String, SigmaDetection> detections = new HashMap<>();
         for (Map.Entry<String, Object> detection: detectionMap.entrySet()) {
-            if (!"condition".equals(detection.getKey())) {
+            if (!"condition".equals(detection.getKey()) && !"timeframe".equals(detection.getKey())) {
                 detections.put(detection.getKey(), SigmaDetection.fromDefinition(detection.getValue()));
             }
         }
 
-        return new SigmaDetections(detections, conditionList);
+        return new SigmaDetections(detections, conditionList, timeframe);
     }
 
     public Map<String, SigmaDetection> getDetections() {
@@ -69,4 +78,8 @@ public class SigmaDetections {
     public List<SigmaCondition> getParsedCondition() {
         return parsedCondition;
     }
+
+    public String getTimeframe() {
+        return timeframe;
+    }
 }
\ No newline at end of file
@@ -5,6 +5,8 @@
 package org.opensearch.securityanalytics.settings;
 
 import org.opensearch.common.settings.Setting;
+import org.opensearch.common.unit.ByteSizeUnit;
+import org.opensearch.common.unit.ByteSizeValue;
 import org.opensearch.common.unit.TimeValue;
 
 public class SecurityAnalyticsSettings {
@@ -12,4 +14,44 @@ public class SecurityAnalyticsSettings {
     public static Setting<TimeValue> INDEX_TIMEOUT = Setting.positiveTimeSetting("plugins.security_analytics.index_timeout",
             TimeValue.timeValueSeconds(60),
             Setting.Property.NodeScope, Setting.Property.Dynamic);
-}
\ No newline at end of file
+
+    public static Setting<Integer> RULE_BULK_MAX_DOCS = Setting.intSetting("plugins.security_analytics.rule_bulk.max_docs",
+            500, 1,
+            Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    public static Setting<ByteSizeValue> RULE_BULK_MAX_BYTES = Setting.byteSizeSetting("plugins.security_analytics.rule_bulk.max_bytes",
+            new ByteSizeValue(5, ByteSizeUnit.MB),
+            Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    public static Setting<Integer> RULE_BULK_MAX_IN_FLIGHT = Setting.intSetting("plugins.security_analytics.rule_bulk.max_in_flight",
+            2, 1,
+            Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    public static Setting<Integer> RULE_BULK_MAX_RETRIES = Setting.intSetting("plugins.security_analytics.rule_bulk.max_retries",
+            3, 0,
+            Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    public static Setting<Integer> DETECTOR_MAX_QUERIES_PER_MONITOR = Setting.intSetting("plugins.security_analytics.detector.max_queries_per_monitor",
+            0, 0,
+            Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    public static Setting<Long> RULE_CACHE_MAX_ENTRIES = Setting.longSetting("plugins.security_analytics.rule_cache.max_entries",
+            10000, 0,
+            Setting.Property.NodeScope);
+
+    public static Setting<Long> DETECTOR_CACHE_MAX_ENTRIES = Setting.longSetting("plugins.security_analytics.detector_cache.max_entries",
+            1000, 0,
+            Setting.Property.NodeScope);
+
+    public static Setting<TimeValue> DETECTOR_CACHE_EXPIRE_AFTER = Setting.positiveTimeSetting("plugins.security_analytics.detector_cache.expire_after",
+            TimeValue.timeValueMinutes(10),
+            Setting.Property.NodeScope);
+
+    public static Setting<Integer> DETECTOR_UPDATE_MAX_CONCURRENCY = Setting.intSetting("plugins.security_analytics.detector.update_max_concurrency",
+            8, 1,
+            Setting.Property.NodeScope, Setting.Property.Dynamic);
+
+    public static Setting<Boolean> DETECTOR_SHARED_MONITORS = Setting.boolSetting("plugins.security_analytics.detector.shared_monitors",
+            false,
+            Setting.Property.NodeScope, Setting.Property.Dynamic);
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.support.GroupedActionListener;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.client.Client;
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.commons.alerting.AlertingPluginInterface;
+import org.opensearch.commons.alerting.action.DeleteMonitorRequest;
+import org.opensearch.commons.alerting.action.DeleteMonitorResponse;
+import org.opensearch.commons.alerting.action.IndexMonitorRequest;
+import org.opensearch.commons.alerting.action.IndexMonitorResponse;
+import org.opensearch.commons.alerting.model.BucketLevelTrigger;
+import org.opensearch.commons.alerting.model.DataSources;
+import org.opensearch.commons.alerting.model.Monitor;
+import org.opensearch.commons.alerting.model.SearchInput;
+import org.opensearch.index.seqno.SequenceNumbers;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+import org.opensearch.securityanalytics.util.AggregationRules;
+import org.opensearch.securityanalytics.util.AggregationRules.AggregationRule;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Maintains the bucket level monitors evaluating the aggregation rules of a detector, one monitor per group by field
+ * and window. The monitor of a group keeps its id across updates; monitors of groups without rules left are deleted.
+ */
+class BucketLevelMonitors {
+
+    private final Client client;
+
+    BucketLevelMonitors(Client client) {
+        this.client = client;
+    }
+
+    /**
+     * Brings the bucket level monitors of the detector in line with its aggregation rules and returns the monitor ids
+     * by group key.
+     */
+    void update(Detector detector, List<AggregationRule> rules, WriteRequest.RefreshPolicy refreshPolicy, ActionListener<Map<String, String>> listener) {
+        Map<String, List<AggregationRule>> groups = AggregationRules.group(rules, detector.getSchedule());
+        Map<String, String> currentMonitorIds = detector.getBucketMonitorIds();
+
+        List<String> deleteMonitorIds = new ArrayList<>();
+        currentMonitorIds.forEach((groupKey, monitorId) -> {
+            if (!groups.containsKey(groupKey)) {
+                deleteMonitorIds.add(monitorId);
+            }
+        });
+
+        int requests = groups.size() + deleteMonitorIds.size();
+        Map<String, String> monitorIds = new TreeMap<>();
+        if (requests == 0) {
+            listener.onResponse(monitorIds);
+            return;
+        }
+        GroupedActionListener<Object> requestsListener = new GroupedActionListener<>(new ActionListener<>() {
+            @Override
+            public void onResponse(Collection<Object> responses) {
+                synchronized (monitorIds) {
+                    listener.onResponse(monitorIds);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        }, requests);
+
+        String logIndex = detector.getInputs().get(0).getIndices().get(0);
+        for (Map.Entry<String, List<AggregationRule>> group: groups.entrySet()) {
+            String groupKey = group.getKey();
+            AggregationRule first = group.getValue().get(0);
+            String monitorId = currentMonitorIds.getOrDefault(groupKey, Monitor.NO_ID);
+
+            SearchInput searchInput = new SearchInput(List.of(logIndex),
+                    AggregationRules.searchSource(first.getGroupByField(), AggregationRules.window(first, detector.getSchedule()), group.getValue()));
+            List<BucketLevelTrigger> triggers = new ArrayList<>();
+            for (DetectorTrigger detectorTrigger: detector.getTriggers()) {
+                BucketLevelTrigger trigger = AggregationRules.trigger(detectorTrigger, group.getValue());
+                if (trigger != null) {
+                    triggers.add(trigger);
+                }
+            }
+
+            Monitor monitor = new Monitor(monitorId, Monitor.NO_VERSION, detector.getName(), detector.getEnabled(), detector.getSchedule(), detector.getLastUpdateTime(), detector.getEnabledTime(),
+                    Monitor.MonitorType.BUCKET_LEVEL_MONITOR, detector.getUser(), 1, List.of(searchInput), triggers, Map.of(),
+                    new DataSources(detector.getRuleIndex(),
+                            detector.getFindingsIndex(),
+                            detector.getFindingsIndexPattern(),
+                            detector.getAlertsIndex(),
+                            detector.getAlertsHistoryIndex(),
+                            detector.getAlertsHistoryIndexPattern(),
+                            DetectorMonitorConfig.getRuleIndexMappingsByType(detector.getDetectorType())));
+
+            boolean exists = !Monitor.NO_ID.equals(monitorId);
+            IndexMonitorRequest indexMonitorRequest = new IndexMonitorRequest(monitorId, SequenceNumbers.UNASSIGNED_SEQ_NO, SequenceNumbers.UNASSIGNED_PRIMARY_TERM, refreshPolicy,
+                    exists? RestRequest.Method.PUT: RestRequest.Method.POST, monitor);
+            AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, indexMonitorRequest, new ActionListener<>() {
+                @Override
+                public void onResponse(IndexMonitorResponse response) {
+                    synchronized (monitorIds) {
+                        monitorIds.put(groupKey, response.getId());
+                    }
+                    requestsListener.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    requestsListener.onFailure(e);
+                }
+            });
+        }
+        for (String monitorId: deleteMonitorIds) {
+            delete(monitorId, refreshPolicy, requestsListener);
+        }
+    }
+
+    /**
+     * Deletes all bucket level monitors of the detector.
+     */
+    void deleteAll(Detector detector, WriteRequest.RefreshPolicy refreshPolicy, ActionListener<Void> listener) {
+        Collection<String> monitorIds = detector.getBucketMonitorIds().values();
+        if (monitorIds.isEmpty()) {
+            listener.onResponse(null);
+            return;
+        }
+        GroupedActionListener<Object> requestsListener = new GroupedActionListener<>(new ActionListener<>() {
+            @Override
+            public void onResponse(Collection<Object> responses) {
+                listener.onResponse(null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        }, monitorIds.size());
+        for (String monitorId: monitorIds) {
+            delete(monitorId, refreshPolicy, requestsListener);
+        }
+    }
+
+    private void delete(String monitorId, WriteRequest.RefreshPolicy refreshPolicy, ActionListener<Object> listener) {
+        AlertingPluginInterface.INSTANCE.deleteMonitor((NodeClient) client, new DeleteMonitorRequest(monitorId, refreshPolicy), new ActionListener<>() {
+            @Override
+            public void onResponse(DeleteMonitorResponse response) {
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+}
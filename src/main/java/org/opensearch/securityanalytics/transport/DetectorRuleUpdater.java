@@ -0,0 +1,217 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.search.join.ScoreMode;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.client.Client;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.action.IndexDetectorAction;
+import org.opensearch.securityanalytics.action.IndexDetectorRequest;
+import org.opensearch.securityanalytics.action.IndexDetectorResponse;
+import org.opensearch.securityanalytics.action.RuleUpdateTask;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.util.BoundedFanOut;
+import org.opensearch.securityanalytics.util.PagedSearch;
+import org.opensearch.tasks.CancellableTask;
+import org.opensearch.tasks.Task;
+import org.opensearch.tasks.TaskCancelledException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Re-indexes the detectors using a custom rule after the rule was changed, so their monitors pick up the change.
+ * The detectors are read page by page and each page is updated with at most a fixed number of detector updates in
+ * flight, each update running as a child of the rule task. A failed detector does not stop the others; all failures
+ * are reported together once every detector was tried. Cancelling the rule task stops starting new updates,
+ * while the updates in flight run to completion.
+ */
+class DetectorRuleUpdater {
+
+    private static final Logger log = LogManager.getLogger(DetectorRuleUpdater.class);
+
+    private static final int MAX_REPORTED_FAILURES = 10;
+
+    private final Client client;
+
+    private final NamedXContentRegistry xContentRegistry;
+
+    private final String localNodeId;
+
+    private final Task task;
+
+    private final int maxConcurrency;
+
+    private final ConcurrentLinkedQueue<Pair<String, Exception>> failures = new ConcurrentLinkedQueue<>();
+
+    DetectorRuleUpdater(Client client, NamedXContentRegistry xContentRegistry, String localNodeId, Task task, int maxConcurrency) {
+        this.client = client;
+        this.xContentRegistry = xContentRegistry;
+        this.localNodeId = localNodeId;
+        this.task = task;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    static QueryBuilder detectorsQuery(String ruleId) {
+        return QueryBuilders.nestedQuery("detector.inputs.detector_input.custom_rules",
+                QueryBuilders.boolQuery().must(
+                        QueryBuilders.matchQuery("detector.inputs.detector_input.custom_rules.id", ruleId)
+                ), ScoreMode.Avg);
+    }
+
+    /**
+     * Applies the change to every detector using the rule and re-indexes it.
+     */
+    void updateDetectors(String ruleId, WriteRequest.RefreshPolicy refreshPolicy, Consumer<Detector> change, ActionListener<Void> listener) {
+        updateDetectors(ruleId, refreshPolicy, change, List.of(), listener);
+    }
+
+    /**
+     * Re-indexes every detector using the rule after the rule itself was updated, converting its queries again. The
+     * custom rules index is refreshed first, so the detectors do not read the version of the rule before the update.
+     */
+    void updateRuleQueries(String ruleId, WriteRequest.RefreshPolicy refreshPolicy, ActionListener<Void> listener) {
+        client.admin().indices().refresh(new RefreshRequest(Rule.CUSTOM_RULES_INDEX), new ActionListener<>() {
+            @Override
+            public void onResponse(RefreshResponse response) {
+                updateDetectors(ruleId, refreshPolicy, detector -> {}, List.of(ruleId), listener);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private void updateDetectors(String ruleId, WriteRequest.RefreshPolicy refreshPolicy, Consumer<Detector> change, List<String> updatedRuleIds,
+                                 ActionListener<Void> listener) {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+                .seqNoAndPrimaryTerm(true)
+                .version(true)
+                .query(detectorsQuery(ruleId));
+
+        PagedSearch.search(client, source, (hits, pageListener) -> {
+            if (task instanceof RuleUpdateTask) {
+                ((RuleUpdateTask) task).addDetectors(hits.length);
+            }
+
+            BoundedFanOut.execute(Arrays.asList(hits), maxConcurrency, this::isCancelled,
+                    (hit, detectorListener) -> updateDetector(hit, refreshPolicy, change, updatedRuleIds, detectorListener),
+                    new ActionListener<>() {
+                        @Override
+                        public void onResponse(BoundedFanOut.Result<SearchHit> result) {
+                            result.getFailures().forEach(failure -> failures.add(Pair.of(failure.getKey().getId(), failure.getValue())));
+                            pageListener.onResponse(!isCancelled());
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            pageListener.onFailure(e);
+                        }
+                    });
+        }, new ActionListener<>() {
+            @Override
+            public void onResponse(Void response) {
+                if (isCancelled()) {
+                    listener.onFailure(new TaskCancelledException(String.format(Locale.getDefault(), "Updating the detectors using rule with id %s was cancelled", ruleId)));
+                } else if (!failures.isEmpty()) {
+                    listener.onFailure(failure(ruleId));
+                } else {
+                    listener.onResponse(null);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        }, Detector.DETECTORS_INDEX);
+    }
+
+    private void updateDetector(SearchHit hit, WriteRequest.RefreshPolicy refreshPolicy, Consumer<Detector> change, List<String> updatedRuleIds,
+                                ActionListener<Void> listener) {
+        Detector detector;
+        try {
+            XContentParser xcp = XContentType.JSON.xContent().createParser(
+                    xContentRegistry,
+                    LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
+            );
+            detector = Detector.docParse(xcp, hit.getId(), hit.getVersion());
+        } catch (IOException e) {
+            onDetectorFailed(listener, e);
+            return;
+        }
+        change.accept(detector);
+
+        IndexDetectorRequest indexRequest = new IndexDetectorRequest(detector.getId(), refreshPolicy, RestRequest.Method.PUT, detector, updatedRuleIds);
+        indexRequest.setParentTask(localNodeId, task.getId());
+        client.execute(IndexDetectorAction.INSTANCE, indexRequest, new ActionListener<>() {
+            @Override
+            public void onResponse(IndexDetectorResponse response) {
+                if (response.getStatus() != RestStatus.OK) {
+                    onDetectorFailed(listener, new OpenSearchStatusException(String.format(Locale.getDefault(), "Detector with id %s cannot be updated", detector.getId()), response.getStatus()));
+                    return;
+                }
+                if (task instanceof RuleUpdateTask) {
+                    ((RuleUpdateTask) task).onDetectorUpdated();
+                }
+                listener.onResponse(null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                onDetectorFailed(listener, e);
+            }
+        });
+    }
+
+    private void onDetectorFailed(ActionListener<Void> listener, Exception e) {
+        if (task instanceof RuleUpdateTask) {
+            ((RuleUpdateTask) task).onDetectorFailed();
+        }
+        listener.onFailure(e);
+    }
+
+    private boolean isCancelled() {
+        return task instanceof CancellableTask && ((CancellableTask) task).isCancelled();
+    }
+
+    private OpenSearchStatusException failure(String ruleId) {
+        List<Pair<String, Exception>> reported = failures.stream().limit(MAX_REPORTED_FAILURES).collect(Collectors.toList());
+        String details = reported.stream()
+                .map(failure -> failure.getKey() + ": " + failure.getValue().getMessage())
+                .collect(Collectors.joining(", "));
+        log.error(String.format(Locale.getDefault(), "%d detectors using rule with id %s cannot be updated", failures.size(), ruleId));
+
+        OpenSearchStatusException exception = new OpenSearchStatusException(String.format(Locale.getDefault(),
+                "%d detectors using rule with id %s cannot be updated: [%s]", failures.size(), ruleId, details), RestStatus.INTERNAL_SERVER_ERROR);
+        reported.forEach(failure -> exception.addSuppressed(failure.getValue()));
+        return exception;
+    }
+}
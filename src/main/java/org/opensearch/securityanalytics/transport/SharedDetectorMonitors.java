@@ -0,0 +1,428 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.ExceptionsHelper;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.client.Client;
+import org.opensearch.client.node.NodeClient;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.commons.alerting.AlertingPluginInterface;
+import org.opensearch.commons.alerting.action.IndexMonitorRequest;
+import org.opensearch.commons.alerting.action.IndexMonitorResponse;
+import org.opensearch.commons.alerting.model.DataSources;
+import org.opensearch.commons.alerting.model.DocLevelMonitorInput;
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.Monitor;
+import org.opensearch.commons.alerting.model.ScheduledJob;
+import org.opensearch.commons.alerting.model.Trigger;
+import org.opensearch.commons.authuser.User;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.index.seqno.SequenceNumbers;
+import org.opensearch.rest.RestRequest;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.util.CompiledTriggers;
+import org.opensearch.securityanalytics.util.SharedMonitors;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains the monitors shared by the detectors of the same type watching the same log index, so a document is read
+ * and percolated once for all of them. A detector joins the shared monitor of its log index if it runs on the same
+ * schedule and as the same user as the monitor, otherwise it keeps monitors of its own.
+ *
+ * The shared monitor itself holds the membership: a detector joining, changing or leaving only replaces its own scoped
+ * queries and triggers in the monitor read back from the alerting config index, and writes it back conditionally on the
+ * sequence number and primary term it read. A concurrent change of another member makes the write fail with a version
+ * conflict, and the change is applied again to the monitor as the other member left it. A monitor left without
+ * queries and triggers is disabled and kept for the next detector joining, instead of being deleted under a detector
+ * about to join it.
+ */
+class SharedDetectorMonitors {
+
+    private static final Logger log = LogManager.getLogger(SharedDetectorMonitors.class);
+
+    static final int MAX_CONFLICT_RETRIES = 5;
+
+    private static final int MAX_DUPLICATE_MONITORS = 10;
+
+    private final Client client;
+
+    private final NamedXContentRegistry xContentRegistry;
+
+    SharedDetectorMonitors(Client client, NamedXContentRegistry xContentRegistry) {
+        this.client = client;
+        this.xContentRegistry = xContentRegistry;
+    }
+
+    /**
+     * Adds the detector with the queries of its doc level rules to the shared monitor of its log index, or replaces it
+     * there if it is a member already, and returns the id of the shared monitor. Returns null if the detector cannot
+     * share the monitor with its members.
+     */
+    void join(Detector detector, List<Pair<String, Rule>> rules, WriteRequest.RefreshPolicy refreshPolicy, ActionListener<String> listener) {
+        join(detector, rules, refreshPolicy, MAX_CONFLICT_RETRIES, listener);
+    }
+
+    private void join(Detector detector, List<Pair<String, Rule>> rules, WriteRequest.RefreshPolicy refreshPolicy, int retries, ActionListener<String> listener) {
+        String logIndex = logIndex(detector);
+        String monitorName = SharedMonitors.monitorName(detector.getDetectorType(), logIndex);
+
+        findMonitor(monitorName, new ActionListener<>() {
+            @Override
+            public void onResponse(String monitorId) {
+                if (monitorId == null) {
+                    createMonitor(detector, rules, monitorName, logIndex, refreshPolicy, listener);
+                    return;
+                }
+
+                getMonitor(monitorId, new ActionListener<>() {
+                    @Override
+                    public void onResponse(VersionedMonitor current) {
+                        if (current == null) {
+                            // deleted since it was found
+                            retry(null);
+                            return;
+                        }
+
+                        Monitor monitor = current.monitor;
+                        if (hasOtherMembers(monitor, detector.getId()) &&
+                                (!Objects.equals(monitor.getSchedule(), detector.getSchedule()) || !Objects.equals(userName(monitor.getUser()), userName(detector.getUser())))) {
+                            log.debug("Detector [{}] does not share monitor [{}], its schedule or user differs", detector.getId(), monitorId);
+                            listener.onResponse(null);
+                            return;
+                        }
+
+                        updateMonitor(current, detector, rules, refreshPolicy, new ActionListener<>() {
+                            @Override
+                            public void onResponse(String monitorId) {
+                                listener.onResponse(monitorId);
+                            }
+
+                            @Override
+                            public void onFailure(Exception e) {
+                                retry(e);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        listener.onFailure(e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+
+            private void retry(Exception e) {
+                if ((e == null || isConflict(e)) && retries > 0) {
+                    log.debug("Retrying to join detector [{}] to monitor [{}] after a concurrent change", detector.getId(), monitorName);
+                    join(detector, rules, refreshPolicy, retries - 1, listener);
+                } else {
+                    listener.onFailure(e != null? e: new IllegalStateException("Shared monitor " + monitorName + " was deleted while joining it"));
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes the detector from the shared monitor. The monitor is disabled if no other detector has queries or
+     * triggers in it.
+     */
+    void leave(Detector detector, String monitorId, WriteRequest.RefreshPolicy refreshPolicy, ActionListener<Void> listener) {
+        leave(detector, monitorId, refreshPolicy, MAX_CONFLICT_RETRIES, listener);
+    }
+
+    private void leave(Detector detector, String monitorId, WriteRequest.RefreshPolicy refreshPolicy, int retries, ActionListener<Void> listener) {
+        getMonitor(monitorId, new ActionListener<>() {
+            @Override
+            public void onResponse(VersionedMonitor current) {
+                if (current == null) {
+                    listener.onResponse(null);
+                    return;
+                }
+
+                updateMonitor(current, detector, List.of(), refreshPolicy, new ActionListener<>() {
+                    @Override
+                    public void onResponse(String monitorId) {
+                        listener.onResponse(null);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        if (isConflict(e) && retries > 0) {
+                            log.debug("Retrying to remove detector [{}] from monitor [{}] after a concurrent change", detector.getId(), monitorId);
+                            leave(detector, monitorId, refreshPolicy, retries - 1, listener);
+                        } else {
+                            listener.onFailure(e);
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the id of the shared monitor if the monitors of a detector are a shared monitor, otherwise null.
+     */
+    void sharedMonitorId(List<String> monitorIds, ActionListener<String> listener) {
+        if (monitorIds.size() != 1) {
+            listener.onResponse(null);
+            return;
+        }
+        String monitorId = monitorIds.get(0);
+        client.get(new GetRequest(ScheduledJob.SCHEDULED_JOBS_INDEX, monitorId), new ActionListener<>() {
+            @Override
+            public void onResponse(GetResponse response) {
+                listener.onResponse(response.isExists() && SharedMonitors.isSharedMonitor(monitorName(response.getSourceAsMap()))? monitorId: null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    static boolean canShare(Detector detector) {
+        return detector.getInputs().size() == 1 && detector.getInputs().get(0).getIndices().size() == 1;
+    }
+
+    private static String logIndex(Detector detector) {
+        return detector.getInputs().get(0).getIndices().get(0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String monitorName(Map<String, Object> source) {
+        Object monitor = source.get("monitor");
+        return monitor instanceof Map? (String) ((Map<String, Object>) monitor).get("name"): null;
+    }
+
+    private static String userName(User user) {
+        return user != null? user.getName(): null;
+    }
+
+    private static boolean isConflict(Exception e) {
+        return ExceptionsHelper.status(ExceptionsHelper.unwrapCause(e)) == RestStatus.CONFLICT;
+    }
+
+    private static boolean hasOtherMembers(Monitor monitor, String detectorId) {
+        for (DocLevelQuery query: ((DocLevelMonitorInput) monitor.getInputs().get(0)).getQueries()) {
+            if (!detectorId.equals(SharedMonitors.detectorId(query.getId()))) {
+                return true;
+            }
+        }
+        for (Trigger trigger: monitor.getTriggers()) {
+            if (!detectorId.equals(SharedMonitors.detectorId(trigger.getId()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the shared monitor by name. Two detectors joining at the same time may both create it, every later
+     * detector then joins the one with the lowest id.
+     */
+    private void findMonitor(String monitorName, ActionListener<String> listener) {
+        SearchRequest request = new SearchRequest(ScheduledJob.SCHEDULED_JOBS_INDEX)
+                .indicesOptions(IndicesOptions.lenientExpandOpen())
+                .source(new SearchSourceBuilder()
+                        .fetchSource(false)
+                        .size(MAX_DUPLICATE_MONITORS)
+                        .query(QueryBuilders.termQuery("monitor.name.keyword", monitorName)));
+        client.search(request, new ActionListener<>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                String monitorId = null;
+                for (SearchHit hit: response.getHits().getHits()) {
+                    if (monitorId == null || hit.getId().compareTo(monitorId) < 0) {
+                        monitorId = hit.getId();
+                    }
+                }
+                listener.onResponse(monitorId);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Reads the monitor with the sequence number and primary term to write it back with, or null if it does not exist.
+     */
+    private void getMonitor(String monitorId, ActionListener<VersionedMonitor> listener) {
+        client.get(new GetRequest(ScheduledJob.SCHEDULED_JOBS_INDEX, monitorId), new ActionListener<>() {
+            @Override
+            public void onResponse(GetResponse response) {
+                if (!response.isExists()) {
+                    listener.onResponse(null);
+                    return;
+                }
+                try {
+                    XContentParser xcp = XContentType.JSON.xContent().createParser(
+                            xContentRegistry,
+                            LoggingDeprecationHandler.INSTANCE, response.getSourceAsString()
+                    );
+                    // the monitor is stored wrapped in an object named by its type
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.FIELD_NAME, xcp.nextToken(), xcp);
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+                    Monitor monitor = Monitor.parse(xcp, response.getId(), response.getVersion());
+                    listener.onResponse(new VersionedMonitor(monitor, response.getSeqNo(), response.getPrimaryTerm()));
+                } catch (IOException | RuntimeException e) {
+                    listener.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private void createMonitor(Detector detector, List<Pair<String, Rule>> rules, String monitorName, String logIndex, WriteRequest.RefreshPolicy refreshPolicy,
+                               ActionListener<String> listener) {
+        List<DocLevelQuery> queries = new ArrayList<>();
+        List<Trigger> triggers = new ArrayList<>();
+        addMember(detector, rules, queries, triggers);
+
+        boolean enabled = !queries.isEmpty() || !triggers.isEmpty();
+        Monitor monitor = new Monitor(Monitor.NO_ID, Monitor.NO_VERSION, monitorName, enabled, detector.getSchedule(), Instant.now(),
+                enabled? Objects.requireNonNullElse(detector.getEnabledTime(), Instant.now()): null,
+                Monitor.MonitorType.DOC_LEVEL_MONITOR, detector.getUser(), 1, List.of(new DocLevelMonitorInput(monitorName, List.of(logIndex), queries)),
+                triggers, Map.of(),
+                new DataSources(detector.getRuleIndex(),
+                        detector.getFindingsIndex(),
+                        detector.getFindingsIndexPattern(),
+                        detector.getAlertsIndex(),
+                        detector.getAlertsHistoryIndex(),
+                        detector.getAlertsHistoryIndexPattern(),
+                        DetectorMonitorConfig.getRuleIndexMappingsByType(detector.getDetectorType())));
+
+        indexMonitor(new IndexMonitorRequest(Monitor.NO_ID, SequenceNumbers.UNASSIGNED_SEQ_NO, SequenceNumbers.UNASSIGNED_PRIMARY_TERM, refreshPolicy,
+                RestRequest.Method.POST, monitor), listener);
+    }
+
+    /**
+     * Replaces the queries and triggers of the detector in the monitor by those of its rules, or removes them if there
+     * are no rules, keeping those of the other members. The monitor is written only if it was not changed since read.
+     */
+    private void updateMonitor(VersionedMonitor current, Detector detector, List<Pair<String, Rule>> rules, WriteRequest.RefreshPolicy refreshPolicy,
+                               ActionListener<String> listener) {
+        Monitor monitor = current.monitor;
+        DocLevelMonitorInput input = (DocLevelMonitorInput) monitor.getInputs().get(0);
+
+        List<DocLevelQuery> queries = new ArrayList<>();
+        for (DocLevelQuery query: input.getQueries()) {
+            if (!detector.getId().equals(SharedMonitors.detectorId(query.getId()))) {
+                queries.add(query);
+            }
+        }
+        List<Trigger> triggers = new ArrayList<>();
+        for (Trigger trigger: monitor.getTriggers()) {
+            if (!detector.getId().equals(SharedMonitors.detectorId(trigger.getId()))) {
+                triggers.add(trigger);
+            }
+        }
+        boolean otherMembers = !queries.isEmpty() || !triggers.isEmpty();
+        addMember(detector, rules, queries, triggers);
+
+        boolean enabled = !queries.isEmpty() || !triggers.isEmpty();
+        Instant enabledTime = null;
+        if (enabled) {
+            enabledTime = monitor.getEnabled() && monitor.getEnabledTime() != null? monitor.getEnabledTime():
+                    Objects.requireNonNullElse(detector.getEnabledTime(), Instant.now());
+        }
+        // a monitor without other members runs on the schedule of the detector
+        Monitor updated = new Monitor(monitor.getId(), monitor.getVersion(), monitor.getName(), enabled,
+                otherMembers? monitor.getSchedule(): detector.getSchedule(), Instant.now(), enabledTime, monitor.getMonitorType(),
+                otherMembers? monitor.getUser(): detector.getUser(), monitor.getSchemaVersion(),
+                List.of(new DocLevelMonitorInput(input.getDescription(), input.getIndices(), queries)), triggers, monitor.getUiMetadata(), monitor.getDataSources());
+
+        indexMonitor(new IndexMonitorRequest(monitor.getId(), current.seqNo, current.primaryTerm, refreshPolicy, RestRequest.Method.PUT, updated), listener);
+    }
+
+    /**
+     * Adds the scoped queries and triggers of the detector, a disabled detector has none.
+     */
+    private static void addMember(Detector detector, List<Pair<String, Rule>> rules, List<DocLevelQuery> queries, List<Trigger> triggers) {
+        if (!detector.getEnabled()) {
+            return;
+        }
+        List<DocLevelQuery> detectorQueries = CompiledTriggers.compile(detector.getTriggers(), TransportIndexDetectorAction.buildDocLevelQueries(rules)).tagQueries();
+        for (DocLevelQuery query: detectorQueries) {
+            queries.add(SharedMonitors.scopeQuery(detector.getId(), query));
+        }
+        for (DetectorTrigger trigger: detector.getTriggers()) {
+            triggers.add(SharedMonitors.scopeTrigger(detector.getId(), trigger));
+        }
+    }
+
+    private void indexMonitor(IndexMonitorRequest request, ActionListener<String> listener) {
+        AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, request, new ActionListener<>() {
+            @Override
+            public void onResponse(IndexMonitorResponse response) {
+                listener.onResponse(response.getId());
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private static class VersionedMonitor {
+
+        private final Monitor monitor;
+
+        private final long seqNo;
+
+        private final long primaryTerm;
+
+        private VersionedMonitor(Monitor monitor, long seqNo, long primaryTerm) {
+            this.monitor = monitor;
+            this.seqNo = seqNo;
+            this.primaryTerm = primaryTerm;
+        }
+    }
+}
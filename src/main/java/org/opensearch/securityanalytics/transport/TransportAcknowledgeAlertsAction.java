@@ -19,50 +19,39 @@ import org.opensearch.commons.alerting.model.Table;
 import org.opensearch.securityanalytics.action.AckAlertsRequest;
 import org.opensearch.securityanalytics.action.AckAlertsResponse;
 import org.opensearch.securityanalytics.action.AckAlertsAction;
-import org.opensearch.securityanalytics.action.GetDetectorRequest;
-import org.opensearch.securityanalytics.action.GetDetectorResponse;
 import org.opensearch.securityanalytics.alerts.AlertsService;
-import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.DetectorCache;
+import org.opensearch.securityanalytics.util.DetectorMetadata;
+import org.opensearch.securityanalytics.util.PagedSearch;
+import org.opensearch.securityanalytics.util.SharedMonitors;
 import org.opensearch.tasks.Task;
 import org.opensearch.transport.TransportService;
 
-public class TransportAcknowledgeAlertsAction extends HandledTransportAction<AckAlertsRequest, AckAlertsResponse> {
-    private final TransportGetDetectorAction transportGetDetectorAction;
+import java.util.ArrayList;
+import java.util.List;
 
+public class TransportAcknowledgeAlertsAction extends HandledTransportAction<AckAlertsRequest, AckAlertsResponse> {
     private final NamedXContentRegistry xContentRegistry;
 
     private final AlertsService alertsService;
 
     private static final Logger log = LogManager.getLogger(TransportAcknowledgeAlertsAction.class);
 
+    private static final int PAGE_SIZE = PagedSearch.DEFAULT_PAGE_SIZE;
+
     @Inject
-    public TransportAcknowledgeAlertsAction(TransportService transportService, ActionFilters actionFilters, TransportGetDetectorAction transportGetDetectorAction, NamedXContentRegistry xContentRegistry, Client client) {
+    public TransportAcknowledgeAlertsAction(TransportService transportService, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry, Client client, DetectorCache detectorCache) {
         super(AckAlertsAction.NAME, transportService, actionFilters, AckAlertsRequest::new);
-        this.transportGetDetectorAction = transportGetDetectorAction;
         this.xContentRegistry = xContentRegistry;
-        this.alertsService = new AlertsService(client);
+        this.alertsService = new AlertsService(client, detectorCache);
     }
 
     @Override
     protected void doExecute(Task task, AckAlertsRequest request, ActionListener<AckAlertsResponse> actionListener) {
-        GetDetectorRequest getDetectorRequest = new GetDetectorRequest(request.getDetectorId(), -3L);
-        transportGetDetectorAction.doExecute(task, getDetectorRequest, new ActionListener<GetDetectorResponse>() {
+        alertsService.getDetector(request.getDetectorId(), new ActionListener<>() {
             @Override
-            public void onResponse(GetDetectorResponse getDetectorResponse) {
-                StepListener<GetAlertsResponse> getAlertsResponseStepListener = new StepListener<>();
-                alertsService.getAlerts(
-                        request.getAlertIds(),
-                        getDetectorResponse.getDetector(),
-                        new Table("asc", "id", null, 10000, 0, null),
-                        getAlertsResponseStepListener
-                );
-                getAlertsResponseStepListener.whenComplete(getAlertsResponse -> {
-                    if (getAlertsResponse.getAlerts().size() == 0 || isDetectorAlertsMonitorMismatch(getDetectorResponse.getDetector(), getAlertsResponse)) {
-                        actionListener.onFailure(new OpenSearchException("Detector alert mapping is not valid"));
-                    } else {
-                        alertsService.ackknowledgeAlerts(getAlertsResponse, getDetectorResponse, actionListener);
-                    }
-                }, actionListener::onFailure);
+            public void onResponse(DetectorMetadata detector) {
+                acknowledgeAlerts(request.getAlertIds(), 0, detector, new AckAlertsResponse(new ArrayList<>(), new ArrayList<>(), new ArrayList<>()), actionListener);
             }
 
             @Override
@@ -72,8 +61,57 @@ public class TransportAcknowledgeAlertsAction extends HandledTransportAction<Ack
         });
     }
 
-    private boolean isDetectorAlertsMonitorMismatch(Detector detector, GetAlertsResponse getAlertsResponse) {
+    /**
+     * Acknowledges the alerts a page of alert ids at a time, so no page of alerts is larger than the page size, and
+     * fetches the alerts of the next page once the current page is acknowledged.
+     */
+    private void acknowledgeAlerts(List<String> alertIds, int from, DetectorMetadata detector, AckAlertsResponse acks, ActionListener<AckAlertsResponse> actionListener) {
+        if (from >= alertIds.size()) {
+            if (acks.getAcknowledged().isEmpty() && acks.getFailed().isEmpty()) {
+                actionListener.onFailure(new OpenSearchException("Detector alert mapping is not valid"));
+            } else {
+                actionListener.onResponse(acks);
+            }
+            return;
+        }
+        List<String> page = alertIds.subList(from, Math.min(from + PAGE_SIZE, alertIds.size()));
+
+        StepListener<GetAlertsResponse> getAlertsResponseStepListener = new StepListener<>();
+        alertsService.getAlerts(
+                page,
+                detector,
+                new Table("asc", "id", null, page.size(), 0, null),
+                getAlertsResponseStepListener
+        );
+        getAlertsResponseStepListener.whenComplete(getAlertsResponse -> {
+            if (isDetectorAlertsMonitorMismatch(detector, getAlertsResponse)) {
+                actionListener.onFailure(new OpenSearchException("Detector alert mapping is not valid"));
+            } else if (getAlertsResponse.getAlerts().size() == 0) {
+                acks.getMissing().addAll(page);
+                acknowledgeAlerts(alertIds, from + page.size(), detector, acks, actionListener);
+            } else {
+                alertsService.ackknowledgeAlerts(getAlertsResponse, detector, new ActionListener<>() {
+                    @Override
+                    public void onResponse(AckAlertsResponse response) {
+                        acks.getAcknowledged().addAll(response.getAcknowledged());
+                        acks.getFailed().addAll(response.getFailed());
+                        acks.getMissing().addAll(response.getMissing());
+                        acknowledgeAlerts(alertIds, from + page.size(), detector, acks, actionListener);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        actionListener.onFailure(e);
+                    }
+                });
+            }
+        }, actionListener::onFailure);
+    }
+
+    private boolean isDetectorAlertsMonitorMismatch(DetectorMetadata detector, GetAlertsResponse getAlertsResponse) {
         return getAlertsResponse.getAlerts().stream()
-                .anyMatch(alert -> false == detector.getMonitorIds().contains(alert.getMonitorId())) ;
+                .anyMatch(alert -> false == detector.getMonitorIds().contains(alert.getMonitorId()) ||
+                        // a shared monitor also raises the alerts of the other detectors using it
+                        SharedMonitors.isSharedMonitor(alert.getMonitorName()) && false == detector.getId().equals(SharedMonitors.detectorId(alert.getTriggerId())));
     }
 }
@@ -36,6 +36,8 @@ import org.opensearch.securityanalytics.action.DeleteDetectorAction;
 import org.opensearch.securityanalytics.action.DeleteDetectorRequest;
 import org.opensearch.securityanalytics.action.DeleteDetectorResponse;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.AggregationStateIndices;
+import org.opensearch.securityanalytics.util.DetectorCache;
 import org.opensearch.securityanalytics.util.RuleTopicIndices;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
 import org.opensearch.tasks.Task;
@@ -63,13 +65,23 @@ public class TransportDeleteDetectorAction extends HandledTransportAction<Delete
 
     private final ThreadPool threadPool;
 
+    private final SharedDetectorMonitors sharedMonitors;
+
+    private final BucketLevelMonitors bucketLevelMonitors;
+
+    private final AggregationStateIndices aggregationStateIndices;
+
     @Inject
-    public TransportDeleteDetectorAction(TransportService transportService, Client client, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry, RuleTopicIndices ruleTopicIndices) {
+    public TransportDeleteDetectorAction(TransportService transportService, Client client, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry, RuleTopicIndices ruleTopicIndices,
+                                         AggregationStateIndices aggregationStateIndices) {
         super(DeleteDetectorAction.NAME, transportService, actionFilters, DeleteDetectorRequest::new);
         this.client = client;
         this.ruleTopicIndices = ruleTopicIndices;
         this.xContentRegistry = xContentRegistry;
         this.threadPool = client.threadPool();
+        this.sharedMonitors = new SharedDetectorMonitors(client, xContentRegistry);
+        this.bucketLevelMonitors = new BucketLevelMonitors(client);
+        this.aggregationStateIndices = aggregationStateIndices;
     }
 
     @Override
@@ -135,8 +147,51 @@ public class TransportDeleteDetectorAction extends HandledTransportAction<Delete
         }
 
         private void onGetResponse(Detector detector) {
+            sharedMonitors.sharedMonitorId(detector.getDocLevelMonitorIds(), new ActionListener<>() {
+                @Override
+                public void onResponse(String sharedMonitorId) {
+                    if (sharedMonitorId == null) {
+                        deleteMonitors(detector);
+                        return;
+                    }
+
+                    // other detectors may still use the shared monitor, so it is rebuilt without the detector
+                    sharedMonitors.leave(detector, sharedMonitorId, request.getRefreshPolicy(), new ActionListener<>() {
+                        @Override
+                        public void onResponse(Void response) {
+                            deleteBucketLevelMonitors(detector);
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            onFailures(e);
+                        }
+                    });
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        private void deleteBucketLevelMonitors(Detector detector) {
+            bucketLevelMonitors.deleteAll(detector, request.getRefreshPolicy(), new ActionListener<>() {
+                @Override
+                public void onResponse(Void response) {
+                    onMonitorsDeleted(detector);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        private void deleteMonitors(Detector detector) {
             List<String> monitorIds = detector.getMonitorIds();
-            String ruleIndex = detector.getRuleIndex();
             ActionListener<DeleteMonitorResponse> deletesListener = new GroupedActionListener<>(new ActionListener<>() {
                 @Override
                 public void onResponse(Collection<DeleteMonitorResponse> responses) {
@@ -151,48 +206,7 @@ public class TransportDeleteDetectorAction extends HandledTransportAction<Delete
                     }).count() > 0) {
                         onFailures(new OpenSearchStatusException("Monitor associated with detected could not be deleted", errorStatusSupplier.get()));
                     }
-                    ruleTopicIndices.countQueries(ruleIndex, new ActionListener<>() {
-                        @Override
-                        public void onResponse(SearchResponse response) {
-                            if (response.isTimedOut()) {
-                                log.info("Count response timed out");
-                                deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
-                            } else {
-                                long count = response.getHits().getTotalHits().value;
-
-                                if (count == 0) {
-                                    try {
-                                        ruleTopicIndices.deleteRuleTopicIndex(ruleIndex,
-                                                new ActionListener<>() {
-                                                    @Override
-                                                    public void onResponse(AcknowledgedResponse response) {
-                                                        deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
-                                                    }
-
-                                                    @Override
-                                                    public void onFailure(Exception e) {
-                                                        // error is suppressed as it is not a critical deletion
-                                                        log.info(e.getMessage());
-                                                        deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
-                                                    }
-                                                });
-                                    } catch (IOException e) {
-                                        deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
-                                    }
-                                } else {
-                                    deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
-                                }
-                            }
-                        }
-
-                        @Override
-                        public void onFailure(Exception e) {
-                            // error is suppressed as it is not a critical deletion
-                            log.info(e.getMessage());
-
-
-                        }
-                    });
+                    onMonitorsDeleted(detector);
                 }
 
                 @Override
@@ -208,11 +222,59 @@ public class TransportDeleteDetectorAction extends HandledTransportAction<Delete
             }
         }
 
+        private void onMonitorsDeleted(Detector detector) {
+            String ruleIndex = detector.getRuleIndex();
+            ruleTopicIndices.countQueries(ruleIndex, new ActionListener<>() {
+                @Override
+                public void onResponse(SearchResponse response) {
+                    if (response.isTimedOut()) {
+                        log.info("Count response timed out");
+                        deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
+                    } else {
+                        long count = response.getHits().getTotalHits().value;
+
+                        if (count == 0) {
+                            try {
+                                ruleTopicIndices.deleteRuleTopicIndex(ruleIndex,
+                                        new ActionListener<>() {
+                                            @Override
+                                            public void onResponse(AcknowledgedResponse response) {
+                                                deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
+                                            }
+
+                                            @Override
+                                            public void onFailure(Exception e) {
+                                                // error is suppressed as it is not a critical deletion
+                                                log.info(e.getMessage());
+                                                deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
+                                            }
+                                        });
+                            } catch (IOException e) {
+                                deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
+                            }
+                        } else {
+                            deleteDetectorFromConfig(detector.getId(), request.getRefreshPolicy());
+                        }
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    // error is suppressed as it is not a critical deletion
+                    log.info(e.getMessage());
+
+
+                }
+            });
+        }
+
         private void deleteDetectorFromConfig(String detectorId, WriteRequest.RefreshPolicy refreshPolicy) {
             deleteDetector(detectorId, refreshPolicy,
                     new ActionListener<>() {
                         @Override
                         public void onResponse(DeleteResponse response) {
+                            aggregationStateIndices.deleteState(detectorId);
+                            DetectorCache.invalidateClusterWide(client, List.of(detectorId));
                             onOperation(response);
                         }
 
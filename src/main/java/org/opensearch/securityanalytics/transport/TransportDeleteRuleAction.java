@@ -6,7 +6,6 @@ package org.opensearch.securityanalytics.transport;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.lucene.search.join.ScoreMode;
 import org.opensearch.OpenSearchStatusException;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.ActionRunnable;
@@ -17,31 +16,29 @@ import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.ActionFilters;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.inject.Inject;
+import org.opensearch.common.settings.Settings;
 import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.common.xcontent.XContentType;
-import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.index.reindex.BulkByScrollResponse;
 import org.opensearch.index.reindex.DeleteByQueryAction;
 import org.opensearch.index.reindex.DeleteByQueryRequestBuilder;
-import org.opensearch.rest.RestRequest;
 import org.opensearch.rest.RestStatus;
-import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.securityanalytics.action.DeleteRuleAction;
 import org.opensearch.securityanalytics.action.DeleteRuleRequest;
 import org.opensearch.securityanalytics.action.DeleteRuleResponse;
-import org.opensearch.securityanalytics.action.IndexDetectorAction;
-import org.opensearch.securityanalytics.action.IndexDetectorRequest;
-import org.opensearch.securityanalytics.action.IndexDetectorResponse;
 import org.opensearch.securityanalytics.model.Detector;
 import org.opensearch.securityanalytics.model.DetectorRule;
 import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
 import org.opensearch.securityanalytics.util.DetectorIndices;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
 import org.opensearch.tasks.Task;
 import org.opensearch.threadpool.ThreadPool;
@@ -52,7 +49,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.opensearch.securityanalytics.model.Detector.NO_VERSION;
@@ -69,13 +65,21 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
 
     private final ThreadPool threadPool;
 
+    private final ClusterService clusterService;
+
+    private volatile int maxConcurrency;
+
     @Inject
-    public TransportDeleteRuleAction(TransportService transportService, Client client, DetectorIndices detectorIndices, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry) {
+    public TransportDeleteRuleAction(TransportService transportService, Client client, DetectorIndices detectorIndices, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry, ClusterService clusterService, Settings settings) {
         super(DeleteRuleAction.NAME, transportService, actionFilters, DeleteRuleRequest::new);
         this.client = client;
         this.detectorIndices = detectorIndices;
         this.xContentRegistry = xContentRegistry;
         this.threadPool = client.threadPool();
+        this.clusterService = clusterService;
+
+        this.maxConcurrency = SecurityAnalyticsSettings.DETECTOR_UPDATE_MAX_CONCURRENCY.get(settings);
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.DETECTOR_UPDATE_MAX_CONCURRENCY, it -> maxConcurrency = it);
     }
 
     @Override
@@ -90,7 +94,6 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
         private final ActionListener<DeleteRuleResponse> listener;
         private final AtomicReference<Object> response;
         private final AtomicBoolean counter = new AtomicBoolean();
-        private final AtomicInteger checker = new AtomicInteger();
         private final Task task;
 
         AsyncDeleteRuleAction(Task task, DeleteRuleRequest request, ActionListener<DeleteRuleResponse> listener) {
@@ -133,18 +136,10 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
 
         private void onGetResponse(Rule rule) {
             if (detectorIndices.detectorIndexExists()) {
-                QueryBuilder queryBuilder =
-                        QueryBuilders.nestedQuery("detector.inputs.detector_input.custom_rules",
-                                QueryBuilders.boolQuery().must(
-                                        QueryBuilders.matchQuery("detector.inputs.detector_input.custom_rules.id", rule.getId())
-                                ), ScoreMode.Avg);
-
                 SearchRequest searchRequest = new SearchRequest(Detector.DETECTORS_INDEX)
                         .source(new SearchSourceBuilder()
-                                .seqNoAndPrimaryTerm(true)
-                                .version(true)
-                                .query(queryBuilder)
-                                .size(10000));
+                                .query(DetectorRuleUpdater.detectorsQuery(rule.getId()))
+                                .size(0));
 
                 client.search(searchRequest, new ActionListener<>() {
                     @Override
@@ -160,25 +155,7 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
                                 return;
                             }
 
-                            List<Detector> detectors = new ArrayList<>();
-                            try {
-                                for (SearchHit hit : response.getHits()) {
-                                    XContentParser xcp = XContentType.JSON.xContent().createParser(
-                                            xContentRegistry,
-                                            LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
-                                    );
-
-                                    Detector detector = Detector.docParse(xcp, hit.getId(), hit.getVersion());
-                                    if (!detector.getInputs().isEmpty()) {
-                                        detector.getInputs().get(0).setCustomRules(removeRuleFromDetectors(detector, rule.getId()));
-                                    }
-                                    detectors.add(detector);
-                                }
-                            } catch (IOException ex) {
-                                onFailures(ex);
-                            }
-
-                            updateDetectors(detectors);
+                            updateDetectors(rule.getId());
                         } else {
                             deleteRule(rule.getId());
                         }
@@ -194,17 +171,16 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
             }
         }
 
-        private void updateDetectors(List<Detector> detectors) {
-            for (Detector detector: detectors) {
-                IndexDetectorRequest indexRequest = new IndexDetectorRequest(detector.getId(), request.getRefreshPolicy(), RestRequest.Method.PUT, detector);
-                client.execute(IndexDetectorAction.INSTANCE, indexRequest,
-                    new ActionListener<>() {
+        private void updateDetectors(String ruleId) {
+            new DetectorRuleUpdater(client, xContentRegistry, clusterService.localNode().getId(), task, maxConcurrency)
+                    .updateDetectors(ruleId, request.getRefreshPolicy(), detector -> {
+                        if (!detector.getInputs().isEmpty()) {
+                            detector.getInputs().get(0).setCustomRules(removeRuleFromDetectors(detector, ruleId));
+                        }
+                    }, new ActionListener<>() {
                         @Override
-                        public void onResponse(IndexDetectorResponse response) {
-                            if (response.getStatus() != RestStatus.OK) {
-                                onFailures(new OpenSearchStatusException(String.format(Locale.getDefault(), "Rule with id %s cannot be deleted", request.getRuleId()), RestStatus.INTERNAL_SERVER_ERROR));
-                            }
-                            onComplete(request.getRuleId(), detectors.size());
+                        public void onResponse(Void response) {
+                            deleteRule(ruleId);
                         }
 
                         @Override
@@ -212,13 +188,6 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
                             onFailures(e);
                         }
                     });
-            }
-        }
-
-        private void onComplete(String ruleId, int target) {
-            if (checker.incrementAndGet() == target) {
-                deleteRule(ruleId);
-            }
         }
 
         private void deleteRule(String ruleId) {
@@ -233,6 +202,7 @@ public class TransportDeleteRuleAction extends HandledTransportAction<DeleteRule
                             return;
                         }
 
+                        RuleCache.invalidateClusterWide(client, List.of(ruleId));
                         onOperation(response, ruleId);
                     }
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.nodes.TransportNodesAction;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.securityanalytics.action.DetectorCacheAction;
+import org.opensearch.securityanalytics.action.DetectorCacheNodeResponse;
+import org.opensearch.securityanalytics.action.DetectorCacheRequest;
+import org.opensearch.securityanalytics.action.DetectorCacheResponse;
+import org.opensearch.securityanalytics.util.DetectorCache;
+import org.opensearch.securityanalytics.util.RuleEvaluatorCache;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportRequest;
+import org.opensearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Invalidates detectors in the {@link DetectorCache} and the {@link RuleEvaluatorCache} of every node and reports the cache stats of each node.
+ */
+public class TransportDetectorCacheAction extends TransportNodesAction<DetectorCacheRequest, DetectorCacheResponse, TransportDetectorCacheAction.NodeRequest, DetectorCacheNodeResponse> {
+
+    private final DetectorCache detectorCache;
+
+    private final RuleEvaluatorCache ruleEvaluatorCache;
+
+    @Inject
+    public TransportDetectorCacheAction(ThreadPool threadPool, ClusterService clusterService, TransportService transportService, ActionFilters actionFilters,
+                                        DetectorCache detectorCache, RuleEvaluatorCache ruleEvaluatorCache) {
+        super(DetectorCacheAction.NAME, threadPool, clusterService, transportService, actionFilters, DetectorCacheRequest::new, NodeRequest::new, ThreadPool.Names.MANAGEMENT, DetectorCacheNodeResponse.class);
+        this.detectorCache = detectorCache;
+        this.ruleEvaluatorCache = ruleEvaluatorCache;
+    }
+
+    @Override
+    protected DetectorCacheResponse newResponse(DetectorCacheRequest request, List<DetectorCacheNodeResponse> responses, List<FailedNodeException> failures) {
+        return new DetectorCacheResponse(clusterService.getClusterName(), responses, failures);
+    }
+
+    @Override
+    protected NodeRequest newNodeRequest(DetectorCacheRequest request) {
+        return new NodeRequest(request);
+    }
+
+    @Override
+    protected DetectorCacheNodeResponse newNodeResponse(StreamInput in) throws IOException {
+        return new DetectorCacheNodeResponse(in);
+    }
+
+    @Override
+    protected DetectorCacheNodeResponse nodeOperation(NodeRequest nodeRequest) {
+        DetectorCacheRequest request = nodeRequest.request;
+        if (request.isInvalidateAll()) {
+            detectorCache.invalidateAll();
+            ruleEvaluatorCache.invalidateAll();
+        } else if (!request.getInvalidateDetectorIds().isEmpty()) {
+            detectorCache.invalidate(request.getInvalidateDetectorIds());
+            ruleEvaluatorCache.invalidate(request.getInvalidateDetectorIds());
+        }
+        return new DetectorCacheNodeResponse(clusterService.localNode(), detectorCache.getCount(), detectorCache.getHits(), detectorCache.getMisses(), detectorCache.getEvictions());
+    }
+
+    public static class NodeRequest extends TransportRequest {
+
+        private final DetectorCacheRequest request;
+
+        public NodeRequest(DetectorCacheRequest request) {
+            this.request = request;
+        }
+
+        public NodeRequest(StreamInput sin) throws IOException {
+            super(sin);
+            this.request = new DetectorCacheRequest(sin);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            request.writeTo(out);
+        }
+    }
+}
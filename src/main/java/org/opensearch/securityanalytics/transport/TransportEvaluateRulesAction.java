@@ -0,0 +1,240 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.search.join.ScoreMode;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionRunnable;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.client.Client;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.lucene.uid.Versions;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.securityanalytics.action.EvaluateRulesAction;
+import org.opensearch.securityanalytics.action.EvaluateRulesRequest;
+import org.opensearch.securityanalytics.action.EvaluateRulesResponse;
+import org.opensearch.securityanalytics.action.GetDetectorAction;
+import org.opensearch.securityanalytics.action.GetDetectorRequest;
+import org.opensearch.securityanalytics.action.GetDetectorResponse;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.DetectorInput;
+import org.opensearch.securityanalytics.model.DetectorRule;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.engine.AggregationEvaluator;
+import org.opensearch.securityanalytics.rules.engine.AggregationFinding;
+import org.opensearch.securityanalytics.rules.engine.RuleEvaluator;
+import org.opensearch.securityanalytics.util.AggregationStateIndices;
+import org.opensearch.securityanalytics.util.CompiledTriggers;
+import org.opensearch.securityanalytics.util.RuleCache;
+import org.opensearch.securityanalytics.util.RuleEvaluatorCache;
+import org.opensearch.securityanalytics.util.RuleEvaluatorCache.CompiledDetector;
+import org.opensearch.securityanalytics.util.RuleIndices;
+import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
+import org.opensearch.tasks.Task;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates a batch of documents against the rules of a detector with the in-process rule engine, independently of
+ * the alerting monitors of the detector. Aggregation rules are evaluated over sliding windows whose state is stored per
+ * detector, so consecutive batches of a stream of documents add up. The compiled rules of a detector are cached in the
+ * {@link RuleEvaluatorCache} until the detector changes.
+ */
+public class TransportEvaluateRulesAction extends HandledTransportAction<EvaluateRulesRequest, EvaluateRulesResponse> {
+
+    private static final Logger log = LogManager.getLogger(TransportEvaluateRulesAction.class);
+
+    private final Client client;
+
+    private final RuleIndices ruleIndices;
+
+    private final RuleCache ruleCache;
+
+    private final AggregationStateIndices aggregationStateIndices;
+
+    private final RuleEvaluatorCache ruleEvaluatorCache;
+
+    private final ThreadPool threadPool;
+
+    @Inject
+    public TransportEvaluateRulesAction(TransportService transportService, Client client, ActionFilters actionFilters,
+                                        RuleIndices ruleIndices, RuleCache ruleCache, AggregationStateIndices aggregationStateIndices,
+                                        RuleEvaluatorCache ruleEvaluatorCache) {
+        super(EvaluateRulesAction.NAME, transportService, actionFilters, EvaluateRulesRequest::new);
+        this.client = client;
+        this.ruleIndices = ruleIndices;
+        this.ruleCache = ruleCache;
+        this.aggregationStateIndices = aggregationStateIndices;
+        this.ruleEvaluatorCache = ruleEvaluatorCache;
+        this.threadPool = ruleIndices.getThreadPool();
+    }
+
+    @Override
+    protected void doExecute(Task task, EvaluateRulesRequest request, ActionListener<EvaluateRulesResponse> listener) {
+        AsyncEvaluateRulesAction asyncAction = new AsyncEvaluateRulesAction(request, listener);
+        asyncAction.start();
+    }
+
+    class AsyncEvaluateRulesAction {
+        private final EvaluateRulesRequest request;
+
+        private final ActionListener<EvaluateRulesResponse> listener;
+        private final AtomicBoolean counter = new AtomicBoolean();
+
+        /**
+         * the generation of the cache before the rules were loaded, so rules compiled across an invalidation are not cached.
+         */
+        private final long loadGeneration;
+
+        AsyncEvaluateRulesAction(EvaluateRulesRequest request, ActionListener<EvaluateRulesResponse> listener) {
+            this.request = request;
+            this.listener = listener;
+            this.loadGeneration = ruleEvaluatorCache.generation();
+        }
+
+        void start() {
+            client.execute(GetDetectorAction.INSTANCE, new GetDetectorRequest(request.getDetectorId(), Versions.MATCH_ANY), new ActionListener<>() {
+                @Override
+                public void onResponse(GetDetectorResponse response) {
+                    Detector detector = response.getDetector();
+                    CompiledDetector compiled = ruleEvaluatorCache.get(detector);
+                    if (compiled != null) {
+                        threadPool.executor(ThreadPool.Names.GENERIC).execute(ActionRunnable.wrap(listener, actionListener -> evaluate(compiled, actionListener)));
+                        return;
+                    }
+
+                    if (detector.getInputs().isEmpty()) {
+                        onFailures(new OpenSearchStatusException(String.format(Locale.getDefault(), "Detector %s has no inputs", detector.getId()), RestStatus.BAD_REQUEST));
+                        return;
+                    }
+                    DetectorInput input = detector.getInputs().get(0);
+                    List<Rule> rules = new ArrayList<>();
+
+                    List<String> prePackagedRuleIds = input.getPrePackagedRules().stream().map(DetectorRule::getId).collect(Collectors.toList());
+                    QueryBuilder prePackagedQuery = QueryBuilders.nestedQuery("rule",
+                            QueryBuilders.boolQuery().must(
+                                    QueryBuilders.matchQuery("rule.category", detector.getDetectorType())
+                            ).must(
+                                    QueryBuilders.termsQuery("_id", prePackagedRuleIds.toArray(new String[]{}))
+                            ),
+                            ScoreMode.Avg
+                    );
+
+                    getRules(Rule.PRE_PACKAGED_RULES_INDEX, prePackagedRuleIds, prePackagedQuery, rules, () -> {
+                        List<String> customRuleIds = input.getCustomRules().stream().map(DetectorRule::getId).collect(Collectors.toList());
+                        QueryBuilder customQuery = QueryBuilders.termsQuery("_id", customRuleIds.toArray(new String[]{}));
+
+                        getRules(Rule.CUSTOM_RULES_INDEX, customRuleIds, customQuery, rules, () -> onOperation(detector, rules));
+                    });
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        /**
+         * Resolves the rules through the {@link RuleCache}, like the detector does when its monitors are indexed.
+         */
+        private void getRules(String ruleIndex, List<String> ruleIds, QueryBuilder query, List<Rule> rules, Runnable next) {
+            if (ruleIds.isEmpty() || !ruleIndices.ruleIndexExists(ruleIndex.equals(Rule.PRE_PACKAGED_RULES_INDEX))) {
+                next.run();
+                return;
+            }
+
+            ruleCache.getRules(ruleIndex, query, new ActionListener<>() {
+                @Override
+                public void onResponse(List<Pair<String, Rule>> response) {
+                    response.forEach(rule -> rules.add(rule.getValue()));
+                    next.run();
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        private void onOperation(Detector detector, List<Rule> rules) {
+            if (counter.compareAndSet(false, true)) {
+                finishHim(detector, rules, null);
+            }
+        }
+
+        private void onFailures(Exception t) {
+            if (counter.compareAndSet(false, true)) {
+                finishHim(null, null, t);
+            }
+        }
+
+        private void finishHim(Detector detector, List<Rule> rules, Exception t) {
+            threadPool.executor(ThreadPool.Names.GENERIC).execute(ActionRunnable.wrap(listener, actionListener -> {
+                if (t != null) {
+                    throw t instanceof OpenSearchStatusException? (OpenSearchStatusException) t: SecurityAnalyticsException.wrap(t);
+                } else {
+                    CompiledDetector compiled = CompiledDetector.compile(detector, rules);
+                    ruleEvaluatorCache.put(compiled, loadGeneration);
+                    evaluate(compiled, actionListener);
+                }
+            }));
+        }
+
+        private void evaluate(CompiledDetector compiled, ActionListener<EvaluateRulesResponse> listener) {
+            RuleEvaluator evaluator = compiled.getEvaluator();
+            CompiledTriggers triggers = compiled.getTriggers();
+            List<List<String>> matchedRules = new ArrayList<>();
+            List<List<String>> firedTriggers = new ArrayList<>();
+            for (Map<String, Object> document: request.getDocuments()) {
+                List<String> matched = evaluator.evaluate(document);
+                matchedRules.add(matched);
+                firedTriggers.add(triggers.firedTriggers(matched));
+            }
+
+            AggregationEvaluator aggregationEvaluator = compiled.newAggregationEvaluator();
+            if (aggregationEvaluator == null) {
+                listener.onResponse(new EvaluateRulesResponse(compiled.getDetectorId(), evaluator.size(), compiled.getSkippedRules(), matchedRules, firedTriggers, List.of()));
+                return;
+            }
+
+            // the windows of the aggregation rules carry over between requests through the stored state of the detector
+            aggregationStateIndices.loadState(compiled.getDetectorId(), aggregationEvaluator, new ActionListener<>() {
+                @Override
+                public void onResponse(GetResponse previous) {
+                    threadPool.executor(ThreadPool.Names.GENERIC).execute(ActionRunnable.wrap(listener, actionListener -> {
+                        List<AggregationFinding> aggregationFindings = aggregationEvaluator.evaluate(request.getDocuments());
+                        aggregationStateIndices.saveState(compiled.getDetectorId(), aggregationEvaluator, previous, ActionListener.wrap(
+                                response -> actionListener.onResponse(new EvaluateRulesResponse(compiled.getDetectorId(), evaluator.size() + aggregationEvaluator.size(),
+                                        compiled.getSkippedRules(), matchedRules, firedTriggers, aggregationFindings)),
+                                actionListener::onFailure
+                        ));
+                    }));
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    listener.onFailure(SecurityAnalyticsException.wrap(e));
+                }
+            });
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.opensearch.securityanalytics.action.GetAlertsResponse;
 import org.opensearch.securityanalytics.action.SearchDetectorRequest;
 import org.opensearch.securityanalytics.alerts.AlertsService;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.DetectorCache;
 import org.opensearch.securityanalytics.util.DetectorUtils;
 import org.opensearch.tasks.Task;
 import org.opensearch.transport.TransportService;
@@ -45,11 +46,11 @@ public class TransportGetAlertsAction extends HandledTransportAction<GetAlertsRe
 
 
     @Inject
-    public TransportGetAlertsAction(TransportService transportService, ActionFilters actionFilters, TransportSearchDetectorAction transportSearchDetectorAction, NamedXContentRegistry xContentRegistry, Client client) {
+    public TransportGetAlertsAction(TransportService transportService, ActionFilters actionFilters, TransportSearchDetectorAction transportSearchDetectorAction, NamedXContentRegistry xContentRegistry, Client client, DetectorCache detectorCache) {
         super(GetAlertsAction.NAME, transportService, actionFilters, GetAlertsRequest::new);
         this.transportSearchDetectorAction = transportSearchDetectorAction;
         this.xContentRegistry = xContentRegistry;
-        this.alertsService = new AlertsService(client);
+        this.alertsService = new AlertsService(client, detectorCache);
     }
 
     @Override
@@ -57,7 +58,10 @@ public class TransportGetAlertsAction extends HandledTransportAction<GetAlertsRe
         if (request.getDetectorType() == null) {
             alertsService.getAlertsByDetectorId(
                     request.getDetectorId(),
+                    request.getCursor(),
                     request.getTable(),
+                    request.getStartTime(),
+                    request.getEndTime(),
                     request.getSeverityLevel(),
                     request.getAlertState(),
                     actionListener
@@ -90,7 +94,10 @@ public class TransportGetAlertsAction extends HandledTransportAction<GetAlertsRe
                         alertsService.getAlerts(
                                 detectors,
                                 request.getDetectorType(),
+                                request.getCursor(),
                                 request.getTable(),
+                                request.getStartTime(),
+                                request.getEndTime(),
                                 request.getSeverityLevel(),
                                 request.getAlertState(),
                                 actionListener
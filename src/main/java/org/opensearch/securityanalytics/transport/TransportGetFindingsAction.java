@@ -5,11 +5,15 @@
 package org.opensearch.securityanalytics.transport;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.lucene.search.join.ScoreMode;
+import org.opensearch.ExceptionsHelper;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
@@ -18,8 +22,10 @@ import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.client.Client;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.index.IndexNotFoundException;
 import org.opensearch.index.query.NestedQueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.securityanalytics.action.GetFindingsAction;
 import org.opensearch.securityanalytics.action.GetFindingsRequest;
@@ -27,11 +33,14 @@ import org.opensearch.securityanalytics.action.GetFindingsResponse;
 import org.opensearch.securityanalytics.action.SearchDetectorRequest;
 import org.opensearch.securityanalytics.findings.FindingsService;
 import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.DetectorCache;
 import org.opensearch.securityanalytics.util.DetectorUtils;
+import org.opensearch.securityanalytics.util.PagedSearch;
 import org.opensearch.tasks.Task;
 import org.opensearch.transport.TransportService;
 
 
+import static org.opensearch.securityanalytics.util.DetectorUtils.DETECTOR_MONITOR_ID_PATH;
 import static org.opensearch.securityanalytics.util.DetectorUtils.DETECTOR_TYPE_PATH;
 
 public class TransportGetFindingsAction extends HandledTransportAction<GetFindingsRequest, GetFindingsResponse> {
@@ -42,23 +51,33 @@ public class TransportGetFindingsAction extends HandledTransportAction<GetFindin
 
     private final FindingsService findingsService;
 
+    private final Client client;
+
     private static final Logger log = LogManager.getLogger(TransportGetFindingsAction.class);
 
 
     @Inject
-    public TransportGetFindingsAction(TransportService transportService, ActionFilters actionFilters, TransportSearchDetectorAction transportSearchDetectorAction, NamedXContentRegistry xContentRegistry, Client client) {
+    public TransportGetFindingsAction(TransportService transportService, ActionFilters actionFilters, TransportSearchDetectorAction transportSearchDetectorAction, NamedXContentRegistry xContentRegistry, Client client, DetectorCache detectorCache) {
         super(GetFindingsAction.NAME, transportService, actionFilters, GetFindingsRequest::new);
         this.xContentRegistry = xContentRegistry;
         this.transportSearchDetectorAction = transportSearchDetectorAction;
-        this.findingsService = new FindingsService(client);
+        this.findingsService = new FindingsService(client, detectorCache);
+        this.client = client;
     }
 
     @Override
     protected void doExecute(Task task, GetFindingsRequest request, ActionListener<GetFindingsResponse> actionListener) {
-        if (request.getDetectorType() == null) {
+        if (request.getDetectorType() == null && (request.getDetectorId() == null || request.getDetectorId().isEmpty())) {
+            getFindingsOfAllTypes(request, actionListener);
+        } else if (request.getDetectorType() == null) {
             findingsService.getFindingsByDetectorId(
                     request.getDetectorId(),
+                    request.getCursor(),
                     request.getTable(),
+                    request.getStartTime(),
+                    request.getEndTime(),
+                    request.isIncludeDocuments(),
+                    request.getDocumentFields(),
                     actionListener
             );
         } else {
@@ -89,7 +108,12 @@ public class TransportGetFindingsAction extends HandledTransportAction<GetFindin
                         findingsService.getFindings(
                                 detectors,
                                 request.getDetectorType(),
+                                request.getCursor(),
                                 request.getTable(),
+                                request.getStartTime(),
+                                request.getEndTime(),
+                                request.isIncludeDocuments(),
+                                request.getDocumentFields(),
                                 actionListener
                         );
                     } catch (IOException e) {
@@ -105,4 +129,57 @@ public class TransportGetFindingsAction extends HandledTransportAction<GetFindin
         }
     }
 
+    /**
+     * Searches the findings of every detector, across all detector types. Only the type and the monitors of the
+     * detectors are fetched, not their inputs and triggers.
+     */
+    @SuppressWarnings("unchecked")
+    private void getFindingsOfAllTypes(GetFindingsRequest request, ActionListener<GetFindingsResponse> actionListener) {
+        Map<String, String> detectorTypes = new LinkedHashMap<>();
+        Map<String, List<String>> detectorMonitorIds = new HashMap<>();
+        SearchSourceBuilder searchSourceBuilder = new SearchSourceBuilder()
+                .query(QueryBuilders.matchAllQuery())
+                .fetchSource(new String[]{DETECTOR_TYPE_PATH, DETECTOR_MONITOR_ID_PATH}, null);
+        PagedSearch.search(client, (searchRequest, searchListener) -> transportSearchDetectorAction.execute(new SearchDetectorRequest(searchRequest), searchListener),
+                searchSourceBuilder, (hits, pageListener) -> {
+            try {
+                for (SearchHit hit: hits) {
+                    Map<String, Object> detector = (Map<String, Object>) hit.getSourceAsMap().get("detector");
+                    String detectorType = detector.get(Detector.DETECTOR_TYPE_FIELD).toString();
+                    detectorTypes.put(hit.getId(), Detector.DetectorType.valueOf(detectorType.toUpperCase(Locale.ROOT)).getDetectorType());
+                    List<String> monitorIds = (List<String>) detector.get(Detector.ALERTING_MONITOR_ID);
+                    detectorMonitorIds.put(hit.getId(), monitorIds != null? monitorIds: List.of());
+                }
+            } catch (RuntimeException e) {
+                pageListener.onFailure(e);
+                return;
+            }
+            pageListener.onResponse(true);
+        }, new ActionListener<>() {
+            @Override
+            public void onResponse(Void response) {
+                findingsService.getFindingsOfAllTypes(
+                        detectorTypes,
+                        detectorMonitorIds,
+                        request.getCursor(),
+                        request.getTable(),
+                        request.getStartTime(),
+                        request.getEndTime(),
+                        request.isIncludeDocuments(),
+                        request.getDocumentFields(),
+                        actionListener
+                );
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (ExceptionsHelper.unwrapCause(e) instanceof IndexNotFoundException) {
+                    // no detector was ever created
+                    onResponse(null);
+                } else {
+                    actionListener.onFailure(e);
+                }
+            }
+        }, Detector.DETECTORS_INDEX);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.HandledTransportAction;
+import org.opensearch.client.Client;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.securityanalytics.action.GetFindingsStatsAction;
+import org.opensearch.securityanalytics.action.GetFindingsStatsRequest;
+import org.opensearch.securityanalytics.action.GetFindingsStatsResponse;
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.findings.FindingsStats;
+import org.opensearch.securityanalytics.util.DetectorCache;
+import org.opensearch.securityanalytics.util.DetectorMetadata;
+import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
+import org.opensearch.securityanalytics.util.TimeRangeIndices;
+import org.opensearch.tasks.Task;
+import org.opensearch.transport.TransportService;
+
+import java.util.List;
+
+/**
+ * Summarizes the findings of a detector type, or of a detector, with a single aggregation search over the findings
+ * indices.
+ */
+public class TransportGetFindingsStatsAction extends HandledTransportAction<GetFindingsStatsRequest, GetFindingsStatsResponse> {
+
+    private static final Logger log = LogManager.getLogger(TransportGetFindingsStatsAction.class);
+
+    private final Client client;
+
+    private final DetectorCache detectorCache;
+
+    @Inject
+    public TransportGetFindingsStatsAction(TransportService transportService, ActionFilters actionFilters, Client client, DetectorCache detectorCache) {
+        super(GetFindingsStatsAction.NAME, transportService, actionFilters, GetFindingsStatsRequest::new);
+        this.client = client;
+        this.detectorCache = detectorCache;
+    }
+
+    @Override
+    protected void doExecute(Task task, GetFindingsStatsRequest request, ActionListener<GetFindingsStatsResponse> actionListener) {
+        if (request.getDetectorId() == null || request.getDetectorId().isEmpty()) {
+            getStats(request, null, request.getDetectorType().getDetectorType(), actionListener);
+            return;
+        }
+
+        detectorCache.getDetector(request.getDetectorId(), new ActionListener<>() {
+            @Override
+            public void onResponse(DetectorMetadata detector) {
+                getStats(request, detector, detector.getDetectorType(), actionListener);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                actionListener.onFailure(SecurityAnalyticsException.wrap(e));
+            }
+        });
+    }
+
+    private void getStats(GetFindingsStatsRequest request, DetectorMetadata detector, String detectorType, ActionListener<GetFindingsStatsResponse> actionListener) {
+        if (request.getStartTime() == null && request.getEndTime() == null) {
+            getStats(request, detector, detectorType, new String[]{FindingsStats.findingsIndices(detectorType)}, actionListener);
+            return;
+        }
+
+        // only the findings indices overlapping the time range are searched
+        TimeRangeIndices.resolve(client, DetectorMonitorConfig.getFindingsIndex(detectorType), request.getStartTime(), request.getEndTime(), new ActionListener<>() {
+            @Override
+            public void onResponse(List<String> indices) {
+                if (indices.isEmpty()) {
+                    actionListener.onResponse(new GetFindingsStatsResponse(0L, 0L, List.of(), List.of(), List.of(), List.of()));
+                } else {
+                    getStats(request, detector, detectorType, indices.toArray(new String[0]), actionListener);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                actionListener.onFailure(SecurityAnalyticsException.wrap(e));
+            }
+        });
+    }
+
+    private void getStats(GetFindingsStatsRequest request, DetectorMetadata detector, String detectorType, String[] indices, ActionListener<GetFindingsStatsResponse> actionListener) {
+        SearchRequest searchRequest = new SearchRequest(indices)
+                .source(FindingsStats.searchSource(request, detector));
+
+        client.search(searchRequest, new ActionListener<>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                try {
+                    actionListener.onResponse(FindingsStats.toResponse(response, request.getSize()));
+                } catch (RuntimeException e) {
+                    onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.error("Failed to get the findings stats of detector type " + detectorType, e);
+                actionListener.onFailure(SecurityAnalyticsException.wrap(e));
+            }
+        });
+    }
+}
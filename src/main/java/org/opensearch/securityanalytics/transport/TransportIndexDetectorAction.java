@@ -6,9 +6,14 @@ package org.opensearch.securityanalytics.transport;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -23,17 +28,21 @@ import org.opensearch.action.admin.indices.create.CreateIndexResponse;
 import org.opensearch.action.bulk.BulkResponse;
 import org.opensearch.action.get.GetRequest;
 import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.index.IndexResponse;
-import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
 import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.GroupedActionListener;
 import org.opensearch.action.support.HandledTransportAction;
 import org.opensearch.action.support.WriteRequest;
 import org.opensearch.action.support.master.AcknowledgedResponse;
 import org.opensearch.client.Client;
 import org.opensearch.client.node.NodeClient;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.UUIDs;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
@@ -45,6 +54,8 @@ import org.opensearch.common.xcontent.XContentHelper;
 import org.opensearch.common.xcontent.XContentParser;
 import org.opensearch.common.xcontent.XContentType;
 import org.opensearch.commons.alerting.AlertingPluginInterface;
+import org.opensearch.commons.alerting.action.DeleteMonitorRequest;
+import org.opensearch.commons.alerting.action.DeleteMonitorResponse;
 import org.opensearch.commons.alerting.action.IndexMonitorRequest;
 import org.opensearch.commons.alerting.action.IndexMonitorResponse;
 import org.opensearch.commons.alerting.model.DataSources;
@@ -52,17 +63,12 @@ import org.opensearch.commons.alerting.model.DocLevelMonitorInput;
 import org.opensearch.commons.alerting.model.DocLevelQuery;
 import org.opensearch.commons.alerting.model.DocumentLevelTrigger;
 import org.opensearch.commons.alerting.model.Monitor;
-import org.opensearch.commons.alerting.model.action.Action;
+import org.opensearch.commons.alerting.model.ScheduledJob;
 import org.opensearch.index.query.QueryBuilder;
 import org.opensearch.index.query.QueryBuilders;
-import org.opensearch.index.reindex.BulkByScrollResponse;
 import org.opensearch.index.seqno.SequenceNumbers;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.rest.RestStatus;
-import org.opensearch.script.Script;
-import org.opensearch.search.SearchHit;
-import org.opensearch.search.SearchHits;
-import org.opensearch.search.builder.SearchSourceBuilder;
 import org.opensearch.securityanalytics.action.IndexDetectorAction;
 import org.opensearch.securityanalytics.action.IndexDetectorRequest;
 import org.opensearch.securityanalytics.action.IndexDetectorResponse;
@@ -71,12 +77,19 @@ import org.opensearch.securityanalytics.mapper.MapperService;
 import org.opensearch.securityanalytics.model.Detector;
 import org.opensearch.securityanalytics.model.DetectorInput;
 import org.opensearch.securityanalytics.model.DetectorRule;
-import org.opensearch.securityanalytics.model.DetectorTrigger;
 import org.opensearch.securityanalytics.model.Rule;
 import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
 import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.securityanalytics.util.AggregationRules;
+import org.opensearch.securityanalytics.util.AggregationRules.AggregationRule;
+import org.opensearch.securityanalytics.util.CompiledTriggers;
+import org.opensearch.securityanalytics.util.DetectorCache;
+import org.opensearch.securityanalytics.util.DetectorDiff;
 import org.opensearch.securityanalytics.util.DetectorIndices;
+import org.opensearch.securityanalytics.util.DocLevelQueryShards;
 import org.opensearch.securityanalytics.util.IndexUtils;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.RuleIndices;
 import org.opensearch.securityanalytics.util.RuleTopicIndices;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
@@ -98,6 +111,8 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
     private final RuleIndices ruleIndices;
 
+    private final RuleCache ruleCache;
+
     private final MapperService mapperService;
 
     private final ClusterService clusterService;
@@ -108,20 +123,35 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
     private volatile TimeValue indexTimeout;
 
+    private volatile int maxQueriesPerMonitor;
+
+    private volatile boolean sharedMonitorsEnabled;
+
+    private final SharedDetectorMonitors sharedMonitors;
+
+    private final BucketLevelMonitors bucketLevelMonitors;
+
     @Inject
-    public TransportIndexDetectorAction(TransportService transportService, Client client, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry, DetectorIndices detectorIndices, RuleTopicIndices ruleTopicIndices, RuleIndices ruleIndices, MapperService mapperService, ClusterService clusterService, Settings settings) {
+    public TransportIndexDetectorAction(TransportService transportService, Client client, ActionFilters actionFilters, NamedXContentRegistry xContentRegistry, DetectorIndices detectorIndices, RuleTopicIndices ruleTopicIndices, RuleIndices ruleIndices, RuleCache ruleCache, MapperService mapperService, ClusterService clusterService, Settings settings) {
         super(IndexDetectorAction.NAME, transportService, actionFilters, IndexDetectorRequest::new);
         this.client = client;
         this.xContentRegistry = xContentRegistry;
         this.detectorIndices = detectorIndices;
         this.ruleTopicIndices = ruleTopicIndices;
         this.ruleIndices = ruleIndices;
+        this.ruleCache = ruleCache;
         this.mapperService = mapperService;
         this.clusterService = clusterService;
         this.settings = settings;
         this.threadPool = this.detectorIndices.getThreadPool();
 
         this.indexTimeout = SecurityAnalyticsSettings.INDEX_TIMEOUT.get(this.settings);
+        this.maxQueriesPerMonitor = SecurityAnalyticsSettings.DETECTOR_MAX_QUERIES_PER_MONITOR.get(this.settings);
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.DETECTOR_MAX_QUERIES_PER_MONITOR, it -> maxQueriesPerMonitor = it);
+        this.sharedMonitorsEnabled = SecurityAnalyticsSettings.DETECTOR_SHARED_MONITORS.get(this.settings);
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.DETECTOR_SHARED_MONITORS, it -> sharedMonitorsEnabled = it);
+        this.sharedMonitors = new SharedDetectorMonitors(client, xContentRegistry);
+        this.bucketLevelMonitors = new BucketLevelMonitors(client);
     }
 
     @Override
@@ -130,63 +160,115 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         asyncAction.start();
     }
 
-    private void createAlertingMonitorFromQueries(Pair<String, List<Pair<String, Rule>>> logIndexToQueries, Detector detector, ActionListener<IndexMonitorResponse> listener, WriteRequest.RefreshPolicy refreshPolicy) {
-        List<DocLevelMonitorInput> docLevelMonitorInputs = new ArrayList<>();
-
-        List<DocLevelQuery> docLevelQueries = new ArrayList<>();
-
-        for (Pair<String, Rule> query: logIndexToQueries.getRight()) {
-            String id = query.getLeft();
-
-            Rule rule = query.getRight();
-            String name = query.getLeft();
-
-            String actualQuery = rule.getQueries().get(0).getValue();
+    private void createAlertingMonitorFromQueries(Pair<String, List<Pair<String, Rule>>> logIndexToQueries, Detector detector, ActionListener<List<String>> listener, WriteRequest.RefreshPolicy refreshPolicy) {
+        List<List<DocLevelQuery>> shards = DocLevelQueryShards.split(buildDocLevelQueries(logIndexToQueries.getRight()), maxQueriesPerMonitor);
+        indexAlertingMonitors(logIndexToQueries.getKey(), shards, List.of(), new BitSet(), detector, listener, refreshPolicy);
+    }
 
-            List<String> tags = new ArrayList<>();
-            tags.add(rule.getLevel());
-            tags.add(rule.getCategory());
-            tags.addAll(rule.getTags().stream().map(Value::getValue).collect(Collectors.toList()));
+    private void updateAlertingMonitorFromQueries(Pair<String, List<Pair<String, Rule>>> logIndexToQueries, Detector detector, ActionListener<List<String>> listener, WriteRequest.RefreshPolicy refreshPolicy) {
+        List<List<DocLevelQuery>> shards = DocLevelQueryShards.split(buildDocLevelQueries(logIndexToQueries.getRight()), maxQueriesPerMonitor);
+        indexAlertingMonitors(logIndexToQueries.getKey(), shards, detector.getDocLevelMonitorIds(), new BitSet(), detector, listener, refreshPolicy);
+    }
 
-            DocLevelQuery docLevelQuery = new DocLevelQuery(id, name, actualQuery, tags);
-            docLevelQueries.add(docLevelQuery);
+    /**
+     * Brings the monitors of the detector in line with the shards of queries and returns the ids of the remaining
+     * monitors in shard order, so the monitor ids of a detector stay aligned with its shards across updates. Shard i
+     * belongs to the i-th monitor id: monitors of shards marked unchanged are left alone, monitors whose shard is
+     * empty or missing are deleted, and a monitor is created for every shard without a monitor id.
+     */
+    private void indexAlertingMonitors(String logIndex, List<List<DocLevelQuery>> shards, List<String> monitorIds, BitSet unchangedShards, Detector detector, ActionListener<List<String>> listener, WriteRequest.RefreshPolicy refreshPolicy) {
+        int size = Math.max(shards.size(), monitorIds.size());
+        boolean allEmpty = shards.stream().allMatch(List::isEmpty);
+        String[] resultIds = new String[size];
+        List<Integer> indexShards = new ArrayList<>();
+        List<String> deleteMonitorIds = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            boolean exists = i < monitorIds.size();
+            // a detector keeps at least one monitor, even without queries
+            boolean empty = i >= shards.size() || (shards.get(i).isEmpty() && !(allEmpty && i == 0));
+            if (empty) {
+                if (exists) {
+                    deleteMonitorIds.add(monitorIds.get(i));
+                }
+            } else if (exists && unchangedShards.get(i)) {
+                resultIds[i] = monitorIds.get(i);
+            } else {
+                indexShards.add(i);
+            }
         }
-        DocLevelMonitorInput docLevelMonitorInput = new DocLevelMonitorInput(detector.getName(), List.of(logIndexToQueries.getKey()), docLevelQueries);
-        docLevelMonitorInputs.add(docLevelMonitorInput);
 
-        List<DocumentLevelTrigger> triggers = new ArrayList<>();
-        List<DetectorTrigger> detectorTriggers = detector.getTriggers();
+        int requests = indexShards.size() + deleteMonitorIds.size();
+        if (requests == 0) {
+            listener.onResponse(Arrays.stream(resultIds).filter(Objects::nonNull).collect(Collectors.toList()));
+            return;
+        }
+        GroupedActionListener<Object> requestsListener = new GroupedActionListener<>(new ActionListener<>() {
+            @Override
+            public void onResponse(Collection<Object> responses) {
+                synchronized (resultIds) {
+                    listener.onResponse(Arrays.stream(resultIds).filter(Objects::nonNull).collect(Collectors.toList()));
+                }
+            }
 
-        for (DetectorTrigger detectorTrigger: detectorTriggers) {
-            String id = detectorTrigger.getId();
-            String name = detectorTrigger.getName();
-            String severity = detectorTrigger.getSeverity();
-            List<Action> actions = detectorTrigger.getActions();
-            Script condition = detectorTrigger.convertToCondition();
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        }, requests);
+
+        List<DocumentLevelTrigger> triggers = indexShards.isEmpty()? List.of(): CompiledTriggers.documentLevelTriggers(detector.getTriggers());
+        for (int shard: indexShards) {
+            boolean exists = shard < monitorIds.size();
+            String monitorId = exists? monitorIds.get(shard): Monitor.NO_ID;
+
+            List<DocLevelQuery> queries = CompiledTriggers.compile(detector.getTriggers(), shards.get(shard)).tagQueries();
+            DocLevelMonitorInput docLevelMonitorInput = new DocLevelMonitorInput(detector.getName(), List.of(logIndex), queries);
+            Monitor monitor = new Monitor(monitorId, Monitor.NO_VERSION, detector.getName(), detector.getEnabled(), detector.getSchedule(), detector.getLastUpdateTime(), detector.getEnabledTime(),
+                    Monitor.MonitorType.DOC_LEVEL_MONITOR, detector.getUser(), 1, List.of(docLevelMonitorInput), triggers, Map.of(),
+                    new DataSources(detector.getRuleIndex(),
+                            detector.getFindingsIndex(),
+                            detector.getFindingsIndexPattern(),
+                            detector.getAlertsIndex(),
+                            detector.getAlertsHistoryIndex(),
+                            detector.getAlertsHistoryIndexPattern(),
+                            DetectorMonitorConfig.getRuleIndexMappingsByType(detector.getDetectorType())));
+
+            IndexMonitorRequest indexMonitorRequest = new IndexMonitorRequest(monitorId, SequenceNumbers.UNASSIGNED_SEQ_NO, SequenceNumbers.UNASSIGNED_PRIMARY_TERM, refreshPolicy,
+                    exists? RestRequest.Method.PUT: RestRequest.Method.POST, monitor);
+            AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, indexMonitorRequest, new ActionListener<>() {
+                @Override
+                public void onResponse(IndexMonitorResponse response) {
+                    synchronized (resultIds) {
+                        resultIds[shard] = response.getId();
+                    }
+                    requestsListener.onResponse(response);
+                }
 
-            triggers.add(new DocumentLevelTrigger(id, name, severity, actions, condition));
+                @Override
+                public void onFailure(Exception e) {
+                    requestsListener.onFailure(e);
+                }
+            });
         }
+        for (String monitorId: deleteMonitorIds) {
+            AlertingPluginInterface.INSTANCE.deleteMonitor((NodeClient) client, new DeleteMonitorRequest(monitorId, refreshPolicy), new ActionListener<>() {
+                @Override
+                public void onResponse(DeleteMonitorResponse response) {
+                    requestsListener.onResponse(response);
+                }
 
-        Monitor monitor = new Monitor(Monitor.NO_ID, Monitor.NO_VERSION, detector.getName(), detector.getEnabled(), detector.getSchedule(), detector.getLastUpdateTime(), detector.getEnabledTime(),
-                Monitor.MonitorType.DOC_LEVEL_MONITOR, detector.getUser(), 1, docLevelMonitorInputs, triggers, Map.of(),
-                new DataSources(detector.getRuleIndex(),
-                        detector.getFindingsIndex(),
-                        detector.getFindingsIndexPattern(),
-                        detector.getAlertsIndex(),
-                        detector.getAlertsHistoryIndex(),
-                        detector.getAlertsHistoryIndexPattern(),
-                        DetectorMonitorConfig.getRuleIndexMappingsByType(detector.getDetectorType())));
-
-        IndexMonitorRequest indexMonitorRequest = new IndexMonitorRequest(Monitor.NO_ID, SequenceNumbers.UNASSIGNED_SEQ_NO, SequenceNumbers.UNASSIGNED_PRIMARY_TERM, refreshPolicy, RestRequest.Method.POST, monitor);
-        AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, indexMonitorRequest, listener);
+                @Override
+                public void onFailure(Exception e) {
+                    requestsListener.onFailure(e);
+                }
+            });
+        }
     }
 
-    private void updateAlertingMonitorFromQueries(Pair<String, List<Pair<String, Rule>>> logIndexToQueries, Detector detector, ActionListener<IndexMonitorResponse> listener, WriteRequest.RefreshPolicy refreshPolicy) {
-        List<DocLevelMonitorInput> docLevelMonitorInputs = new ArrayList<>();
-
+    public static List<DocLevelQuery> buildDocLevelQueries(List<Pair<String, Rule>> queries) {
         List<DocLevelQuery> docLevelQueries = new ArrayList<>();
 
-        for (Pair<String, Rule> query: logIndexToQueries.getRight()) {
+        for (Pair<String, Rule> query: queries) {
             String id = query.getLeft();
 
             Rule rule = query.getRight();
@@ -202,34 +284,33 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             DocLevelQuery docLevelQuery = new DocLevelQuery(id, name, actualQuery, tags);
             docLevelQueries.add(docLevelQuery);
         }
-        DocLevelMonitorInput docLevelMonitorInput = new DocLevelMonitorInput(detector.getName(), List.of(logIndexToQueries.getKey()), docLevelQueries);
-        docLevelMonitorInputs.add(docLevelMonitorInput);
-
-        List<DocumentLevelTrigger> triggers = new ArrayList<>();
-        List<DetectorTrigger> detectorTriggers = detector.getTriggers();
-
-        for (DetectorTrigger detectorTrigger: detectorTriggers) {
-            String id = detectorTrigger.getId();
-            String name = detectorTrigger.getName();
-            String severity = detectorTrigger.getSeverity();
-            List<Action> actions = detectorTrigger.getActions();
-            Script condition = detectorTrigger.convertToCondition();
+        return docLevelQueries;
+    }
 
-            triggers.add(new DocumentLevelTrigger(id, name, severity, actions, condition));
+    /**
+     * Returns the queries of a doc level monitor from its source in the alerting config index, or null if the source
+     * is not in the expected format.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<DocLevelQuery> monitorQueries(Map<String, Object> source) {
+        try {
+            Map<String, Object> monitor = (Map<String, Object>) source.get("monitor");
+            List<Map<String, Object>> inputs = (List<Map<String, Object>>) monitor.get("inputs");
+            Map<String, Object> input = (Map<String, Object>) inputs.get(0).get("doc_level_input");
+
+            List<DocLevelQuery> queries = new ArrayList<>();
+            for (Map<String, Object> query: (List<Map<String, Object>>) input.get("queries")) {
+                queries.add(new DocLevelQuery((String) query.get("id"), (String) query.get("name"), (String) query.get("query"), (List<String>) query.get("tags")));
+            }
+            return queries;
+        } catch (RuntimeException e) {
+            log.debug("Unexpected monitor source", e);
+            return null;
         }
+    }
 
-        Monitor monitor = new Monitor(detector.getMonitorIds().get(0), Monitor.NO_VERSION, detector.getName(), detector.getEnabled(), detector.getSchedule(), detector.getLastUpdateTime(), detector.getEnabledTime(),
-                Monitor.MonitorType.DOC_LEVEL_MONITOR, detector.getUser(), 1, docLevelMonitorInputs, triggers, Map.of(),
-                new DataSources(detector.getRuleIndex(),
-                        detector.getFindingsIndex(),
-                        detector.getFindingsIndexPattern(),
-                        detector.getAlertsIndex(),
-                        detector.getAlertsHistoryIndex(),
-                        detector.getAlertsHistoryIndexPattern(),
-                        DetectorMonitorConfig.getRuleIndexMappingsByType(detector.getDetectorType())));
-
-        IndexMonitorRequest indexMonitorRequest = new IndexMonitorRequest(detector.getMonitorIds().get(0), SequenceNumbers.UNASSIGNED_SEQ_NO, SequenceNumbers.UNASSIGNED_PRIMARY_TERM, refreshPolicy, RestRequest.Method.PUT, monitor);
-        AlertingPluginInterface.INSTANCE.indexMonitor((NodeClient) client, indexMonitorRequest, listener);
+    private static List<String> queryIds(List<DocLevelQuery> queries) {
+        return queries.stream().map(DocLevelQuery::getId).collect(Collectors.toList());
     }
 
     private void onCreateMappingsResponse(CreateIndexResponse response) throws IOException {
@@ -260,6 +341,11 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
         private final AtomicBoolean counter = new AtomicBoolean();
         private final Task task;
 
+        /**
+         * The shared monitor the stored detector is a member of, if any.
+         */
+        private String previousSharedMonitorId;
+
         AsyncIndexDetectorsAction(Task task, IndexDetectorRequest request, ActionListener<IndexDetectorResponse> listener) {
             this.task = task;
             this.request = request;
@@ -336,6 +422,11 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             request.getDetector().setFindingsIndexPattern(DetectorMonitorConfig.getFindingsIndexPattern(ruleTopic));
             request.getDetector().setRuleIndex(DetectorMonitorConfig.getRuleIndex(ruleTopic));
 
+            if (sharedMonitorsEnabled && SharedDetectorMonitors.canShare(detector)) {
+                // the queries of a shared monitor are tagged with the detector id, so it is assigned upfront
+                request.getDetector().setId(UUIDs.base64UUID());
+            }
+
             if (!detector.getInputs().isEmpty()) {
                 try {
                     ruleTopicIndices.initRuleTopicIndex(detector.getRuleIndex(), new ActionListener<>() {
@@ -344,8 +435,8 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
 
                             initRuleIndexAndImportRules(request, new ActionListener<>() {
                                 @Override
-                                public void onResponse(IndexMonitorResponse indexMonitorResponse) {
-                                    request.getDetector().setMonitorIds(List.of(indexMonitorResponse.getId()));
+                                public void onResponse(List<String> monitorIds) {
+                                    request.getDetector().setMonitorIds(monitorIds);
                                     try {
                                         indexDetector();
                                     } catch (IOException e) {
@@ -408,6 +499,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                 request.getDetector().setEnabledTime(currentDetector.getEnabledTime());
             }
             request.getDetector().setMonitorIds(currentDetector.getMonitorIds());
+            request.getDetector().setBucketMonitorIds(currentDetector.getBucketMonitorIds());
             Detector detector = request.getDetector();
 
             String ruleTopic = detector.getDetectorType();
@@ -419,15 +511,42 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             request.getDetector().setFindingsIndexPattern(DetectorMonitorConfig.getFindingsIndexPattern(ruleTopic));
             request.getDetector().setRuleIndex(DetectorMonitorConfig.getRuleIndex(ruleTopic));
 
+            DetectorDiff diff = new DetectorDiff(currentDetector, detector, request.getUpdatedRuleIds());
+            boolean hasMonitors = !currentDetector.getMonitorIds().isEmpty();
+            if (hasMonitors && !diff.requiresMonitorUpdate()) {
+                try {
+                    indexDetector();
+                } catch (IOException e) {
+                    onFailures(e);
+                }
+                return;
+            }
+
+            sharedMonitors.sharedMonitorId(currentDetector.getDocLevelMonitorIds(), new ActionListener<>() {
+                @Override
+                public void onResponse(String sharedMonitorId) {
+                    previousSharedMonitorId = sharedMonitorId;
+                    updateMonitors(diff, hasMonitors);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        void updateMonitors(DetectorDiff diff, boolean hasMonitors) {
+            Detector detector = request.getDetector();
             if (!detector.getInputs().isEmpty()) {
                 try {
                     ruleTopicIndices.initRuleTopicIndex(detector.getRuleIndex(), new ActionListener<>() {
                         @Override
                         public void onResponse(CreateIndexResponse createIndexResponse) {
-                            initRuleIndexAndImportRules(request, new ActionListener<>() {
+                            ActionListener<List<String>> monitorsListener = new ActionListener<>() {
                                 @Override
-                                public void onResponse(IndexMonitorResponse indexMonitorResponse) {
-                                    request.getDetector().setMonitorIds(List.of(indexMonitorResponse.getId()));
+                                public void onResponse(List<String> monitorIds) {
+                                    request.getDetector().setMonitorIds(monitorIds);
                                     try {
                                         indexDetector();
                                     } catch (IOException e) {
@@ -439,7 +558,14 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                                 public void onFailure(Exception e) {
                                     onFailures(e);
                                 }
-                            });
+                            };
+
+                            // aggregation rules are grouped into bucket level monitors, which are always rebuilt
+                            if (hasMonitors && !diff.detectorTypeChanged() && previousSharedMonitorId == null && detector.getBucketMonitorIds().isEmpty()) {
+                                updateMonitorsIncrementally(diff, monitorsListener);
+                            } else {
+                                initRuleIndexAndImportRules(request, monitorsListener);
+                            }
                         }
 
                         @Override
@@ -453,7 +579,128 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             }
         }
 
-        public void initRuleIndexAndImportRules(IndexDetectorRequest request, ActionListener<IndexMonitorResponse> listener) {
+        /**
+         * Updates the monitors of the detector from the difference to the stored detector. The current queries are
+         * read back from the monitors, so only added and updated rules are fetched, and only monitors whose queries
+         * changed are re-indexed, unless a change applies to all monitors. Falls back to rebuilding all monitors if a
+         * monitor cannot be read.
+         */
+        void updateMonitorsIncrementally(DetectorDiff diff, ActionListener<List<String>> listener) {
+            Detector detector = request.getDetector();
+            List<String> monitorIds = detector.getDocLevelMonitorIds();
+
+            MultiGetRequest multiGetRequest = new MultiGetRequest();
+            for (String monitorId: monitorIds) {
+                multiGetRequest.add(ScheduledJob.SCHEDULED_JOBS_INDEX, monitorId);
+            }
+            client.multiGet(multiGetRequest, new ActionListener<>() {
+                @Override
+                public void onResponse(MultiGetResponse response) {
+                    List<List<DocLevelQuery>> shards = new ArrayList<>();
+                    for (MultiGetItemResponse item: response.getResponses()) {
+                        List<DocLevelQuery> queries = item.isFailed() || !item.getResponse().isExists()? null: monitorQueries(item.getResponse().getSourceAsMap());
+                        if (queries == null) {
+                            log.info("Rebuilding the monitors of detector [{}], monitor [{}] could not be read", detector.getId(), item.getId());
+                            initRuleIndexAndImportRules(request, listener);
+                            return;
+                        }
+                        shards.add(queries);
+                    }
+
+                    fetchAddedRules(diff, new ActionListener<>() {
+                        @Override
+                        public void onResponse(List<Pair<String, Rule>> addedRules) {
+                            try {
+                                for (Pair<String, Rule> rule: addedRules) {
+                                    if (AggregationRules.parse(rule.getKey(), rule.getValue()) != null) {
+                                        initRuleIndexAndImportRules(request, listener);
+                                        return;
+                                    }
+                                }
+                            } catch (SigmaError e) {
+                                onFailures(e);
+                                return;
+                            }
+
+                            List<List<DocLevelQuery>> updatedShards = DocLevelQueryShards.update(shards, diff.getRemovedRules(), buildDocLevelQueries(addedRules), maxQueriesPerMonitor);
+
+                            BitSet unchangedShards = new BitSet();
+                            if (!diff.monitorsChanged()) {
+                                for (int i = 0; i < shards.size(); ++i) {
+                                    // an updated rule may be put back into its monitor, which still holds its old query
+                                    if (queryIds(shards.get(i)).equals(queryIds(updatedShards.get(i))) &&
+                                            Collections.disjoint(queryIds(shards.get(i)), diff.getUpdatedRules())) {
+                                        unchangedShards.set(i);
+                                    }
+                                }
+                            }
+                            indexAlertingMonitors(detector.getInputs().get(0).getIndices().get(0), updatedShards, monitorIds, unchangedShards, detector, listener, request.getRefreshPolicy());
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            onFailures(e);
+                        }
+                    });
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        private void fetchAddedRules(DetectorDiff diff, ActionListener<List<Pair<String, Rule>>> listener) {
+            List<Pair<String, Rule>> rules = new ArrayList<>();
+            ActionListener<List<Pair<String, Rule>>> customRulesListener = new ActionListener<>() {
+                @Override
+                public void onResponse(List<Pair<String, Rule>> rules) {
+                    if (diff.getAddedCustomRules().isEmpty()) {
+                        listener.onResponse(rules);
+                    } else {
+                        searchRules(Rule.CUSTOM_RULES_INDEX, QueryBuilders.termsQuery("_id", diff.getAddedCustomRules().toArray(new String[]{})), rules, listener);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    listener.onFailure(e);
+                }
+            };
+
+            if (diff.getAddedPrePackagedRules().isEmpty()) {
+                customRulesListener.onResponse(rules);
+            } else {
+                QueryBuilder queryBuilder =
+                        QueryBuilders.nestedQuery("rule",
+                                QueryBuilders.boolQuery().must(
+                                        QueryBuilders.matchQuery("rule.category", request.getDetector().getDetectorType())
+                                ).must(
+                                        QueryBuilders.termsQuery("_id", diff.getAddedPrePackagedRules().toArray(new String[]{}))
+                                ),
+                                ScoreMode.Avg
+                        );
+                searchRules(Rule.PRE_PACKAGED_RULES_INDEX, queryBuilder, rules, customRulesListener);
+            }
+        }
+
+        private void searchRules(String index, QueryBuilder queryBuilder, List<Pair<String, Rule>> rules, ActionListener<List<Pair<String, Rule>>> listener) {
+            ruleCache.getRules(index, queryBuilder, new ActionListener<>() {
+                @Override
+                public void onResponse(List<Pair<String, Rule>> response) {
+                    rules.addAll(response);
+                    listener.onResponse(rules);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    listener.onFailure(e);
+                }
+            });
+        }
+
+        public void initRuleIndexAndImportRules(IndexDetectorRequest request, ActionListener<List<String>> listener) {
             ruleIndices.initPrepackagedRulesIndex(
                     new ActionListener<>() {
                         @Override
@@ -486,32 +733,22 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                         @Override
                         public void onResponse(AcknowledgedResponse response) {
                             ruleIndices.onUpdateMappingsResponse(response, true);
-                            ruleIndices.deleteRules(new ActionListener<>() {
-                                @Override
-                                public void onResponse(BulkByScrollResponse response) {
-                                    ruleIndices.importRules(WriteRequest.RefreshPolicy.IMMEDIATE, indexTimeout,
-                                            new ActionListener<>() {
-                                                @Override
-                                                public void onResponse(BulkResponse response) {
-                                                    if (!response.hasFailures()) {
-                                                        importRules(request, listener);
-                                                    } else {
-                                                        onFailures(new OpenSearchStatusException(response.buildFailureMessage(), RestStatus.INTERNAL_SERVER_ERROR));
-                                                    }
-                                                }
-
-                                                @Override
-                                                public void onFailure(Exception e) {
-                                                    onFailures(e);
-                                                }
-                                            });
-                                }
+                            ruleIndices.importRules(WriteRequest.RefreshPolicy.IMMEDIATE, indexTimeout,
+                                    new ActionListener<>() {
+                                        @Override
+                                        public void onResponse(BulkResponse response) {
+                                            if (!response.hasFailures()) {
+                                                importRules(request, listener);
+                                            } else {
+                                                onFailures(new OpenSearchStatusException(response.buildFailureMessage(), RestStatus.INTERNAL_SERVER_ERROR));
+                                            }
+                                        }
 
-                                @Override
-                                public void onFailure(Exception e) {
-                                    onFailures(e);
-                                }
-                            });
+                                        @Override
+                                        public void onFailure(Exception e) {
+                                            onFailures(e);
+                                        }
+                                    });
                         }
 
                         @Override
@@ -557,12 +794,167 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             );
         }
 
-        @SuppressWarnings("unchecked")
-        public void importRules(IndexDetectorRequest request, ActionListener<IndexMonitorResponse> listener) {
+        /**
+         * Builds the monitors of the detector: bucket level monitors for its aggregation rules and doc level monitors
+         * for its other rules, joining the shared monitor of its log index if monitors are shared.
+         */
+        public void importRules(IndexDetectorRequest request, ActionListener<List<String>> listener) {
+            Detector detector = request.getDetector();
+            fetchDetectorRules(request, new ActionListener<>() {
+                @Override
+                public void onResponse(List<Pair<String, Rule>> rules) {
+                    List<Pair<String, Rule>> docLevelRules = new ArrayList<>();
+                    List<AggregationRule> aggregationRules = new ArrayList<>();
+                    try {
+                        for (Pair<String, Rule> rule: rules) {
+                            AggregationRule aggregationRule = AggregationRules.parse(rule.getKey(), rule.getValue());
+                            if (aggregationRule == null) {
+                                docLevelRules.add(rule);
+                            } else {
+                                aggregationRules.add(aggregationRule);
+                            }
+                        }
+                    } catch (SigmaError e) {
+                        onFailures(e);
+                        return;
+                    }
+
+                    bucketLevelMonitors.update(detector, aggregationRules, request.getRefreshPolicy(), new ActionListener<>() {
+                        @Override
+                        public void onResponse(Map<String, String> bucketMonitorIds) {
+                            indexDocLevelMonitors(request, docLevelRules, new ActionListener<>() {
+                                @Override
+                                public void onResponse(List<String> docLevelMonitorIds) {
+                                    detector.setBucketMonitorIds(bucketMonitorIds);
+                                    List<String> monitorIds = new ArrayList<>(docLevelMonitorIds);
+                                    monitorIds.addAll(bucketMonitorIds.values());
+                                    listener.onResponse(monitorIds);
+                                }
+
+                                @Override
+                                public void onFailure(Exception e) {
+                                    onFailures(e);
+                                }
+                            });
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            onFailures(e);
+                        }
+                    });
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        private void indexDocLevelMonitors(IndexDetectorRequest request, List<Pair<String, Rule>> rules, ActionListener<List<String>> listener) {
+            Detector detector = request.getDetector();
+            if (!sharedMonitorsEnabled || !SharedDetectorMonitors.canShare(detector)) {
+                leaveSharedMonitor(request, rules, listener);
+                return;
+            }
+
+            sharedMonitors.join(detector, rules, request.getRefreshPolicy(), new ActionListener<>() {
+                @Override
+                public void onResponse(String monitorId) {
+                    if (monitorId == null) {
+                        leaveSharedMonitor(request, rules, listener);
+                    } else {
+                        onSharedMonitorJoined(monitorId, listener);
+                    }
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        /**
+         * Removes the detector from the shared monitor it was a member of, if any, and builds monitors of its own.
+         */
+        private void leaveSharedMonitor(IndexDetectorRequest request, List<Pair<String, Rule>> rules, ActionListener<List<String>> listener) {
+            if (previousSharedMonitorId == null) {
+                indexDetectorMonitors(request, rules, listener);
+                return;
+            }
+
+            sharedMonitors.leave(request.getDetector(), previousSharedMonitorId, request.getRefreshPolicy(), new ActionListener<>() {
+                @Override
+                public void onResponse(Void response) {
+                    request.getDetector().setMonitorIds(List.of());
+                    indexDetectorMonitors(request, rules, listener);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            });
+        }
+
+        /**
+         * Drops the monitors the detector used before joining the shared monitor.
+         */
+        private void onSharedMonitorJoined(String monitorId, ActionListener<List<String>> listener) {
+            Detector detector = request.getDetector();
+            if (previousSharedMonitorId != null) {
+                if (previousSharedMonitorId.equals(monitorId)) {
+                    listener.onResponse(List.of(monitorId));
+                    return;
+                }
+                sharedMonitors.leave(detector, previousSharedMonitorId, request.getRefreshPolicy(), new ActionListener<>() {
+                    @Override
+                    public void onResponse(Void response) {
+                        listener.onResponse(List.of(monitorId));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        onFailures(e);
+                    }
+                });
+                return;
+            }
+
+            // no shards, so all doc level monitors of the detector are deleted
+            indexAlertingMonitors(detector.getInputs().get(0).getIndices().get(0), List.of(), detector.getDocLevelMonitorIds(), new BitSet(), detector, new ActionListener<>() {
+                @Override
+                public void onResponse(List<String> monitorIds) {
+                    listener.onResponse(List.of(monitorId));
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    onFailures(e);
+                }
+            }, request.getRefreshPolicy());
+        }
+
+        private void indexDetectorMonitors(IndexDetectorRequest request, List<Pair<String, Rule>> rules, ActionListener<List<String>> listener) {
+            Detector detector = request.getDetector();
+            Pair<String, List<Pair<String, Rule>>> logIndexToQueries = Pair.of(detector.getInputs().get(0).getIndices().get(0), rules);
+
+            if (request.getMethod() == RestRequest.Method.POST) {
+                createAlertingMonitorFromQueries(logIndexToQueries, detector, listener, request.getRefreshPolicy());
+            } else if (request.getMethod() == RestRequest.Method.PUT) {
+                updateAlertingMonitorFromQueries(logIndexToQueries, detector, listener, request.getRefreshPolicy());
+            }
+        }
+
+        /**
+         * Fetches the pre-packaged and custom rules of the detector.
+         */
+        private void fetchDetectorRules(IndexDetectorRequest request, ActionListener<List<Pair<String, Rule>>> listener) {
             final Detector detector = request.getDetector();
             final String ruleTopic = detector.getDetectorType();
             final DetectorInput detectorInput = detector.getInputs().get(0);
-            final String logIndex = detectorInput.getIndices().get(0);
 
             List<String> ruleIds = detectorInput.getPrePackagedRules().stream().map(DetectorRule::getId).collect(Collectors.toList());
 
@@ -576,51 +968,17 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                             ScoreMode.Avg
                     );
 
-            SearchRequest searchRequest = new SearchRequest(Rule.PRE_PACKAGED_RULES_INDEX)
-                    .source(new SearchSourceBuilder()
-                            .seqNoAndPrimaryTerm(true)
-                            .version(true)
-                            .query(queryBuilder)
-                            .size(10000));
-
-            client.search(searchRequest, new ActionListener<>() {
+            ruleCache.getRules(Rule.PRE_PACKAGED_RULES_INDEX, queryBuilder, new ActionListener<>() {
                 @Override
-                public void onResponse(SearchResponse response) {
-                    if (response.isTimedOut()) {
-                        onFailures(new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
-                    }
-
-                    SearchHits hits = response.getHits();
-                    List<Pair<String, Rule>> queries = new ArrayList<>();
-
-                    try {
-                        for (SearchHit hit: hits) {
-                            XContentParser xcp = XContentType.JSON.xContent().createParser(
-                                    xContentRegistry,
-                                    LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
-                            );
-
-                            Rule rule = Rule.docParse(xcp, hit.getId(), hit.getVersion());
-                            String id = hit.getId();
-
-                            queries.add(Pair.of(id, rule));
-                        }
-
-                        if (ruleIndices.ruleIndexExists(false)) {
-                            importCustomRules(detector, detectorInput, queries, listener);
-                        } else if (detectorInput.getCustomRules().size() > 0) {
-                            onFailures(new OpenSearchStatusException("Custom Rule Index not found", RestStatus.BAD_REQUEST));
-                        } else {
-                            Pair<String, List<Pair<String, Rule>>> logIndexToQueries = Pair.of(logIndex, queries);
-
-                            if (request.getMethod() == RestRequest.Method.POST) {
-                                createAlertingMonitorFromQueries(logIndexToQueries, detector, listener, request.getRefreshPolicy());
-                            } else if (request.getMethod() == RestRequest.Method.PUT) {
-                                updateAlertingMonitorFromQueries(logIndexToQueries, detector, listener, request.getRefreshPolicy());
-                            }
-                        }
-                    } catch (IOException e) {
-                        onFailures(e);
+                public void onResponse(List<Pair<String, Rule>> rules) {
+                    List<Pair<String, Rule>> queries = new ArrayList<>(rules);
+
+                    if (ruleIndices.ruleIndexExists(false)) {
+                        fetchCustomRules(detectorInput, queries, listener);
+                    } else if (detectorInput.getCustomRules().size() > 0) {
+                        onFailures(new OpenSearchStatusException("Custom Rule Index not found", RestStatus.BAD_REQUEST));
+                    } else {
+                        listener.onResponse(queries);
                     }
                 }
 
@@ -631,51 +989,15 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
             });
         }
 
-        @SuppressWarnings("unchecked")
-        public void importCustomRules(Detector detector, DetectorInput detectorInput, List<Pair<String, Rule>> queries, ActionListener<IndexMonitorResponse> listener) {
-            final String logIndex = detectorInput.getIndices().get(0);
+        private void fetchCustomRules(DetectorInput detectorInput, List<Pair<String, Rule>> queries, ActionListener<List<Pair<String, Rule>>> listener) {
             List<String> ruleIds = detectorInput.getCustomRules().stream().map(DetectorRule::getId).collect(Collectors.toList());
 
             QueryBuilder queryBuilder = QueryBuilders.termsQuery("_id", ruleIds.toArray(new String[]{}));
-            SearchRequest searchRequest = new SearchRequest(Rule.CUSTOM_RULES_INDEX)
-                    .source(new SearchSourceBuilder()
-                            .seqNoAndPrimaryTerm(true)
-                            .version(true)
-                            .query(queryBuilder)
-                            .size(10000));
-
-            client.search(searchRequest, new ActionListener<>() {
+            ruleCache.getRules(Rule.CUSTOM_RULES_INDEX, queryBuilder, new ActionListener<>() {
                 @Override
-                public void onResponse(SearchResponse response) {
-                    if (response.isTimedOut()) {
-                        onFailures(new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
-                    }
-
-                    SearchHits hits = response.getHits();
-
-                    try {
-                        for (SearchHit hit : hits) {
-                            XContentParser xcp = XContentType.JSON.xContent().createParser(
-                                    xContentRegistry,
-                                    LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
-                            );
-
-                            Rule rule = Rule.docParse(xcp, hit.getId(), hit.getVersion());
-                            String id = hit.getId();
-
-                            queries.add(Pair.of(id, rule));
-                        }
-
-                        Pair<String, List<Pair<String, Rule>>> logIndexToQueries = Pair.of(logIndex, queries);
-
-                        if (request.getMethod() == RestRequest.Method.POST) {
-                            createAlertingMonitorFromQueries(logIndexToQueries, detector, listener, request.getRefreshPolicy());
-                        } else if (request.getMethod() == RestRequest.Method.PUT) {
-                            updateAlertingMonitorFromQueries(logIndexToQueries, detector, listener, request.getRefreshPolicy());
-                        }
-                    } catch (IOException ex) {
-                        onFailures(ex);
-                    }
+                public void onResponse(List<Pair<String, Rule>> rules) {
+                    queries.addAll(rules);
+                    listener.onResponse(queries);
                 }
 
                 @Override
@@ -692,6 +1014,9 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                         .setRefreshPolicy(request.getRefreshPolicy())
                         .source(request.getDetector().toXContentWithUser(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true"))))
                         .timeout(indexTimeout);
+                if (!Detector.NO_ID.equals(request.getDetector().getId())) {
+                    indexRequest.id(request.getDetector().getId()).create(true);
+                }
             } else {
                 indexRequest = new IndexRequest(Detector.DETECTORS_INDEX)
                         .setRefreshPolicy(request.getRefreshPolicy())
@@ -705,6 +1030,7 @@ public class TransportIndexDetectorAction extends HandledTransportAction<IndexDe
                 public void onResponse(IndexResponse response) {
                     Detector responseDetector = request.getDetector();
                     responseDetector.setId(response.getId());
+                    DetectorCache.invalidateClusterWide(client, List.of(response.getId()));
                     onOperation(response, responseDetector);
                 }
 
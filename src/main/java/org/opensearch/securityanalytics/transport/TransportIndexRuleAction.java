@@ -6,7 +6,6 @@ package org.opensearch.securityanalytics.transport;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.lucene.search.join.ScoreMode;
 import org.opensearch.OpenSearchStatusException;
 import org.opensearch.action.ActionListener;
 import org.opensearch.action.ActionRunnable;
@@ -23,21 +22,12 @@ import org.opensearch.cluster.service.ClusterService;
 import org.opensearch.common.inject.Inject;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.common.unit.TimeValue;
-import org.opensearch.common.xcontent.LoggingDeprecationHandler;
 import org.opensearch.common.xcontent.NamedXContentRegistry;
 import org.opensearch.common.xcontent.ToXContent;
 import org.opensearch.common.xcontent.XContentFactory;
-import org.opensearch.common.xcontent.XContentParser;
-import org.opensearch.common.xcontent.XContentType;
-import org.opensearch.index.query.QueryBuilder;
-import org.opensearch.index.query.QueryBuilders;
 import org.opensearch.rest.RestRequest;
 import org.opensearch.rest.RestStatus;
-import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
-import org.opensearch.securityanalytics.action.IndexDetectorAction;
-import org.opensearch.securityanalytics.action.IndexDetectorRequest;
-import org.opensearch.securityanalytics.action.IndexDetectorResponse;
 import org.opensearch.securityanalytics.action.IndexRuleAction;
 import org.opensearch.securityanalytics.action.IndexRuleRequest;
 import org.opensearch.securityanalytics.action.IndexRuleResponse;
@@ -50,6 +40,7 @@ import org.opensearch.securityanalytics.rules.objects.SigmaRule;
 import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
 import org.opensearch.securityanalytics.util.DetectorIndices;
 import org.opensearch.securityanalytics.util.IndexUtils;
+import org.opensearch.securityanalytics.util.RuleCache;
 import org.opensearch.securityanalytics.util.RuleIndices;
 import org.opensearch.securityanalytics.util.SecurityAnalyticsException;
 import org.opensearch.tasks.Task;
@@ -57,13 +48,11 @@ import org.opensearch.threadpool.ThreadPool;
 import org.opensearch.transport.TransportService;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
@@ -90,6 +79,8 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
 
     private volatile TimeValue indexTimeout;
 
+    private volatile int maxConcurrency;
+
     @Inject
     public TransportIndexRuleAction(TransportService transportService, Client client, ActionFilters actionFilters, ClusterService clusterService, DetectorIndices detectorIndices, RuleIndices ruleIndices, NamedXContentRegistry xContentRegistry, Settings settings) {
         super(IndexRuleAction.NAME, transportService, actionFilters, IndexRuleRequest::new);
@@ -102,6 +93,8 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
         this.settings = settings;
 
         this.indexTimeout = SecurityAnalyticsSettings.INDEX_TIMEOUT.get(this.settings);
+        this.maxConcurrency = SecurityAnalyticsSettings.DETECTOR_UPDATE_MAX_CONCURRENCY.get(this.settings);
+        this.clusterService.getClusterSettings().addSettingsUpdateConsumer(SecurityAnalyticsSettings.DETECTOR_UPDATE_MAX_CONCURRENCY, it -> maxConcurrency = it);
     }
 
     @Override
@@ -116,7 +109,6 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
         private final ActionListener<IndexRuleResponse> listener;
         private final AtomicReference<Object> response;
         private final AtomicBoolean counter = new AtomicBoolean();
-        private final AtomicInteger checker = new AtomicInteger();
         private final Task task;
 
         AsyncIndexRulesAction(Task task, IndexRuleRequest request, ActionListener<IndexRuleResponse> listener) {
@@ -205,25 +197,14 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
                                     return;
                                 }
 
-                                List<Detector> detectors = new ArrayList<>();
                                 try {
-                                    for (SearchHit hit : response.getHits()) {
-                                        XContentParser xcp = XContentType.JSON.xContent().createParser(
-                                                xContentRegistry,
-                                                LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString()
-                                        );
-
-                                        Detector detector = Detector.docParse(xcp, hit.getId(), hit.getVersion());
-                                        detectors.add(detector);
-                                    }
-
-                                    updateRule(rule, detectors);
+                                    updateRule(rule, true);
                                 } catch (IOException ex) {
                                     onFailures(ex);
                                 }
                             } else {
                                 try {
-                                    updateRule(rule, List.of());
+                                    updateRule(rule, false);
                                 } catch (IOException ex) {
                                     onFailures(ex);
                                 }
@@ -236,7 +217,7 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
                         }
                     });
                 } else {
-                    updateRule(rule, List.of());
+                    updateRule(rule, false);
                 }
             } else {
                 IndexRequest indexRequest = new IndexRequest(Rule.CUSTOM_RULES_INDEX)
@@ -260,44 +241,30 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
         }
 
         private void searchDetectors(String ruleId, ActionListener<SearchResponse> listener) {
-            QueryBuilder queryBuilder =
-                    QueryBuilders.nestedQuery("detector.inputs.detector_input.custom_rules",
-                            QueryBuilders.boolQuery().must(
-                                    QueryBuilders.matchQuery("detector.inputs.detector_input.custom_rules.id", ruleId)
-                            ), ScoreMode.Avg);
-
             SearchRequest searchRequest = new SearchRequest(Detector.DETECTORS_INDEX)
                     .source(new SearchSourceBuilder()
-                            .seqNoAndPrimaryTerm(true)
-                            .version(true)
-                            .query(queryBuilder)
-                            .size(10000));
+                            .query(DetectorRuleUpdater.detectorsQuery(ruleId))
+                            .size(0));
 
             client.search(searchRequest, listener);
         }
 
-        private void updateDetectors(IndexResponse indexResponse, Rule rule, List<Detector> detectors) {
-            for (Detector detector: detectors) {
-                IndexDetectorRequest indexRequest = new IndexDetectorRequest(detector.getId(), request.getRefreshPolicy(), RestRequest.Method.PUT, detector);
-                client.execute(IndexDetectorAction.INSTANCE, indexRequest,
-                        new ActionListener<>() {
-                            @Override
-                            public void onResponse(IndexDetectorResponse response) {
-                                if (response.getStatus() != RestStatus.OK) {
-                                    onFailures(new OpenSearchStatusException(String.format(Locale.getDefault(), "Rule with id %s cannot be updated", request.getRuleId()), RestStatus.INTERNAL_SERVER_ERROR));
-                                }
-                                onComplete(indexResponse, rule, detectors.size());
-                            }
+        private void updateDetectors(IndexResponse indexResponse, Rule rule) {
+            new DetectorRuleUpdater(client, xContentRegistry, clusterService.localNode().getId(), task, maxConcurrency)
+                    .updateRuleQueries(request.getRuleId(), request.getRefreshPolicy(), new ActionListener<>() {
+                        @Override
+                        public void onResponse(Void response) {
+                            onOperation(indexResponse, rule);
+                        }
 
-                            @Override
-                            public void onFailure(Exception e) {
-                                onFailures(e);
-                            }
-                        });
-            }
+                        @Override
+                        public void onFailure(Exception e) {
+                            onFailures(e);
+                        }
+                    });
         }
 
-        private void updateRule(Rule rule, List<Detector> detectors) throws IOException {
+        private void updateRule(Rule rule, boolean usedByDetectors) throws IOException {
             IndexRequest indexRequest = new IndexRequest(Rule.CUSTOM_RULES_INDEX)
                     .setRefreshPolicy(request.getRefreshPolicy())
                     .source(rule.toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true"))))
@@ -308,9 +275,10 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
                 @Override
                 public void onResponse(IndexResponse response) {
                     rule.setId(response.getId());
+                    RuleCache.invalidateClusterWide(client, List.of(response.getId()));
 
-                    if (detectors.size() > 0) {
-                        updateDetectors(response, rule, detectors);
+                    if (usedByDetectors) {
+                        updateDetectors(response, rule);
                     } else {
                         onOperation(response, rule);
                     }
@@ -323,12 +291,6 @@ public class TransportIndexRuleAction extends HandledTransportAction<IndexRuleRe
             });
         }
 
-        private void onComplete(IndexResponse response, Rule rule, int target) {
-            if (checker.incrementAndGet() == target) {
-                onOperation(response, rule);
-            }
-        }
-
         private void onOperation(IndexResponse response, Rule rule) {
             this.response.set(response);
             if (counter.compareAndSet(false, true)) {
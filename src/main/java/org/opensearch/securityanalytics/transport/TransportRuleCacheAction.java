@@ -0,0 +1,84 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.transport;
+
+import org.opensearch.action.FailedNodeException;
+import org.opensearch.action.support.ActionFilters;
+import org.opensearch.action.support.nodes.TransportNodesAction;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.inject.Inject;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.securityanalytics.action.RuleCacheAction;
+import org.opensearch.securityanalytics.action.RuleCacheNodeResponse;
+import org.opensearch.securityanalytics.action.RuleCacheRequest;
+import org.opensearch.securityanalytics.action.RuleCacheResponse;
+import org.opensearch.securityanalytics.util.RuleCache;
+import org.opensearch.threadpool.ThreadPool;
+import org.opensearch.transport.TransportRequest;
+import org.opensearch.transport.TransportService;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Invalidates rules in the {@link RuleCache} of every node and reports the cache stats of each node.
+ */
+public class TransportRuleCacheAction extends TransportNodesAction<RuleCacheRequest, RuleCacheResponse, TransportRuleCacheAction.NodeRequest, RuleCacheNodeResponse> {
+
+    private final RuleCache ruleCache;
+
+    @Inject
+    public TransportRuleCacheAction(ThreadPool threadPool, ClusterService clusterService, TransportService transportService, ActionFilters actionFilters, RuleCache ruleCache) {
+        super(RuleCacheAction.NAME, threadPool, clusterService, transportService, actionFilters, RuleCacheRequest::new, NodeRequest::new, ThreadPool.Names.MANAGEMENT, RuleCacheNodeResponse.class);
+        this.ruleCache = ruleCache;
+    }
+
+    @Override
+    protected RuleCacheResponse newResponse(RuleCacheRequest request, List<RuleCacheNodeResponse> responses, List<FailedNodeException> failures) {
+        return new RuleCacheResponse(clusterService.getClusterName(), responses, failures);
+    }
+
+    @Override
+    protected NodeRequest newNodeRequest(RuleCacheRequest request) {
+        return new NodeRequest(request);
+    }
+
+    @Override
+    protected RuleCacheNodeResponse newNodeResponse(StreamInput in) throws IOException {
+        return new RuleCacheNodeResponse(in);
+    }
+
+    @Override
+    protected RuleCacheNodeResponse nodeOperation(NodeRequest nodeRequest) {
+        RuleCacheRequest request = nodeRequest.request;
+        if (request.isInvalidateAll()) {
+            ruleCache.invalidateAll();
+        } else if (!request.getInvalidateRuleIds().isEmpty()) {
+            ruleCache.invalidate(request.getInvalidateRuleIds());
+        }
+        return new RuleCacheNodeResponse(clusterService.localNode(), ruleCache.getCount(), ruleCache.getHits(), ruleCache.getMisses(), ruleCache.getEvictions());
+    }
+
+    public static class NodeRequest extends TransportRequest {
+
+        private final RuleCacheRequest request;
+
+        public NodeRequest(RuleCacheRequest request) {
+            this.request = request;
+        }
+
+        public NodeRequest(StreamInput sin) throws IOException {
+            super(sin);
+            this.request = new RuleCacheRequest(sin);
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            super.writeTo(out);
+            request.writeTo(out);
+        }
+    }
+}
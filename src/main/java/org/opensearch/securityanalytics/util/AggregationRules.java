@@ -0,0 +1,275 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.commons.alerting.aggregation.bucketselectorext.BucketSelectorExtAggregationBuilder;
+import org.opensearch.commons.alerting.model.BucketLevelTrigger;
+import org.opensearch.commons.alerting.model.IntervalSchedule;
+import org.opensearch.commons.alerting.model.Schedule;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.script.Script;
+import org.opensearch.search.aggregations.AggregationBuilder;
+import org.opensearch.search.aggregations.AggregationBuilders;
+import org.opensearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.opensearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.opensearch.search.aggregations.bucket.filter.FilterAggregationBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaCondition;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Sigma rules with an aggregation condition, like {@code count() by SourceIp > 10}, cannot be evaluated on single
+ * documents. A detector evaluates them with bucket level monitors instead, one monitor per group by field and time
+ * window, so rules aggregating the same way share one search. The monitor counts the matches of every rule per group
+ * in a filter aggregation named after the rule, and a trigger selects the groups where one of its rules crosses the
+ * threshold.
+ */
+public class AggregationRules {
+
+    public static final String TIMESTAMP_FIELD = "@timestamp";
+
+    public static final String RESULT_AGG = "result_agg";
+
+    /**
+     * The window of rules without timeframe on detectors with a cron schedule.
+     */
+    public static final String DEFAULT_WINDOW = "1h";
+
+    private static final String INDEX_FIELD = "_index";
+
+    private static final String METRIC_AGG = "value";
+
+    private static final Pattern WINDOW_PATTERN = Pattern.compile("\\d+[smhd]");
+
+    private AggregationRules() {
+    }
+
+    public static class AggregationRule {
+
+        private final String ruleId;
+
+        private final Rule rule;
+
+        private final AggregationItem aggregation;
+
+        private final String timeframe;
+
+        public AggregationRule(String ruleId, Rule rule, AggregationItem aggregation, String timeframe) {
+            this.ruleId = ruleId;
+            this.rule = rule;
+            this.aggregation = aggregation;
+            this.timeframe = timeframe;
+        }
+
+        public String getRuleId() {
+            return ruleId;
+        }
+
+        public Rule getRule() {
+            return rule;
+        }
+
+        public AggregationItem getAggregation() {
+            return aggregation;
+        }
+
+        public String getTimeframe() {
+            return timeframe;
+        }
+
+        public String getQuery() {
+            return rule.getQueries().get(0).getValue();
+        }
+
+        /**
+         * Rules without group by field aggregate over the whole index.
+         */
+        public String getGroupByField() {
+            return aggregation.getGroupByField() != null? aggregation.getGroupByField(): INDEX_FIELD;
+        }
+
+        /**
+         * The tags the doc level queries of the rule would carry, matched by the detector triggers.
+         */
+        public List<String> getTags() {
+            List<String> tags = new ArrayList<>();
+            tags.add(rule.getLevel());
+            tags.add(rule.getCategory());
+            tags.addAll(rule.getTags().stream().map(Value::getValue).collect(Collectors.toList()));
+            return tags;
+        }
+
+        private boolean countsDocuments() {
+            return "count".equals(aggregation.getAggFunction()) && (aggregation.getAggField() == null || "*".equals(aggregation.getAggField()));
+        }
+    }
+
+    /**
+     * Returns the aggregation of the rule, or null if the rule has none. The stored queries of a rule only keep the
+     * detection query usable, so the aggregation is parsed again from the rule.
+     */
+    public static AggregationRule parse(String ruleId, Rule rule) throws SigmaError {
+        // the queries of an aggregation rule hold the aggregation next to the detection query
+        if (rule.getQueries().size() < 2) {
+            return null;
+        }
+
+        SigmaRule sigmaRule = SigmaRule.fromYaml(rule.getRule(), false);
+        for (SigmaCondition condition: sigmaRule.getDetection().getParsedCondition()) {
+            AggregationItem aggregation = condition.parsed().getRight();
+            if (aggregation != null) {
+                return new AggregationRule(ruleId, rule, aggregation, sigmaRule.getDetection().getTimeframe());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the time window the rule aggregates over: its timeframe, or else the interval of the detector.
+     */
+    public static String window(AggregationRule rule, Schedule schedule) {
+        if (rule.getTimeframe() != null && WINDOW_PATTERN.matcher(rule.getTimeframe()).matches()) {
+            return rule.getTimeframe();
+        }
+        if (schedule instanceof IntervalSchedule) {
+            IntervalSchedule interval = (IntervalSchedule) schedule;
+            if (interval.getUnit() == ChronoUnit.SECONDS) {
+                return interval.getInterval() + "s";
+            } else if (interval.getUnit() == ChronoUnit.MINUTES) {
+                return interval.getInterval() + "m";
+            } else if (interval.getUnit() == ChronoUnit.HOURS) {
+                return interval.getInterval() + "h";
+            } else if (interval.getUnit() == ChronoUnit.DAYS) {
+                return interval.getInterval() + "d";
+            }
+        }
+        return DEFAULT_WINDOW;
+    }
+
+    public static String groupKey(String groupByField, String window) {
+        return groupByField + "|" + window;
+    }
+
+    /**
+     * Groups the rules by group by field and window, keyed by {@link #groupKey(String, String)} in key order.
+     */
+    public static Map<String, List<AggregationRule>> group(List<AggregationRule> rules, Schedule schedule) {
+        Map<String, List<AggregationRule>> groups = new TreeMap<>();
+        for (AggregationRule rule: rules) {
+            groups.computeIfAbsent(groupKey(rule.getGroupByField(), window(rule, schedule)), key -> new ArrayList<>()).add(rule);
+        }
+        return groups;
+    }
+
+    /**
+     * Builds the search of the monitor of a group: the documents of the window matched by any of the rules, bucketed
+     * by the group by field, with the matches of every rule counted or aggregated below each bucket.
+     */
+    public static SearchSourceBuilder searchSource(String groupByField, String window, List<AggregationRule> rules) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+                .filter(QueryBuilders.rangeQuery(TIMESTAMP_FIELD)
+                        .gte("{{period_end}}||-" + window)
+                        .lte("{{period_end}}")
+                        .format("epoch_millis"))
+                .minimumShouldMatch(1);
+
+        CompositeAggregationBuilder resultAgg = new CompositeAggregationBuilder(RESULT_AGG,
+                List.of(new TermsValuesSourceBuilder(groupByField).field(groupByField)));
+        for (AggregationRule rule: rules) {
+            query.should(QueryBuilders.queryStringQuery(rule.getQuery()));
+
+            FilterAggregationBuilder ruleAgg = AggregationBuilders.filter(rule.getRuleId(), QueryBuilders.queryStringQuery(rule.getQuery()));
+            if (!rule.countsDocuments()) {
+                ruleAgg.subAggregation(metricAggregation(rule.getAggregation()));
+            }
+            resultAgg.subAggregation(ruleAgg);
+        }
+
+        return new SearchSourceBuilder()
+                .size(0)
+                .query(query)
+                .aggregation(resultAgg);
+    }
+
+    private static AggregationBuilder metricAggregation(AggregationItem aggregation) {
+        String field = aggregation.getAggField();
+        switch (aggregation.getAggFunction()) {
+            case "min":
+                return AggregationBuilders.min(METRIC_AGG).field(field);
+            case "max":
+                return AggregationBuilders.max(METRIC_AGG).field(field);
+            case "avg":
+                return AggregationBuilders.avg(METRIC_AGG).field(field);
+            case "sum":
+                return AggregationBuilders.sum(METRIC_AGG).field(field);
+            default:
+                // count(field) counts the distinct values of the field
+                return AggregationBuilders.cardinality(METRIC_AGG).field(field);
+        }
+    }
+
+    /**
+     * Builds the bucket level trigger of a detector trigger for the rules of a group, or returns null if the trigger
+     * can not fire for them. Like the doc level condition, the trigger selects the buckets where, for every criterion
+     * set on the trigger, one of the rules satisfying the criterion crosses its threshold.
+     */
+    public static BucketLevelTrigger trigger(DetectorTrigger trigger, List<AggregationRule> rules) {
+        Map<String, String> bucketsPaths = new HashMap<>();
+        Map<AggregationRule, String> ruleConditions = new HashMap<>();
+        List<String> clauses = new ArrayList<>();
+        for (String criterion: CompiledTriggers.criteria(trigger)) {
+            List<String> conditions = new ArrayList<>();
+            for (AggregationRule rule: rules) {
+                if (!CompiledTriggers.satisfies(trigger, criterion, rule.getRuleId(), rule.getTags())) {
+                    continue;
+                }
+                conditions.add(ruleConditions.computeIfAbsent(rule, r -> {
+                    String param = "rule" + bucketsPaths.size();
+                    bucketsPaths.put(param, r.getRuleId() + ">" + (r.countsDocuments()? "_count": METRIC_AGG));
+                    return String.format(Locale.ROOT, "params.%s %s %s", param, operator(r.getAggregation().getCompOperator()), r.getAggregation().getThreshold());
+                }));
+            }
+            if (conditions.isEmpty()) {
+                return null;
+            }
+            clauses.add(conditions.size() == 1? conditions.get(0): "(" + String.join(" || ", conditions) + ")");
+        }
+        if (clauses.isEmpty()) {
+            return null;
+        }
+
+        BucketSelectorExtAggregationBuilder bucketSelector = new BucketSelectorExtAggregationBuilder(trigger.getId(), bucketsPaths,
+                new Script(String.join(" && ", clauses)), RESULT_AGG, null);
+        return new BucketLevelTrigger(trigger.getId(), trigger.getName(), trigger.getSeverity(), bucketSelector, trigger.getActions());
+    }
+
+    /**
+     * Whether the rule satisfies a criterion of the detector trigger, so the buckets of the rule count towards it.
+     */
+    public static boolean applies(DetectorTrigger trigger, AggregationRule rule) {
+        return CompiledTriggers.criteria(trigger).stream()
+                .anyMatch(criterion -> CompiledTriggers.satisfies(trigger, criterion, rule.getRuleId(), rule.getTags()));
+    }
+
+    private static String operator(String compOperator) {
+        return "=".equals(compOperator)? "==": compOperator;
+    }
+}
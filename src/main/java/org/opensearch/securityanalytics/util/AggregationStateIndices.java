@@ -0,0 +1,201 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.ResourceAlreadyExistsException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.admin.indices.create.CreateIndexRequest;
+import org.opensearch.action.admin.indices.create.CreateIndexResponse;
+import org.opensearch.action.delete.DeleteRequest;
+import org.opensearch.action.delete.DeleteResponse;
+import org.opensearch.action.get.GetRequest;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentParserUtils;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.securityanalytics.rules.engine.AggregationEvaluator;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Stores the sliding window state of the aggregation rules of a detector, one document per detector, so the windows
+ * survive node restarts. A state is written back with the sequence number it was read with, so concurrent
+ * evaluations of the same detector fail with a version conflict instead of losing each other's documents.
+ */
+public class AggregationStateIndices {
+
+    private static final Logger log = LogManager.getLogger(AggregationStateIndices.class);
+
+    public static final String AGGREGATION_STATE_INDEX = ".opensearch-sap-aggregation-state";
+
+    private static final String DETECTOR_ID_FIELD = "detector_id";
+    private static final String LAST_UPDATE_TIME_FIELD = "last_update_time";
+    private static final String STATE_FIELD = "state";
+
+    private final Client client;
+
+    private final ClusterService clusterService;
+
+    private final NamedXContentRegistry xContentRegistry;
+
+    public AggregationStateIndices(Client client, ClusterService clusterService, NamedXContentRegistry xContentRegistry) {
+        this.client = client;
+        this.clusterService = clusterService;
+        this.xContentRegistry = xContentRegistry;
+    }
+
+    public static String aggregationStateMappings() throws IOException {
+        return new String(Objects.requireNonNull(AggregationStateIndices.class.getClassLoader().getResourceAsStream("mappings/aggregation-state.json")).readAllBytes(), Charset.defaultCharset());
+    }
+
+    public boolean aggregationStateIndexExists() {
+        return clusterService.state().getRoutingTable().hasIndex(AGGREGATION_STATE_INDEX);
+    }
+
+    /**
+     * Restores the windows of the evaluator from the stored state of the detector. Responds with the get response the
+     * state was read from, to be passed to {@link #saveState}, or null if the detector has no state yet.
+     */
+    public void loadState(String detectorId, AggregationEvaluator evaluator, ActionListener<GetResponse> listener) {
+        if (!aggregationStateIndexExists()) {
+            listener.onResponse(null);
+            return;
+        }
+
+        client.get(new GetRequest(AGGREGATION_STATE_INDEX, detectorId), new ActionListener<>() {
+            @Override
+            public void onResponse(GetResponse response) {
+                if (!response.isExists()) {
+                    listener.onResponse(null);
+                    return;
+                }
+                try {
+                    XContentParser xcp = XContentType.JSON.xContent().createParser(
+                            xContentRegistry,
+                            LoggingDeprecationHandler.INSTANCE, response.getSourceAsString()
+                    );
+                    XContentParserUtils.ensureExpectedToken(XContentParser.Token.START_OBJECT, xcp.nextToken(), xcp);
+                    while (xcp.nextToken() != XContentParser.Token.END_OBJECT) {
+                        String fieldName = xcp.currentName();
+                        xcp.nextToken();
+
+                        if (STATE_FIELD.equals(fieldName)) {
+                            evaluator.restore(xcp);
+                        } else {
+                            xcp.skipChildren();
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    listener.onFailure(e);
+                    return;
+                }
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Writes the windows of the evaluator as the state of the detector. The previous state is the response of
+     * {@link #loadState}; the write fails with a version conflict if the state changed since it was read.
+     */
+    public void saveState(String detectorId, AggregationEvaluator evaluator, GetResponse previous, ActionListener<IndexResponse> listener) {
+        initAggregationStateIndex(new ActionListener<>() {
+            @Override
+            public void onResponse(CreateIndexResponse response) {
+                try {
+                    XContentBuilder builder = XContentFactory.jsonBuilder()
+                            .startObject()
+                            .field(DETECTOR_ID_FIELD, detectorId)
+                            .timeField(LAST_UPDATE_TIME_FIELD, Instant.now())
+                            .field(STATE_FIELD, evaluator)
+                            .endObject();
+
+                    IndexRequest request = new IndexRequest(AGGREGATION_STATE_INDEX)
+                            .id(detectorId)
+                            .source(builder);
+                    if (previous == null) {
+                        request.opType(DocWriteRequest.OpType.CREATE);
+                    } else {
+                        request.setIfSeqNo(previous.getSeqNo()).setIfPrimaryTerm(previous.getPrimaryTerm());
+                    }
+                    client.index(request, listener);
+                } catch (IOException e) {
+                    listener.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    public void deleteState(String detectorId) {
+        if (!aggregationStateIndexExists()) {
+            return;
+        }
+        client.delete(new DeleteRequest(AGGREGATION_STATE_INDEX, detectorId), new ActionListener<>() {
+            @Override
+            public void onResponse(DeleteResponse response) {
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.warn("Failed to delete the aggregation state of detector " + detectorId, e);
+            }
+        });
+    }
+
+    private void initAggregationStateIndex(ActionListener<CreateIndexResponse> listener) {
+        if (aggregationStateIndexExists()) {
+            listener.onResponse(new CreateIndexResponse(true, true, AGGREGATION_STATE_INDEX));
+            return;
+        }
+
+        try {
+            CreateIndexRequest request = new CreateIndexRequest(AGGREGATION_STATE_INDEX)
+                    .mapping(aggregationStateMappings())
+                    .settings(Settings.builder().put("index.hidden", true).build());
+            client.admin().indices().create(request, new ActionListener<>() {
+                @Override
+                public void onResponse(CreateIndexResponse response) {
+                    listener.onResponse(response);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    if (e instanceof ResourceAlreadyExistsException) {
+                        listener.onResponse(new CreateIndexResponse(true, true, AGGREGATION_STATE_INDEX));
+                    } else {
+                        listener.onFailure(e);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            listener.onFailure(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.opensearch.action.ActionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs an asynchronous operation on each of a list of items with at most a fixed number of operations in flight. A
+ * failed operation does not stop the others; the failures are reported per item once all operations are done. Once
+ * cancelled, no further operations are started and the items which were not started are reported as skipped.
+ */
+public class BoundedFanOut<T> {
+
+    private final List<T> items;
+
+    private final int maxConcurrency;
+
+    private final BooleanSupplier cancelled;
+
+    private final BiConsumer<T, ActionListener<Void>> operation;
+
+    private final ActionListener<Result<T>> listener;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final AtomicInteger completed = new AtomicInteger();
+
+    private final AtomicInteger succeeded = new AtomicInteger();
+
+    private final ConcurrentLinkedQueue<Pair<T, Exception>> failures = new ConcurrentLinkedQueue<>();
+
+    private final ConcurrentLinkedQueue<T> skipped = new ConcurrentLinkedQueue<>();
+
+    private BoundedFanOut(List<T> items, int maxConcurrency, BooleanSupplier cancelled, BiConsumer<T, ActionListener<Void>> operation, ActionListener<Result<T>> listener) {
+        this.items = items;
+        this.maxConcurrency = maxConcurrency;
+        this.cancelled = cancelled;
+        this.operation = operation;
+        this.listener = listener;
+    }
+
+    public static <T> void execute(List<T> items, int maxConcurrency, BooleanSupplier cancelled, BiConsumer<T, ActionListener<Void>> operation, ActionListener<Result<T>> listener) {
+        new BoundedFanOut<>(items, Math.max(1, maxConcurrency), cancelled, operation, listener).start();
+    }
+
+    private void start() {
+        if (items.isEmpty()) {
+            finish();
+            return;
+        }
+        for (int i = 0; i < Math.min(maxConcurrency, items.size()); ++i) {
+            runNext();
+        }
+    }
+
+    private void runNext() {
+        while (true) {
+            int position = next.getAndIncrement();
+            if (position >= items.size()) {
+                return;
+            }
+            T item = items.get(position);
+            if (!cancelled.getAsBoolean()) {
+                run(item);
+                return;
+            }
+            skipped.add(item);
+            if (completed.incrementAndGet() == items.size()) {
+                finish();
+                return;
+            }
+        }
+    }
+
+    private void run(T item) {
+        try {
+            operation.accept(item, new ActionListener<>() {
+                @Override
+                public void onResponse(Void response) {
+                    succeeded.incrementAndGet();
+                    onItemDone();
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    failures.add(Pair.of(item, e));
+                    onItemDone();
+                }
+            });
+        } catch (Exception e) {
+            failures.add(Pair.of(item, e));
+            onItemDone();
+        }
+    }
+
+    private void onItemDone() {
+        if (completed.incrementAndGet() == items.size()) {
+            finish();
+        } else {
+            runNext();
+        }
+    }
+
+    private void finish() {
+        listener.onResponse(new Result<>(succeeded.get(), new ArrayList<>(failures), new ArrayList<>(skipped)));
+    }
+
+    public static class Result<T> {
+
+        private final int succeeded;
+
+        private final List<Pair<T, Exception>> failures;
+
+        private final List<T> skipped;
+
+        public Result(int succeeded, List<Pair<T, Exception>> failures, List<T> skipped) {
+            this.succeeded = succeeded;
+            this.failures = failures;
+            this.skipped = skipped;
+        }
+
+        public int getSucceeded() {
+            return succeeded;
+        }
+
+        public List<Pair<T, Exception>> getFailures() {
+            return failures;
+        }
+
+        public List<T> getSkipped() {
+            return skipped;
+        }
+
+        public boolean isComplete() {
+            return failures.isEmpty() && skipped.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.Version;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.hash.MessageDigests;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.InputStreamStreamInput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.common.io.stream.StreamOutput;
+import org.opensearch.common.io.stream.Writeable;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.securityanalytics.model.Rule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Node-local cache of converted pre-packaged rules.
+ *
+ * The converted rule set is keyed by a content hash of the bundled rules directory and persisted as a versioned
+ * binary artifact on the node data path, so it survives restarts. When the rules directory changes, entries whose
+ * source hash is unchanged are reused from the previous artifact and only the changed rules are re-converted.
+ */
+public class CompiledRulesCache {
+
+    private static final Logger log = LogManager.getLogger(CompiledRulesCache.class);
+
+    public static final int FORMAT_VERSION = 1;
+
+    private static final String ARTIFACT_PREFIX = "compiled-rules-v" + FORMAT_VERSION + "-";
+
+    private static final String ARTIFACT_SUFFIX = ".bin";
+
+    private final Path artifactDir;
+
+    private CompiledRules current;
+
+    /**
+     * @param artifactDir directory the artifact is persisted to, or null to keep the cache in memory only
+     */
+    public CompiledRulesCache(Path artifactDir) {
+        this.artifactDir = artifactDir;
+    }
+
+    /**
+     * Returns the compiled rule set for the given rules directory hash, or null if it was never compiled on this node.
+     */
+    public synchronized CompiledRules get(String rulesHash) {
+        if (current != null && current.getRulesHash().equals(rulesHash)) {
+            return current;
+        }
+        if (artifactDir != null) {
+            Path artifact = artifactDir.resolve(ARTIFACT_PREFIX + rulesHash + ARTIFACT_SUFFIX);
+            if (Files.exists(artifact)) {
+                CompiledRules compiledRules = read(artifact);
+                if (compiledRules != null && compiledRules.getRulesHash().equals(rulesHash)) {
+                    current = compiledRules;
+                    return current;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the most recently compiled rule set regardless of its hash, used to reuse unchanged rules after the
+     * bundled rules change. Returns null if nothing was compiled yet.
+     */
+    public synchronized CompiledRules latest() {
+        if (current == null && artifactDir != null && Files.isDirectory(artifactDir)) {
+            Path newest = null;
+            try (DirectoryStream<Path> artifacts = Files.newDirectoryStream(artifactDir, ARTIFACT_PREFIX + "*" + ARTIFACT_SUFFIX)) {
+                for (Path artifact: artifacts) {
+                    if (newest == null || Files.getLastModifiedTime(artifact).compareTo(Files.getLastModifiedTime(newest)) > 0) {
+                        newest = artifact;
+                    }
+                }
+            } catch (IOException ex) {
+                log.warn("Failed to list compiled rule artifacts", ex);
+            }
+            if (newest != null) {
+                current = read(newest);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Stores the compiled rule set and replaces any previously persisted artifact.
+     */
+    public synchronized void put(CompiledRules compiledRules) {
+        current = compiledRules;
+        if (artifactDir == null) {
+            return;
+        }
+
+        String fileName = ARTIFACT_PREFIX + compiledRules.getRulesHash() + ARTIFACT_SUFFIX;
+        try {
+            Files.createDirectories(artifactDir);
+            Path tmp = artifactDir.resolve(fileName + ".tmp");
+            try (BytesStreamOutput out = new BytesStreamOutput()) {
+                out.writeVInt(FORMAT_VERSION);
+                compiledRules.writeTo(out);
+                Files.write(tmp, BytesReference.toBytes(out.bytes()));
+            }
+            Files.move(tmp, artifactDir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            try (DirectoryStream<Path> artifacts = Files.newDirectoryStream(artifactDir, ARTIFACT_PREFIX + "*")) {
+                for (Path artifact: artifacts) {
+                    if (!artifact.getFileName().toString().equals(fileName)) {
+                        Files.deleteIfExists(artifact);
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            log.warn(String.format(Locale.getDefault(), "Failed to persist compiled rules artifact %s", fileName), ex);
+        }
+    }
+
+    private CompiledRules read(Path artifact) {
+        try (InputStream is = Files.newInputStream(artifact); StreamInput sin = new InputStreamStreamInput(is)) {
+            int formatVersion = sin.readVInt();
+            if (formatVersion != FORMAT_VERSION) {
+                log.info(String.format(Locale.getDefault(), "Ignoring compiled rules artifact %s with format version %d", artifact, formatVersion));
+                return null;
+            }
+            return new CompiledRules(sin);
+        } catch (IOException | RuntimeException ex) {
+            log.warn(String.format(Locale.getDefault(), "Ignoring unreadable compiled rules artifact %s", artifact), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Hash of a single rule source. Covers everything the conversion output depends on: the plugin version, the
+     * rule category, the category field mappings and the rule yaml.
+     */
+    public static String sourceHash(String category, String fieldMappingsHash, String ruleYaml) {
+        MessageDigest digest = MessageDigests.sha256();
+        update(digest, Version.CURRENT.toString());
+        update(digest, category);
+        update(digest, fieldMappingsHash);
+        update(digest, ruleYaml);
+        return MessageDigests.toHexString(digest.digest());
+    }
+
+    /**
+     * Hash of the whole rules directory, derived from the ordered source hashes of its rules.
+     */
+    public static String rulesHash(List<String> sourceHashes) {
+        MessageDigest digest = MessageDigests.sha256();
+        update(digest, String.valueOf(FORMAT_VERSION));
+        for (String sourceHash: sourceHashes) {
+            update(digest, sourceHash);
+        }
+        return MessageDigests.toHexString(digest.digest());
+    }
+
+    public static String hash(String content) {
+        return MessageDigests.toHexString(MessageDigests.sha256().digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Hash of the document indexed for the rule, compared against the rule_hash stored in the rules index to decide
+     * whether the rule needs to be re-indexed.
+     */
+    public static String docHash(Rule rule) throws IOException {
+        BytesReference source = BytesReference.bytes(
+                rule.toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true"))));
+        return MessageDigests.toHexString(MessageDigests.sha256().digest(BytesReference.toBytes(source)));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    public static class CompiledRule implements Writeable {
+
+        private final String sourceHash;
+
+        private final String docHash;
+
+        private final Rule rule;
+
+        public CompiledRule(String sourceHash, String docHash, Rule rule) {
+            this.sourceHash = sourceHash;
+            this.docHash = docHash;
+            this.rule = rule;
+        }
+
+        public CompiledRule(StreamInput sin) throws IOException {
+            this(sin.readString(), sin.readString(), Rule.readFrom(sin));
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(sourceHash);
+            out.writeString(docHash);
+            rule.writeTo(out);
+        }
+
+        public String getSourceHash() {
+            return sourceHash;
+        }
+
+        public String getDocHash() {
+            return docHash;
+        }
+
+        public Rule getRule() {
+            return rule;
+        }
+    }
+
+    public static class CompiledRules implements Writeable {
+
+        private final String rulesHash;
+
+        private final List<CompiledRule> rules;
+
+        private final Map<String, CompiledRule> bySourceHash;
+
+        public CompiledRules(String rulesHash, List<CompiledRule> rules) {
+            this.rulesHash = rulesHash;
+            this.rules = Collections.unmodifiableList(rules);
+            this.bySourceHash = new HashMap<>();
+            for (CompiledRule rule: rules) {
+                bySourceHash.put(rule.getSourceHash(), rule);
+            }
+        }
+
+        public CompiledRules(StreamInput sin) throws IOException {
+            this(sin.readString(), sin.readList(CompiledRule::new));
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeString(rulesHash);
+            out.writeList(rules);
+        }
+
+        public String getRulesHash() {
+            return rulesHash;
+        }
+
+        public List<CompiledRule> getRules() {
+            return rules;
+        }
+
+        public CompiledRule getBySourceHash(String sourceHash) {
+            return bySourceHash.get(sourceHash);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.DocumentLevelTrigger;
+import org.opensearch.script.Script;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Detector triggers compiled against the doc level queries of a detector when the detector is saved. Every criterion
+ * of a trigger, its rule types, rule ids, severities and tags, is resolved to the set of query ordinals satisfying it,
+ * and the queries are tagged with the tag of every (trigger, criterion) they satisfy. The condition of a trigger is then
+ * one {@code query[tag=...]} clause per criterion set on it, at most four however many values the criteria list,
+ * joined by {@code &&}, so the alerting plugin evaluates it in time proportional to the queries a document matched
+ * rather than interpreting one clause per value.
+ *
+ * The semantics are those of the painless condition triggers used to be converted to: a trigger fires for a document
+ * if every criterion set on it is satisfied by one of the queries the document matched, not necessarily the same query
+ * for every criterion. A trigger without criteria never fires.
+ */
+public class CompiledTriggers {
+
+    public static final String TRIGGER_TAG_PREFIX = "trigger#";
+
+    public static final String RULE_TYPES = "types";
+
+    public static final String RULE_IDS = "ids";
+
+    public static final String RULE_SEVERITIES = "sev";
+
+    public static final String TAGS = "tags";
+
+    private final List<DetectorTrigger> triggers;
+
+    private final List<DocLevelQuery> queries;
+
+    private final Map<String, Integer> queryOrdinals;
+
+    /**
+     * Criteria set on every trigger, in trigger order.
+     */
+    private final List<List<String>> criteria;
+
+    /**
+     * Ordinals of the queries satisfying every criterion of every trigger, in trigger and criterion order.
+     */
+    private final BitSet[][] matchingQueries;
+
+    private CompiledTriggers(List<DetectorTrigger> triggers, List<DocLevelQuery> queries, List<List<String>> criteria, BitSet[][] matchingQueries) {
+        this.triggers = triggers;
+        this.queries = queries;
+        this.criteria = criteria;
+        this.matchingQueries = matchingQueries;
+        this.queryOrdinals = new HashMap<>();
+        for (int i = 0; i < queries.size(); ++i) {
+            queryOrdinals.put(queries.get(i).getId(), i);
+        }
+    }
+
+    /**
+     * Compiles the triggers against the queries. Trigger tags the queries carry from a previous compilation are
+     * ignored.
+     */
+    public static CompiledTriggers compile(List<DetectorTrigger> triggers, List<DocLevelQuery> queries) {
+        List<DocLevelQuery> untagged = stripTriggerTags(queries);
+        List<List<String>> criteria = new ArrayList<>(triggers.size());
+        BitSet[][] matchingQueries = new BitSet[triggers.size()][];
+        for (int trigger = 0; trigger < triggers.size(); ++trigger) {
+            List<String> triggerCriteria = criteria(triggers.get(trigger));
+            criteria.add(triggerCriteria);
+            matchingQueries[trigger] = new BitSet[triggerCriteria.size()];
+            for (int criterion = 0; criterion < triggerCriteria.size(); ++criterion) {
+                matchingQueries[trigger][criterion] = new BitSet(untagged.size());
+                for (int query = 0; query < untagged.size(); ++query) {
+                    if (satisfies(triggers.get(trigger), triggerCriteria.get(criterion), untagged.get(query).getName(), untagged.get(query).getTags())) {
+                        matchingQueries[trigger][criterion].set(query);
+                    }
+                }
+            }
+        }
+        return new CompiledTriggers(triggers, untagged, criteria, matchingQueries);
+    }
+
+    /**
+     * Returns the criteria set on the trigger, in the order of their clauses in its condition.
+     */
+    public static List<String> criteria(DetectorTrigger trigger) {
+        List<String> criteria = new ArrayList<>(4);
+        if (!trigger.getRuleTypes().isEmpty()) {
+            criteria.add(RULE_TYPES);
+        }
+        if (!trigger.getRuleIds().isEmpty()) {
+            criteria.add(RULE_IDS);
+        }
+        if (!trigger.getRuleSeverityLevels().isEmpty()) {
+            criteria.add(RULE_SEVERITIES);
+        }
+        if (!trigger.getTags().isEmpty()) {
+            criteria.add(TAGS);
+        }
+        return criteria;
+    }
+
+    /**
+     * Whether a query satisfies a criterion of the trigger, that is matches any of its values. Rule types, severities
+     * and tags are matched against the query tags, rule ids against the query name.
+     */
+    public static boolean satisfies(DetectorTrigger trigger, String criterion, String queryName, List<String> queryTags) {
+        switch (criterion) {
+            case RULE_TYPES:
+                return trigger.getRuleTypes().stream().anyMatch(queryTags::contains);
+            case RULE_IDS:
+                return trigger.getRuleIds().contains(queryName);
+            case RULE_SEVERITIES:
+                return trigger.getRuleSeverityLevels().stream().anyMatch(queryTags::contains);
+            case TAGS:
+                return trigger.getTags().stream().anyMatch(queryTags::contains);
+            default:
+                throw new IllegalArgumentException(String.format(Locale.getDefault(), "Unknown trigger criterion %s", criterion));
+        }
+    }
+
+    /**
+     * Returns the queries, each tagged with the tags of the trigger criteria it satisfies.
+     */
+    public List<DocLevelQuery> tagQueries() {
+        List<DocLevelQuery> tagged = new ArrayList<>(queries.size());
+        for (int query = 0; query < queries.size(); ++query) {
+            DocLevelQuery docLevelQuery = queries.get(query);
+            List<String> tags = new ArrayList<>(docLevelQuery.getTags());
+            for (int trigger = 0; trigger < triggers.size(); ++trigger) {
+                for (int criterion = 0; criterion < criteria.get(trigger).size(); ++criterion) {
+                    if (matchingQueries[trigger][criterion].get(query)) {
+                        tags.add(criterionTag(triggers.get(trigger).getId(), criteria.get(trigger).get(criterion)));
+                    }
+                }
+            }
+            tagged.add(new DocLevelQuery(docLevelQuery.getId(), docLevelQuery.getName(), docLevelQuery.getQuery(), tags));
+        }
+        return tagged;
+    }
+
+    /**
+     * Returns the doc level triggers of the monitors holding the tagged queries.
+     */
+    public static List<DocumentLevelTrigger> documentLevelTriggers(List<DetectorTrigger> triggers) {
+        return triggers.stream()
+                .map(trigger -> new DocumentLevelTrigger(trigger.getId(), trigger.getName(), trigger.getSeverity(), trigger.getActions(), condition(conditionTags(trigger))))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the tags the clauses of the condition of the trigger refer to, one per criterion set on the trigger. A
+     * trigger without criteria refers to its bare trigger tag, which no query carries, so it never fires.
+     */
+    public static List<String> conditionTags(DetectorTrigger trigger) {
+        List<String> criteria = criteria(trigger);
+        if (criteria.isEmpty()) {
+            return List.of(triggerTag(trigger.getId()));
+        }
+        return criteria.stream().map(criterion -> criterionTag(trigger.getId(), criterion)).collect(Collectors.toList());
+    }
+
+    public static Script condition(List<String> tags) {
+        return new Script(tags.stream()
+                .map(tag -> String.format(Locale.getDefault(), "query[tag=%s]", tag))
+                .collect(Collectors.joining(" && ")));
+    }
+
+    /**
+     * Returns the ids of the triggers fired by a document which matched the queries, in trigger order. Queries unknown
+     * to the compilation are ignored.
+     */
+    public List<String> firedTriggers(Collection<String> matchedQueryIds) {
+        BitSet matched = new BitSet(queries.size());
+        for (String queryId: matchedQueryIds) {
+            Integer ordinal = queryOrdinals.get(queryId);
+            if (ordinal != null) {
+                matched.set(ordinal);
+            }
+        }
+
+        List<String> fired = new ArrayList<>();
+        for (int trigger = 0; trigger < triggers.size(); ++trigger) {
+            boolean fires = matchingQueries[trigger].length > 0;
+            for (BitSet criterion: matchingQueries[trigger]) {
+                fires &= criterion.intersects(matched);
+            }
+            if (fires) {
+                fired.add(triggers.get(trigger).getId());
+            }
+        }
+        return fired;
+    }
+
+    /**
+     * Returns the ordinals of the queries satisfying a criterion of the trigger at the position, none if the criterion
+     * is not set on the trigger.
+     */
+    public BitSet getMatchingQueries(int trigger, String criterion) {
+        int position = criteria.get(trigger).indexOf(criterion);
+        return position < 0? new BitSet(): (BitSet) matchingQueries[trigger][position].clone();
+    }
+
+    public static String triggerTag(String triggerId) {
+        return TRIGGER_TAG_PREFIX + triggerId;
+    }
+
+    public static String criterionTag(String triggerId, String criterion) {
+        return triggerTag(triggerId) + "#" + criterion;
+    }
+
+    public static boolean isTriggerTag(String tag) {
+        return tag.startsWith(TRIGGER_TAG_PREFIX);
+    }
+
+    /**
+     * Returns the queries without the trigger tags added by {@link #tagQueries()}, as the rules define them.
+     */
+    public static List<DocLevelQuery> stripTriggerTags(List<DocLevelQuery> queries) {
+        List<DocLevelQuery> stripped = new ArrayList<>(queries.size());
+        for (DocLevelQuery query: queries) {
+            List<String> tags = query.getTags().stream().filter(tag -> !isTriggerTag(tag)).collect(Collectors.toList());
+            stripped.add(tags.size() == query.getTags().size()? query: new DocLevelQuery(query.getId(), query.getName(), query.getQuery(), tags));
+        }
+        return stripped;
+    }
+}
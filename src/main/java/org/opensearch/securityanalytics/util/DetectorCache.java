@@ -0,0 +1,153 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.securityanalytics.action.DetectorCacheAction;
+import org.opensearch.securityanalytics.action.DetectorCacheRequest;
+import org.opensearch.securityanalytics.action.DetectorCacheResponse;
+import org.opensearch.securityanalytics.action.GetDetectorAction;
+import org.opensearch.securityanalytics.action.GetDetectorRequest;
+import org.opensearch.securityanalytics.action.GetDetectorResponse;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Node-local cache of the {@link DetectorMetadata} of detectors, so the findings and alerts APIs resolve the monitors
+ * of a detector without getting and parsing the detector on every request. Indexing or deleting a detector invalidates
+ * it in the caches of all nodes. A detector loaded while an invalidation is in flight is not cached, so a stale
+ * version never replaces an invalidated one, and entries expire after a while in case a notification is lost.
+ */
+public class DetectorCache {
+
+    private static final Logger log = LogManager.getLogger(DetectorCache.class);
+
+    private final Client client;
+
+    private final Cache<String, DetectorMetadata> cache;
+
+    /**
+     * bumped by every invalidation, loads started before an invalidation are not cached.
+     */
+    private long generation;
+
+    public DetectorCache(Client client, Settings settings) {
+        this.client = client;
+        this.cache = CacheBuilder.<String, DetectorMetadata>builder()
+                .setMaximumWeight(SecurityAnalyticsSettings.DETECTOR_CACHE_MAX_ENTRIES.get(settings))
+                .setExpireAfterWrite(SecurityAnalyticsSettings.DETECTOR_CACHE_EXPIRE_AFTER.get(settings))
+                .build();
+    }
+
+    public void getDetector(String detectorId, ActionListener<DetectorMetadata> listener) {
+        DetectorMetadata metadata = cache.get(detectorId);
+        if (metadata != null) {
+            listener.onResponse(metadata);
+            return;
+        }
+
+        long loadGeneration = generation();
+        load(client, detectorId, new ActionListener<>() {
+            @Override
+            public void onResponse(DetectorMetadata metadata) {
+                put(metadata, loadGeneration);
+                listener.onResponse(metadata);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Gets the detector, bypassing any cache.
+     */
+    public static void load(Client client, String detectorId, ActionListener<DetectorMetadata> listener) {
+        client.execute(GetDetectorAction.INSTANCE, new GetDetectorRequest(detectorId, -3L), new ActionListener<>() {
+            @Override
+            public void onResponse(GetDetectorResponse response) {
+                listener.onResponse(DetectorMetadata.of(response.getDetector()));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void put(DetectorMetadata metadata, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        DetectorMetadata cached = cache.get(metadata.getId());
+        if (cached == null || cached.getVersion() < metadata.getVersion()) {
+            cache.put(metadata.getId(), metadata);
+        }
+    }
+
+    public synchronized void invalidate(Collection<String> detectorIds) {
+        ++generation;
+        detectorIds.forEach(cache::invalidate);
+    }
+
+    public synchronized void invalidateAll() {
+        ++generation;
+        cache.invalidateAll();
+    }
+
+    public long getHits() {
+        return cache.stats().getHits();
+    }
+
+    public long getMisses() {
+        return cache.stats().getMisses();
+    }
+
+    public long getEvictions() {
+        return cache.stats().getEvictions();
+    }
+
+    public int getCount() {
+        return cache.count();
+    }
+
+    /**
+     * Invalidates the detectors in the caches of all nodes.
+     */
+    public static void invalidateClusterWide(Client client, Collection<String> detectorIds) {
+        if (detectorIds.isEmpty()) {
+            return;
+        }
+        client.execute(DetectorCacheAction.INSTANCE, new DetectorCacheRequest(List.copyOf(detectorIds), false), new ActionListener<>() {
+            @Override
+            public void onResponse(DetectorCacheResponse response) {
+                if (response.hasFailures()) {
+                    log.warn(String.format(Locale.getDefault(), "Failed to invalidate cached detectors on %d nodes", response.failures().size()));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.warn("Failed to invalidate cached detectors", e);
+            }
+        });
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.DetectorInput;
+import org.opensearch.securityanalytics.model.DetectorRule;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The difference between the stored and the updated version of a detector, as far as its alerting monitors are
+ * concerned. Rules are compared by id; everything else a monitor is built from is compared as a whole. Rules whose
+ * content changed while the detector kept using them are given explicitly, and count as removed and added again.
+ */
+public class DetectorDiff {
+
+    private final Set<String> addedPrePackagedRules;
+
+    private final Set<String> addedCustomRules;
+
+    private final Set<String> removedRules;
+
+    private final Set<String> updatedRules;
+
+    private final boolean monitorsChanged;
+
+    private final boolean detectorTypeChanged;
+
+    public DetectorDiff(Detector current, Detector updated) {
+        this(current, updated, Set.of());
+    }
+
+    /**
+     * @param updatedRules ids of the rules which changed since the monitors were built, such as an updated custom rule
+     */
+    public DetectorDiff(Detector current, Detector updated, Collection<String> updatedRules) {
+        Set<String> currentPrePackagedRules = ruleIds(current, true);
+        Set<String> currentCustomRules = ruleIds(current, false);
+        Set<String> updatedPrePackagedRules = ruleIds(updated, true);
+        Set<String> updatedCustomRules = ruleIds(updated, false);
+
+        this.addedPrePackagedRules = difference(updatedPrePackagedRules, currentPrePackagedRules);
+        this.addedCustomRules = difference(updatedCustomRules, currentCustomRules);
+        this.removedRules = difference(currentPrePackagedRules, updatedPrePackagedRules);
+        this.removedRules.addAll(difference(currentCustomRules, updatedCustomRules));
+
+        // the queries of an updated rule still used by the detector are converted again
+        this.updatedRules = new HashSet<>();
+        for (String ruleId: updatedRules) {
+            if (currentPrePackagedRules.contains(ruleId) && updatedPrePackagedRules.contains(ruleId)) {
+                this.addedPrePackagedRules.add(ruleId);
+            } else if (currentCustomRules.contains(ruleId) && updatedCustomRules.contains(ruleId)) {
+                this.addedCustomRules.add(ruleId);
+            } else {
+                continue;
+            }
+            this.removedRules.add(ruleId);
+            this.updatedRules.add(ruleId);
+        }
+
+        this.detectorTypeChanged = !Objects.equals(current.getDetectorType(), updated.getDetectorType());
+        this.monitorsChanged = detectorTypeChanged ||
+                !Objects.equals(current.getName(), updated.getName()) ||
+                !Objects.equals(current.getEnabled(), updated.getEnabled()) ||
+                !Objects.equals(current.getEnabledTime(), updated.getEnabledTime()) ||
+                !Objects.equals(current.getSchedule(), updated.getSchedule()) ||
+                !Objects.equals(current.getUser(), updated.getUser()) ||
+                !Objects.equals(current.getTriggers(), updated.getTriggers()) ||
+                !Objects.equals(indices(current), indices(updated));
+    }
+
+    /**
+     * Returns whether anything the monitors of the detector are built from changed.
+     */
+    public boolean requiresMonitorUpdate() {
+        return monitorsChanged || rulesChanged();
+    }
+
+    public boolean rulesChanged() {
+        return !addedPrePackagedRules.isEmpty() || !addedCustomRules.isEmpty() || !removedRules.isEmpty();
+    }
+
+    /**
+     * Returns whether something other than the rules changed, so every monitor has to be updated.
+     */
+    public boolean monitorsChanged() {
+        return monitorsChanged;
+    }
+
+    /**
+     * Returns whether the detector type changed. The rules of a detector are tied to its type, so its monitors have
+     * to be rebuilt from scratch.
+     */
+    public boolean detectorTypeChanged() {
+        return detectorTypeChanged;
+    }
+
+    public Set<String> getAddedPrePackagedRules() {
+        return addedPrePackagedRules;
+    }
+
+    public Set<String> getAddedCustomRules() {
+        return addedCustomRules;
+    }
+
+    public Set<String> getRemovedRules() {
+        return removedRules;
+    }
+
+    /**
+     * Returns the ids of the rules used before and after the update whose queries have to be converted again.
+     */
+    public Set<String> getUpdatedRules() {
+        return updatedRules;
+    }
+
+    private static Set<String> ruleIds(Detector detector, boolean prePackaged) {
+        if (detector.getInputs().isEmpty()) {
+            return Set.of();
+        }
+        DetectorInput input = detector.getInputs().get(0);
+        List<DetectorRule> rules = prePackaged? input.getPrePackagedRules(): input.getCustomRules();
+        return rules == null? Set.of(): rules.stream().map(DetectorRule::getId).collect(Collectors.toSet());
+    }
+
+    private static List<String> indices(Detector detector) {
+        return detector.getInputs().isEmpty()? List.of(): detector.getInputs().get(0).getIndices();
+    }
+
+    private static Set<String> difference(Set<String> left, Set<String> right) {
+        Set<String> difference = new HashSet<>(left);
+        difference.removeAll(right);
+        return difference;
+    }
+}
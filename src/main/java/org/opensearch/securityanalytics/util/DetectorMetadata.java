@@ -0,0 +1,72 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.model.Detector;
+
+import java.util.List;
+
+/**
+ * The parts of a detector the findings and alerts APIs need to resolve the findings and alerts of the detector.
+ */
+public class DetectorMetadata {
+
+    private final String id;
+
+    private final long version;
+
+    private final String detectorType;
+
+    private final List<String> monitorIds;
+
+    private final String findingsIndex;
+
+    private final String alertsIndex;
+
+    public DetectorMetadata(String id, long version, String detectorType, List<String> monitorIds, String findingsIndex, String alertsIndex) {
+        this.id = id;
+        this.version = version;
+        this.detectorType = detectorType;
+        this.monitorIds = List.copyOf(monitorIds);
+        this.findingsIndex = findingsIndex;
+        this.alertsIndex = alertsIndex;
+    }
+
+    public static DetectorMetadata of(Detector detector) {
+        return new DetectorMetadata(
+                detector.getId(),
+                detector.getVersion(),
+                detector.getDetectorType(),
+                detector.getMonitorIds(),
+                DetectorMonitorConfig.getFindingsIndex(detector.getDetectorType()),
+                DetectorMonitorConfig.getAlertsIndex(detector.getDetectorType())
+        );
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getDetectorType() {
+        return detectorType;
+    }
+
+    public List<String> getMonitorIds() {
+        return monitorIds;
+    }
+
+    public String getFindingsIndex() {
+        return findingsIndex;
+    }
+
+    public String getAlertsIndex() {
+        return alertsIndex;
+    }
+}
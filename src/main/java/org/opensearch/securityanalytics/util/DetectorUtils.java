@@ -23,11 +23,16 @@ import java.util.List;
 public class DetectorUtils {
 
     public static final String DETECTOR_TYPE_PATH = "detector.detector_type";
+    public static final String DETECTOR_MONITOR_ID_PATH = "detector.monitor_id";
     public static final String DETECTOR_ID_FIELD = "detector_id";
 
     public static List<Detector> getDetectors(SearchResponse response, NamedXContentRegistry xContentRegistry) throws IOException {
+        return getDetectors(response.getHits().getHits(), xContentRegistry);
+    }
+
+    public static List<Detector> getDetectors(SearchHit[] hits, NamedXContentRegistry xContentRegistry) throws IOException {
         List<Detector> detectors = new LinkedList<>();
-        for (SearchHit hit : response.getHits()) {
+        for (SearchHit hit : hits) {
             XContentParser xcp = XContentType.JSON.xContent().createParser(
                     xContentRegistry,
                     LoggingDeprecationHandler.INSTANCE, hit.getSourceAsString());
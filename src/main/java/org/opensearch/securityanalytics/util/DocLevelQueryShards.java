@@ -0,0 +1,144 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Splits the queries of a detector across several doc level monitors. The number of monitors follows from the maximum
+ * number of queries per monitor; the queries are then spread so that every monitor gets about the same estimated cost,
+ * expensive queries first onto the cheapest monitor. Within a monitor the queries keep the order they were given in,
+ * so the same rules always end up in the same monitors.
+ */
+public class DocLevelQueryShards {
+
+    private DocLevelQueryShards() {
+    }
+
+    /**
+     * Returns the queries of each monitor. A maximum of 0 or less keeps all queries in one monitor.
+     */
+    public static List<List<DocLevelQuery>> split(List<DocLevelQuery> queries, int maxQueriesPerMonitor) {
+        if (maxQueriesPerMonitor <= 0 || queries.size() <= maxQueriesPerMonitor) {
+            return List.of(queries);
+        }
+        int shardCount = (queries.size() + maxQueriesPerMonitor - 1) / maxQueriesPerMonitor;
+
+        long[] costs = new long[queries.size()];
+        List<Integer> byCost = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); ++i) {
+            costs[i] = estimateCost(queries.get(i).getQuery());
+            byCost.add(i);
+        }
+        byCost.sort(Comparator.<Integer>comparingLong(i -> costs[i]).reversed().thenComparing(i -> i));
+
+        long[] shardCosts = new long[shardCount];
+        List<List<Integer>> shards = new ArrayList<>(shardCount);
+        PriorityQueue<Integer> cheapest = new PriorityQueue<>(Comparator.<Integer>comparingLong(shard -> shardCosts[shard]).thenComparing(shard -> shard));
+        for (int shard = 0; shard < shardCount; ++shard) {
+            shards.add(new ArrayList<>());
+            cheapest.add(shard);
+        }
+        for (int query: byCost) {
+            int shard = cheapest.poll();
+            shards.get(shard).add(query);
+            shardCosts[shard] += costs[query];
+            if (shards.get(shard).size() < maxQueriesPerMonitor) {
+                cheapest.add(shard);
+            }
+        }
+
+        List<List<DocLevelQuery>> result = new ArrayList<>(shardCount);
+        for (List<Integer> shard: shards) {
+            shard.sort(Comparator.naturalOrder());
+            List<DocLevelQuery> shardQueries = new ArrayList<>(shard.size());
+            for (int query: shard) {
+                shardQueries.add(queries.get(query));
+            }
+            result.add(shardQueries);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the queries of each monitor after removing and adding queries, moving as few queries as possible. The
+     * remaining queries stay in their monitors, which may end up empty, and the added queries go to the cheapest
+     * monitors with room, or to new monitors appended at the end once all are full.
+     */
+    public static List<List<DocLevelQuery>> update(List<List<DocLevelQuery>> shards, Set<String> removedIds, List<DocLevelQuery> added, int maxQueriesPerMonitor) {
+        int capacity = maxQueriesPerMonitor <= 0? Integer.MAX_VALUE: maxQueriesPerMonitor;
+
+        List<List<DocLevelQuery>> result = new ArrayList<>(shards.size());
+        List<Long> shardCosts = new ArrayList<>(shards.size());
+        for (List<DocLevelQuery> shard: shards) {
+            List<DocLevelQuery> kept = new ArrayList<>(shard.size());
+            long cost = 0;
+            for (DocLevelQuery query: shard) {
+                if (!removedIds.contains(query.getId())) {
+                    kept.add(query);
+                    cost += estimateCost(query.getQuery());
+                }
+            }
+            result.add(kept);
+            shardCosts.add(cost);
+        }
+
+        List<DocLevelQuery> byCost = new ArrayList<>(added);
+        byCost.sort(Comparator.<DocLevelQuery>comparingLong(query -> estimateCost(query.getQuery())).reversed());
+        PriorityQueue<Integer> cheapest = new PriorityQueue<>(Comparator.<Integer>comparingLong(shardCosts::get).thenComparing(shard -> shard));
+        for (int shard = 0; shard < result.size(); ++shard) {
+            if (result.get(shard).size() < capacity) {
+                cheapest.add(shard);
+            }
+        }
+        for (DocLevelQuery query: byCost) {
+            Integer shard = cheapest.poll();
+            if (shard == null) {
+                shard = result.size();
+                result.add(new ArrayList<>());
+                shardCosts.add(0L);
+            }
+            result.get(shard).add(query);
+            shardCosts.set(shard, shardCosts.get(shard) + estimateCost(query.getQuery()));
+            if (result.get(shard).size() < capacity) {
+                cheapest.add(shard);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the cost of a query string produced by the query backend from its field clauses. Terms with a leading
+     * wildcard and regular expressions cannot use the terms index efficiently and weigh more than exact terms.
+     */
+    public static long estimateCost(String query) {
+        long cost = 1;
+        for (int clause = query.indexOf(": "); clause >= 0; clause = query.indexOf(": ", clause + 2)) {
+            int value = clause + 2;
+            if (value >= query.length()) {
+                break;
+            }
+            char first = query.charAt(value);
+            int end = query.indexOf(' ', value);
+            String term = query.substring(value, end < 0? query.length(): end);
+            if (first == '/') {
+                cost += 16;
+            } else if (first == '*' || first == '?') {
+                cost += 8;
+            } else if (first != '"' && (term.indexOf('*') >= 0 || term.indexOf('?') >= 0)) {
+                cost += 2;
+            } else {
+                cost += 1;
+            }
+        }
+        return cost;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.OpenSearchStatusException;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.search.CreatePitAction;
+import org.opensearch.action.search.CreatePitRequest;
+import org.opensearch.action.search.CreatePitResponse;
+import org.opensearch.action.search.DeletePitAction;
+import org.opensearch.action.search.DeletePitRequest;
+import org.opensearch.action.search.DeletePitResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
+import org.opensearch.client.Client;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.PointInTimeBuilder;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.SortBuilders;
+import org.opensearch.search.sort.SortOrder;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Iterates over all hits of a search in pages, using a point in time and search_after, so every page sees the same
+ * snapshot of the indices even when the consumer changes the documents it is iterating over. The next page is only
+ * fetched once the consumer is done with the current one, so at most one page is held at a time. The point in time
+ * is deleted once the iteration ends.
+ */
+public class PagedSearch {
+
+    private static final Logger log = LogManager.getLogger(PagedSearch.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 1000;
+
+    public static final TimeValue DEFAULT_KEEP_ALIVE = TimeValue.timeValueMinutes(1);
+
+    /**
+     * Sort field of the point in time tie breaker, the shard and the Lucene doc id of a document.
+     */
+    static final String SHARD_DOC_FIELD = "_shard_doc";
+
+    /**
+     * Processes the hits of a page.
+     */
+    public interface PageConsumer {
+
+        /**
+         * Completes the listener with whether to fetch the next page once the hits are processed.
+         */
+        void onPage(SearchHit[] hits, ActionListener<Boolean> listener);
+    }
+
+    private final Client client;
+
+    private final BiConsumer<SearchRequest, ActionListener<SearchResponse>> searcher;
+
+    private final String[] indices;
+
+    private final SearchSourceBuilder source;
+
+    private final int pageSize;
+
+    private final TimeValue keepAlive;
+
+    private final PageConsumer consumer;
+
+    private final ActionListener<Void> listener;
+
+    private PagedSearch(Client client, BiConsumer<SearchRequest, ActionListener<SearchResponse>> searcher, String[] indices, SearchSourceBuilder source,
+                        int pageSize, TimeValue keepAlive, PageConsumer consumer, ActionListener<Void> listener) {
+        this.client = client;
+        this.searcher = searcher;
+        this.indices = indices;
+        this.source = source;
+        this.pageSize = pageSize;
+        this.keepAlive = keepAlive;
+        this.consumer = consumer;
+        this.listener = listener;
+    }
+
+    /**
+     * Feeds the hits of the search to the consumer page by page and completes the listener after the last page. The
+     * hits are sorted by the sorts of the source, with the position of the document in the point in time as tie
+     * breaker; size and from are ignored.
+     */
+    public static void search(Client client, SearchSourceBuilder source, PageConsumer consumer, ActionListener<Void> listener, String... indices) {
+        search(client, source, DEFAULT_PAGE_SIZE, DEFAULT_KEEP_ALIVE, consumer, listener, indices);
+    }
+
+    public static void search(Client client, SearchSourceBuilder source, int pageSize, TimeValue keepAlive, PageConsumer consumer, ActionListener<Void> listener, String... indices) {
+        search(client, client::search, source, pageSize, keepAlive, consumer, listener, indices);
+    }
+
+    /**
+     * Like {@link #search(Client, SearchSourceBuilder, PageConsumer, ActionListener, String...)}, running the search of
+     * every page with the searcher, such as a transport action of the plugin, instead of the client.
+     */
+    public static void search(Client client, BiConsumer<SearchRequest, ActionListener<SearchResponse>> searcher, SearchSourceBuilder source,
+                              PageConsumer consumer, ActionListener<Void> listener, String... indices) {
+        search(client, searcher, source, DEFAULT_PAGE_SIZE, DEFAULT_KEEP_ALIVE, consumer, listener, indices);
+    }
+
+    private static void search(Client client, BiConsumer<SearchRequest, ActionListener<SearchResponse>> searcher, SearchSourceBuilder source,
+                               int pageSize, TimeValue keepAlive, PageConsumer consumer, ActionListener<Void> listener, String... indices) {
+        // unlike _id, _shard_doc needs no field data and is unique across the shards of the point in time
+        source.sort(SortBuilders.fieldSort(SHARD_DOC_FIELD).order(SortOrder.ASC));
+        new PagedSearch(client, searcher, indices, source, pageSize, keepAlive, consumer, listener).start();
+    }
+
+    private void start() {
+        client.execute(CreatePitAction.INSTANCE, new CreatePitRequest(keepAlive, false, indices), new ActionListener<>() {
+            @Override
+            public void onResponse(CreatePitResponse response) {
+                fetch(response.getId(), null);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private void fetch(String pitId, Object[] searchAfter) {
+        SearchSourceBuilder page = source.shallowCopy()
+                .from(0)
+                .size(pageSize)
+                .pointInTimeBuilder(new PointInTimeBuilder(pitId).setKeepAlive(keepAlive));
+        if (searchAfter != null) {
+            page.searchAfter(searchAfter);
+        }
+
+        searcher.accept(new SearchRequest().source(page), new ActionListener<>() {
+            @Override
+            public void onResponse(SearchResponse response) {
+                String nextPitId = response.pointInTimeId() != null? response.pointInTimeId(): pitId;
+                if (response.isTimedOut()) {
+                    finish(nextPitId, new OpenSearchStatusException(response.toString(), RestStatus.REQUEST_TIMEOUT));
+                    return;
+                }
+
+                SearchHit[] hits = response.getHits().getHits();
+                if (hits.length == 0) {
+                    finish(nextPitId, null);
+                    return;
+                }
+
+                consumer.onPage(hits, new ActionListener<>() {
+                    @Override
+                    public void onResponse(Boolean more) {
+                        if (more && hits.length == pageSize) {
+                            fetch(nextPitId, hits[hits.length - 1].getSortValues());
+                        } else {
+                            finish(nextPitId, null);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        finish(nextPitId, e);
+                    }
+                });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                finish(pitId, e);
+            }
+        });
+    }
+
+    private void finish(String pitId, Exception failure) {
+        client.execute(DeletePitAction.INSTANCE, new DeletePitRequest(pitId), new ActionListener<>() {
+            @Override
+            public void onResponse(DeletePitResponse response) {
+                complete();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.warn("Failed to delete point in time, it expires after " + keepAlive, e);
+                complete();
+            }
+
+            private void complete() {
+                if (failure != null) {
+                    listener.onFailure(failure);
+                } else {
+                    listener.onResponse(null);
+                }
+            }
+        });
+    }
+}
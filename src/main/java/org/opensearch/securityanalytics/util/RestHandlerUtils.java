@@ -4,9 +4,26 @@
  */
 package org.opensearch.securityanalytics.util;
 
+import org.opensearch.common.time.DateFormatter;
+import org.opensearch.rest.RestRequest;
+
+import java.time.Instant;
+
 public class RestHandlerUtils {
 
     public static final String _ID = "_id";
     public static final String _VERSION = "_version";
     public static final String REFRESH = "refresh";
-}
\ No newline at end of file
+    public static final String START_TIME = "start_time";
+    public static final String END_TIME = "end_time";
+
+    private static final DateFormatter TIME_FORMATTER = DateFormatter.forPattern("strict_date_optional_time||epoch_millis");
+
+    /**
+     * Parses a time parameter, either a date or epoch millis, or returns null if it is missing.
+     */
+    public static Instant paramAsInstant(RestRequest request, String key) {
+        String time = request.param(key);
+        return time != null ? Instant.ofEpochMilli(TIME_FORMATTER.parseMillis(time)) : null;
+    }
+}
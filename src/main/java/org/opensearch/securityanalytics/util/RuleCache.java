@@ -0,0 +1,264 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.action.RuleCacheAction;
+import org.opensearch.securityanalytics.action.RuleCacheRequest;
+import org.opensearch.securityanalytics.action.RuleCacheResponse;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Node-local cache of parsed rules, keyed by the uuid of the rule index, the rule id and the rule version. Any change
+ * to a rule bumps its version, so a cached rule is never served for a newer document; invalidation only frees the
+ * entries of rules which changed or were deleted. Detectors resolve their rules with a search which returns ids and
+ * versions only, page by page, and fetch and parse the source of the rules missing from the cache.
+ */
+public class RuleCache {
+
+    private static final Logger log = LogManager.getLogger(RuleCache.class);
+
+    private final Client client;
+
+    private final ClusterService clusterService;
+
+    private final NamedXContentRegistry xContentRegistry;
+
+    private final Cache<Key, Rule> cache;
+
+    public RuleCache(Client client, ClusterService clusterService, NamedXContentRegistry xContentRegistry, Settings settings) {
+        this.client = client;
+        this.clusterService = clusterService;
+        this.xContentRegistry = xContentRegistry;
+        this.cache = CacheBuilder.<Key, Rule>builder()
+                .setMaximumWeight(SecurityAnalyticsSettings.RULE_CACHE_MAX_ENTRIES.get(settings))
+                .build();
+    }
+
+    /**
+     * Returns the id and the parsed rule of every rule in the index matching the query, in id order.
+     */
+    public void getRules(String index, QueryBuilder queryBuilder, ActionListener<List<Pair<String, Rule>>> listener) {
+        String indexUuid = indexUuid(index);
+        List<Pair<String, Rule>> rules = new ArrayList<>();
+
+        PagedSearch.search(client, new SearchSourceBuilder().fetchSource(false).version(true).query(queryBuilder), (hits, pageListener) -> {
+            List<Pair<String, Rule>> page = new ArrayList<>(hits.length);
+            List<Integer> missing = new ArrayList<>();
+            for (SearchHit hit: hits) {
+                Rule rule = cache.get(new Key(indexUuid, hit.getId(), hit.getVersion()));
+                if (rule == null) {
+                    missing.add(page.size());
+                }
+                page.add(Pair.of(hit.getId(), rule));
+            }
+
+            if (missing.isEmpty()) {
+                rules.addAll(page);
+                pageListener.onResponse(true);
+                return;
+            }
+            fetchRules(index, indexUuid, page, missing, new ActionListener<>() {
+                @Override
+                public void onResponse(List<Pair<String, Rule>> fetched) {
+                    rules.addAll(fetched);
+                    pageListener.onResponse(true);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    pageListener.onFailure(e);
+                }
+            });
+        }, new ActionListener<>() {
+            @Override
+            public void onResponse(Void response) {
+                listener.onResponse(rules);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        }, index);
+    }
+
+    private void fetchRules(String index, String indexUuid, List<Pair<String, Rule>> rules, List<Integer> missing, ActionListener<List<Pair<String, Rule>>> listener) {
+        MultiGetRequest request = new MultiGetRequest();
+        for (int position: missing) {
+            request.add(index, rules.get(position).getKey());
+        }
+
+        client.multiGet(request, new ActionListener<>() {
+            @Override
+            public void onResponse(MultiGetResponse response) {
+                try {
+                    MultiGetItemResponse[] items = response.getResponses();
+                    for (int i = 0; i < items.length; ++i) {
+                        if (items[i].isFailed()) {
+                            listener.onFailure(items[i].getFailure().getFailure());
+                            return;
+                        }
+                        int position = missing.get(i);
+                        if (!items[i].getResponse().isExists()) {
+                            // deleted after the search
+                            continue;
+                        }
+
+                        XContentParser xcp = XContentType.JSON.xContent().createParser(
+                                xContentRegistry,
+                                LoggingDeprecationHandler.INSTANCE, items[i].getResponse().getSourceAsString()
+                        );
+                        String id = items[i].getId();
+                        long version = items[i].getResponse().getVersion();
+                        Rule rule = Rule.docParse(xcp, id, version);
+                        cache.put(new Key(indexUuid, id, version), rule);
+                        rules.set(position, Pair.of(id, rule));
+                    }
+                    rules.removeIf(rule -> rule.getValue() == null);
+                    listener.onResponse(rules);
+                } catch (IOException e) {
+                    listener.onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private String indexUuid(String index) {
+        IndexMetadata indexMetadata = clusterService.state().metadata().index(index);
+        return indexMetadata != null? indexMetadata.getIndexUUID(): IndexMetadata.INDEX_UUID_NA_VALUE;
+    }
+
+    Rule get(String indexUuid, String ruleId, long version) {
+        return cache.get(new Key(indexUuid, ruleId, version));
+    }
+
+    void put(String indexUuid, String ruleId, long version, Rule rule) {
+        cache.put(new Key(indexUuid, ruleId, version), rule);
+    }
+
+    /**
+     * Removes every cached version of the rules.
+     */
+    public void invalidate(Collection<String> ruleIds) {
+        Set<String> ids = new HashSet<>(ruleIds);
+        List<Key> keys = new ArrayList<>();
+        for (Key key: cache.keys()) {
+            if (ids.contains(key.ruleId)) {
+                keys.add(key);
+            }
+        }
+        keys.forEach(cache::invalidate);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long getHits() {
+        return cache.stats().getHits();
+    }
+
+    public long getMisses() {
+        return cache.stats().getMisses();
+    }
+
+    public long getEvictions() {
+        return cache.stats().getEvictions();
+    }
+
+    public int getCount() {
+        return cache.count();
+    }
+
+    /**
+     * Invalidates the rules in the caches of all nodes. The cache keys carry the rule version, so a lost notification
+     * only delays freeing the entries.
+     */
+    public static void invalidateClusterWide(Client client, Collection<String> ruleIds) {
+        if (ruleIds.isEmpty()) {
+            return;
+        }
+        client.execute(RuleCacheAction.INSTANCE, new RuleCacheRequest(List.copyOf(ruleIds), false), new ActionListener<>() {
+            @Override
+            public void onResponse(RuleCacheResponse response) {
+                if (response.hasFailures()) {
+                    log.warn(String.format(Locale.getDefault(), "Failed to invalidate cached rules on %d nodes", response.failures().size()));
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                log.warn("Failed to invalidate cached rules", e);
+            }
+        });
+    }
+
+    private static class Key {
+
+        private final String indexUuid;
+
+        private final String ruleId;
+
+        private final long version;
+
+        private Key(String indexUuid, String ruleId, long version) {
+            this.indexUuid = indexUuid;
+            this.ruleId = ruleId;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return version == key.version && indexUuid.equals(key.indexUuid) && ruleId.equals(key.ruleId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(indexUuid, ruleId, version);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.common.cache.Cache;
+import org.opensearch.common.cache.CacheBuilder;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.aggregation.AggregationItem;
+import org.opensearch.securityanalytics.rules.backend.FieldMappingsRegistry;
+import org.opensearch.securityanalytics.rules.engine.AggregationEvaluator;
+import org.opensearch.securityanalytics.rules.engine.CompiledSigmaRule;
+import org.opensearch.securityanalytics.rules.engine.RuleEvaluator;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.securityanalytics.transport.TransportIndexDetectorAction;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Node-local cache of the rules of detectors compiled for the in-process rule engine, so evaluating documents against a
+ * detector does not parse and compile its rules and build its literal index on every request. Entries are kept for a
+ * version of a detector, and are invalidated with the {@link DetectorCache} when a detector is indexed or deleted. Like
+ * there, rules compiled while an invalidation is in flight are not cached.
+ */
+public class RuleEvaluatorCache {
+
+    private static final Logger log = LogManager.getLogger(RuleEvaluatorCache.class);
+
+    private final Cache<String, CompiledDetector> cache;
+
+    /**
+     * bumped by every invalidation, compilations started before an invalidation are not cached.
+     */
+    private long generation;
+
+    public RuleEvaluatorCache(Settings settings) {
+        this.cache = CacheBuilder.<String, CompiledDetector>builder()
+                .setMaximumWeight(SecurityAnalyticsSettings.DETECTOR_CACHE_MAX_ENTRIES.get(settings))
+                .setExpireAfterWrite(SecurityAnalyticsSettings.DETECTOR_CACHE_EXPIRE_AFTER.get(settings))
+                .build();
+    }
+
+    /**
+     * Returns the compiled rules of the version of the detector, or null if they are not cached.
+     */
+    public CompiledDetector get(Detector detector) {
+        CompiledDetector compiled = cache.get(detector.getId());
+        return compiled != null && compiled.version == detector.getVersion()? compiled: null;
+    }
+
+    public synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Caches rules compiled from the detector and rules loaded since the generation.
+     */
+    public synchronized void put(CompiledDetector compiled, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        CompiledDetector cached = cache.get(compiled.detectorId);
+        if (cached == null || cached.version < compiled.version) {
+            cache.put(compiled.detectorId, compiled);
+        }
+    }
+
+    public synchronized void invalidate(Collection<String> detectorIds) {
+        ++generation;
+        detectorIds.forEach(cache::invalidate);
+    }
+
+    public synchronized void invalidateAll() {
+        ++generation;
+        cache.invalidateAll();
+    }
+
+    public int getCount() {
+        return cache.count();
+    }
+
+    /**
+     * The rules of a version of a detector, compiled for the in-process rule engine. The evaluator and the triggers
+     * are immutable and shared between requests, while the windows of the aggregation rules are created for every
+     * request by {@link #newAggregationEvaluator()}.
+     */
+    public static class CompiledDetector {
+
+        private final String detectorId;
+
+        private final long version;
+
+        private final RuleEvaluator evaluator;
+
+        private final CompiledTriggers triggers;
+
+        private final List<AggregationRule> aggregationRules;
+
+        private final Map<String, String> fieldMappings;
+
+        private final List<String> skippedRules;
+
+        private CompiledDetector(String detectorId, long version, RuleEvaluator evaluator, CompiledTriggers triggers,
+                                 List<AggregationRule> aggregationRules, Map<String, String> fieldMappings, List<String> skippedRules) {
+            this.detectorId = detectorId;
+            this.version = version;
+            this.evaluator = evaluator;
+            this.triggers = triggers;
+            this.aggregationRules = aggregationRules;
+            this.fieldMappings = fieldMappings;
+            this.skippedRules = skippedRules;
+        }
+
+        /**
+         * Compiles the rules of a detector. Rules which can not be evaluated in-process are reported as skipped.
+         */
+        public static CompiledDetector compile(Detector detector, List<Rule> rules) throws IOException {
+            Map<String, String> fieldMappings = FieldMappingsRegistry.get(detector.getDetectorType());
+
+            List<CompiledSigmaRule> compiledRules = new ArrayList<>();
+            List<Pair<String, Rule>> queryRules = new ArrayList<>();
+            List<AggregationRule> aggregationRules = new ArrayList<>();
+            List<String> skippedRules = new ArrayList<>();
+            for (Rule rule: rules) {
+                try {
+                    CompiledSigmaRule compiledRule = CompiledSigmaRule.compile(rule.getId(), SigmaRule.fromYaml(rule.getRule(), false), fieldMappings);
+                    if (!compiledRule.hasAggregation()) {
+                        compiledRules.add(compiledRule);
+                        queryRules.add(Pair.of(rule.getId(), rule));
+                        continue;
+                    }
+
+                    AggregationRules.AggregationRule aggregationRule = AggregationRules.parse(rule.getId(), rule);
+                    if (aggregationRule == null) {
+                        skippedRules.add(rule.getId());
+                        continue;
+                    }
+                    long windowMillis = TimeValue.parseTimeValue(AggregationRules.window(aggregationRule, detector.getSchedule()), "timeframe").millis();
+                    aggregationRules.add(new AggregationRule(compiledRule, aggregationRule.getAggregation(), windowMillis));
+                } catch (SigmaError | RuntimeException ex) {
+                    log.debug(String.format(Locale.getDefault(), "Rule %s can not be evaluated in-process", rule.getId()), ex);
+                    skippedRules.add(rule.getId());
+                }
+            }
+
+            return new CompiledDetector(detector.getId(), detector.getVersion(), new RuleEvaluator(compiledRules),
+                    CompiledTriggers.compile(detector.getTriggers(), TransportIndexDetectorAction.buildDocLevelQueries(queryRules)),
+                    aggregationRules, fieldMappings, skippedRules);
+        }
+
+        /**
+         * Returns an evaluator of the aggregation rules with empty windows, or null if there are no aggregation rules.
+         */
+        public AggregationEvaluator newAggregationEvaluator() {
+            if (aggregationRules.isEmpty()) {
+                return null;
+            }
+            return new AggregationEvaluator(aggregationRules.stream()
+                    .map(rule -> new AggregationEvaluator.WindowedRule(rule.rule, rule.aggregation, rule.windowMillis, fieldMappings))
+                    .collect(Collectors.toList()));
+        }
+
+        public String getDetectorId() {
+            return detectorId;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public RuleEvaluator getEvaluator() {
+            return evaluator;
+        }
+
+        public CompiledTriggers getTriggers() {
+            return triggers;
+        }
+
+        public List<String> getSkippedRules() {
+            return skippedRules;
+        }
+    }
+
+    private static class AggregationRule {
+
+        private final CompiledSigmaRule rule;
+
+        private final AggregationItem aggregation;
+
+        private final long windowMillis;
+
+        private AggregationRule(CompiledSigmaRule rule, AggregationItem aggregation, long windowMillis) {
+            this.rule = rule;
+            this.aggregation = aggregation;
+            this.windowMillis = windowMillis;
+        }
+    }
+}
@@ -8,13 +8,16 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.OpenSearchStatusException;
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.ActionRunnable;
+import org.opensearch.action.DocWriteRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexRequest;
 import org.opensearch.action.admin.indices.create.CreateIndexResponse;
-import org.opensearch.action.bulk.BulkRequest;
 import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.delete.DeleteRequest;
 import org.opensearch.action.index.IndexRequest;
 import org.opensearch.action.search.SearchRequest;
 import org.opensearch.action.search.SearchResponse;
+import org.opensearch.action.support.GroupedActionListener;
 import org.opensearch.action.support.WriteRequest;
 import org.opensearch.action.support.master.AcknowledgedResponse;
 import org.opensearch.client.Client;
@@ -23,26 +26,29 @@ import org.opensearch.cluster.health.ClusterIndexHealth;
 import org.opensearch.cluster.metadata.IndexMetadata;
 import org.opensearch.cluster.routing.IndexRoutingTable;
 import org.opensearch.cluster.service.ClusterService;
+import org.opensearch.common.CheckedSupplier;
 import org.opensearch.common.io.PathUtils;
+import org.opensearch.common.settings.ClusterSettings;
 import org.opensearch.common.settings.Settings;
+import org.opensearch.common.unit.ByteSizeValue;
 import org.opensearch.common.unit.TimeValue;
 import org.opensearch.common.xcontent.ToXContent;
 import org.opensearch.common.xcontent.XContentFactory;
-import org.opensearch.index.query.QueryBuilders;
-import org.opensearch.index.reindex.BulkByScrollResponse;
-import org.opensearch.index.reindex.DeleteByQueryAction;
-import org.opensearch.index.reindex.DeleteByQueryRequestBuilder;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.search.SearchHit;
 import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.SecurityAnalyticsPlugin;
 import org.opensearch.securityanalytics.model.Detector;
 import org.opensearch.securityanalytics.model.Rule;
 import org.opensearch.securityanalytics.rules.backend.OSQueryBackend;
 import org.opensearch.securityanalytics.rules.backend.QueryBackend;
 import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
 import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
 import org.opensearch.threadpool.ThreadPool;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
@@ -52,7 +58,9 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -67,18 +75,43 @@ public class RuleIndices {
 
     private static final Logger log = LogManager.getLogger(RuleIndices.class);
 
+    private static final int RULE_CONVERSION_CHUNK_SIZE = 100;
+
     private final Client client;
 
     private final ClusterService clusterService;
 
     private final ThreadPool threadPool;
 
+    private final CompiledRulesCache compiledRulesCache;
+
+    private volatile int bulkMaxDocs;
+
+    private volatile ByteSizeValue bulkMaxBytes;
+
+    private volatile int bulkMaxInFlight;
+
+    private volatile int bulkMaxRetries;
+
     private static FileSystem fs;
 
-    public RuleIndices(Client client, ClusterService clusterService, ThreadPool threadPool) {
+    public RuleIndices(Client client, ClusterService clusterService, ThreadPool threadPool, CompiledRulesCache compiledRulesCache) {
         this.client = client;
         this.clusterService = clusterService;
         this.threadPool = threadPool;
+        this.compiledRulesCache = compiledRulesCache;
+
+        Settings settings = clusterService.getSettings();
+        this.bulkMaxDocs = SecurityAnalyticsSettings.RULE_BULK_MAX_DOCS.get(settings);
+        this.bulkMaxBytes = SecurityAnalyticsSettings.RULE_BULK_MAX_BYTES.get(settings);
+        this.bulkMaxInFlight = SecurityAnalyticsSettings.RULE_BULK_MAX_IN_FLIGHT.get(settings);
+        this.bulkMaxRetries = SecurityAnalyticsSettings.RULE_BULK_MAX_RETRIES.get(settings);
+
+        ClusterSettings clusterSettings = clusterService.getClusterSettings();
+        clusterSettings.addSettingsUpdateConsumer(SecurityAnalyticsSettings.RULE_BULK_MAX_DOCS, it -> bulkMaxDocs = it);
+        clusterSettings.addSettingsUpdateConsumer(SecurityAnalyticsSettings.RULE_BULK_MAX_BYTES, it -> bulkMaxBytes = it);
+        clusterSettings.addSettingsUpdateConsumer(SecurityAnalyticsSettings.RULE_BULK_MAX_IN_FLIGHT, it -> bulkMaxInFlight = it);
+        clusterSettings.addSettingsUpdateConsumer(SecurityAnalyticsSettings.RULE_BULK_MAX_RETRIES, it -> bulkMaxRetries = it);
     }
 
     public static String ruleMappings() throws IOException {
@@ -94,20 +127,18 @@ public class RuleIndices {
         }
     }
 
-    public void loadRules(List<Rule> rules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout,
-                          ActionListener<BulkResponse> actionListener, boolean isPrepackaged) throws IOException {
+    public void loadRules(List<CompiledRulesCache.CompiledRule> rules, List<String> staleRuleIds, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout,
+                          ActionListener<BulkResponse> actionListener, boolean isPrepackaged) {
         String ruleIndex = getRuleIndex(isPrepackaged);
-        BulkRequest bulkRequest = new BulkRequest().setRefreshPolicy(refreshPolicy).timeout(indexTimeout);
 
-        for (Rule rule: rules) {
-            IndexRequest indexRequest = new IndexRequest(ruleIndex)
-                    .id(rule.getId())
-                    .source(rule.toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true"))))
-                    .timeout(indexTimeout);
+        Stream<CheckedSupplier<DocWriteRequest<?>, IOException>> indexRequests = rules.stream().<CheckedSupplier<DocWriteRequest<?>, IOException>>map(rule -> () -> new IndexRequest(ruleIndex)
+                .id(rule.getRule().getId())
+                .source(rule.getRule().toXContent(XContentFactory.jsonBuilder(), new ToXContent.MapParams(Map.of("with_type", "true", Rule.RULE_HASH, rule.getDocHash()))))
+                .timeout(indexTimeout));
+        Stream<CheckedSupplier<DocWriteRequest<?>, IOException>> deleteRequests = staleRuleIds.stream().<CheckedSupplier<DocWriteRequest<?>, IOException>>map(staleRuleId -> () -> new DeleteRequest(ruleIndex, staleRuleId));
 
-            bulkRequest.add(indexRequest);
-        }
-        client.bulk(bulkRequest, actionListener);
+        new StreamingBulkLoader<>(client, threadPool, ruleIndex, Stream.concat(indexRequests, deleteRequests).iterator(), CheckedSupplier::get,
+                bulkMaxDocs, bulkMaxBytes, bulkMaxInFlight, bulkMaxRetries, indexTimeout, refreshPolicy, actionListener).start();
     }
 
     public boolean ruleIndexExists(boolean isPrepackaged) {
@@ -184,26 +215,22 @@ public class RuleIndices {
     }
 
     public void importRules(WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) {
-        try {
-            final String url = Objects.requireNonNull(getClass().getClassLoader().getResource("rules/")).toURI().toString();
+        threadPool.executor(SecurityAnalyticsPlugin.RULE_IMPORT_THREAD_POOL).execute(ActionRunnable.wrap(listener, l -> {
+            try {
+                final String url = Objects.requireNonNull(getClass().getClassLoader().getResource("rules/")).toURI().toString();
 
-            if (url.contains("!")) {
-                final String[] paths = url.split("!");
-                loadQueries(paths, refreshPolicy, indexTimeout, listener);
-            } else {
-                Path path = Path.of(url);
-                loadQueries(path, refreshPolicy, indexTimeout, listener);
+                if (url.contains("!")) {
+                    final String[] paths = url.split("!");
+                    loadQueries(paths, refreshPolicy, indexTimeout, l);
+                } else {
+                    Path path = Path.of(url);
+                    loadQueries(path, refreshPolicy, indexTimeout, l);
+                }
+            } catch (URISyntaxException | IOException ex) {
+                log.info(ex.getMessage());
+                l.onFailure(ex);
             }
-        } catch (URISyntaxException | IOException | SigmaError ex) {
-            log.info(ex.getMessage());
-        }
-    }
-
-    public void deleteRules(ActionListener<BulkByScrollResponse> listener) {
-        new DeleteByQueryRequestBuilder(client, DeleteByQueryAction.INSTANCE)
-                .source(Rule.PRE_PACKAGED_RULES_INDEX)
-                .filter(QueryBuilders.matchAllQuery())
-                .execute(listener);
+        }));
     }
 
     public void countRules(ActionListener<SearchResponse> listener) {
@@ -218,7 +245,7 @@ public class RuleIndices {
         listOfRules.forEach(path -> {
             try {
                 if (Files.isDirectory(path)) {
-                    rules.addAll(getRules(Files.list(path).collect(Collectors.toList())));
+                    rules.addAll(getRules(Files.list(path).sorted().collect(Collectors.toList())));
                 } else {
                     rules.add(Files.readString(path, Charset.defaultCharset()));
                 }
@@ -230,10 +257,10 @@ public class RuleIndices {
         return rules;
     }
 
-    private void loadQueries(Path path, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException, SigmaError {
+    private void loadQueries(Path path, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException {
         Stream<Path> folder = Files.list(path);
-        List<Path> folderPaths = folder.collect(Collectors.toList());
-        Map<String, List<String>> logIndexToRules = new HashMap<>();
+        List<Path> folderPaths = folder.sorted().collect(Collectors.toList());
+        Map<String, List<String>> logIndexToRules = new LinkedHashMap<>();
 
         for (Path folderPath: folderPaths) {
             List<String> rules = getRules(List.of(folderPath));
@@ -253,17 +280,156 @@ public class RuleIndices {
         return folder.substring(idx+1);
     }
 
-    private void ingestQueries(Map<String, List<String>> logIndexToRules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws SigmaError, IOException {
-        List<Rule> queries = new ArrayList<>();
+    private void ingestQueries(Map<String, List<String>> logIndexToRules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException {
+        compileRules(logIndexToRules, new ActionListener<>() {
+            @Override
+            public void onResponse(CompiledRulesCache.CompiledRules compiledRules) {
+                syncRules(compiledRules, refreshPolicy, indexTimeout, listener);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Converts the bundled rules, reusing the cached conversion for every rule whose source hash is unchanged.
+     * Rules which need conversion are split into chunks converted in parallel on the rule import thread pool, and
+     * the results are merged back in category and file order.
+     */
+    private void compileRules(Map<String, List<String>> logIndexToRules, ActionListener<CompiledRulesCache.CompiledRules> listener) throws IOException {
+        List<String> allSourceHashes = new ArrayList<>();
+        List<RuleConversionChunk> chunks = new ArrayList<>();
+        for (Map.Entry<String, List<String>> logIndexToRule: logIndexToRules.entrySet()) {
+            String fieldMappingsHash = fieldMappingsHash(logIndexToRule.getKey());
+            for (String ruleStr: logIndexToRule.getValue()) {
+                allSourceHashes.add(CompiledRulesCache.sourceHash(logIndexToRule.getKey(), fieldMappingsHash, ruleStr));
+            }
+        }
 
+        String rulesHash = CompiledRulesCache.rulesHash(allSourceHashes);
+        CompiledRulesCache.CompiledRules compiledRules = compiledRulesCache.get(rulesHash);
+        if (compiledRules != null) {
+            listener.onResponse(compiledRules);
+            return;
+        }
+
+        CompiledRulesCache.CompiledRules previous = compiledRulesCache.latest();
+        CompiledRulesCache.CompiledRule[] rules = new CompiledRulesCache.CompiledRule[allSourceHashes.size()];
+        int position = 0;
         for (Map.Entry<String, List<String>> logIndexToRule: logIndexToRules.entrySet()) {
-            final QueryBackend backend = new OSQueryBackend(logIndexToRule.getKey(), true, true);
-            queries.addAll(getQueries(backend, logIndexToRule.getKey(), logIndexToRule.getValue()));
+            RuleConversionChunk chunk = null;
+            for (String ruleStr: logIndexToRule.getValue()) {
+                String sourceHash = allSourceHashes.get(position);
+                CompiledRulesCache.CompiledRule cached = previous != null? previous.getBySourceHash(sourceHash): null;
+                if (cached != null) {
+                    rules[position] = cached;
+                } else {
+                    if (chunk == null || chunk.size() == RULE_CONVERSION_CHUNK_SIZE) {
+                        chunk = new RuleConversionChunk(logIndexToRule.getKey());
+                        chunks.add(chunk);
+                    }
+                    chunk.add(position, sourceHash, ruleStr);
+                }
+                ++position;
+            }
+        }
+
+        if (chunks.isEmpty()) {
+            onRulesCompiled(rulesHash, rules, 0, listener);
+            return;
+        }
+
+        final int converted = allSourceHashes.size() - (int) Arrays.stream(rules).filter(Objects::nonNull).count();
+        GroupedActionListener<RuleConversionChunk> chunkListener = new GroupedActionListener<>(new ActionListener<>() {
+            @Override
+            public void onResponse(Collection<RuleConversionChunk> convertedChunks) {
+                for (RuleConversionChunk convertedChunk: convertedChunks) {
+                    for (int idx = 0; idx < convertedChunk.size(); ++idx) {
+                        rules[convertedChunk.positions.get(idx)] = convertedChunk.compiledRules.get(idx);
+                    }
+                }
+                onRulesCompiled(rulesHash, rules, converted, listener);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        }, chunks.size());
+
+        for (RuleConversionChunk chunk: chunks) {
+            threadPool.executor(SecurityAnalyticsPlugin.RULE_IMPORT_THREAD_POOL).execute(ActionRunnable.supply(chunkListener, chunk::convert));
         }
-        loadRules(queries, refreshPolicy, indexTimeout, listener, true);
     }
 
-    private void loadQueries(String[] paths, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException, SigmaError {
+    private void onRulesCompiled(String rulesHash, CompiledRulesCache.CompiledRule[] rules, int converted, ActionListener<CompiledRulesCache.CompiledRules> listener) {
+        log.info(String.format(Locale.getDefault(), "Converted %d of %d pre-packaged rules", converted, rules.length));
+
+        CompiledRulesCache.CompiledRules compiledRules = new CompiledRulesCache.CompiledRules(rulesHash, Arrays.asList(rules));
+        compiledRulesCache.put(compiledRules);
+        listener.onResponse(compiledRules);
+    }
+
+    /**
+     * Indexes only the pre-packaged rules whose rule_hash differs from the indexed one and removes rules which are no longer bundled.
+     */
+    private void syncRules(CompiledRulesCache.CompiledRules compiledRules, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) {
+        Map<String, String> indexedHashes = new HashMap<>();
+        SearchSourceBuilder source = new SearchSourceBuilder()
+                .fetchSource(new String[]{Rule.RULE + "." + Rule.RULE_HASH}, null);
+
+        PagedSearch.search(client, source, (hits, pageListener) -> {
+            for (SearchHit hit: hits) {
+                Object rule = hit.getSourceAsMap().get(Rule.RULE);
+                indexedHashes.put(hit.getId(), rule instanceof Map? (String) ((Map<?, ?>) rule).get(Rule.RULE_HASH): null);
+            }
+            pageListener.onResponse(true);
+        }, new ActionListener<>() {
+            @Override
+            public void onResponse(Void response) {
+                List<CompiledRulesCache.CompiledRule> changedRules = new ArrayList<>();
+                for (CompiledRulesCache.CompiledRule rule: compiledRules.getRules()) {
+                    String indexedHash = indexedHashes.remove(rule.getRule().getId());
+                    if (!rule.getDocHash().equals(indexedHash)) {
+                        changedRules.add(rule);
+                    }
+                }
+                List<String> staleRuleIds = new ArrayList<>(indexedHashes.keySet());
+
+                log.info(String.format(Locale.getDefault(), "Indexing %d changed pre-packaged rules, removing %d stale rules", changedRules.size(), staleRuleIds.size()));
+                List<String> invalidatedRuleIds = new ArrayList<>(staleRuleIds);
+                changedRules.forEach(rule -> invalidatedRuleIds.add(rule.getRule().getId()));
+                loadRules(changedRules, staleRuleIds, refreshPolicy, indexTimeout, new ActionListener<>() {
+                    @Override
+                    public void onResponse(BulkResponse response) {
+                        RuleCache.invalidateClusterWide(client, invalidatedRuleIds);
+                        listener.onResponse(response);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        listener.onFailure(e);
+                    }
+                }, true);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        }, Rule.PRE_PACKAGED_RULES_INDEX);
+    }
+
+    private String fieldMappingsHash(String category) throws IOException {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream(String.format(Locale.getDefault(), "OSMapping/%s/fieldmappings.yml", category))) {
+            return is != null? CompiledRulesCache.hash(new String(is.readAllBytes(), Charset.defaultCharset())): "";
+        }
+    }
+
+    private void loadQueries(String[] paths, WriteRequest.RefreshPolicy refreshPolicy, TimeValue indexTimeout, ActionListener<BulkResponse> listener) throws IOException {
         getFS(paths[0]);
         Path path = fs.getPath(paths[1]);
         loadQueries(path, refreshPolicy, indexTimeout, listener);
@@ -277,15 +443,52 @@ public class RuleIndices {
         return fs;
     }
 
-    private List<Rule> getQueries(QueryBackend backend, String category, List<String> rules) throws SigmaError {
-        List<Rule> queries = new ArrayList<>();
-        for (String ruleStr: rules) {
-            SigmaRule rule = SigmaRule.fromYaml(ruleStr, true);
-            List<Object> ruleQueries = backend.convertRule(rule);
+    /**
+     * A bounded slice of the rules of one category, converted on a single thread with its own query backend. The
+     * queries of a rule do not depend on the chunk converting it, the fields of its unbound values being named by the
+     * rule id.
+     */
+    static class RuleConversionChunk {
+
+        private final String category;
+
+        private final List<Integer> positions = new ArrayList<>();
+
+        private final List<String> sourceHashes = new ArrayList<>();
+
+        private final List<String> rules = new ArrayList<>();
+
+        private final List<CompiledRulesCache.CompiledRule> compiledRules = new ArrayList<>();
+
+        RuleConversionChunk(String category) {
+            this.category = category;
+        }
+
+        void add(int position, String sourceHash, String rule) {
+            positions.add(position);
+            sourceHashes.add(sourceHash);
+            rules.add(rule);
+        }
+
+        int size() {
+            return positions.size();
+        }
+
+        RuleConversionChunk convert() throws IOException, SigmaError {
+            final QueryBackend backend = new OSQueryBackend(category, true, true);
+            for (int idx = 0; idx < rules.size(); ++idx) {
+                String ruleStr = rules.get(idx);
+                SigmaRule rule = SigmaRule.fromYaml(ruleStr, true);
+                List<Object> ruleQueries = backend.convertRule(rule);
+
+                Rule ruleModel = new Rule(rule.getId().toString(), NO_VERSION, rule, category, ruleQueries.stream().map(Object::toString).collect(Collectors.toList()), ruleStr);
+                compiledRules.add(new CompiledRulesCache.CompiledRule(sourceHashes.get(idx), CompiledRulesCache.docHash(ruleModel), ruleModel));
+            }
+            return this;
+        }
 
-            Rule ruleModel = new Rule(rule.getId().toString(), NO_VERSION, rule, category, ruleQueries.stream().map(Object::toString).collect(Collectors.toList()), ruleStr);
-            queries.add(ruleModel);
+        List<CompiledRulesCache.CompiledRule> getCompiledRules() {
+            return compiledRules;
         }
-        return queries;
     }
 }
\ No newline at end of file
@@ -0,0 +1,190 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.common.bytes.BytesArray;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.hash.MurmurHash3;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.commons.alerting.model.Table;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.search.sort.FieldSortBuilder;
+import org.opensearch.search.sort.SortBuilders;
+import org.opensearch.search.sort.SortOrder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Opaque continuation cursor of a findings or alerts search. The cursor carries the position of the next page and a
+ * fingerprint of the monitors and of the sort and filters of the search it was issued for, so a page is only resumed
+ * by the same search. Clients page through findings and alerts by passing back the cursor of the previous response
+ * instead of computing start indices.
+ *
+ * The position is the sort values of the last hit of the previous page when the search is run by the plugin, which
+ * resumes it with search_after instead of skipping the previous hits, or else the number of previous hits.
+ */
+public class SearchCursor {
+
+    private static final int VERSION = 2;
+
+    private final String fingerprint;
+
+    private final int offset;
+
+    private final Object[] searchAfter;
+
+    public SearchCursor(String fingerprint, int offset) {
+        this(fingerprint, offset, null);
+    }
+
+    public SearchCursor(String fingerprint, int offset, Object[] searchAfter) {
+        this.fingerprint = fingerprint;
+        this.offset = offset;
+        this.searchAfter = searchAfter;
+    }
+
+    /**
+     * @param filters the other filters of the search, such as its time range, null if unset
+     */
+    public static String fingerprint(List<String> monitorIds, Table table, Object... filters) {
+        StringBuilder search = new StringBuilder(String.join(",", monitorIds)).append('|').append(table.getSortString())
+                .append('|').append(table.getSortOrder()).append('|').append(table.getMissing())
+                .append('|').append(table.getSearchString());
+        // unset filters leave the fingerprint of the search without them unchanged
+        for (int i = 0; i < filters.length; ++i) {
+            if (filters[i] != null) {
+                search.append('|').append(i).append('=').append(filters[i]);
+            }
+        }
+        byte[] bytes = search.toString().getBytes(StandardCharsets.UTF_8);
+        MurmurHash3.Hash128 hash = MurmurHash3.hash128(bytes, 0, bytes.length, 0, new MurmurHash3.Hash128());
+        return String.format(Locale.ROOT, "%016x%016x", hash.h1, hash.h2);
+    }
+
+    /**
+     * Returns the table of the page the cursor points to, or the table itself if there is no cursor.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another search
+     */
+    public static Table resume(String cursor, List<String> monitorIds, Table table) {
+        return page(resume(cursor, fingerprint(monitorIds, table)), table);
+    }
+
+    /**
+     * Returns the decoded cursor, or null if there is no cursor.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another search
+     */
+    public static SearchCursor resume(String cursor, String fingerprint) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        SearchCursor searchCursor = decode(cursor);
+        if (!searchCursor.fingerprint.equals(fingerprint)) {
+            throw new IllegalArgumentException("The cursor was issued for another search");
+        }
+        return searchCursor;
+    }
+
+    /**
+     * Returns the table of the page a cursor points to, its start index being the number of previous hits.
+     */
+    public static Table page(SearchCursor cursor, Table table) {
+        if (cursor == null) {
+            return table;
+        }
+        return new Table(table.getSortOrder(), table.getSortString(), table.getMissing(), table.getSize(), cursor.offset, table.getSearchString());
+    }
+
+    /**
+     * Returns the cursor of the page following a page of findings, or null if it was the last page.
+     */
+    public static String next(List<String> monitorIds, Table table, int pageSize, int totalHits) {
+        return next(fingerprint(monitorIds, table), table, pageSize, totalHits, null);
+    }
+
+    /**
+     * Returns the cursor of the page following a page of hits, or null if it was the last page.
+     *
+     * @param lastSortValues the sort values of the last hit of the page, or null to resume the search by offset
+     */
+    public static String next(String fingerprint, Table table, int pageSize, int totalHits, Object[] lastSortValues) {
+        int offset = table.getStartIndex() + pageSize;
+        if (pageSize == 0 || offset >= totalHits) {
+            return null;
+        }
+        return new SearchCursor(fingerprint, offset, lastSortValues).encode();
+    }
+
+    /**
+     * Sorts and pages a search by the table, resuming it after the hits of the previous pages if there is a cursor.
+     * The hits are also sorted by the tie breaker field, so a page never ends between hits of the same sort values.
+     */
+    public static SearchSourceBuilder page(SearchSourceBuilder source, Table table, SearchCursor cursor, String tieBreaker) {
+        FieldSortBuilder sort = SortBuilders.fieldSort(table.getSortString())
+                .order(SortOrder.fromString(table.getSortOrder()));
+        if (table.getMissing() != null && !table.getMissing().isBlank()) {
+            sort.missing(table.getMissing());
+        }
+        source.sort(sort);
+        if (!tieBreaker.equals(table.getSortString())) {
+            source.sort(SortBuilders.fieldSort(tieBreaker).order(SortOrder.ASC).unmappedType("keyword"));
+        }
+
+        if (cursor != null && cursor.searchAfter != null) {
+            source.searchAfter(cursor.searchAfter);
+        } else {
+            source.from(page(cursor, table).getStartIndex());
+        }
+        return source.size(table.getSize());
+    }
+
+    public String encode() {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            out.writeVInt(VERSION);
+            out.writeString(fingerprint);
+            out.writeVInt(offset);
+            out.writeGenericValue(searchAfter);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(BytesReference.toBytes(out.bytes()));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static SearchCursor decode(String cursor) {
+        try (StreamInput in = new BytesArray(Base64.getUrlDecoder().decode(cursor)).streamInput()) {
+            if (in.readVInt() != VERSION) {
+                throw new IllegalArgumentException("Unsupported search cursor version");
+            }
+            return new SearchCursor(in.readString(), in.readVInt(), (Object[]) in.readGenericValue());
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Malformed search cursor", e);
+        }
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public Object[] getSearchAfter() {
+        return searchAfter;
+    }
+
+    /**
+     * Whether the cursor resumes its search with search_after, which only searches run by the plugin support.
+     */
+    public boolean isSearchAfter() {
+        return searchAfter != null;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.client.Client;
+import org.opensearch.common.Strings;
+import org.opensearch.commons.alerting.model.ScheduledJob;
+import org.opensearch.search.fetch.subphase.FetchSourceContext;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves which of the monitors of a findings or alerts search are shared monitors, by their names in the alerting
+ * config index. Only the results of shared monitors need to be scoped by detector, so the search of detectors with
+ * monitors of their own is not filtered on the ids of their queries or triggers at all.
+ */
+public class SharedMonitorIds {
+
+    private static final String MONITOR_NAME_PATH = "monitor.name";
+
+    /**
+     * Resolves the ids of the shared monitors among the monitors. A monitor which cannot be read is taken for a shared
+     * one, scoping its results is only slower, not wrong.
+     */
+    public static void resolve(Client client, Collection<String> monitorIds, ActionListener<Set<String>> listener) {
+        if (monitorIds.isEmpty()) {
+            listener.onResponse(Set.of());
+            return;
+        }
+
+        MultiGetRequest request = new MultiGetRequest();
+        FetchSourceContext monitorName = new FetchSourceContext(true, new String[]{MONITOR_NAME_PATH}, Strings.EMPTY_ARRAY);
+        for (String monitorId: monitorIds) {
+            request.add(new MultiGetRequest.Item(ScheduledJob.SCHEDULED_JOBS_INDEX, monitorId).fetchSourceContext(monitorName));
+        }
+        client.multiGet(request, new ActionListener<>() {
+            @Override
+            public void onResponse(MultiGetResponse response) {
+                listener.onResponse(sharedMonitorIds(response));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    static Set<String> sharedMonitorIds(MultiGetResponse response) {
+        Set<String> sharedMonitorIds = new HashSet<>();
+        for (MultiGetItemResponse item: response.getResponses()) {
+            if (item.isFailed()) {
+                sharedMonitorIds.add(item.getId());
+            } else if (item.getResponse().isExists()) {
+                Object monitor = item.getResponse().getSourceAsMap().get("monitor");
+                if (monitor instanceof Map && SharedMonitors.isSharedMonitor((String) ((Map<String, Object>) monitor).get("name"))) {
+                    sharedMonitorIds.add(item.getId());
+                }
+            }
+        }
+        return sharedMonitorIds;
+    }
+}
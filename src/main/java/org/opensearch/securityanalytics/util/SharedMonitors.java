@@ -0,0 +1,159 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.DocumentLevelTrigger;
+import org.opensearch.index.query.BoolQueryBuilder;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.script.Script;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Naming scheme of the monitors shared by the detectors watching the same log index. A shared monitor holds a copy of
+ * the queries of every member detector, with the query id, name and tags prefixed by the detector id, and the triggers
+ * of every member, with their ids and conditions prefixed the same way. A trigger therefore only fires for documents
+ * matched by queries of its own detector, and the findings and alerts of the shared monitor can be split back by
+ * detector.
+ */
+public class SharedMonitors {
+
+    public static final String MONITOR_NAME_PREFIX = "security-analytics-shared-";
+
+    private static final String SEPARATOR = "#";
+
+    public static String monitorName(String detectorType, String logIndex) {
+        return MONITOR_NAME_PREFIX + detectorType + "-" + logIndex;
+    }
+
+    public static boolean isSharedMonitor(String monitorName) {
+        return monitorName != null && monitorName.startsWith(MONITOR_NAME_PREFIX);
+    }
+
+    public static String scope(String detectorId, String value) {
+        return detectorId + SEPARATOR + value;
+    }
+
+    /**
+     * Returns the detector id of a scoped value, or null if the value is not scoped.
+     */
+    public static String detectorId(String scopedValue) {
+        int separator = scopedValue.indexOf(SEPARATOR);
+        return separator > 0? scopedValue.substring(0, separator): null;
+    }
+
+    public static String unscope(String scopedValue) {
+        return scopedValue.substring(scopedValue.indexOf(SEPARATOR) + 1);
+    }
+
+    /**
+     * The tag every query of a detector carries in a shared monitor.
+     */
+    public static String detectorTag(String detectorId) {
+        return scope(detectorId, "");
+    }
+
+    /**
+     * Matches the values of a field scoped by one of the detectors, or not scoped at all, as the values of monitors
+     * which are not shared are. The findings stats of a detector aggregate the queries matched this way, so the queries
+     * of other detectors sharing its monitors are not counted.
+     */
+    public static QueryBuilder scopedBy(String field, Collection<String> detectorIds) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+                .should(QueryBuilders.boolQuery().mustNot(QueryBuilders.wildcardQuery(field, "*" + SEPARATOR + "*")));
+        for (String detectorId: detectorIds) {
+            query.should(QueryBuilders.prefixQuery(field, detectorTag(detectorId)));
+        }
+        return query;
+    }
+
+    /**
+     * Matches the values of a field scoped by one of the detectors, as every value of a shared monitor is.
+     */
+    public static QueryBuilder ownedBy(String field, Collection<String> detectorIds) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery();
+        for (String detectorId: detectorIds) {
+            query.should(QueryBuilders.prefixQuery(field, detectorTag(detectorId)));
+        }
+        return query;
+    }
+
+    /**
+     * Limits the findings or alerts of the monitors to those of the detectors: the results of the shared monitors
+     * among them must match the scope of the detectors, the results of the other monitors all belong to the detectors.
+     * No filter is needed if none of the monitors is shared.
+     */
+    public static QueryBuilder scopedResults(String monitorIdField, Collection<String> monitorIds, Set<String> sharedMonitorIds, QueryBuilder detectorScope) {
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+                .should(QueryBuilders.boolQuery()
+                        .filter(QueryBuilders.termsQuery(monitorIdField, sharedMonitorIds))
+                        .filter(detectorScope));
+        List<String> otherMonitorIds = monitorIds.stream().filter(monitorId -> !sharedMonitorIds.contains(monitorId)).collect(Collectors.toList());
+        if (!otherMonitorIds.isEmpty()) {
+            query.should(QueryBuilders.termsQuery(monitorIdField, otherMonitorIds));
+        }
+        return query;
+    }
+
+    public static DocLevelQuery scopeQuery(String detectorId, DocLevelQuery query) {
+        List<String> tags = new ArrayList<>();
+        tags.add(detectorTag(detectorId));
+        query.getTags().forEach(tag -> tags.add(scope(detectorId, tag)));
+        return new DocLevelQuery(scope(detectorId, query.getId()), scope(detectorId, query.getName()), query.getQuery(), tags);
+    }
+
+    /**
+     * Returns the queries of the detector among the queries of a shared monitor finding, as the detector would see
+     * them with a monitor of its own.
+     */
+    public static List<DocLevelQuery> queriesOf(String detectorId, List<DocLevelQuery> queries) {
+        List<DocLevelQuery> detectorQueries = new ArrayList<>();
+        for (DocLevelQuery query: queries) {
+            if (!detectorId.equals(detectorId(query.getId()))) {
+                continue;
+            }
+            List<String> tags = query.getTags().stream()
+                    .filter(tag -> !tag.equals(detectorTag(detectorId)))
+                    .map(SharedMonitors::unscope)
+                    .filter(tag -> !CompiledTriggers.isTriggerTag(tag))
+                    .collect(Collectors.toList());
+            detectorQueries.add(new DocLevelQuery(unscope(query.getId()), unscope(query.getName()), query.getQuery(), tags));
+        }
+        return detectorQueries;
+    }
+
+    /**
+     * Returns the ids of the detectors owning the queries, in order of appearance.
+     */
+    public static Set<String> detectorIds(List<DocLevelQuery> queries) {
+        Set<String> detectorIds = new LinkedHashSet<>();
+        for (DocLevelQuery query: queries) {
+            String detectorId = detectorId(query.getId());
+            if (detectorId != null) {
+                detectorIds.add(detectorId);
+            }
+        }
+        return detectorIds;
+    }
+
+    /**
+     * Builds the trigger of the detector in a shared monitor, for queries tagged by {@link CompiledTriggers} before
+     * they were scoped. Every clause of the condition only refers to queries of the detector.
+     */
+    public static DocumentLevelTrigger scopeTrigger(String detectorId, DetectorTrigger trigger) {
+        Script condition = CompiledTriggers.condition(CompiledTriggers.conditionTags(trigger).stream()
+                .map(tag -> scope(detectorId, tag))
+                .collect(Collectors.toList()));
+        return new DocumentLevelTrigger(scope(detectorId, trigger.getId()), trigger.getName(), trigger.getSeverity(), trigger.getActions(), condition);
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshRequest;
+import org.opensearch.action.admin.indices.refresh.RefreshResponse;
+import org.opensearch.action.bulk.BackoffPolicy;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.client.Client;
+import org.opensearch.common.CheckedFunction;
+import org.opensearch.common.unit.ByteSizeValue;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.threadpool.ThreadPool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Writes a stream of documents to an index as a sequence of bounded bulk requests.
+ *
+ * Requests are built lazily, only when the chunk they belong to is assembled, so at most maxInFlight chunks are held
+ * in memory. A chunk is closed once it reaches maxDocs documents or maxBytes estimated bytes. Items which fail with a
+ * retriable status are resent with exponential backoff, up to maxRetries times. The target index is refreshed once,
+ * after the last chunk, if the requested refresh policy is not NONE. The listener receives a single BulkResponse
+ * aggregating the final result of every item.
+ */
+public class StreamingBulkLoader<T> {
+
+    private static final Logger log = LogManager.getLogger(StreamingBulkLoader.class);
+
+    private final Client client;
+
+    private final ThreadPool threadPool;
+
+    private final String index;
+
+    private final Iterator<T> items;
+
+    private final CheckedFunction<T, DocWriteRequest<?>, IOException> toRequest;
+
+    private final int maxDocs;
+
+    private final long maxBytes;
+
+    private final int maxInFlight;
+
+    private final int maxRetries;
+
+    private final TimeValue timeout;
+
+    private final WriteRequest.RefreshPolicy refreshPolicy;
+
+    private final ActionListener<BulkResponse> listener;
+
+    private final List<BulkItemResponse> responses = new ArrayList<>();
+
+    private int inFlight = 0;
+
+    private long tookInMillis = 0L;
+
+    private boolean failed = false;
+
+    private Exception failure = null;
+
+    public StreamingBulkLoader(Client client, ThreadPool threadPool, String index, Iterator<T> items,
+                               CheckedFunction<T, DocWriteRequest<?>, IOException> toRequest, int maxDocs, ByteSizeValue maxBytes,
+                               int maxInFlight, int maxRetries, TimeValue timeout, WriteRequest.RefreshPolicy refreshPolicy,
+                               ActionListener<BulkResponse> listener) {
+        this.client = client;
+        this.threadPool = threadPool;
+        this.index = index;
+        this.items = items;
+        this.toRequest = toRequest;
+        this.maxDocs = maxDocs;
+        this.maxBytes = maxBytes.getBytes();
+        this.maxInFlight = maxInFlight;
+        this.maxRetries = maxRetries;
+        this.timeout = timeout;
+        this.refreshPolicy = refreshPolicy;
+        this.listener = listener;
+    }
+
+    public void start() {
+        List<BulkRequest> chunks = new ArrayList<>();
+        synchronized (this) {
+            BulkRequest chunk;
+            while (inFlight < maxInFlight && (chunk = nextChunk()) != null) {
+                ++inFlight;
+                chunks.add(chunk);
+            }
+        }
+
+        Exception e = takeFailure();
+        if (e != null) {
+            listener.onFailure(e);
+            return;
+        }
+        if (chunks.isEmpty()) {
+            finish();
+        }
+        for (BulkRequest chunk: chunks) {
+            send(chunk, BackoffPolicy.exponentialBackoff().iterator(), 0);
+        }
+    }
+
+    private BulkRequest nextChunk() {
+        if (failed || !items.hasNext()) {
+            return null;
+        }
+
+        BulkRequest chunk = newBulkRequest();
+        try {
+            while (items.hasNext() && chunk.numberOfActions() < maxDocs && chunk.estimatedSizeInBytes() < maxBytes) {
+                chunk.add(toRequest.apply(items.next()));
+            }
+        } catch (IOException ex) {
+            failed = true;
+            failure = ex;
+            return null;
+        }
+        return chunk;
+    }
+
+    private BulkRequest newBulkRequest() {
+        return new BulkRequest().setRefreshPolicy(WriteRequest.RefreshPolicy.NONE).timeout(timeout);
+    }
+
+    private void send(BulkRequest chunk, Iterator<TimeValue> backoff, int attempt) {
+        client.bulk(chunk, new ActionListener<>() {
+            @Override
+            public void onResponse(BulkResponse response) {
+                onChunkResponse(chunk, response, backoff, attempt);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (attempt < maxRetries && backoff.hasNext()) {
+                    log.debug(String.format(Locale.getDefault(), "Retrying bulk chunk of %d requests to %s", chunk.numberOfActions(), index), e);
+                    retry(chunk, backoff, attempt);
+                } else {
+                    StreamingBulkLoader.this.onFailure(e);
+                }
+            }
+        });
+    }
+
+    private void onChunkResponse(BulkRequest chunk, BulkResponse response, Iterator<TimeValue> backoff, int attempt) {
+        BulkRequest retryChunk = newBulkRequest();
+        List<BulkItemResponse> completed = new ArrayList<>();
+
+        for (BulkItemResponse item: response.getItems()) {
+            if (item.isFailed() && isRetriable(item.getFailure().getStatus()) && attempt < maxRetries && backoff.hasNext()) {
+                retryChunk.add(chunk.requests().get(item.getItemId()));
+            } else {
+                completed.add(item);
+            }
+        }
+
+        synchronized (this) {
+            tookInMillis += response.getTook().millis();
+            for (BulkItemResponse item: completed) {
+                int itemId = responses.size();
+                responses.add(item.isFailed()?
+                        new BulkItemResponse(itemId, item.getOpType(), item.getFailure()):
+                        new BulkItemResponse(itemId, item.getOpType(), item.getResponse()));
+            }
+        }
+
+        if (retryChunk.numberOfActions() > 0) {
+            log.debug(String.format(Locale.getDefault(), "Retrying %d failed bulk items to %s", retryChunk.numberOfActions(), index));
+            retry(retryChunk, backoff, attempt);
+        } else {
+            onChunkCompleted();
+        }
+    }
+
+    private void retry(BulkRequest chunk, Iterator<TimeValue> backoff, int attempt) {
+        threadPool.schedule(() -> send(chunk, backoff, attempt + 1), backoff.next(), ThreadPool.Names.GENERIC);
+    }
+
+    private void onChunkCompleted() {
+        BulkRequest next;
+        boolean done;
+        synchronized (this) {
+            next = nextChunk();
+            if (next == null) {
+                --inFlight;
+            }
+            done = inFlight == 0 && !failed;
+        }
+
+        Exception e = takeFailure();
+        if (e != null) {
+            listener.onFailure(e);
+        } else if (next != null) {
+            send(next, BackoffPolicy.exponentialBackoff().iterator(), 0);
+        } else if (done) {
+            finish();
+        }
+    }
+
+    private void finish() {
+        BulkResponse response;
+        synchronized (this) {
+            response = new BulkResponse(responses.toArray(new BulkItemResponse[0]), tookInMillis);
+        }
+
+        if (refreshPolicy == WriteRequest.RefreshPolicy.NONE || response.getItems().length == 0) {
+            listener.onResponse(response);
+            return;
+        }
+
+        client.admin().indices().refresh(new RefreshRequest(index), new ActionListener<>() {
+            @Override
+            public void onResponse(RefreshResponse refreshResponse) {
+                listener.onResponse(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    private void onFailure(Exception e) {
+        synchronized (this) {
+            if (failed) {
+                return;
+            }
+            failed = true;
+        }
+        listener.onFailure(e);
+    }
+
+    private synchronized Exception takeFailure() {
+        Exception e = failure;
+        failure = null;
+        return e;
+    }
+
+    private static boolean isRetriable(RestStatus status) {
+        return status == RestStatus.TOO_MANY_REQUESTS || status.getStatus() >= 500;
+    }
+}
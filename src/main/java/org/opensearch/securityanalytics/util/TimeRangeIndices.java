@@ -0,0 +1,84 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.admin.indices.get.GetIndexRequest;
+import org.opensearch.action.admin.indices.get.GetIndexResponse;
+import org.opensearch.action.support.IndicesOptions;
+import org.opensearch.client.Client;
+import org.opensearch.cluster.metadata.IndexMetadata;
+import org.opensearch.common.unit.TimeValue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the generations of a rolled over findings or alerts history index which may hold documents of a time range.
+ * A generation only receives documents between its creation and the creation of the next generation, so the
+ * generations rolled over before the start of the range, or created after its end, are skipped instead of searched.
+ */
+public class TimeRangeIndices {
+
+    /**
+     * Documents are written a little after their timestamp, so a generation may hold documents slightly older than
+     * itself.
+     */
+    static final TimeValue WRITE_DELAY = TimeValue.timeValueHours(1);
+
+    /**
+     * Resolves the indices of an alias, or of a concrete index, which may hold documents of a time range.
+     *
+     * @param start start of the range, or null for no lower bound
+     * @param end end of the range, or null for no upper bound
+     */
+    public static void resolve(Client client, String alias, Instant start, Instant end, ActionListener<List<String>> listener) {
+        GetIndexRequest request = new GetIndexRequest()
+                .indices(alias + "*")
+                .features(GetIndexRequest.Feature.SETTINGS)
+                .indicesOptions(IndicesOptions.lenientExpandOpen());
+        client.admin().indices().getIndex(request, new ActionListener<>() {
+            @Override
+            public void onResponse(GetIndexResponse response) {
+                Map<String, Long> creationDates = new HashMap<>();
+                for (String index: response.getIndices()) {
+                    if (index.equals(alias) || index.startsWith(alias + "-")) {
+                        String creationDate = response.getSetting(index, IndexMetadata.SETTING_CREATION_DATE);
+                        creationDates.put(index, creationDate != null? Long.parseLong(creationDate): 0L);
+                    }
+                }
+                listener.onResponse(overlapping(creationDates, start, end));
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                listener.onFailure(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the generations, by creation date, which may hold documents of a time range, oldest first.
+     */
+    static List<String> overlapping(Map<String, Long> creationDates, Instant start, Instant end) {
+        List<Map.Entry<String, Long>> generations = new ArrayList<>(creationDates.entrySet());
+        generations.sort(Map.Entry.comparingByValue());
+
+        List<String> indices = new ArrayList<>();
+        for (int i = 0; i < generations.size(); ++i) {
+            long createdAt = generations.get(i).getValue();
+            boolean createdAfterEnd = end != null && createdAt - WRITE_DELAY.millis() > end.toEpochMilli();
+            boolean rolledOverBeforeStart = start != null && i + 1 < generations.size() &&
+                    generations.get(i + 1).getValue() < start.toEpochMilli();
+            if (!createdAfterEnd && !rolledOverBeforeStart) {
+                indices.add(generations.get(i).getKey());
+            }
+        }
+        return indices;
+    }
+}
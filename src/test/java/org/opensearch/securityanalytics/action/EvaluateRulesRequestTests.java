@@ -0,0 +1,38 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.junit.Assert;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class EvaluateRulesRequestTests extends OpenSearchTestCase {
+
+    public void testEvaluateRulesRequest() throws IOException {
+        EvaluateRulesRequest request = new EvaluateRulesRequest("detector_id123", List.of(
+                Map.of("EventID", 22, "HostName", "EC2AMAZ-EPO7HKA"),
+                Map.of("Event", Map.of("Channel", "Security"))
+        ));
+        Assert.assertNull(request.validate());
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        EvaluateRulesRequest newRequest = new EvaluateRulesRequest(sin);
+        Assert.assertEquals("detector_id123", newRequest.getDetectorId());
+        Assert.assertEquals(request.getDocuments(), newRequest.getDocuments());
+    }
+
+    public void testEvaluateRulesRequestWithoutDocuments() {
+        EvaluateRulesRequest request = new EvaluateRulesRequest("detector_id123", List.of());
+        Assert.assertNotNull(request.validate());
+    }
+}
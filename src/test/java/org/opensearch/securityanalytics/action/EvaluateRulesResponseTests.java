@@ -0,0 +1,46 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.action;
+
+import org.junit.Assert;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.io.stream.StreamInput;
+import org.opensearch.securityanalytics.rules.engine.AggregationFinding;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+public class EvaluateRulesResponseTests extends OpenSearchTestCase {
+
+    public void testEvaluateRulesResponse() throws IOException {
+        EvaluateRulesResponse response = new EvaluateRulesResponse(
+                "detector_id123",
+                3,
+                List.of("rule_id3"),
+                List.of(List.of("rule_id1", "rule_id2"), List.of()),
+                List.of(List.of("trigger_id1"), List.of()),
+                List.of(new AggregationFinding("rule_id4", "10.0.0.1", 11.0, Instant.ofEpochMilli(1000L)))
+        );
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        response.writeTo(out);
+
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        EvaluateRulesResponse newResponse = new EvaluateRulesResponse(sin);
+        Assert.assertEquals("detector_id123", newResponse.getDetectorId());
+        Assert.assertEquals(3, newResponse.getRulesEvaluated().intValue());
+        Assert.assertEquals(List.of("rule_id3"), newResponse.getSkippedRules());
+        Assert.assertEquals(List.of(List.of("rule_id1", "rule_id2"), List.of()), newResponse.getMatchedRules());
+        Assert.assertEquals(List.of(List.of("trigger_id1"), List.of()), newResponse.getFiredTriggers());
+        Assert.assertEquals(1, newResponse.getAggregationFindings().size());
+        AggregationFinding finding = newResponse.getAggregationFindings().get(0);
+        Assert.assertEquals("rule_id4", finding.getRuleId());
+        Assert.assertEquals("10.0.0.1", finding.getGroup());
+        Assert.assertEquals(11.0, finding.getValue(), 0.0);
+        Assert.assertEquals(Instant.ofEpochMilli(1000L), finding.getTimestamp());
+    }
+}
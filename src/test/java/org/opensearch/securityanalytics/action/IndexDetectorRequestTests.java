@@ -34,4 +34,21 @@ public class IndexDetectorRequestTests extends OpenSearchTestCase {
         Assert.assertEquals(RestRequest.Method.POST, newRequest.getMethod());
         Assert.assertNotNull(newRequest.getDetector());
     }
+
+    public void testIndexDetectorPutRequestWithUpdatedRules() throws IOException {
+        String detectorId = UUID.randomUUID().toString();
+        IndexDetectorRequest request = new IndexDetectorRequest(detectorId, WriteRequest.RefreshPolicy.IMMEDIATE, RestRequest.Method.PUT,
+                randomDetector(List.of(UUID.randomUUID().toString())), List.of("custom-1"));
+
+        BytesStreamOutput out = new BytesStreamOutput();
+        request.writeTo(out);
+
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        IndexDetectorRequest newRequest = new IndexDetectorRequest(sin);
+        Assert.assertEquals(detectorId, newRequest.getDetectorId());
+        Assert.assertEquals(RestRequest.Method.PUT, newRequest.getMethod());
+        Assert.assertEquals(List.of("custom-1"), newRequest.getUpdatedRuleIds());
+        Assert.assertEquals(List.of(), new IndexDetectorRequest(detectorId, WriteRequest.RefreshPolicy.IMMEDIATE, RestRequest.Method.PUT,
+                newRequest.getDetector()).getUpdatedRuleIds());
+    }
 }
\ No newline at end of file
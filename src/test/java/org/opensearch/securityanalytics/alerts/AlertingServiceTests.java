@@ -9,6 +9,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import org.opensearch.action.ActionListener;
 import org.opensearch.client.Client;
 import org.opensearch.commons.alerting.model.Alert;
@@ -303,4 +304,22 @@ public class AlertingServiceTests extends OpenSearchTestCase {
             }
         });
     }
-}
\ No newline at end of file
+
+    public void testAlertsSearchIsScopedToTheDetectors() {
+        String query = AlertsService.alertsSearchSource(List.of("shared_monitor_id"), Set.of("shared_monitor_id"), List.of("detector1"),
+                new Table("desc", "start_time", null, 100, 0, null), null, null, null, null).query().toString();
+
+        assertTrue(query.contains("shared_monitor_id"));
+        // alerts of the triggers of other detectors sharing the monitor are neither counted nor paged
+        assertTrue(query.contains("detector1#"));
+        assertFalse(query.contains("*#*"));
+    }
+
+    public void testAlertsSearchOfMonitorsNotSharedIsNotScoped() {
+        String query = AlertsService.alertsSearchSource(List.of("monitor_id"), Set.of(), List.of("detector1"),
+                new Table("desc", "start_time", null, 100, 0, null), null, null, null, null).query().toString();
+
+        assertTrue(query.contains("monitor_id"));
+        assertFalse(query.contains("detector1#"));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.findings;
+
+import org.junit.Assert;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.Finding;
+import org.opensearch.commons.alerting.model.FindingWithDocs;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FindingDocumentsTests extends OpenSearchTestCase {
+
+    public void testDocumentsAreFetchedOnce() {
+        MultiGetRequest request = FindingDocuments.multiGetRequest(List.of(
+                finding("1", "test_index1", List.of("doc1", "doc2")),
+                finding("2", "test_index1", List.of("doc2", "doc3")),
+                finding("3", "test_index2", List.of("doc1"))
+        ), null);
+
+        Assert.assertEquals(
+                List.of("test_index1/doc1", "test_index1/doc2", "test_index1/doc3", "test_index2/doc1"),
+                request.getItems().stream().map(item -> item.index() + "/" + item.id()).collect(Collectors.toList())
+        );
+        Assert.assertTrue(request.getItems().get(0).fetchSourceContext().fetchSource());
+        Assert.assertEquals(0, request.getItems().get(0).fetchSourceContext().includes().length);
+    }
+
+    public void testOnlyRequestedFieldsAreFetched() {
+        MultiGetRequest request = FindingDocuments.multiGetRequest(
+                List.of(finding("1", "test_index1", List.of("doc1"))),
+                List.of("EventID", "HostName")
+        );
+
+        Assert.assertEquals(1, request.getItems().size());
+        Assert.assertArrayEquals(new String[]{"EventID", "HostName"}, request.getItems().get(0).fetchSourceContext().includes());
+    }
+
+    public void testFindingsWithoutDocuments() {
+        List<FindingWithDocs> findings = FindingDocuments.withoutDocuments(List.of(finding("1", "test_index1", List.of("doc1", "doc2"))));
+
+        Assert.assertEquals(1, findings.size());
+        Assert.assertEquals(List.of("doc1", "doc2"), findings.get(0).getFinding().getRelatedDocIds());
+        Assert.assertTrue(findings.get(0).getDocuments().isEmpty());
+    }
+
+    private static Finding finding(String id, String index, List<String> docIds) {
+        return new Finding(
+                id,
+                docIds,
+                "monitor_id1",
+                "monitor_name1",
+                index,
+                List.of(new DocLevelQuery("1", "myQuery", "fieldA:valABC", List.of())),
+                Instant.now()
+        );
+    }
+}
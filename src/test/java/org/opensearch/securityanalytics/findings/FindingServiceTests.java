@@ -5,13 +5,29 @@
 
 package org.opensearch.securityanalytics.findings;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import org.apache.lucene.search.TotalHits;
 import org.opensearch.action.ActionListener;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetRequest;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.action.search.SearchRequest;
+import org.opensearch.action.search.SearchResponse;
 import org.opensearch.client.Client;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentBuilder;
+import org.opensearch.common.xcontent.XContentFactory;
 import org.opensearch.commons.alerting.model.CronSchedule;
 import org.opensearch.commons.alerting.model.DocLevelQuery;
 import org.opensearch.commons.alerting.model.Finding;
@@ -19,6 +35,9 @@ import org.opensearch.commons.alerting.model.FindingDocument;
 import org.opensearch.commons.alerting.model.FindingWithDocs;
 import org.opensearch.commons.alerting.model.Table;
 import org.opensearch.rest.RestStatus;
+import org.opensearch.search.DocValueFormat;
+import org.opensearch.search.SearchHit;
+import org.opensearch.search.SearchHits;
 import org.opensearch.securityanalytics.action.FindingDto;
 import org.opensearch.securityanalytics.action.GetDetectorAction;
 import org.opensearch.securityanalytics.action.GetDetectorRequest;
@@ -152,6 +171,92 @@ public class FindingServiceTests extends OpenSearchTestCase {
         });
     }
 
+    @SuppressWarnings("unchecked")
+    public void testGetFindings_allMonitorsOfTheDetector() {
+        FindingsService findingsService = spy(FindingsService.class);
+        Client client = mock(Client.class);
+        findingsService.setIndicesAdminClient(client);
+        mockGetDetector(client, List.of("monitor_id1", "monitor_id2", "monitor_id3"));
+
+        // the findings of all monitors are requested at once
+        List<List<String>> requestedMonitorIds = new ArrayList<>();
+        doAnswer(invocation -> {
+            requestedMonitorIds.add(invocation.getArgument(1));
+            ActionListener l = invocation.getArgument(4);
+            l.onResponse(new GetFindingsResponse(2, List.of(), null));
+            return null;
+        }).when(findingsService).getFindingsByMonitorIds(any(), any(), anyString(), any(Table.class), any(ActionListener.class));
+
+        AtomicReference<GetFindingsResponse> response = new AtomicReference<>();
+        findingsService.getFindingsByDetectorId("detector_id123", new Table("asc", "id", null, 100, 0, null),
+                ActionListener.wrap(response::set, e -> fail(e.getMessage())));
+
+        assertEquals(List.of(List.of("monitor_id1", "monitor_id2", "monitor_id3")), requestedMonitorIds);
+        assertNotNull(response.get());
+        assertEquals(2, (int) response.get().getTotalFindings());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testGetFindings_searchesAllMonitorsOfTheDetector() throws IOException {
+        Client client = mock(Client.class);
+        FindingsService findingsService = new FindingsService(client);
+        mockGetDetector(client, List.of("monitor_id1", "monitor_id2"));
+
+        List<SearchRequest> searches = new ArrayList<>();
+        SearchResponse searchResponse = mock(SearchResponse.class);
+        SearchHits hits = new SearchHits(
+                new SearchHit[]{findingHit("1", "monitor_id1", 20L), findingHit("2", "monitor_id2", 10L)},
+                new TotalHits(2, TotalHits.Relation.EQUAL_TO),
+                1.0f
+        );
+        doAnswer(invocation -> hits).when(searchResponse).getHits();
+        doAnswer(invocation -> {
+            searches.add(invocation.getArgument(0));
+            ActionListener l = invocation.getArgument(1);
+            l.onResponse(searchResponse);
+            return null;
+        }).when(client).search(any(SearchRequest.class), any(ActionListener.class));
+        // neither monitor is shared
+        doAnswer(invocation -> {
+            ActionListener l = invocation.getArgument(1);
+            l.onResponse(new MultiGetResponse(new MultiGetItemResponse[0]));
+            return null;
+        }).when(client).multiGet(any(MultiGetRequest.class), any(ActionListener.class));
+
+        AtomicReference<GetFindingsResponse> response = new AtomicReference<>();
+        findingsService.getFindingsByDetectorId("detector_id123", null, new Table("desc", "timestamp", null, 100, 0, null),
+                null, null, false, null, ActionListener.wrap(response::set, e -> fail(e.getMessage())));
+
+        assertEquals(1, searches.size());
+        assertTrue(searches.get(0).source().query().toString().contains("monitor_id2"));
+        assertFalse(searches.get(0).source().query().toString().contains("detector_id123#"));
+        assertNotNull(response.get());
+        assertEquals(2, (int) response.get().getTotalFindings());
+        assertEquals(List.of("1", "2"), response.get().getFindings().stream().map(FindingDto::getId).collect(Collectors.toList()));
+        assertTrue(response.get().getFindings().stream().allMatch(finding -> "detector_id123".equals(finding.getDetectorId())));
+    }
+
+    public void testFindingsSearchIsScopedToTheDetectors() {
+        String query = FindingsService.findingsSearchSource(List.of("shared_monitor_id", "monitor_id"), Set.of("shared_monitor_id"),
+                List.of("detector1", "detector2"), new Table("desc", "timestamp", null, 100, 0, null), null, null).query().toString();
+
+        assertTrue(query.contains("shared_monitor_id"));
+        assertTrue(query.contains("monitor_id"));
+        // findings of other detectors sharing the monitor are neither counted nor paged
+        assertTrue(query.contains("detector1#"));
+        assertTrue(query.contains("detector2#"));
+        assertFalse(query.contains("*#*"));
+    }
+
+    public void testFindingsSearchOfMonitorsNotSharedIsNotScoped() {
+        String query = FindingsService.findingsSearchSource(List.of("monitor_id"), Set.of(), List.of("detector1"),
+                new Table("desc", "timestamp", null, 100, 0, null), null, null).query().toString();
+
+        assertTrue(query.contains("monitor_id"));
+        assertFalse(query.contains("nested"));
+        assertFalse(query.contains("detector1#"));
+    }
+
     public void testGetFindings_getFindingsByMonitorIdFailure() {
 
         FindingsService findingsService = spy(FindingsService.class);
@@ -249,4 +354,52 @@ public class FindingServiceTests extends OpenSearchTestCase {
             }
         });
     }
+
+    @SuppressWarnings("unchecked")
+    private static void mockGetDetector(Client client, List<String> monitorIds) {
+        Detector detector = new Detector(
+                "detector_id123",
+                0L,
+                "test-monitor",
+                true,
+                new CronSchedule("31 * * * *", ZoneId.of("Asia/Kolkata"), Instant.ofEpochSecond(1538164858L)),
+                Instant.now(),
+                Instant.now(),
+                Detector.DetectorType.OTHERS_APPLICATION,
+                null,
+                List.of(),
+                List.of(),
+                monitorIds,
+                DetectorMonitorConfig.getRuleIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
+                null,
+                DetectorMonitorConfig.getAlertsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
+                null,
+                null,
+                DetectorMonitorConfig.getFindingsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType())
+        );
+        GetDetectorResponse getDetectorResponse = new GetDetectorResponse("detector_id123", 1L, RestStatus.OK, detector);
+        doAnswer(invocation -> {
+            ActionListener l = invocation.getArgument(2);
+            l.onResponse(getDetectorResponse);
+            return null;
+        }).when(client).execute(eq(GetDetectorAction.INSTANCE), any(GetDetectorRequest.class), any(ActionListener.class));
+    }
+
+    private static SearchHit findingHit(String id, String monitorId, long timestamp) throws IOException {
+        Finding finding = new Finding(
+                id,
+                List.of("doc1"),
+                monitorId,
+                "monitor_name1",
+                "test_index1",
+                List.of(new DocLevelQuery("1", "myQuery", "fieldA:valABC", List.of())),
+                Instant.ofEpochMilli(timestamp)
+        );
+        XContentBuilder builder = XContentFactory.jsonBuilder();
+        finding.toXContent(builder, ToXContent.EMPTY_PARAMS);
+        SearchHit hit = new SearchHit(0, id, Map.of(), Map.of());
+        hit.sourceRef(BytesReference.bytes(builder));
+        hit.sortValues(new Object[]{timestamp, id}, new DocValueFormat[]{DocValueFormat.RAW, DocValueFormat.RAW});
+        return hit;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.findings;
+
+import org.junit.Assert;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.securityanalytics.action.GetFindingsStatsRequest;
+import org.opensearch.securityanalytics.action.GetFindingsStatsResponse.StatsBucket;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.util.DetectorMetadata;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FindingsStatsTests extends OpenSearchTestCase {
+
+    public void testBucketsOfSharedMonitorsAreMerged() {
+        List<StatsBucket> buckets = FindingsStats.mergeBuckets(List.of(
+                new StatsBucket("rule1", 3L),
+                new StatsBucket("detector1#rule2", 2L),
+                new StatsBucket("detector2#rule1", 2L),
+                new StatsBucket("detector2#rule2", 1L),
+                new StatsBucket("rule3", 1L)
+        ), 2);
+
+        Assert.assertEquals(List.of("rule1", "rule2"), buckets.stream().map(StatsBucket::getKey).collect(Collectors.toList()));
+        Assert.assertEquals(List.of(5L, 3L), buckets.stream().map(StatsBucket::getCount).collect(Collectors.toList()));
+    }
+
+    public void testSearchOfDetectorType() {
+        GetFindingsStatsRequest request = new GetFindingsStatsRequest(null, Detector.DetectorType.WINDOWS, null, null, "1h", 10);
+        Assert.assertNull(request.validate());
+
+        SearchSourceBuilder source = FindingsStats.searchSource(request, null);
+        Assert.assertEquals(0, source.size());
+        Assert.assertFalse(source.query().toString().contains("monitor_id"));
+        Assert.assertEquals(3, source.aggregations().count());
+    }
+
+    public void testSearchOfDetectorInTimeRange() {
+        GetFindingsStatsRequest request = new GetFindingsStatsRequest("detector1", null, Instant.ofEpochMilli(1000L), Instant.ofEpochMilli(2000L), "5m", 10);
+        DetectorMetadata detector = new DetectorMetadata("detector1", 1L, "windows", List.of("monitor1", "monitor2"), ".opensearch-sap-findings-windows", ".opensearch-sap-alerts-windows");
+
+        String query = FindingsStats.searchSource(request, detector).query().toString();
+        Assert.assertTrue(query.contains("monitor1"));
+        Assert.assertTrue(query.contains("detector1#"));
+        Assert.assertTrue(query.contains("\"from\" : 1000"));
+        Assert.assertTrue(query.contains("\"to\" : 2000"));
+    }
+
+    public void testValidation() {
+        Assert.assertNotNull(new GetFindingsStatsRequest(null, null, null, null, "1h", 10).validate());
+        Assert.assertNotNull(new GetFindingsStatsRequest("detector1", null, null, null, "hourly", 10).validate());
+        Assert.assertNotNull(new GetFindingsStatsRequest("detector1", null, Instant.ofEpochMilli(2000L), Instant.ofEpochMilli(1000L), "1h", 10).validate());
+        Assert.assertNotNull(new GetFindingsStatsRequest("detector1", null, null, null, "1h", 0).validate());
+    }
+}
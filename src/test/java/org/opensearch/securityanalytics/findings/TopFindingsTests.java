@@ -0,0 +1,62 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.findings;
+
+import org.junit.Assert;
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.Finding;
+import org.opensearch.search.sort.SortOrder;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class TopFindingsTests extends OpenSearchTestCase {
+
+    public void testLatestFindingsOfAllTypes() {
+        TopFindings topFindings = new TopFindings(SortOrder.DESC, 3);
+        topFindings.addAll(List.of(finding("windows1", 50L), finding("windows2", 30L), finding("windows3", 10L)));
+        topFindings.addAll(List.of(finding("network1", 40L), finding("network2", 20L)));
+        topFindings.addAll(List.of());
+        topFindings.addAll(List.of(finding("dns1", 60L)));
+
+        Assert.assertEquals(List.of("dns1", "windows1", "network1"), ids(topFindings.page(0)));
+    }
+
+    public void testPageSkipsTheFirstFindings() {
+        TopFindings topFindings = new TopFindings(SortOrder.ASC, 4);
+        topFindings.addAll(List.of(finding("windows1", 10L), finding("windows2", 30L), finding("windows3", 50L)));
+        topFindings.addAll(List.of(finding("network1", 20L), finding("network2", 40L)));
+
+        Assert.assertEquals(List.of("windows2", "network2"), ids(topFindings.page(2)));
+        Assert.assertEquals(List.of(), topFindings.page(4));
+    }
+
+    public void testTiesAreBrokenById() {
+        TopFindings topFindings = new TopFindings(SortOrder.DESC, 2);
+        topFindings.addAll(List.of(finding("windows2", 10L)));
+        topFindings.addAll(List.of(finding("network1", 10L)));
+        topFindings.addAll(List.of(finding("dns1", 10L)));
+
+        Assert.assertEquals(List.of("dns1", "network1"), ids(topFindings.page(0)));
+    }
+
+    private static List<String> ids(List<Finding> findings) {
+        return findings.stream().map(Finding::getId).collect(Collectors.toList());
+    }
+
+    private static Finding finding(String id, long timestamp) {
+        return new Finding(
+                id,
+                List.of("doc1"),
+                "monitor_id1",
+                "monitor_name1",
+                "test_index1",
+                List.of(new DocLevelQuery("1", "myQuery", "fieldA:valABC", List.of())),
+                Instant.ofEpochMilli(timestamp)
+        );
+    }
+}
@@ -12,6 +12,7 @@ import org.opensearch.test.OpenSearchTestCase;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import static org.opensearch.securityanalytics.TestHelpers.randomDetector;
 import static org.opensearch.securityanalytics.TestHelpers.randomUser;
@@ -29,6 +30,22 @@ public class WriteableTests extends OpenSearchTestCase {
         Assert.assertEquals("Round tripping Detector doesn't work", detector, newDetector);
     }
 
+    public void testDetectorWithBucketMonitorsAsStream() throws IOException {
+        Detector detector = randomDetector(List.of());
+        detector.setInputs(List.of(new DetectorInput("", List.of(), List.of(), List.of())));
+        detector.setMonitorIds(List.of("docLevelMonitor", "bucketMonitor"));
+        detector.setBucketMonitorIds(Map.of("host.hostname|5m", "bucketMonitor"));
+        detector.setFindingsIndex(null);
+        BytesStreamOutput out = new BytesStreamOutput();
+        detector.writeTo(out);
+        StreamInput sin = StreamInput.wrap(out.bytes().toBytesRef().bytes);
+        Detector newDetector = new Detector(sin);
+        Assert.assertEquals("Round tripping Detector doesn't work", detector, newDetector);
+        Assert.assertEquals(detector.getBucketMonitorIds(), newDetector.getBucketMonitorIds());
+        Assert.assertEquals(List.of("docLevelMonitor"), newDetector.getDocLevelMonitorIds());
+        Assert.assertNull(newDetector.getFindingsIndex());
+    }
+
     public void testUserAsStream() throws IOException {
         User user = randomUser();
         BytesStreamOutput out = new BytesStreamOutput();
@@ -224,6 +224,58 @@ public class DetectorRestApiIT extends SecurityAnalyticsRestTestCase {
         Assert.assertEquals(6, noOfSigmaRuleMatches);
     }
 
+    @SuppressWarnings("unchecked")
+    public void testEvaluatingDocumentsAgainstADetector() throws IOException {
+        String index = createTestIndex(randomIndex(), windowsIndexMapping());
+
+        // Execute CreateMappingsAction to add alias mapping for index
+        Request createMappingRequest = new Request("POST", SecurityAnalyticsPlugin.MAPPER_BASE_URI);
+        // both req params and req body are supported
+        createMappingRequest.setJsonEntity(
+                "{ \"index_name\":\"" + index + "\"," +
+                        "  \"rule_topic\":\"windows\", " +
+                        "  \"partial\":true" +
+                        "}"
+        );
+
+        Response response = client().performRequest(createMappingRequest);
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+
+        String rule = randomRule();
+
+        Response createResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.RULE_BASE_URI, Collections.singletonMap("category", "windows"),
+                new StringEntity(rule), new BasicHeader("Content-Type", "application/json"));
+        Assert.assertEquals("Create rule failed", RestStatus.CREATED, restStatus(createResponse));
+
+        String ruleId = asMap(createResponse).get("_id").toString();
+        DetectorInput input = new DetectorInput("windows detector for security analytics", List.of("windows"), List.of(new DetectorRule(ruleId)),
+                List.of());
+        Detector detector = randomDetectorWithInputs(List.of(input));
+
+        createResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.DETECTOR_BASE_URI, Collections.emptyMap(), toHttpEntity(detector));
+        Assert.assertEquals("Create detector failed", RestStatus.CREATED, restStatus(createResponse));
+
+        String detectorId = asMap(createResponse).get("_id").toString();
+
+        // the rule matches EventID 22, which the windows field mappings map to event_uid
+        String documents = "{ \"documents\": [ { \"event_uid\": 22 }, { \"event_uid\": 4624 } ] }";
+        // the second request is served by the rules compiled for the first one
+        for (int i = 0; i < 2; ++i) {
+            Response evaluateResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.DETECTOR_BASE_URI + "/" + detectorId + "/_evaluate", Collections.emptyMap(),
+                    new StringEntity(documents), new BasicHeader("Content-Type", "application/json"));
+            Assert.assertEquals("Evaluate rules failed", RestStatus.OK, restStatus(evaluateResponse));
+
+            Map<String, Object> responseBody = asMap(evaluateResponse);
+            Assert.assertEquals(detectorId, responseBody.get("_id"));
+            Assert.assertEquals(1, responseBody.get("rules_evaluated"));
+
+            List<Map<String, Object>> results = (List<Map<String, Object>>) responseBody.get("results");
+            Assert.assertEquals(2, results.size());
+            Assert.assertEquals(List.of(ruleId), results.get(0).get("matched_rules"));
+            Assert.assertEquals(List.of(), results.get(1).get("matched_rules"));
+        }
+    }
+
     public void testUpdateADetector() throws IOException {
         String index = createTestIndex(randomIndex(), windowsIndexMapping());
 
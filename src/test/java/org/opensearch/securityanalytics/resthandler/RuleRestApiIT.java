@@ -396,6 +396,60 @@ public class RuleRestApiIT extends SecurityAnalyticsRestTestCase {
         Assert.assertEquals(5, noOfSigmaRuleMatches);
     }
 
+    @SuppressWarnings("unchecked")
+    public void testUpdatingUsedRuleUpdatesTheMonitorQuery() throws IOException {
+        String index = createTestIndex(randomIndex(), windowsIndexMapping());
+
+        Request createMappingRequest = new Request("POST", SecurityAnalyticsPlugin.MAPPER_BASE_URI);
+        createMappingRequest.setJsonEntity(
+                "{ \"index_name\":\"" + index + "\"," +
+                        "  \"rule_topic\":\"windows\", " +
+                        "  \"partial\":true" +
+                        "}"
+        );
+
+        Response response = client().performRequest(createMappingRequest);
+        assertEquals(HttpStatus.SC_OK, response.getStatusLine().getStatusCode());
+
+        Response createResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.RULE_BASE_URI, Collections.singletonMap("category", "windows"),
+                new StringEntity(randomRule()), new BasicHeader("Content-Type", "application/json"));
+        Assert.assertEquals("Create rule failed", RestStatus.CREATED, restStatus(createResponse));
+        String createdId = asMap(createResponse).get("_id").toString();
+
+        DetectorInput input = new DetectorInput("windows detector for security analytics", List.of("windows"), List.of(new DetectorRule(createdId)),
+                List.of());
+        Detector detector = randomDetectorWithInputs(List.of(input));
+
+        createResponse = makeRequest(client(), "POST", SecurityAnalyticsPlugin.DETECTOR_BASE_URI, Collections.emptyMap(), toHttpEntity(detector));
+        Assert.assertEquals("Create detector failed", RestStatus.CREATED, restStatus(createResponse));
+        Map<String, Object> responseBody = asMap(createResponse);
+        String monitorId = ((List<String>) ((Map<String, Object>) responseBody.get("detector")).get("monitor_id")).get(0);
+
+        String query = ruleQuery(monitorId, createdId);
+        Assert.assertTrue(query.contains("22"));
+
+        Response updateResponse = makeRequest(client(), "PUT", SecurityAnalyticsPlugin.RULE_BASE_URI + "/" + createdId, Map.of("category", "windows", "forced", "true"),
+                new StringEntity(randomEditedRule()), new BasicHeader("Content-Type", "application/json"));
+        Assert.assertEquals("Update rule failed", RestStatus.OK, restStatus(updateResponse));
+
+        query = ruleQuery(monitorId, createdId);
+        Assert.assertTrue(query.contains("24"));
+        Assert.assertFalse(query.contains("22"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private String ruleQuery(String monitorId, String ruleId) throws IOException {
+        Response getResponse = makeRequest(client(), "GET", String.format(Locale.getDefault(), "/_plugins/_alerting/monitors/%s", monitorId), Collections.emptyMap(), null);
+        Map<String, Object> monitor = (Map<String, Object>) asMap(getResponse).get("monitor");
+        Map<String, Object> docLevelInput = (Map<String, Object>) ((List<Map<String, Object>>) monitor.get("inputs")).get(0).get("doc_level_input");
+        for (Map<String, Object> query: (List<Map<String, Object>>) docLevelInput.get("queries")) {
+            if (query.get("id").toString().endsWith(ruleId)) {
+                return query.get("query").toString();
+            }
+        }
+        throw new AssertionError("No query of rule " + ruleId + " in monitor " + monitorId);
+    }
+
     public void testDeletingUnusedRule() throws IOException {
         String index = createTestIndex(randomIndex(), windowsIndexMapping());
 
@@ -0,0 +1,133 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.aggregation;
+
+import org.junit.Assert;
+import org.opensearch.common.bytes.BytesReference;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.NamedXContentRegistry;
+import org.opensearch.common.xcontent.ToXContent;
+import org.opensearch.common.xcontent.XContentFactory;
+import org.opensearch.common.xcontent.XContentParser;
+import org.opensearch.common.xcontent.XContentType;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.util.List;
+
+public class SlidingWindowAggregationTests extends OpenSearchTestCase {
+
+    private static final long MINUTE = 60_000L;
+
+    public void testCountFiresOnceWhenThresholdIsCrossed() {
+        SlidingWindowAggregation window = new SlidingWindowAggregation(aggregation("count", null, ">", 2.0), 5 * MINUTE, 5);
+
+        Assert.assertNull(window.add("10.0.0.1", 0, null));
+        Assert.assertNull(window.add("10.0.0.1", MINUTE, null));
+        Assert.assertNull(window.add("10.0.0.2", MINUTE, null));
+        Assert.assertEquals(3.0, window.add("10.0.0.1", 2 * MINUTE, null), 0.0);
+        // still firing, no second finding
+        Assert.assertNull(window.add("10.0.0.1", 2 * MINUTE, null));
+        Assert.assertEquals(2, window.size());
+    }
+
+    public void testDocumentsLeaveTheWindow() {
+        SlidingWindowAggregation window = new SlidingWindowAggregation(aggregation("count", null, ">", 2.0), 5 * MINUTE, 5);
+
+        window.add("group", 0, null);
+        window.add("group", MINUTE, null);
+        Assert.assertEquals(2.0, window.value("group"), 0.0);
+
+        Assert.assertTrue(window.advance(5 * MINUTE).isEmpty());
+        Assert.assertEquals(1.0, window.value("group"), 0.0);
+
+        // late documents are dropped
+        Assert.assertNull(window.add("group", 0, null));
+        Assert.assertEquals(1.0, window.value("group"), 0.0);
+
+        window.advance(10 * MINUTE);
+        Assert.assertNull(window.value("group"));
+        Assert.assertEquals(0, window.size());
+    }
+
+    public void testGroupFiresAgainAfterItStoppedFiring() {
+        SlidingWindowAggregation window = new SlidingWindowAggregation(aggregation("count", null, ">=", 2.0), 2 * MINUTE, 2);
+
+        Assert.assertNull(window.add("group", 0, null));
+        Assert.assertNotNull(window.add("group", 0, null));
+        window.advance(3 * MINUTE);
+        Assert.assertNull(window.add("group", 3 * MINUTE, null));
+        Assert.assertEquals(2.0, window.add("group", 3 * MINUTE, null), 0.0);
+    }
+
+    public void testDistinctCount() {
+        SlidingWindowAggregation window = new SlidingWindowAggregation(aggregation("count", "QueryName", ">", 2.0), 3 * MINUTE, 3);
+
+        Assert.assertNull(window.add("host", 0, "a.example.com"));
+        Assert.assertNull(window.add("host", MINUTE, "a.example.com"));
+        Assert.assertNull(window.add("host", MINUTE, "b.example.com"));
+        Assert.assertEquals(2.0, window.value("host"), 0.0);
+        Assert.assertEquals(3.0, window.add("host", 2 * MINUTE, "c.example.com"), 0.0);
+
+        // the first a.example.com leaves the window, the second one stays
+        window.advance(3 * MINUTE);
+        Assert.assertEquals(3.0, window.value("host"), 0.0);
+        window.advance(4 * MINUTE);
+        Assert.assertEquals(1.0, window.value("host"), 0.0);
+    }
+
+    public void testNumericAggregations() {
+        SlidingWindowAggregation sum = new SlidingWindowAggregation(aggregation("sum", "bytes", ">", 100.0), MINUTE, 6);
+        SlidingWindowAggregation avg = new SlidingWindowAggregation(aggregation("avg", "bytes", "<", 10.0), MINUTE, 6);
+        SlidingWindowAggregation max = new SlidingWindowAggregation(aggregation("max", "bytes", "==", 80.0), MINUTE, 6);
+
+        for (Object bytes: List.of(20, "80", "not a number", 5)) {
+            sum.add("group", 1000, bytes);
+            avg.add("group", 1000, bytes);
+            max.add("group", 1000, bytes);
+        }
+        Assert.assertEquals(105.0, sum.value("group"), 0.0);
+        Assert.assertEquals(35.0, avg.value("group"), 0.0);
+        Assert.assertEquals(80.0, max.value("group"), 0.0);
+    }
+
+    public void testSnapshotRoundTrip() throws IOException {
+        AggregationItem aggregation = aggregation("count", "QueryName", ">", 1.0);
+        SlidingWindowAggregation window = new SlidingWindowAggregation(aggregation, 3 * MINUTE, 3);
+        window.add("host1", 0, "a");
+        window.add("host1", MINUTE, "b");
+        window.add("host2", MINUTE, "a");
+
+        SlidingWindowAggregation restored = new SlidingWindowAggregation(aggregation, 3 * MINUTE, 3);
+        Assert.assertTrue(restored.restore(parser(window)));
+        Assert.assertEquals(window.getWatermark(), restored.getWatermark());
+        Assert.assertEquals(2.0, restored.value("host1"), 0.0);
+        Assert.assertEquals(1.0, restored.value("host2"), 0.0);
+        // host1 already fired before the snapshot
+        Assert.assertNull(restored.add("host1", 2 * MINUTE, "c"));
+        Assert.assertEquals(2.0, restored.add("host2", 2 * MINUTE, "c"), 0.0);
+
+        SlidingWindowAggregation otherWindow = new SlidingWindowAggregation(aggregation, 5 * MINUTE, 5);
+        Assert.assertFalse(otherWindow.restore(parser(window)));
+        Assert.assertEquals(0, otherWindow.size());
+    }
+
+    private static XContentParser parser(SlidingWindowAggregation window) throws IOException {
+        String json = BytesReference.bytes(window.toXContent(XContentFactory.jsonBuilder(), ToXContent.EMPTY_PARAMS)).utf8ToString();
+        XContentParser xcp = XContentType.JSON.xContent().createParser(NamedXContentRegistry.EMPTY, LoggingDeprecationHandler.INSTANCE, json);
+        xcp.nextToken();
+        return xcp;
+    }
+
+    private static AggregationItem aggregation(String function, String field, String operator, Double threshold) {
+        AggregationItem aggregation = new AggregationItem();
+        aggregation.setAggFunction(function);
+        aggregation.setAggField(field);
+        aggregation.setGroupByField("group");
+        aggregation.setCompOperator(operator);
+        aggregation.setThreshold(threshold);
+        return aggregation;
+    }
+}
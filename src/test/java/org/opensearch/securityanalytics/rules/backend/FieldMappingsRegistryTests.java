@@ -0,0 +1,26 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.junit.Assert;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.util.Map;
+
+public class FieldMappingsRegistryTests extends OpenSearchTestCase {
+
+    public void testGetReturnsSharedMappings() throws IOException {
+        Map<String, String> fieldMappings = FieldMappingsRegistry.get("windows");
+
+        Assert.assertEquals("mappedB", fieldMappings.get("fieldB"));
+        Assert.assertSame(fieldMappings, FieldMappingsRegistry.get("windows"));
+        expectThrows(UnsupportedOperationException.class, () -> fieldMappings.put("fieldC", "mappedC"));
+    }
+
+    public void testGetWithUnknownCategory() {
+        expectThrows(IOException.class, () -> FieldMappingsRegistry.get("unknown_category"));
+    }
+}
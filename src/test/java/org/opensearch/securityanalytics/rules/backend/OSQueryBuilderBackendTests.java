@@ -0,0 +1,117 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.backend;
+
+import org.junit.Assert;
+import org.opensearch.index.query.QueryBuilder;
+import org.opensearch.index.query.QueryBuilders;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+public class OSQueryBuilderBackendTests extends OpenSearchTestCase {
+
+    public void testConvertAnd() throws IOException, SigmaError {
+        QueryBuilder query = convert(
+                "                sel:\n" +
+                "                    fieldA: valueA\n" +
+                "                    fieldB: valueB\n" +
+                "                    fieldC: 4\n" +
+                "                condition: sel");
+        Assert.assertEquals(QueryBuilders.boolQuery()
+                .filter(QueryBuilders.termQuery("fieldA", "valueA"))
+                .filter(QueryBuilders.termQuery("mappedB", "valueB"))
+                .filter(QueryBuilders.termQuery("fieldC", 4)), query);
+    }
+
+    public void testConvertEqualityRunToTerms() throws IOException, SigmaError {
+        QueryBuilder query = convert(
+                "                sel:\n" +
+                "                    fieldA:\n" +
+                "                        - value1\n" +
+                "                        - value2\n" +
+                "                        - value3\n" +
+                "                condition: sel");
+        Assert.assertEquals(QueryBuilders.termsQuery("fieldA", List.of("value1", "value2", "value3")), query);
+    }
+
+    public void testConvertNumberRunToTerms() throws IOException, SigmaError {
+        ConversionContext context = convertRule(new OSQueryBuilderBackend("windows", false, true),
+                "                sel:\n" +
+                "                    fieldA:\n" +
+                "                        - 4624\n" +
+                "                        - 4625\n" +
+                "                condition: sel");
+        Assert.assertEquals(QueryBuilders.termsQuery("fieldA", List.of(4624, 4625)), context.getQueries().get(0));
+        Assert.assertEquals(Map.of("type", "integer"), context.getRuleQueryFields().get("fieldA"));
+    }
+
+    public void testConvertWildcards() throws IOException, SigmaError {
+        QueryBuilder query = convert(
+                "                sel:\n" +
+                "                    fieldA|startswith: 'value'\n" +
+                "                    fieldB|contains: 'cmd'\n" +
+                "                condition: sel");
+        Assert.assertEquals(QueryBuilders.boolQuery()
+                .filter(QueryBuilders.prefixQuery("fieldA", "value"))
+                .filter(QueryBuilders.wildcardQuery("mappedB", "*cmd*")), query);
+    }
+
+    public void testConvertNot() throws IOException, SigmaError {
+        QueryBuilder query = convert(
+                "                sel:\n" +
+                "                    fieldA: valueA\n" +
+                "                filter:\n" +
+                "                    fieldC: valueC\n" +
+                "                condition: sel and not filter");
+        Assert.assertEquals(QueryBuilders.boolQuery()
+                .filter(QueryBuilders.termQuery("fieldA", "valueA"))
+                .filter(QueryBuilders.boolQuery().mustNot(QueryBuilders.termQuery("fieldC", "valueC"))), query);
+    }
+
+    public void testConvertCompare() throws IOException, SigmaError {
+        QueryBuilder query = convert(
+                "                sel:\n" +
+                "                    fieldA|gte: 10\n" +
+                "                condition: sel");
+        Assert.assertEquals(QueryBuilders.rangeQuery("fieldA").gte(10), query);
+    }
+
+    public void testToQueryString() throws IOException, SigmaError {
+        QueryBuilder query = convert(
+                "                sel:\n" +
+                "                    fieldA: valueA\n" +
+                "                condition: sel");
+        Assert.assertTrue(OSQueryBuilderBackend.toQueryString(query).contains("\"term\""));
+    }
+
+    private QueryBuilder convert(String detection) throws IOException, SigmaError {
+        return convert(new OSQueryBuilderBackend("windows", false, true), detection);
+    }
+
+    private QueryBuilder convert(OSQueryBuilderBackend queryBackend, String detection) throws IOException, SigmaError {
+        return (QueryBuilder) convertRule(queryBackend, detection).getQueries().get(0);
+    }
+
+    private ConversionContext convertRule(OSQueryBuilderBackend queryBackend, String detection) throws SigmaError {
+        return queryBackend.convert(SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                detection, false));
+    }
+}
@@ -15,6 +15,8 @@ import org.opensearch.test.OpenSearchTestCase;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 public class QueryBackendTests extends OpenSearchTestCase {
 
@@ -322,7 +324,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                sel:\n" +
                 "                    \"|re\": pat.*tern\"foo\"bar\n" +
                 "                condition: sel", false));
-        Assert.assertEquals("_0: /pat.*tern\\\"foo\\\"bar/", queries.get(0).toString());
+        Assert.assertEquals("_39f919f3980b4e6fa9758af7e507ef2b_0: /pat.*tern\\\"foo\\\"bar/", queries.get(0).toString());
     }
 
     public void testConvertValueCidrWildcardNone() throws IOException, SigmaError {
@@ -478,7 +480,7 @@ public class QueryBackendTests extends OpenSearchTestCase {
                 "                    fieldB: value2\n" +
                 "                sel3: value3\n" +
                 "                condition: sel1 or sel2 or sel3", false));
-        Assert.assertEquals("((fieldA: \"value1\") OR (mappedB: \"value2\")) OR (_0: \"value3\")", queries.get(0).toString());
+        Assert.assertEquals("((fieldA: \"value1\") OR (mappedB: \"value2\")) OR (_39f919f3980b4e6fa9758af7e507ef2b_0: \"value3\")", queries.get(0).toString());
     }
 
     public void testConvertOrInMixedFields() throws IOException, SigmaError {
@@ -593,7 +595,37 @@ public class QueryBackendTests extends OpenSearchTestCase {
             "                        - value2\n" +
             "                        - 4\n" +
                 "                condition: sel", false));
-        Assert.assertEquals("(_0: \"value1\") OR (_1: \"value2\") OR (_2: 4)", queries.get(0).toString());
+        Assert.assertEquals("(_39f919f3980b4e6fa9758af7e507ef2b_0: \"value1\") OR (_39f919f3980b4e6fa9758af7e507ef2b_1: \"value2\") OR (_39f919f3980b4e6fa9758af7e507ef2b_2: 4)", queries.get(0).toString());
+    }
+
+    public void testConvertUnboundValuesWithReusedBackend() throws IOException, SigmaError {
+        OSQueryBackend queryBackend = testBackend();
+        String rule = "            title: Test\n" +
+                "            id: %s\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                "                sel:\n" +
+                "                        - value1\n" +
+                "                        - value2\n" +
+                "                condition: sel";
+        ConversionContext first = queryBackend.convert(SigmaRule.fromYaml(String.format(Locale.ROOT, rule, "39f919f3-980b-4e6f-a975-8af7e507ef2b"), false));
+        Assert.assertEquals("(_39f919f3980b4e6fa9758af7e507ef2b_0: \"value1\") OR (_39f919f3980b4e6fa9758af7e507ef2b_1: \"value2\")", first.getQueries().get(0).toString());
+        Assert.assertEquals(Set.of("_39f919f3980b4e6fa9758af7e507ef2b_0", "_39f919f3980b4e6fa9758af7e507ef2b_1"), first.getRuleQueryFields().keySet());
+
+        // the value fields of another rule never collide, whichever backend converts it
+        ConversionContext second = testBackend().convert(SigmaRule.fromYaml(String.format(Locale.ROOT, rule, "5f92fff9-82e2-48eb-8fc1-8b133556a551"), false));
+        Assert.assertEquals("(_5f92fff982e248eb8fc18b133556a551_0: \"value1\") OR (_5f92fff982e248eb8fc18b133556a551_1: \"value2\")", second.getQueries().get(0).toString());
+
+        // converting a rule again gives the same queries
+        Assert.assertEquals(first.getQueries().get(0).toString(),
+                queryBackend.convertRule(SigmaRule.fromYaml(String.format(Locale.ROOT, rule, "39f919f3-980b-4e6f-a975-8af7e507ef2b"), false)).get(0).toString());
     }
 
     public void testConvertInvalidUnboundBool() throws IOException {
@@ -312,6 +312,22 @@ public class ConditionTests extends OpenSearchTestCase {
         assertTrue(actualMessage.contains(expectedMessage));
     }
 
+    public void testParsedIsMemoized() throws SigmaError {
+        SigmaCondition sigmaCondition = new SigmaCondition("detection1 and not detection2 | count(*) by fieldB > 1", sigmaSimpleDetections());
+        Assert.assertSame(sigmaCondition.parsed(), sigmaCondition.parsed());
+        Assert.assertEquals(ConditionAND.class, sigmaCondition.parsed().getLeft().getClass());
+        Assert.assertEquals("fieldB", sigmaCondition.parsed().getRight().getGroupByField());
+    }
+
+    public void testParseTreeSharedAcrossDetections() throws SigmaError {
+        ConditionItem first = new SigmaCondition("detection1 or detection2", sigmaSimpleDetections()).parsed().getLeft();
+        ConditionItem second = new SigmaCondition("detection1 or detection2", sigmaSimpleDetections()).parsed().getLeft();
+        Assert.assertNotSame(first, second);
+        Assert.assertNotSame(first.getArgs().get(0).getLeft().get(), second.getArgs().get(0).getLeft().get());
+        Assert.assertEquals("val1", second.getArgs().get(0).getLeft().get().getValue().toString());
+        Assert.assertEquals("val2", second.getArgs().get(1).getLeft().get().getValue().toString());
+    }
+
     private SigmaDetections sigmaSimpleDetections() throws SigmaError {
         Map<String, SigmaDetection> detections = new HashMap<>();
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.List;
+import java.util.Map;
+
+public class CompiledSigmaRuleTests extends OpenSearchTestCase {
+
+    public void testAndWithFieldMappings() throws SigmaError {
+        CompiledSigmaRule rule = compile(
+                "                sel:\n" +
+                "                    fieldA: valueA\n" +
+                "                    fieldB: valueB\n" +
+                "                    fieldC: 4\n" +
+                "                condition: sel");
+        Assert.assertTrue(rule.matches(Map.of("fieldA", "VALUEA", "mapped", Map.of("b", "valueB"), "fieldC", "4")));
+        Assert.assertTrue(rule.matches(Map.of("fieldA", "valueA", "mapped.b", "valueB", "fieldC", 4)));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "valueA", "fieldB", "valueB", "fieldC", 4)));
+    }
+
+    public void testOrOfListValues() throws SigmaError {
+        CompiledSigmaRule rule = compile(
+                "                sel:\n" +
+                "                    fieldA:\n" +
+                "                        - value1\n" +
+                "                        - value2\n" +
+                "                condition: sel");
+        Assert.assertTrue(rule.matches(Map.of("fieldA", "value2")));
+        Assert.assertTrue(rule.matches(Map.of("fieldA", List.of("other", "value1"))));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "value3")));
+    }
+
+    public void testWildcardsAndNot() throws SigmaError {
+        CompiledSigmaRule rule = compile(
+                "                sel:\n" +
+                "                    fieldA|startswith: 'Program'\n" +
+                "                    fieldD|contains: 'cmd'\n" +
+                "                filter:\n" +
+                "                    fieldE|endswith: '.bat'\n" +
+                "                condition: sel and not filter");
+        Assert.assertTrue(rule.matches(Map.of("fieldA", "program files", "fieldD", "run CMD.exe", "fieldE", "x.exe")));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "program files", "fieldD", "run CMD.exe", "fieldE", "x.BAT")));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "files", "fieldD", "cmd")));
+    }
+
+    public void testGlob() throws SigmaError {
+        CompiledSigmaRule rule = compile(
+                "                sel:\n" +
+                "                    fieldA: 'a?c*e'\n" +
+                "                condition: sel");
+        Assert.assertTrue(rule.matches(Map.of("fieldA", "abcXYZe")));
+        Assert.assertTrue(rule.matches(Map.of("fieldA", "ABCE")));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "acxe")));
+    }
+
+    public void testRegexCidrAndCompare() throws SigmaError {
+        CompiledSigmaRule rule = compile(
+                "                sel:\n" +
+                "                    fieldA|re: 'ab+c'\n" +
+                "                    fieldD|cidr: '10.0.0.0/8'\n" +
+                "                    fieldE|gte: 10\n" +
+                "                condition: sel");
+        Assert.assertTrue(rule.matches(Map.of("fieldA", "xabbbcx", "fieldD", "10.1.2.3", "fieldE", 10)));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "xabbbcx", "fieldD", "11.1.2.3", "fieldE", 10)));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "xabbbcx", "fieldD", "10.1.2.3", "fieldE", "9")));
+    }
+
+    public void testNullAndKeyword() throws SigmaError {
+        CompiledSigmaRule rule = compile(
+                "                sel:\n" +
+                "                    fieldA: null\n" +
+                "                keywords:\n" +
+                "                    - '*mimikatz*'\n" +
+                "                condition: sel and keywords");
+        Assert.assertTrue(rule.matches(Map.of("fieldD", Map.of("command", "invoke-mimikatz"))));
+        Assert.assertFalse(rule.matches(Map.of("fieldA", "x", "fieldD", "mimikatz")));
+        Assert.assertFalse(rule.matches(Map.of("fieldD", "other")));
+    }
+
+    public void testRuleEvaluator() throws SigmaError {
+        RuleEvaluator evaluator = new RuleEvaluator(List.of(
+                compile("rule-1", "                sel:\n                    fieldA: valueA\n                condition: sel"),
+                compile("rule-2", "                sel:\n                    fieldA|contains: alu\n                condition: sel")));
+        Assert.assertEquals(List.of("rule-1", "rule-2"), evaluator.evaluate(Map.of("fieldA", "valueA")));
+        Assert.assertEquals(List.of("rule-2"), evaluator.evaluate(Map.of("fieldA", "value")));
+        Assert.assertEquals(List.of(), evaluator.evaluate(Map.of("fieldB", "valueA")));
+    }
+
+    private CompiledSigmaRule compile(String detection) throws SigmaError {
+        return compile("rule", detection);
+    }
+
+    private CompiledSigmaRule compile(String id, String detection) throws SigmaError {
+        return CompiledSigmaRule.compile(id, SigmaRule.fromYaml(
+                "            title: Test\n" +
+                "            id: 39f919f3-980b-4e6f-a975-8af7e507ef2b\n" +
+                "            status: test\n" +
+                "            level: critical\n" +
+                "            description: Detects QuarksPwDump clearing access history in hive\n" +
+                "            author: Florian Roth\n" +
+                "            date: 2017/05/15\n" +
+                "            logsource:\n" +
+                "                category: test_category\n" +
+                "                product: test_product\n" +
+                "            detection:\n" +
+                detection, false), Map.of("fieldB", "mapped.b"));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class LiteralIndexTests extends OpenSearchTestCase {
+
+    public void testAnchoredMatches() {
+        AhoCorasick automaton = new AhoCorasick.Builder()
+                .add("he", ValueMatchers.StringMatcher.CONTAINS, 0)
+                .add("she", ValueMatchers.StringMatcher.PREFIX, 1)
+                .add("hers", ValueMatchers.StringMatcher.SUFFIX, 2)
+                .add("ushers", ValueMatchers.StringMatcher.EXACT, 3)
+                .build();
+
+        BitSet hits = new BitSet();
+        automaton.scan("USHERS", hits);
+        Assert.assertEquals(Set.of(0, 2, 3), toSet(hits));
+
+        hits = new BitSet();
+        automaton.scan("shell", hits);
+        Assert.assertEquals(Set.of(0, 1), toSet(hits));
+    }
+
+    public void testSlotsAreSharedAcrossRules() throws SigmaValueError {
+        LiteralIndex.Builder builder = new LiteralIndex.Builder();
+        builder.rewrite("rule-1", fieldMatch("CommandLine", "*mimikatz*"));
+        builder.rewrite("rule-2", fieldMatch("CommandLine", "*mimikatz*"));
+        builder.rewrite("rule-2", fieldMatch("Image", "*mimikatz*"));
+        LiteralIndex index = builder.build();
+
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals(Set.of("rule-1", "rule-2"), index.getRuleIds(0));
+        Assert.assertEquals(Set.of("rule-2"), index.getRuleIds(1));
+        Assert.assertEquals(Set.of(1), toSet(index.scan(Map.of("CommandLine", "dir", "Image", "C:\\mimikatz.exe"))));
+    }
+
+    public void testEvaluatorMatchesUnindexedEvaluation() throws SigmaValueError {
+        List<String> patterns = List.of("*cmd*", "power*", "*.exe", "cmd.exe", "*she*", "*he*", "a?c", "*");
+        List<CompiledSigmaRule> rules = new ArrayList<>();
+        for (int i = 0; i < patterns.size(); ++i) {
+            rules.add(new CompiledSigmaRule("rule-" + i, List.of(fieldMatch("Image", patterns.get(i))), false));
+        }
+        RuleEvaluator evaluator = new RuleEvaluator(rules);
+
+        for (String value: List.of("CMD.EXE", "powershell.exe", "she", "hello", "abc", "")) {
+            Map<String, Object> document = Map.of("Image", value);
+            List<String> expected = new ArrayList<>();
+            for (CompiledSigmaRule rule: rules) {
+                if (rule.matches(document)) {
+                    expected.add(rule.getId());
+                }
+            }
+            Assert.assertEquals(value, expected, evaluator.evaluate(document));
+        }
+    }
+
+    private DocumentPredicates.FieldMatch fieldMatch(String field, String value) throws SigmaValueError {
+        return new DocumentPredicates.FieldMatch(new FieldPath(field), ValueMatchers.string(new SigmaString(value)));
+    }
+
+    private Set<Integer> toSet(BitSet bits) {
+        Set<Integer> set = new HashSet<>();
+        bits.stream().forEach(set::add);
+        return set;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.rules.engine;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaRegularExpressionError;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaValueError;
+import org.opensearch.securityanalytics.rules.types.SigmaRegularExpression;
+import org.opensearch.securityanalytics.rules.types.SigmaString;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.List;
+import java.util.Map;
+
+public class NecessaryLiteralsTests extends OpenSearchTestCase {
+
+    public void testConjunctionUsesSmallestChild() throws SigmaValueError {
+        LiteralIndex.Builder builder = new LiteralIndex.Builder();
+        CompiledSigmaRule rule = rule(new DocumentPredicates.And(List.of(
+                new DocumentPredicates.Or(List.of(fieldMatch("Image", "*\\cmd.exe"), fieldMatch("Image", "*\\powershell.exe"))),
+                fieldMatch("CommandLine", "*-enc*"),
+                new DocumentPredicates.Not(fieldMatch("User", "system"))
+        ))).indexLiterals(builder);
+
+        Assert.assertArrayEquals(new int[]{2}, NecessaryLiterals.of(rule));
+    }
+
+    public void testDisjunctionWithoutLiteralsHasNone() throws SigmaValueError, SigmaRegularExpressionError {
+        LiteralIndex.Builder builder = new LiteralIndex.Builder();
+        CompiledSigmaRule rule = rule(new DocumentPredicates.Or(List.of(
+                fieldMatch("Image", "*\\cmd.exe"),
+                new DocumentPredicates.FieldMatch(new FieldPath("CommandLine"), ValueMatchers.regex(new SigmaRegularExpression("enc.*")))
+        ))).indexLiterals(builder);
+
+        Assert.assertNull(NecessaryLiterals.of(rule));
+        Assert.assertNull(NecessaryLiterals.of(rule(new DocumentPredicates.Not(fieldMatch("Image", "cmd.exe"))).indexLiterals(builder)));
+    }
+
+    public void testEvaluatorSkipsNonCandidates() throws SigmaValueError {
+        RuleEvaluator evaluator = new RuleEvaluator(List.of(
+                new CompiledSigmaRule("rule-1", List.of(new DocumentPredicates.And(List.of(fieldMatch("Image", "*\\cmd.exe"), fieldMatch("CommandLine", "*/c*")))), false),
+                new CompiledSigmaRule("rule-2", List.of(new DocumentPredicates.Not(fieldMatch("Image", "*\\cmd.exe"))), false),
+                new CompiledSigmaRule("rule-3", List.of(fieldMatch("CommandLine", "*whoami*")), false)));
+
+        Assert.assertEquals(1, evaluator.getUnfilteredSize());
+        Assert.assertEquals(List.of("rule-1"), evaluator.evaluate(Map.of("Image", "C:\\Windows\\cmd.exe", "CommandLine", "cmd /c dir")));
+        Assert.assertEquals(List.of("rule-2", "rule-3"), evaluator.evaluate(Map.of("Image", "C:\\Windows\\whoami.exe", "CommandLine", "whoami")));
+    }
+
+    private CompiledSigmaRule rule(DocumentPredicate condition) {
+        return new CompiledSigmaRule("rule", List.of(condition), false);
+    }
+
+    private DocumentPredicates.FieldMatch fieldMatch(String field, String value) throws SigmaValueError {
+        return new DocumentPredicates.FieldMatch(new FieldPath(field), ValueMatchers.string(new SigmaString(value)));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.commons.alerting.model.BucketLevelTrigger;
+import org.opensearch.commons.alerting.model.CronSchedule;
+import org.opensearch.commons.alerting.model.IntervalSchedule;
+import org.opensearch.commons.alerting.model.Schedule;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.util.AggregationRules.AggregationRule;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+public class AggregationRulesTests extends OpenSearchTestCase {
+
+    private final Schedule schedule = new IntervalSchedule(5, ChronoUnit.MINUTES, null);
+
+    public void testRuleWithoutAggregation() throws SigmaError {
+        Assert.assertNull(AggregationRules.parse("rule1", rule("condition: selection", null, List.of("EventID: 22"))));
+    }
+
+    public void testRuleWithAggregation() throws SigmaError {
+        AggregationRule rule = AggregationRules.parse("rule1", rule("condition: selection | count() by SourceIp > 10", "5m", List.of("EventID: 22", "agg")));
+
+        Assert.assertNotNull(rule);
+        Assert.assertEquals("count", rule.getAggregation().getAggFunction());
+        Assert.assertEquals("SourceIp", rule.getGroupByField());
+        Assert.assertEquals(">", rule.getAggregation().getCompOperator());
+        Assert.assertEquals(10.0, rule.getAggregation().getThreshold(), 0.0);
+        Assert.assertEquals("5m", rule.getTimeframe());
+        Assert.assertEquals("EventID: 22", rule.getQuery());
+    }
+
+    public void testWindowFallsBackToDetectorSchedule() throws SigmaError {
+        AggregationRule withTimeframe = AggregationRules.parse("rule1", rule("condition: selection | count() by SourceIp > 10", "15m", List.of("EventID: 22", "agg")));
+        AggregationRule withoutTimeframe = AggregationRules.parse("rule2", rule("condition: selection | count() by SourceIp > 10", null, List.of("EventID: 22", "agg")));
+
+        Assert.assertEquals("15m", AggregationRules.window(withTimeframe, schedule));
+        Assert.assertEquals("5m", AggregationRules.window(withoutTimeframe, schedule));
+        Assert.assertEquals(AggregationRules.DEFAULT_WINDOW, AggregationRules.window(withoutTimeframe, new CronSchedule("0 * * * *", ZoneId.of("UTC"), null)));
+    }
+
+    public void testRulesAreGroupedByFieldAndWindow() throws SigmaError {
+        AggregationRule rule1 = AggregationRules.parse("rule1", rule("condition: selection | count() by SourceIp > 10", null, List.of("EventID: 22", "agg")));
+        AggregationRule rule2 = AggregationRules.parse("rule2", rule("condition: selection | count() by SourceIp > 5", "5m", List.of("EventID: 23", "agg")));
+        AggregationRule rule3 = AggregationRules.parse("rule3", rule("condition: selection | count() by User > 5", null, List.of("EventID: 24", "agg")));
+
+        Map<String, List<AggregationRule>> groups = AggregationRules.group(List.of(rule1, rule2, rule3), schedule);
+
+        Assert.assertEquals(2, groups.size());
+        Assert.assertEquals(List.of(rule1, rule2), groups.get(AggregationRules.groupKey("SourceIp", "5m")));
+        Assert.assertEquals(List.of(rule3), groups.get(AggregationRules.groupKey("User", "5m")));
+    }
+
+    public void testTriggerOnlySelectsApplicableRules() throws SigmaError {
+        AggregationRule rule1 = AggregationRules.parse("rule1", rule("condition: selection | count() by SourceIp > 10", null, List.of("EventID: 22", "agg")));
+        AggregationRule rule2 = AggregationRules.parse("rule2", rule("condition: selection | count() by SourceIp > 5", null, List.of("EventID: 23", "agg")));
+
+        DetectorTrigger highTrigger = new DetectorTrigger("trigger1", "trigger", "1", List.of("windows"), List.of(), List.of("high"), List.of(), List.of());
+        Assert.assertTrue(AggregationRules.applies(highTrigger, rule1));
+
+        DetectorTrigger ruleTrigger = new DetectorTrigger("trigger2", "trigger", "1", List.of(), List.of("rule2"), List.of(), List.of(), List.of());
+        Assert.assertFalse(AggregationRules.applies(ruleTrigger, rule1));
+        Assert.assertTrue(AggregationRules.applies(ruleTrigger, rule2));
+
+        BucketLevelTrigger trigger = AggregationRules.trigger(ruleTrigger, List.of(rule1, rule2));
+        Assert.assertEquals("trigger2", trigger.getId());
+        Assert.assertEquals("params.rule0 > 5.0", trigger.getBucketSelector().getScript().getIdOrCode());
+        Assert.assertEquals(Map.of("rule0", "rule2>_count"), trigger.getBucketSelector().getBucketsPathsMap());
+
+        DetectorTrigger lowTrigger = new DetectorTrigger("trigger3", "trigger", "1", List.of(), List.of(), List.of("low"), List.of(), List.of());
+        Assert.assertNull(AggregationRules.trigger(lowTrigger, List.of(rule1, rule2)));
+    }
+
+    public void testTriggerCriteriaMayBeSatisfiedByDifferentRules() throws SigmaError {
+        AggregationRule rule1 = AggregationRules.parse("rule1", rule("condition: selection | count() by SourceIp > 10", null, List.of("EventID: 22", "agg")));
+        AggregationRule rule2 = AggregationRules.parse("rule2", rule("condition: selection | count() by SourceIp > 5", null, List.of("EventID: 23", "agg")));
+
+        DetectorTrigger trigger = new DetectorTrigger("trigger1", "trigger", "1", List.of(), List.of("rule1"), List.of("high"), List.of(), List.of());
+        BucketLevelTrigger bucketLevelTrigger = AggregationRules.trigger(trigger, List.of(rule1, rule2));
+        Assert.assertEquals("params.rule0 > 10.0 && (params.rule0 > 10.0 || params.rule1 > 5.0)", bucketLevelTrigger.getBucketSelector().getScript().getIdOrCode());
+        Assert.assertEquals(Map.of("rule0", "rule1>_count", "rule1", "rule2>_count"), bucketLevelTrigger.getBucketSelector().getBucketsPathsMap());
+
+        DetectorTrigger withoutCriteria = new DetectorTrigger("trigger2", "trigger", "1", List.of(), List.of(), List.of(), List.of(), List.of());
+        Assert.assertNull(AggregationRules.trigger(withoutCriteria, List.of(rule1, rule2)));
+
+        DetectorTrigger unsatisfied = new DetectorTrigger("trigger3", "trigger", "1", List.of(), List.of("rule1"), List.of("low"), List.of(), List.of());
+        Assert.assertNull(AggregationRules.trigger(unsatisfied, List.of(rule1, rule2)));
+    }
+
+    private static Rule rule(String condition, String timeframe, List<String> queries) throws SigmaError {
+        String yaml = "title: Many Remote Encrypting File System Calls\n" +
+                "id: 5f92fff9-82e2-48eb-8fc1-8b133556a551\n" +
+                "description: Detects many remote RPC calls to the remote encryption service from one host\n" +
+                "tags:\n" +
+                "    - attack.defense_evasion\n" +
+                "status: experimental\n" +
+                "author: Sagie Dulce, Dekel Paz\n" +
+                "date: 2022/01/01\n" +
+                "logsource:\n" +
+                "    product: rpc_firewall\n" +
+                "    category: application\n" +
+                "detection:\n" +
+                "    selection:\n" +
+                "        EventID: 22\n" +
+                (timeframe != null? "    timeframe: " + timeframe + "\n": "") +
+                "    " + condition + "\n" +
+                "level: high";
+        return new Rule(null, null, SigmaRule.fromYaml(yaml, false), "windows", queries, yaml);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.action.ActionListener;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BoundedFanOutTests extends OpenSearchTestCase {
+
+    public void testAtMostMaxConcurrencyInFlight() {
+        List<ActionListener<Void>> inFlight = new ArrayList<>();
+        AtomicReference<BoundedFanOut.Result<Integer>> result = new AtomicReference<>();
+
+        BoundedFanOut.execute(List.of(0, 1, 2, 3, 4), 2, () -> false, (item, listener) -> inFlight.add(listener), listener(result));
+
+        Assert.assertEquals(2, inFlight.size());
+        for (int i = 0; i < 5; ++i) {
+            Assert.assertNull(result.get());
+            inFlight.get(i).onResponse(null);
+            Assert.assertTrue(inFlight.size() - (i + 1) <= 2);
+        }
+        Assert.assertEquals(5, result.get().getSucceeded());
+        Assert.assertTrue(result.get().isComplete());
+    }
+
+    public void testFailuresDoNotStopOtherItems() {
+        AtomicReference<BoundedFanOut.Result<Integer>> result = new AtomicReference<>();
+
+        BoundedFanOut.execute(List.of(0, 1, 2, 3), 3, () -> false, (item, listener) -> {
+            if (item % 2 == 0) {
+                listener.onFailure(new IllegalStateException("item " + item));
+            } else {
+                listener.onResponse(null);
+            }
+        }, listener(result));
+
+        Assert.assertEquals(2, result.get().getSucceeded());
+        Assert.assertEquals(2, result.get().getFailures().size());
+        Assert.assertEquals(0, (int) result.get().getFailures().get(0).getKey());
+        Assert.assertEquals("item 2", result.get().getFailures().get(1).getValue().getMessage());
+    }
+
+    public void testCancelSkipsItemsNotStarted() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicReference<BoundedFanOut.Result<Integer>> result = new AtomicReference<>();
+
+        BoundedFanOut.execute(List.of(0, 1, 2, 3), 1, cancelled::get, (item, listener) -> {
+            if (item == 1) {
+                cancelled.set(true);
+            }
+            listener.onResponse(null);
+        }, listener(result));
+
+        Assert.assertEquals(2, result.get().getSucceeded());
+        Assert.assertEquals(List.of(2, 3), result.get().getSkipped());
+        Assert.assertFalse(result.get().isComplete());
+    }
+
+    public void testEmptyCompletesImmediately() {
+        AtomicReference<BoundedFanOut.Result<Integer>> result = new AtomicReference<>();
+        BoundedFanOut.execute(List.of(), 4, () -> false, (item, listener) -> Assert.fail(), listener(result));
+        Assert.assertEquals(0, result.get().getSucceeded());
+    }
+
+    private ActionListener<BoundedFanOut.Result<Integer>> listener(AtomicReference<BoundedFanOut.Result<Integer>> result) {
+        return new ActionListener<>() {
+            @Override
+            public void onResponse(BoundedFanOut.Result<Integer> response) {
+                result.set(response);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                throw new AssertionError(e);
+            }
+        };
+    }
+}
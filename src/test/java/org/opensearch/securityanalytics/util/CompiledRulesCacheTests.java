@@ -0,0 +1,99 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class CompiledRulesCacheTests extends OpenSearchTestCase {
+
+    public void testGetReturnsPersistedArtifact() throws IOException {
+        Path dir = createTempDir();
+        CompiledRulesCache.CompiledRules compiledRules = compiledRules("rule-1", "rule-2");
+
+        new CompiledRulesCache(dir).put(compiledRules);
+
+        CompiledRulesCache cache = new CompiledRulesCache(dir);
+        CompiledRulesCache.CompiledRules loaded = cache.get(compiledRules.getRulesHash());
+        Assert.assertNotNull(loaded);
+        Assert.assertEquals(2, loaded.getRules().size());
+        Assert.assertEquals("rule-1", loaded.getRules().get(0).getRule().getId());
+        Assert.assertEquals(compiledRules.getRules().get(1).getDocHash(), loaded.getRules().get(1).getDocHash());
+        Assert.assertEquals("rule-2", loaded.getBySourceHash(compiledRules.getRules().get(1).getSourceHash()).getRule().getId());
+    }
+
+    public void testGetWithChangedHashMisses() throws IOException {
+        Path dir = createTempDir();
+        CompiledRulesCache.CompiledRules compiledRules = compiledRules("rule-1");
+        new CompiledRulesCache(dir).put(compiledRules);
+
+        CompiledRulesCache cache = new CompiledRulesCache(dir);
+        Assert.assertNull(cache.get(CompiledRulesCache.rulesHash(List.of("changed"))));
+        Assert.assertEquals(compiledRules.getRulesHash(), cache.latest().getRulesHash());
+    }
+
+    public void testPutReplacesPreviousArtifact() throws IOException {
+        Path dir = createTempDir();
+        CompiledRulesCache cache = new CompiledRulesCache(dir);
+        cache.put(compiledRules("rule-1"));
+        CompiledRulesCache.CompiledRules compiledRules = compiledRules("rule-1", "rule-2");
+        cache.put(compiledRules);
+
+        try (var files = Files.list(dir)) {
+            Assert.assertEquals(1, files.count());
+        }
+        Assert.assertEquals(compiledRules.getRulesHash(), new CompiledRulesCache(dir).latest().getRulesHash());
+    }
+
+    public void testInMemoryCache() throws IOException {
+        CompiledRulesCache cache = new CompiledRulesCache(null);
+        Assert.assertNull(cache.latest());
+
+        CompiledRulesCache.CompiledRules compiledRules = compiledRules("rule-1");
+        cache.put(compiledRules);
+        Assert.assertSame(compiledRules, cache.get(compiledRules.getRulesHash()));
+    }
+
+    public void testSourceHashDependsOnCategoryAndMappings() {
+        String hash = CompiledRulesCache.sourceHash("windows", "mappings", "title: test");
+        Assert.assertEquals(hash, CompiledRulesCache.sourceHash("windows", "mappings", "title: test"));
+        Assert.assertNotEquals(hash, CompiledRulesCache.sourceHash("linux", "mappings", "title: test"));
+        Assert.assertNotEquals(hash, CompiledRulesCache.sourceHash("windows", "other", "title: test"));
+        Assert.assertNotEquals(hash, CompiledRulesCache.sourceHash("windows", "mappings", "title: other"));
+    }
+
+    public void testDocHashChangesWithQueries() throws IOException {
+        Assert.assertEquals(CompiledRulesCache.docHash(rule("rule-1", "EventID: 22")), CompiledRulesCache.docHash(rule("rule-1", "EventID: 22")));
+        Assert.assertNotEquals(CompiledRulesCache.docHash(rule("rule-1", "EventID: 22")), CompiledRulesCache.docHash(rule("rule-1", "EventID: 23")));
+    }
+
+    private CompiledRulesCache.CompiledRules compiledRules(String... ids) throws IOException {
+        List<CompiledRulesCache.CompiledRule> rules = List.of(ids).stream().map(id -> {
+            try {
+                Rule rule = rule(id, "EventID: 22");
+                return new CompiledRulesCache.CompiledRule(CompiledRulesCache.sourceHash("windows", "", id), CompiledRulesCache.docHash(rule), rule);
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }).collect(Collectors.toList());
+        return new CompiledRulesCache.CompiledRules(
+                CompiledRulesCache.rulesHash(rules.stream().map(CompiledRulesCache.CompiledRule::getSourceHash).collect(Collectors.toList())), rules);
+    }
+
+    private Rule rule(String id, String query) {
+        return new Rule(id, 1L, "title", "windows", "application", "description", List.of(new Value("reference")),
+                List.of(new Value("attack.defense_evasion")), "high", List.of(new Value("none")), "author", "experimental",
+                Instant.ofEpochMilli(1640995200000L), List.of(new Value(query)), "title: " + id);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.DocumentLevelTrigger;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.BitSet;
+import java.util.List;
+
+public class CompiledTriggersTests extends OpenSearchTestCase {
+
+    private final DocLevelQuery rule1 = new DocLevelQuery("rule1", "rule1", "EventID: 4624", List.of("high", "windows", "attack.t1078"));
+    private final DocLevelQuery rule2 = new DocLevelQuery("rule2", "rule2", "EventID: 4625", List.of("low", "windows"));
+    private final DocLevelQuery rule3 = new DocLevelQuery("rule3", "rule3", "EventID: 22", List.of("high", "dns"));
+
+    public void testTriggersAreResolvedToQueries() {
+        DetectorTrigger highWindows = trigger("trigger1", List.of("windows"), List.of(), List.of("high"), List.of());
+        DetectorTrigger byRuleId = trigger("trigger2", List.of(), List.of("rule2", "rule3"), List.of(), List.of());
+        DetectorTrigger byTag = trigger("trigger3", List.of(), List.of(), List.of(), List.of("attack.t1078", "dns"));
+        DetectorTrigger any = trigger("trigger4", List.of(), List.of(), List.of(), List.of());
+        DetectorTrigger none = trigger("trigger5", List.of("linux"), List.of(), List.of(), List.of());
+
+        CompiledTriggers compiled = CompiledTriggers.compile(List.of(highWindows, byRuleId, byTag, any, none), List.of(rule1, rule2, rule3));
+
+        Assert.assertEquals(bits(0, 1), compiled.getMatchingQueries(0, CompiledTriggers.RULE_TYPES));
+        Assert.assertEquals(bits(0, 2), compiled.getMatchingQueries(0, CompiledTriggers.RULE_SEVERITIES));
+        Assert.assertEquals(bits(), compiled.getMatchingQueries(0, CompiledTriggers.RULE_IDS));
+        Assert.assertEquals(bits(1, 2), compiled.getMatchingQueries(1, CompiledTriggers.RULE_IDS));
+        Assert.assertEquals(bits(0, 2), compiled.getMatchingQueries(2, CompiledTriggers.TAGS));
+        Assert.assertEquals(bits(), compiled.getMatchingQueries(4, CompiledTriggers.RULE_TYPES));
+
+        Assert.assertEquals(List.of("trigger1", "trigger3"), compiled.firedTriggers(List.of("rule1")));
+        Assert.assertEquals(List.of("trigger2"), compiled.firedTriggers(List.of("rule2", "unknown")));
+        Assert.assertEquals(List.of(), compiled.firedTriggers(List.of()));
+    }
+
+    public void testCriteriaMayBeSatisfiedByDifferentQueries() {
+        DetectorTrigger highWindows = trigger("trigger1", List.of("windows"), List.of(), List.of("high"), List.of());
+        CompiledTriggers compiled = CompiledTriggers.compile(List.of(highWindows), List.of(rule2, rule3));
+
+        // windows is satisfied by the low windows rule2 and high by the dns rule3
+        Assert.assertEquals(List.of("trigger1"), compiled.firedTriggers(List.of("rule2", "rule3")));
+        Assert.assertEquals(List.of(), compiled.firedTriggers(List.of("rule2")));
+        Assert.assertEquals(List.of(), compiled.firedTriggers(List.of("rule3")));
+
+        List<DocLevelQuery> tagged = compiled.tagQueries();
+        Assert.assertEquals(List.of("low", "windows", "trigger#trigger1#types"), tagged.get(0).getTags());
+        Assert.assertEquals(List.of("high", "dns", "trigger#trigger1#sev"), tagged.get(1).getTags());
+    }
+
+    public void testTriggerWithoutCriteriaNeverFires() {
+        DetectorTrigger any = trigger("trigger1", List.of(), List.of(), List.of(), List.of());
+        CompiledTriggers compiled = CompiledTriggers.compile(List.of(any), List.of(rule1, rule2, rule3));
+
+        Assert.assertEquals(List.of(), compiled.firedTriggers(List.of("rule1", "rule2", "rule3")));
+        Assert.assertEquals(List.of(rule1, rule2, rule3), compiled.tagQueries());
+        // no query carries the bare trigger tag
+        Assert.assertEquals("query[tag=trigger#trigger1]",
+                CompiledTriggers.documentLevelTriggers(List.of(any)).get(0).getCondition().getIdOrCode());
+    }
+
+    public void testQueriesAreTaggedWithTheirTriggers() {
+        DetectorTrigger highWindows = trigger("trigger1", List.of("windows"), List.of(), List.of("high"), List.of());
+        DetectorTrigger byRuleId = trigger("trigger2", List.of(), List.of("rule2"), List.of(), List.of());
+
+        List<DocLevelQuery> tagged = CompiledTriggers.compile(List.of(highWindows, byRuleId), List.of(rule1, rule2)).tagQueries();
+        Assert.assertEquals(List.of("high", "windows", "attack.t1078", "trigger#trigger1#types", "trigger#trigger1#sev"), tagged.get(0).getTags());
+        Assert.assertEquals(List.of("low", "windows", "trigger#trigger1#types", "trigger#trigger2#ids"), tagged.get(1).getTags());
+
+        // recompiling replaces the tags of the previous triggers
+        List<DocLevelQuery> retagged = CompiledTriggers.compile(List.of(byRuleId), tagged).tagQueries();
+        Assert.assertEquals(rule1.getTags(), retagged.get(0).getTags());
+        Assert.assertEquals(List.of("low", "windows", "trigger#trigger2#ids"), retagged.get(1).getTags());
+        Assert.assertEquals(List.of(rule1, rule2), CompiledTriggers.stripTriggerTags(retagged));
+    }
+
+    public void testConditionIsOneClausePerCriterion() {
+        DetectorTrigger trigger = trigger("trigger1", List.of("windows", "linux"), List.of("rule1", "rule2"), List.of("high", "low"), List.of("dns"));
+
+        List<DocumentLevelTrigger> triggers = CompiledTriggers.documentLevelTriggers(List.of(trigger));
+        Assert.assertEquals(1, triggers.size());
+        Assert.assertEquals("trigger1", triggers.get(0).getId());
+        Assert.assertEquals("query[tag=trigger#trigger1#types] && query[tag=trigger#trigger1#ids] && " +
+                "query[tag=trigger#trigger1#sev] && query[tag=trigger#trigger1#tags]", triggers.get(0).getCondition().getIdOrCode());
+
+        CompiledTriggers compiled = CompiledTriggers.compile(List.of(trigger), List.of(rule1, rule2, rule3));
+        Assert.assertEquals(List.of(), compiled.firedTriggers(List.of("rule1", "rule2")));
+        Assert.assertEquals(List.of("trigger1"), compiled.firedTriggers(List.of("rule2", "rule3")));
+    }
+
+    private static DetectorTrigger trigger(String id, List<String> types, List<String> ids, List<String> severities, List<String> tags) {
+        return new DetectorTrigger(id, "trigger", "1", types, ids, severities, tags, List.of());
+    }
+
+    private static BitSet bits(int... ordinals) {
+        BitSet bits = new BitSet();
+        for (int ordinal: ordinals) {
+            bits.set(ordinal);
+        }
+        return bits;
+    }
+}
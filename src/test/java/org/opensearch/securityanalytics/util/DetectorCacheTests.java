@@ -0,0 +1,132 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.action.ActionListener;
+import org.opensearch.client.Client;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.commons.alerting.model.CronSchedule;
+import org.opensearch.rest.RestStatus;
+import org.opensearch.securityanalytics.action.GetDetectorAction;
+import org.opensearch.securityanalytics.action.GetDetectorRequest;
+import org.opensearch.securityanalytics.action.GetDetectorResponse;
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class DetectorCacheTests extends OpenSearchTestCase {
+
+    public void testDetectorIsLoadedOnce() {
+        Client client = mock(Client.class);
+        List<ActionListener<GetDetectorResponse>> gets = interceptGets(client);
+        DetectorCache cache = new DetectorCache(client, Settings.EMPTY);
+
+        AtomicReference<DetectorMetadata> loaded = new AtomicReference<>();
+        cache.getDetector("detector_id123", ActionListener.wrap(loaded::set, e -> fail()));
+        gets.get(0).onResponse(getDetectorResponse(1L));
+
+        Assert.assertEquals("detector_id123", loaded.get().getId());
+        Assert.assertEquals(List.of("monitor_id1", "monitor_id2"), loaded.get().getMonitorIds());
+        Assert.assertEquals(DetectorMonitorConfig.getFindingsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()), loaded.get().getFindingsIndex());
+        Assert.assertEquals(DetectorMonitorConfig.getAlertsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()), loaded.get().getAlertsIndex());
+
+        AtomicReference<DetectorMetadata> cached = new AtomicReference<>();
+        cache.getDetector("detector_id123", ActionListener.wrap(cached::set, e -> fail()));
+        Assert.assertSame(loaded.get(), cached.get());
+        Assert.assertEquals(1, gets.size());
+        Assert.assertEquals(1, cache.getCount());
+    }
+
+    public void testInvalidatedDetectorIsLoadedAgain() {
+        Client client = mock(Client.class);
+        List<ActionListener<GetDetectorResponse>> gets = interceptGets(client);
+        DetectorCache cache = new DetectorCache(client, Settings.EMPTY);
+
+        cache.getDetector("detector_id123", ActionListener.wrap(metadata -> {}, e -> fail()));
+        gets.get(0).onResponse(getDetectorResponse(1L));
+        cache.invalidate(List.of("detector_id123"));
+        Assert.assertEquals(0, cache.getCount());
+
+        AtomicReference<DetectorMetadata> reloaded = new AtomicReference<>();
+        cache.getDetector("detector_id123", ActionListener.wrap(reloaded::set, e -> fail()));
+        gets.get(1).onResponse(getDetectorResponse(2L));
+        Assert.assertEquals(2L, reloaded.get().getVersion());
+        Assert.assertEquals(1, cache.getCount());
+    }
+
+    public void testLoadRacingAnInvalidationIsNotCached() {
+        Client client = mock(Client.class);
+        List<ActionListener<GetDetectorResponse>> gets = interceptGets(client);
+        DetectorCache cache = new DetectorCache(client, Settings.EMPTY);
+
+        AtomicReference<DetectorMetadata> loaded = new AtomicReference<>();
+        cache.getDetector("detector_id123", ActionListener.wrap(loaded::set, e -> fail()));
+        // the detector is updated while the old version is being read
+        cache.invalidate(List.of("detector_id123"));
+        gets.get(0).onResponse(getDetectorResponse(1L));
+
+        Assert.assertEquals(1L, loaded.get().getVersion());
+        Assert.assertEquals(0, cache.getCount());
+    }
+
+    public void testFailedLoadIsNotCached() {
+        Client client = mock(Client.class);
+        List<ActionListener<GetDetectorResponse>> gets = interceptGets(client);
+        DetectorCache cache = new DetectorCache(client, Settings.EMPTY);
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        cache.getDetector("detector_id123", ActionListener.wrap(metadata -> fail(), failure::set));
+        gets.get(0).onFailure(new IllegalStateException("detector not found"));
+
+        Assert.assertNotNull(failure.get());
+        Assert.assertEquals(0, cache.getCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ActionListener<GetDetectorResponse>> interceptGets(Client client) {
+        List<ActionListener<GetDetectorResponse>> gets = new ArrayList<>();
+        doAnswer(invocation -> {
+            gets.add(invocation.getArgument(2));
+            return null;
+        }).when(client).execute(eq(GetDetectorAction.INSTANCE), any(GetDetectorRequest.class), any(ActionListener.class));
+        return gets;
+    }
+
+    private static GetDetectorResponse getDetectorResponse(long version) {
+        Detector detector = new Detector(
+                "detector_id123",
+                version,
+                "test-monitor",
+                true,
+                new CronSchedule("31 * * * *", ZoneId.of("Asia/Kolkata"), Instant.ofEpochSecond(1538164858L)),
+                Instant.now(),
+                Instant.now(),
+                Detector.DetectorType.OTHERS_APPLICATION,
+                null,
+                List.of(),
+                List.of(),
+                List.of("monitor_id1", "monitor_id2"),
+                DetectorMonitorConfig.getRuleIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
+                null,
+                DetectorMonitorConfig.getAlertsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType()),
+                null,
+                null,
+                DetectorMonitorConfig.getFindingsIndex(Detector.DetectorType.OTHERS_APPLICATION.getDetectorType())
+        );
+        return new GetDetectorResponse(detector.getId(), version, RestStatus.OK, detector);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.commons.alerting.model.IntervalSchedule;
+import org.opensearch.commons.alerting.model.Schedule;
+import org.opensearch.commons.authuser.User;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.DetectorInput;
+import org.opensearch.securityanalytics.model.DetectorRule;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.opensearch.securityanalytics.TestHelpers.randomUser;
+
+public class DetectorDiffTests extends OpenSearchTestCase {
+
+    private final User user = randomUser();
+
+    private final Instant enabledTime = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private final List<DetectorTrigger> triggers = List.of(new DetectorTrigger(null, "windows-trigger", "1", List.of("windows"), List.of(), List.of("high"), List.of(), List.of()));
+
+    public void testUnchangedDetectorNeedsNoMonitorUpdate() {
+        Schedule schedule = new IntervalSchedule(5, ChronoUnit.MINUTES, null);
+        DetectorDiff diff = new DetectorDiff(detector(List.of("rule-1", "rule-2"), List.of(), schedule, triggers),
+                detector(List.of("rule-2", "rule-1"), List.of(), schedule, triggers));
+
+        Assert.assertFalse(diff.requiresMonitorUpdate());
+    }
+
+    public void testRuleChangesAreDiffed() {
+        Schedule schedule = new IntervalSchedule(5, ChronoUnit.MINUTES, null);
+        DetectorDiff diff = new DetectorDiff(detector(List.of("rule-1", "rule-2"), List.of("custom-1"), schedule, triggers),
+                detector(List.of("rule-2", "rule-3"), List.of("custom-2"), schedule, triggers));
+
+        Assert.assertTrue(diff.requiresMonitorUpdate());
+        Assert.assertTrue(diff.rulesChanged());
+        Assert.assertFalse(diff.monitorsChanged());
+        Assert.assertEquals(Set.of("rule-3"), diff.getAddedPrePackagedRules());
+        Assert.assertEquals(Set.of("custom-2"), diff.getAddedCustomRules());
+        Assert.assertEquals(Set.of("rule-1", "custom-1"), diff.getRemovedRules());
+    }
+
+    public void testUpdatedRulesAreRemovedAndAddedAgain() {
+        Schedule schedule = new IntervalSchedule(5, ChronoUnit.MINUTES, null);
+        DetectorDiff diff = new DetectorDiff(detector(List.of("rule-1"), List.of("custom-1", "custom-2"), schedule, triggers),
+                detector(List.of("rule-1"), List.of("custom-1", "custom-2"), schedule, triggers), List.of("custom-1", "custom-3"));
+
+        Assert.assertTrue(diff.requiresMonitorUpdate());
+        Assert.assertTrue(diff.rulesChanged());
+        Assert.assertFalse(diff.monitorsChanged());
+        Assert.assertEquals(Set.of(), diff.getAddedPrePackagedRules());
+        Assert.assertEquals(Set.of("custom-1"), diff.getAddedCustomRules());
+        Assert.assertEquals(Set.of("custom-1"), diff.getRemovedRules());
+        Assert.assertEquals(Set.of("custom-1"), diff.getUpdatedRules());
+    }
+
+    public void testScheduleAndTriggerChangesUpdateAllMonitors() {
+        DetectorDiff scheduleDiff = new DetectorDiff(detector(List.of("rule-1"), List.of(), new IntervalSchedule(5, ChronoUnit.MINUTES, null), triggers),
+                detector(List.of("rule-1"), List.of(), new IntervalSchedule(1, ChronoUnit.MINUTES, null), triggers));
+        Assert.assertTrue(scheduleDiff.monitorsChanged());
+        Assert.assertFalse(scheduleDiff.rulesChanged());
+
+        Schedule schedule = new IntervalSchedule(5, ChronoUnit.MINUTES, null);
+        DetectorDiff triggerDiff = new DetectorDiff(detector(List.of("rule-1"), List.of(), schedule, triggers),
+                detector(List.of("rule-1"), List.of(), schedule, List.of()));
+        Assert.assertTrue(triggerDiff.monitorsChanged());
+        Assert.assertFalse(triggerDiff.detectorTypeChanged());
+    }
+
+    private Detector detector(List<String> prePackagedRules, List<String> customRules, Schedule schedule, List<DetectorTrigger> triggers) {
+        DetectorInput input = new DetectorInput("windows detector for security analytics", List.of("windows"),
+                customRules.stream().map(DetectorRule::new).collect(Collectors.toList()),
+                prePackagedRules.stream().map(DetectorRule::new).collect(Collectors.toList()));
+        return new Detector(null, null, "detector", true, schedule, Instant.now(), enabledTime, Detector.DetectorType.WINDOWS, user,
+                List.of(input), triggers, List.of("monitor-1"), "", "", "", "", "", "");
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class DocLevelQueryShardsTests extends OpenSearchTestCase {
+
+    public void testSingleShardWithoutLimit() {
+        List<DocLevelQuery> queries = queries(10);
+        Assert.assertEquals(List.of(queries), DocLevelQueryShards.split(queries, 0));
+        Assert.assertEquals(List.of(queries), DocLevelQueryShards.split(queries, 10));
+    }
+
+    public void testShardsRespectLimitAndKeepEveryQuery() {
+        List<DocLevelQuery> queries = queries(25);
+        List<List<DocLevelQuery>> shards = DocLevelQueryShards.split(queries, 10);
+
+        Assert.assertEquals(3, shards.size());
+        Set<String> ids = new HashSet<>();
+        for (List<DocLevelQuery> shard: shards) {
+            Assert.assertTrue(shard.size() <= 10);
+            for (int i = 1; i < shard.size(); ++i) {
+                Assert.assertTrue(Integer.parseInt(shard.get(i - 1).getId()) < Integer.parseInt(shard.get(i).getId()));
+            }
+            shard.forEach(query -> ids.add(query.getId()));
+        }
+        Assert.assertEquals(25, ids.size());
+        Assert.assertEquals(shards, DocLevelQueryShards.split(queries, 10));
+    }
+
+    public void testExpensiveQueriesAreSpread() {
+        List<DocLevelQuery> queries = new ArrayList<>();
+        queries.add(new DocLevelQuery("0", "0", "CommandLine: *mimikatz* OR CommandLine: *sekurlsa*", List.of()));
+        queries.add(new DocLevelQuery("1", "1", "CommandLine: *procdump* OR CommandLine: *lsass*", List.of()));
+        queries.add(new DocLevelQuery("2", "2", "EventID: 4624", List.of()));
+        queries.add(new DocLevelQuery("3", "3", "EventID: 4625", List.of()));
+        List<List<DocLevelQuery>> shards = DocLevelQueryShards.split(queries, 2);
+
+        Assert.assertEquals(2, shards.size());
+        Assert.assertEquals(List.of("0", "2"), List.of(shards.get(0).get(0).getId(), shards.get(0).get(1).getId()));
+        Assert.assertEquals(List.of("1", "3"), List.of(shards.get(1).get(0).getId(), shards.get(1).get(1).getId()));
+    }
+
+    public void testUpdateKeepsQueriesInPlace() {
+        List<List<DocLevelQuery>> shards = DocLevelQueryShards.split(queries(6), 3);
+        List<DocLevelQuery> added = List.of(new DocLevelQuery("6", "6", "EventID: 6", List.of()), new DocLevelQuery("7", "7", "EventID: 7", List.of()));
+        List<List<DocLevelQuery>> updated = DocLevelQueryShards.update(shards, Set.of(shards.get(0).get(0).getId()), added, 3);
+
+        Assert.assertEquals(3, updated.size());
+        Assert.assertEquals(shards.get(0).subList(1, 3), updated.get(0).subList(0, 2));
+        Assert.assertEquals(List.of("6"), List.of(updated.get(0).get(2).getId()));
+        Assert.assertEquals(shards.get(1), updated.get(1));
+        Assert.assertEquals(List.of("7"), List.of(updated.get(2).get(0).getId()));
+
+        List<List<DocLevelQuery>> emptied = DocLevelQueryShards.update(shards, Set.of("0", "1", "2", "3", "4", "5"), List.of(), 3);
+        Assert.assertEquals(2, emptied.size());
+        Assert.assertTrue(emptied.get(0).isEmpty() && emptied.get(1).isEmpty());
+    }
+
+    public void testEstimateCost() {
+        Assert.assertEquals(2, DocLevelQueryShards.estimateCost("EventID: 4624"));
+        Assert.assertEquals(3, DocLevelQueryShards.estimateCost("Image: cmd*"));
+        Assert.assertEquals(9, DocLevelQueryShards.estimateCost("Image: *\\\\cmd.exe"));
+        Assert.assertEquals(17, DocLevelQueryShards.estimateCost("CommandLine: /.*enc.*/"));
+        Assert.assertEquals(3, DocLevelQueryShards.estimateCost("(fieldA: \"value*\") AND (fieldB: \"valueB\")"));
+    }
+
+    private List<DocLevelQuery> queries(int count) {
+        List<DocLevelQuery> queries = new ArrayList<>();
+        for (int i = 0; i < count; ++i) {
+            queries.add(new DocLevelQuery(String.valueOf(i), String.valueOf(i), "EventID: " + i, List.of()));
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.securityanalytics.settings.SecurityAnalyticsSettings;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Instant;
+import java.util.List;
+
+public class RuleCacheTests extends OpenSearchTestCase {
+
+    public void testKeyedByIndexIdAndVersion() {
+        RuleCache cache = new RuleCache(null, null, null, Settings.EMPTY);
+        Rule rule = rule("rule-1", 1L);
+        cache.put("index-uuid", "rule-1", 1L, rule);
+
+        Assert.assertSame(rule, cache.get("index-uuid", "rule-1", 1L));
+        Assert.assertNull(cache.get("index-uuid", "rule-1", 2L));
+        Assert.assertNull(cache.get("other-index-uuid", "rule-1", 1L));
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(2, cache.getMisses());
+    }
+
+    public void testInvalidateRemovesEveryVersion() {
+        RuleCache cache = new RuleCache(null, null, null, Settings.EMPTY);
+        cache.put("index-uuid", "rule-1", 1L, rule("rule-1", 1L));
+        cache.put("index-uuid", "rule-1", 2L, rule("rule-1", 2L));
+        cache.put("index-uuid", "rule-2", 1L, rule("rule-2", 1L));
+
+        cache.invalidate(List.of("rule-1"));
+        Assert.assertEquals(1, cache.getCount());
+        Assert.assertNotNull(cache.get("index-uuid", "rule-2", 1L));
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.getCount());
+    }
+
+    public void testBoundedByMaxEntries() {
+        RuleCache cache = new RuleCache(null, null, null, Settings.builder().put(SecurityAnalyticsSettings.RULE_CACHE_MAX_ENTRIES.getKey(), 2).build());
+        for (int i = 0; i < 3; ++i) {
+            cache.put("index-uuid", "rule-" + i, 1L, rule("rule-" + i, 1L));
+        }
+
+        Assert.assertEquals(2, cache.getCount());
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertNull(cache.get("index-uuid", "rule-0", 1L));
+    }
+
+    private Rule rule(String id, Long version) {
+        return new Rule(id, version, "title", "windows", "application", "description", List.of(new Value("reference")),
+                List.of(new Value("attack.defense_evasion")), "high", List.of(new Value("none")), "author", "experimental",
+                Instant.ofEpochMilli(1640995200000L), List.of(new Value("EventID: 1")), "title: " + id);
+    }
+}
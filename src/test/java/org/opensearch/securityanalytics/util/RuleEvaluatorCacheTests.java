@@ -0,0 +1,84 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.commons.alerting.model.CronSchedule;
+import org.opensearch.securityanalytics.config.monitors.DetectorMonitorConfig;
+import org.opensearch.securityanalytics.model.Detector;
+import org.opensearch.securityanalytics.model.Rule;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.securityanalytics.rules.objects.SigmaRule;
+import org.opensearch.securityanalytics.util.RuleEvaluatorCache.CompiledDetector;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.opensearch.securityanalytics.TestHelpers.randomRule;
+
+public class RuleEvaluatorCacheTests extends OpenSearchTestCase {
+
+    public void testCompiledRulesAreCachedForTheDetectorVersion() throws IOException, SigmaError {
+        RuleEvaluatorCache cache = new RuleEvaluatorCache(Settings.EMPTY);
+        CompiledDetector compiled = CompiledDetector.compile(detector(1L), List.of(rule()));
+        Assert.assertEquals(1, compiled.getEvaluator().size());
+
+        cache.put(compiled, cache.generation());
+        Assert.assertSame(compiled, cache.get(detector(1L)));
+        // an update of the detector, or of one of its rules, bumps its version
+        Assert.assertNull(cache.get(detector(2L)));
+    }
+
+    public void testInvalidatedDetectorIsCompiledAgain() throws IOException, SigmaError {
+        RuleEvaluatorCache cache = new RuleEvaluatorCache(Settings.EMPTY);
+        cache.put(CompiledDetector.compile(detector(1L), List.of(rule())), cache.generation());
+
+        cache.invalidate(List.of("detector_id123"));
+        Assert.assertNull(cache.get(detector(1L)));
+        Assert.assertEquals(0, cache.getCount());
+    }
+
+    public void testCompilationRacingAnInvalidationIsNotCached() throws IOException, SigmaError {
+        RuleEvaluatorCache cache = new RuleEvaluatorCache(Settings.EMPTY);
+        long loadGeneration = cache.generation();
+        // the detector is updated while its rules are being loaded
+        cache.invalidate(List.of("detector_id123"));
+        cache.put(CompiledDetector.compile(detector(1L), List.of(rule())), loadGeneration);
+
+        Assert.assertNull(cache.get(detector(1L)));
+        Assert.assertEquals(0, cache.getCount());
+    }
+
+    private static Rule rule() throws SigmaError {
+        return new Rule("rule_id1", 1L, SigmaRule.fromYaml(randomRule(), false), "windows", List.of(), randomRule());
+    }
+
+    private static Detector detector(long version) {
+        return new Detector(
+                "detector_id123",
+                version,
+                "test-monitor",
+                true,
+                new CronSchedule("31 * * * *", ZoneId.of("Asia/Kolkata"), Instant.ofEpochSecond(1538164858L)),
+                Instant.now(),
+                Instant.now(),
+                Detector.DetectorType.WINDOWS,
+                null,
+                List.of(),
+                List.of(),
+                List.of("monitor_id1"),
+                DetectorMonitorConfig.getRuleIndex(Detector.DetectorType.WINDOWS.getDetectorType()),
+                null,
+                DetectorMonitorConfig.getAlertsIndex(Detector.DetectorType.WINDOWS.getDetectorType()),
+                null,
+                null,
+                DetectorMonitorConfig.getFindingsIndex(Detector.DetectorType.WINDOWS.getDetectorType())
+        );
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.securityanalytics.model.Value;
+import org.opensearch.securityanalytics.rules.exceptions.SigmaError;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+public class RuleIndicesTests extends OpenSearchTestCase {
+
+    private static final Pattern VALUE_FIELD = Pattern.compile("(_\\w+): ");
+
+    public void testRulesConvertTheSameInEveryChunk() throws IOException, SigmaError {
+        List<String> rules = List.of(
+                rule("39f919f3-980b-4e6f-a975-8af7e507ef2b"),
+                rule("5f92fff9-82e2-48eb-8fc1-8b133556a551"),
+                rule("0b25aee5-3d02-4e9c-8d5e-a9d5c8f3f4e1")
+        );
+
+        RuleIndices.RuleConversionChunk single = new RuleIndices.RuleConversionChunk("windows");
+        for (int i = 0; i < rules.size(); ++i) {
+            single.add(i, "hash" + i, rules.get(i));
+        }
+        List<List<String>> singleQueries = queries(single.convert());
+
+        // the rules split over two chunks, each converted with its own backend
+        RuleIndices.RuleConversionChunk first = new RuleIndices.RuleConversionChunk("windows");
+        first.add(0, "hash0", rules.get(0));
+        first.add(1, "hash1", rules.get(1));
+        RuleIndices.RuleConversionChunk second = new RuleIndices.RuleConversionChunk("windows");
+        second.add(2, "hash2", rules.get(2));
+        List<List<String>> chunkedQueries = new ArrayList<>(queries(first.convert()));
+        chunkedQueries.addAll(queries(second.convert()));
+
+        Assert.assertEquals(singleQueries, chunkedQueries);
+
+        // the unbound values of different rules never share a field
+        Set<String> valueFields = new HashSet<>();
+        int count = 0;
+        for (List<String> queries: chunkedQueries) {
+            Matcher matcher = VALUE_FIELD.matcher(queries.get(0));
+            while (matcher.find()) {
+                valueFields.add(matcher.group(1));
+                ++count;
+            }
+        }
+        Assert.assertEquals(6, count);
+        Assert.assertEquals(count, valueFields.size());
+    }
+
+    private static List<List<String>> queries(RuleIndices.RuleConversionChunk chunk) {
+        return chunk.getCompiledRules().stream()
+                .map(compiledRule -> compiledRule.getRule().getQueries().stream().map(Value::getValue).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static String rule(String id) {
+        return String.format(Locale.ROOT, "title: Test\n" +
+                "id: %s\n" +
+                "status: test\n" +
+                "level: critical\n" +
+                "description: Detects QuarksPwDump clearing access history in hive\n" +
+                "author: Florian Roth\n" +
+                "date: 2017/05/15\n" +
+                "logsource:\n" +
+                "    category: test_category\n" +
+                "    product: test_product\n" +
+                "detection:\n" +
+                "    sel:\n" +
+                "        - value1\n" +
+                "        - value2\n" +
+                "    condition: sel", id);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.commons.alerting.model.Table;
+import org.opensearch.search.builder.SearchSourceBuilder;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Instant;
+import java.util.List;
+
+public class SearchCursorTests extends OpenSearchTestCase {
+
+    private static final List<String> MONITOR_IDS = List.of("monitor1", "monitor2");
+
+    public void testCursorResumesTheNextPage() {
+        Table table = new Table("asc", "id", null, 20, 0, "");
+
+        String cursor = SearchCursor.next(MONITOR_IDS, table, 20, 50);
+        Table page = SearchCursor.resume(cursor, MONITOR_IDS, table);
+        Assert.assertEquals(20, page.getStartIndex());
+        Assert.assertEquals(20, page.getSize());
+        Assert.assertEquals("id", page.getSortString());
+
+        cursor = SearchCursor.next(MONITOR_IDS, page, 20, 50);
+        Assert.assertEquals(40, SearchCursor.resume(cursor, MONITOR_IDS, table).getStartIndex());
+    }
+
+    public void testNoCursorAfterTheLastPage() {
+        Assert.assertNull(SearchCursor.next(MONITOR_IDS, new Table("asc", "id", null, 20, 40, ""), 10, 50));
+        Assert.assertNull(SearchCursor.next(MONITOR_IDS, new Table("asc", "id", null, 20, 0, ""), 0, 0));
+    }
+
+    public void testWithoutCursorTheTableIsUnchanged() {
+        Table table = new Table("asc", "id", null, 20, 5, "");
+        Assert.assertSame(table, SearchCursor.resume(null, MONITOR_IDS, table));
+    }
+
+    public void testCursorOfAnotherSearchIsRejected() {
+        Table table = new Table("asc", "id", null, 20, 0, "");
+        String cursor = SearchCursor.next(MONITOR_IDS, table, 20, 50);
+
+        expectThrows(IllegalArgumentException.class, () -> SearchCursor.resume(cursor, List.of("monitor1"), table));
+        expectThrows(IllegalArgumentException.class, () -> SearchCursor.resume(cursor, MONITOR_IDS, new Table("desc", "id", null, 20, 0, "")));
+        expectThrows(IllegalArgumentException.class, () -> SearchCursor.resume("not a cursor", MONITOR_IDS, table));
+    }
+
+    public void testSearchAfterCursorResumesAfterTheLastHit() {
+        Table table = new Table("desc", "timestamp", null, 20, 0, "");
+        Instant startTime = Instant.ofEpochMilli(1000L);
+        String fingerprint = SearchCursor.fingerprint(MONITOR_IDS, table, startTime, null);
+
+        String cursor = SearchCursor.next(fingerprint, table, 20, 50, new Object[]{1500L, "finding20"});
+        SearchCursor resumed = SearchCursor.resume(cursor, fingerprint);
+        Assert.assertTrue(resumed.isSearchAfter());
+        Assert.assertEquals(20, resumed.getOffset());
+
+        SearchSourceBuilder source = SearchCursor.page(new SearchSourceBuilder(), table, resumed, "id");
+        Assert.assertArrayEquals(new Object[]{1500L, "finding20"}, source.searchAfter());
+        Assert.assertEquals(-1, source.from());
+        Assert.assertEquals(20, source.size());
+        Assert.assertEquals(2, source.sorts().size());
+
+        // the time range is part of the search
+        expectThrows(IllegalArgumentException.class, () -> SearchCursor.resume(cursor, SearchCursor.fingerprint(MONITOR_IDS, table)));
+    }
+
+    public void testFirstPageStartsAtTheStartIndex() {
+        Table table = new Table("asc", "id", null, 20, 5, "");
+
+        SearchSourceBuilder source = SearchCursor.page(new SearchSourceBuilder(), table, null, "id");
+        Assert.assertNull(source.searchAfter());
+        Assert.assertEquals(5, source.from());
+        Assert.assertEquals(1, source.sorts().size());
+    }
+}
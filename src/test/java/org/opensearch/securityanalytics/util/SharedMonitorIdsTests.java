@@ -0,0 +1,41 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.action.get.GetResponse;
+import org.opensearch.action.get.MultiGetItemResponse;
+import org.opensearch.action.get.MultiGetResponse;
+import org.opensearch.common.bytes.BytesArray;
+import org.opensearch.commons.alerting.model.ScheduledJob;
+import org.opensearch.index.get.GetResult;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public class SharedMonitorIdsTests extends OpenSearchTestCase {
+
+    public void testSharedMonitorsAreResolvedByName() {
+        MultiGetResponse response = new MultiGetResponse(new MultiGetItemResponse[]{
+                monitor("shared_monitor_id", SharedMonitors.monitorName("windows", "logs")),
+                monitor("monitor_id", "my detector"),
+                new MultiGetItemResponse(new GetResponse(new GetResult(ScheduledJob.SCHEDULED_JOBS_INDEX, "deleted_monitor_id",
+                        -2, 0, -1, false, null, Map.of(), Map.of())), null),
+                // a monitor which cannot be read is scoped, to be safe
+                new MultiGetItemResponse(null, new MultiGetResponse.Failure(ScheduledJob.SCHEDULED_JOBS_INDEX, "failed_monitor_id",
+                        new IllegalStateException()))
+        });
+
+        Assert.assertEquals(Set.of("shared_monitor_id", "failed_monitor_id"), SharedMonitorIds.sharedMonitorIds(response));
+    }
+
+    private static MultiGetItemResponse monitor(String monitorId, String monitorName) {
+        BytesArray source = new BytesArray(String.format(Locale.ROOT, "{\"monitor\":{\"name\":\"%s\"}}", monitorName));
+        return new MultiGetItemResponse(new GetResponse(new GetResult(ScheduledJob.SCHEDULED_JOBS_INDEX, monitorId,
+                0, 1, 1, true, source, Map.of(), Map.of())), null);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.commons.alerting.model.DocLevelQuery;
+import org.opensearch.commons.alerting.model.DocumentLevelTrigger;
+import org.opensearch.securityanalytics.model.DetectorTrigger;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+public class SharedMonitorsTests extends OpenSearchTestCase {
+
+    public void testMonitorName() {
+        String monitorName = SharedMonitors.monitorName("windows", "winlog-1");
+        Assert.assertTrue(SharedMonitors.isSharedMonitor(monitorName));
+        Assert.assertFalse(SharedMonitors.isSharedMonitor("my detector"));
+        Assert.assertFalse(SharedMonitors.isSharedMonitor(null));
+    }
+
+    public void testScopedValues() {
+        String scoped = SharedMonitors.scope("detector1", "rule1");
+        Assert.assertEquals("detector1", SharedMonitors.detectorId(scoped));
+        Assert.assertEquals("rule1", SharedMonitors.unscope(scoped));
+        Assert.assertNull(SharedMonitors.detectorId("rule1"));
+    }
+
+    public void testQueriesAreSplitBackByDetector() {
+        DocLevelQuery rule1 = new DocLevelQuery("rule1", "rule1", "EventID: 4624", List.of("high", "windows", "attack.t1078"));
+        DocLevelQuery rule2 = new DocLevelQuery("rule2", "rule2", "EventID: 4625", List.of("low", "windows"));
+
+        List<DocLevelQuery> matched = new ArrayList<>();
+        matched.add(SharedMonitors.scopeQuery("detector1", rule1));
+        matched.add(SharedMonitors.scopeQuery("detector2", rule1));
+        matched.add(SharedMonitors.scopeQuery("detector2", rule2));
+
+        Assert.assertEquals(Set.of("detector1", "detector2"), SharedMonitors.detectorIds(matched));
+        Assert.assertEquals(List.of(rule1), SharedMonitors.queriesOf("detector1", matched));
+        Assert.assertEquals(List.of(rule1, rule2), SharedMonitors.queriesOf("detector2", matched));
+        Assert.assertEquals(List.of(), SharedMonitors.queriesOf("detector3", matched));
+    }
+
+    public void testScopedQueriesAreDistinctPerDetector() {
+        DocLevelQuery rule = new DocLevelQuery("rule1", "rule1", "EventID: 4624", List.of("high"));
+        DocLevelQuery detector1Query = SharedMonitors.scopeQuery("detector1", rule);
+        DocLevelQuery detector2Query = SharedMonitors.scopeQuery("detector2", rule);
+
+        Assert.assertNotEquals(detector1Query.getId(), detector2Query.getId());
+        Assert.assertEquals(rule.getQuery(), detector1Query.getQuery());
+        Assert.assertTrue(detector1Query.getTags().contains(SharedMonitors.detectorTag("detector1")));
+        Assert.assertFalse(detector1Query.getTags().contains("high"));
+    }
+
+    public void testTriggerConditionOnlyRefersToDetectorQueries() {
+        DetectorTrigger trigger = new DetectorTrigger("trigger1", "trigger", "1", List.of("windows"), List.of(), List.of("high"), List.of(), List.of());
+        DocumentLevelTrigger scopedTrigger = SharedMonitors.scopeTrigger("detector1", trigger);
+
+        Assert.assertEquals("detector1", SharedMonitors.detectorId(scopedTrigger.getId()));
+        Assert.assertEquals("query[tag=detector1#trigger#trigger1#types] && query[tag=detector1#trigger#trigger1#sev]", scopedTrigger.getCondition().getIdOrCode());
+    }
+
+    public void testTriggerTagsAreNotSplitBackIntoQueries() {
+        DocLevelQuery rule = new DocLevelQuery("rule1", "rule1", "EventID: 4624", List.of("high", "windows"));
+        DetectorTrigger trigger = new DetectorTrigger("trigger1", "trigger", "1", List.of("windows"), List.of(), List.of(), List.of(), List.of());
+        DocLevelQuery tagged = CompiledTriggers.compile(List.of(trigger), List.of(rule)).tagQueries().get(0);
+
+        Assert.assertTrue(SharedMonitors.scopeQuery("detector1", tagged).getTags().contains("detector1#trigger#trigger1#types"));
+        Assert.assertEquals(List.of(rule), SharedMonitors.queriesOf("detector1", List.of(SharedMonitors.scopeQuery("detector1", tagged))));
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.action.ActionListener;
+import org.opensearch.action.DocWriteRequest;
+import org.opensearch.action.bulk.BulkItemResponse;
+import org.opensearch.action.bulk.BulkRequest;
+import org.opensearch.action.bulk.BulkResponse;
+import org.opensearch.action.index.IndexRequest;
+import org.opensearch.action.index.IndexResponse;
+import org.opensearch.action.support.WriteRequest;
+import org.opensearch.client.Client;
+import org.opensearch.common.unit.ByteSizeUnit;
+import org.opensearch.common.unit.ByteSizeValue;
+import org.opensearch.common.unit.TimeValue;
+import org.opensearch.common.util.concurrent.OpenSearchRejectedExecutionException;
+import org.opensearch.index.shard.ShardId;
+import org.opensearch.test.OpenSearchTestCase;
+import org.opensearch.threadpool.ThreadPool;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class StreamingBulkLoaderTests extends OpenSearchTestCase {
+
+    public void testDocumentsAreSplitIntoChunks() {
+        Client client = mock(Client.class);
+        List<Integer> chunkSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            chunkSizes.add(request.numberOfActions());
+            ActionListener<BulkResponse> l = invocation.getArgument(1);
+            l.onResponse(respond(request, Set.of()));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any(ActionListener.class));
+
+        BulkResponse response = load(client, mock(ThreadPool.class), 25, 10, 0);
+
+        Assert.assertEquals(List.of(10, 10, 5), chunkSizes);
+        Assert.assertEquals(25, response.getItems().length);
+        Assert.assertFalse(response.hasFailures());
+    }
+
+    public void testOnlyFailedItemsAreRetried() {
+        Client client = mock(Client.class);
+        ThreadPool threadPool = mock(ThreadPool.class);
+        doAnswer(invocation -> {
+            Runnable runnable = invocation.getArgument(0);
+            runnable.run();
+            return null;
+        }).when(threadPool).schedule(any(Runnable.class), any(TimeValue.class), any(String.class));
+
+        Set<String> rejectedOnce = new HashSet<>(Set.of("3", "7"));
+        List<Integer> chunkSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            chunkSizes.add(request.numberOfActions());
+            Set<String> rejected = request.requests().stream().map(DocWriteRequest::id).filter(rejectedOnce::remove).collect(Collectors.toSet());
+            ActionListener<BulkResponse> l = invocation.getArgument(1);
+            l.onResponse(respond(request, rejected));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any(ActionListener.class));
+
+        BulkResponse response = load(client, threadPool, 10, 100, 1);
+
+        Assert.assertEquals(List.of(10, 2), chunkSizes);
+        Assert.assertEquals(10, response.getItems().length);
+        Assert.assertFalse(response.hasFailures());
+    }
+
+    public void testFailuresAreReportedOnceRetriesAreExhausted() {
+        Client client = mock(Client.class);
+        doAnswer(invocation -> {
+            BulkRequest request = invocation.getArgument(0);
+            ActionListener<BulkResponse> l = invocation.getArgument(1);
+            l.onResponse(respond(request, Set.of("1")));
+            return null;
+        }).when(client).bulk(any(BulkRequest.class), any(ActionListener.class));
+
+        BulkResponse response = load(client, mock(ThreadPool.class), 5, 100, 0);
+
+        Assert.assertEquals(5, response.getItems().length);
+        Assert.assertTrue(response.hasFailures());
+    }
+
+    private BulkResponse load(Client client, ThreadPool threadPool, int docs, int maxDocs, int maxRetries) {
+        AtomicReference<BulkResponse> response = new AtomicReference<>();
+        new StreamingBulkLoader<Integer>(client, threadPool, "rules", IntStream.range(0, docs).boxed().iterator(),
+                id -> new IndexRequest("rules").id(String.valueOf(id)).source(Map.of("id", id)),
+                maxDocs, new ByteSizeValue(1, ByteSizeUnit.MB), 1, maxRetries, TimeValue.timeValueSeconds(60),
+                WriteRequest.RefreshPolicy.NONE, ActionListener.wrap(response::set, e -> fail(e.getMessage()))).start();
+        Assert.assertNotNull(response.get());
+        return response.get();
+    }
+
+    private BulkResponse respond(BulkRequest request, Set<String> rejected) {
+        BulkItemResponse[] items = new BulkItemResponse[request.numberOfActions()];
+        for (int i = 0; i < items.length; ++i) {
+            String id = request.requests().get(i).id();
+            items[i] = rejected.contains(id)?
+                    new BulkItemResponse(i, DocWriteRequest.OpType.INDEX, new BulkItemResponse.Failure("rules", id, new OpenSearchRejectedExecutionException("rejected"))):
+                    new BulkItemResponse(i, DocWriteRequest.OpType.INDEX, new IndexResponse(new ShardId("rules", "_na_", 0), id, 1, 1, 1, true));
+        }
+        return new BulkResponse(items, 1);
+    }
+}
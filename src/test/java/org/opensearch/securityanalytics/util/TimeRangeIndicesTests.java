@@ -0,0 +1,56 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.opensearch.securityanalytics.util;
+
+import org.junit.Assert;
+import org.opensearch.test.OpenSearchTestCase;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public class TimeRangeIndicesTests extends OpenSearchTestCase {
+
+    private static final Instant DAY1 = Instant.parse("2022-11-01T00:00:00Z");
+
+    private static final Map<String, Long> GENERATIONS = Map.of(
+            ".opensearch-sap-findings-windows-2022.11.01-1", DAY1.toEpochMilli(),
+            ".opensearch-sap-findings-windows-2022.11.02-000002", DAY1.plus(Duration.ofDays(1)).toEpochMilli(),
+            ".opensearch-sap-findings-windows-2022.11.03-000003", DAY1.plus(Duration.ofDays(2)).toEpochMilli()
+    );
+
+    public void testOnlyTheLastGenerationHoldsTheLastHour() {
+        Instant now = DAY1.plus(Duration.ofDays(2)).plus(Duration.ofHours(12));
+        Assert.assertEquals(
+                List.of(".opensearch-sap-findings-windows-2022.11.03-000003"),
+                TimeRangeIndices.overlapping(GENERATIONS, now.minus(Duration.ofHours(1)), now)
+        );
+    }
+
+    public void testGenerationsOverlappingTheRange() {
+        Assert.assertEquals(
+                List.of(".opensearch-sap-findings-windows-2022.11.01-1", ".opensearch-sap-findings-windows-2022.11.02-000002"),
+                TimeRangeIndices.overlapping(GENERATIONS, DAY1.plus(Duration.ofHours(12)), DAY1.plus(Duration.ofHours(36)))
+        );
+        Assert.assertEquals(
+                List.of(".opensearch-sap-findings-windows-2022.11.02-000002", ".opensearch-sap-findings-windows-2022.11.03-000003"),
+                TimeRangeIndices.overlapping(GENERATIONS, DAY1.plus(Duration.ofHours(36)), null)
+        );
+    }
+
+    public void testGenerationCreatedJustAfterTheRangeIsKept() {
+        // findings of the end of the range may be written after the rollover
+        Instant end = DAY1.plus(Duration.ofDays(2)).minus(Duration.ofMinutes(1));
+        Assert.assertEquals(
+                List.of(".opensearch-sap-findings-windows-2022.11.02-000002", ".opensearch-sap-findings-windows-2022.11.03-000003"),
+                TimeRangeIndices.overlapping(GENERATIONS, end.minus(Duration.ofHours(1)), end)
+        );
+    }
+
+    public void testRangeBeforeAllGenerations() {
+        Assert.assertEquals(List.of(), TimeRangeIndices.overlapping(GENERATIONS, null, DAY1.minus(Duration.ofDays(1))));
+    }
+}